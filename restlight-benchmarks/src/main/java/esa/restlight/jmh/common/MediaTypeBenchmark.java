@@ -15,11 +15,30 @@
  */
 package esa.restlight.jmh.common;
 
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.core.method.HandlerMethod;
+import esa.restlight.core.method.InvocableMethod;
+import esa.restlight.core.resolver.ReturnValueResolver;
+import esa.restlight.core.resolver.result.AbstractResponseBodyReturnValueResolver;
+import esa.restlight.core.serialize.HttpResponseSerializer;
+import esa.restlight.core.serialize.JacksonHttpBodySerializer;
+import esa.restlight.core.serialize.ProtoBufHttpBodySerializer;
 import esa.restlight.core.util.MediaType;
+import esa.restlight.server.route.predicate.ProducesPredicate;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Measures parsing a media type and the full content negotiation path: parsing the {@code Accept}, matching the
+ * {@link ProducesPredicate} and selecting a serializer for the return value.
+ */
 @BenchmarkMode({Mode.Throughput})
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
 @Warmup(iterations = 5)
@@ -29,6 +48,29 @@ import java.util.concurrent.TimeUnit;
 @State(Scope.Benchmark)
 public class MediaTypeBenchmark {
 
+    @Param({"application/json",
+            "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"})
+    private String accept = "application/json";
+
+    private ProducesPredicate produces;
+    private ReturnValueResolver resolver;
+    private Pojo pojo;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        produces = ProducesPredicate.parseFrom(new String[]{MediaType.APPLICATION_JSON_VALUE});
+        final InvocableMethod method = HandlerMethod.of(MediaTypeBenchmark.class.getMethod("handle"), this);
+        final List<HttpResponseSerializer> serializers = Arrays.asList(new ProtoBufHttpBodySerializer(),
+                new JacksonHttpBodySerializer());
+        resolver = new AbstractResponseBodyReturnValueResolver(false, null) {
+            @Override
+            public boolean supports(InvocableMethod invocableMethod) {
+                return true;
+            }
+        }.createResolver(method, serializers);
+        pojo = handle();
+    }
+
     @Benchmark
     public MediaType parseDirectly() {
         return MediaType.parseMediaType("application/json;charset=utf-8");
@@ -39,4 +81,52 @@ public class MediaTypeBenchmark {
         return MediaType.valueOf("application/json;charset=utf-8");
     }
 
+    @Benchmark
+    public List<MediaType> parseAcceptDirectly() {
+        return MediaType.parseMediaTypes(accept);
+    }
+
+    @Benchmark
+    public List<MediaType> parseAcceptWithCache() {
+        return MediaType.cachedValuesOf(accept);
+    }
+
+    @Benchmark
+    public void negotiate(Blackhole bh) throws Exception {
+        final AsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withUri("/foo")
+                .withHeader(HttpHeaderNames.ACCEPT.toString(), accept)
+                .build();
+        bh.consume(produces.test(request));
+        bh.consume(resolver.resolve(pojo, request, MockAsyncResponse.aMockResponse().build()));
+    }
+
+    public Pojo handle() {
+        final Pojo pojo = new Pojo();
+        pojo.setId(1L);
+        pojo.setName("restlight");
+        return pojo;
+    }
+
+    public static class Pojo {
+
+        private long id;
+        private String name;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
 }
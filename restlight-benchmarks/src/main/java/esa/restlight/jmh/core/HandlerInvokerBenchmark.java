@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.core;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.handler.HandlerInvoker;
+import esa.restlight.core.handler.impl.HandlerInvokerImpl;
+import esa.restlight.core.method.HandlerMethod;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares invoking the handler by {@link java.lang.invoke.MethodHandle} with invoking by reflection.
+ */
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(Threads.MAX)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerInvokerBenchmark {
+
+    @Param({"0", "3", "8"})
+    private int args = 3;
+
+    private HandlerInvoker methodHandle;
+    private HandlerInvoker reflection;
+    private Object[] arguments;
+    private AsyncRequest request;
+    private AsyncResponse response;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        final Method method;
+        switch (args) {
+            case 0:
+                method = Controller.class.getMethod("noArg");
+                arguments = new Object[0];
+                break;
+            case 3:
+                method = Controller.class.getMethod("threeArgs", String.class, int.class, long.class);
+                arguments = new Object[]{"foo", 1, 2L};
+                break;
+            default:
+                method = Controller.class.getMethod("eightArgs", String.class, int.class, long.class,
+                        boolean.class, String.class, int.class, long.class, Object.class);
+                arguments = new Object[]{"foo", 1, 2L, true, "bar", 3, 4L, new Object()};
+                break;
+        }
+        final HandlerMethod handler = HandlerMethod.of(method, new Controller());
+        methodHandle = new HandlerInvokerImpl(handler, true);
+        reflection = new HandlerInvokerImpl(handler, false);
+        request = MockAsyncRequest.aMockRequest().build();
+        response = MockAsyncResponse.aMockResponse().build();
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Throwable {
+        return methodHandle.invoke(request, response, arguments);
+    }
+
+    @Benchmark
+    public Object reflection() throws Throwable {
+        return reflection.invoke(request, response, arguments);
+    }
+
+    public static class Controller {
+
+        public String noArg() {
+            return "foo";
+        }
+
+        public int threeArgs(String a, int b, long c) {
+            return a.length() + b + (int) c;
+        }
+
+        public int eightArgs(String a, int b, long c, boolean d, String e, int f, long g, Object h) {
+            return d ? a.length() + b + (int) c + e.length() + f + (int) g + h.hashCode() : 0;
+        }
+    }
+}
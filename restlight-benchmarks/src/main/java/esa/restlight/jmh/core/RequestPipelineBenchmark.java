@@ -0,0 +1,296 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.core;
+
+import esa.commons.StringUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.AbstractRestlight;
+import esa.restlight.core.Deployments;
+import esa.restlight.core.annotation.QueryBean;
+import esa.restlight.core.annotation.Scheduled;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.core.config.RestlightOptionsConfigure;
+import esa.restlight.core.interceptor.HandlerInterceptor;
+import esa.restlight.core.util.OrderedComparator;
+import esa.restlight.server.bootstrap.RestlightServer;
+import esa.restlight.server.handler.Filter;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.handler.FilteredHandler;
+import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.schedule.Schedulers;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of the request pipeline which drives a {@link MockAsyncRequest} through filters, routing,
+ * interceptors, argument resolving, handler invoking and response serialization without any network I/O.
+ * <p>
+ * Handlers are scheduled by {@link Schedulers#IO} so that the whole pipeline runs in the benchmark thread, and the
+ * {@link #baseline()} measures the cost of building the mock request and response which is included in every other
+ * benchmark. Run it with {@code -prof gc} to get the allocation rate per request as well as the throughput.
+ */
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(Threads.MAX)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestPipelineBenchmark {
+
+    private static final byte[] JSON_BODY = "{\"name\":\"foo\",\"age\":18}".getBytes(StandardCharsets.UTF_8);
+
+    private PipelineRestlight restlight;
+    private RestlightHandler handler;
+
+    @Setup
+    public void setUp() {
+        restlight = new PipelineRestlight(RestlightOptionsConfigure.defaultOpts());
+        restlight.addFilter(new PassThroughFilter());
+        restlight.deployments()
+                .addController(new PipelineController())
+                .addHandlerInterceptor(new AttributeInterceptor());
+        restlight.start();
+        handler = restlight.handler;
+
+        // make sure that every request could be handled successfully before benchmarking
+        check(pathVariableAndJsonBody());
+        check(queryBean());
+        check(async());
+    }
+
+    @TearDown
+    public void tearDown() {
+        restlight.shutdown();
+    }
+
+    @Benchmark
+    public MockAsyncResponse baseline() {
+        MockAsyncRequest.aMockRequest()
+                .withMethod(HttpMethod.POST)
+                .withUri("/pipeline/users/1")
+                .withHeader(HttpHeaderNames.CONTENT_TYPE.toString(), "application/json")
+                .withBody(JSON_BODY)
+                .build();
+        return MockAsyncResponse.aMockResponse().build();
+    }
+
+    @Benchmark
+    public MockAsyncResponse pathVariableAndJsonBody() {
+        return process(MockAsyncRequest.aMockRequest()
+                .withMethod(HttpMethod.POST)
+                .withUri("/pipeline/users/1")
+                .withHeader(HttpHeaderNames.CONTENT_TYPE.toString(), "application/json")
+                .withBody(JSON_BODY)
+                .build());
+    }
+
+    @Benchmark
+    public MockAsyncResponse queryBean() {
+        return process(MockAsyncRequest.aMockRequest()
+                .withMethod(HttpMethod.GET)
+                .withUri("/pipeline/users?name=foo&age=18")
+                .build());
+    }
+
+    @Benchmark
+    public MockAsyncResponse async() {
+        return process(MockAsyncRequest.aMockRequest()
+                .withMethod(HttpMethod.GET)
+                .withUri("/pipeline/async/1")
+                .build());
+    }
+
+    private MockAsyncResponse process(MockAsyncRequest request) {
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        handler.process(request, response).join();
+        return response;
+    }
+
+    private static void check(MockAsyncResponse response) {
+        if (response.status() != 200 || response.getSentData().readableBytes() == 0) {
+            throw new IllegalStateException("Unexpected response, status: " + response.status());
+        }
+    }
+
+    @RequestMapping("/pipeline")
+    @ResponseBody
+    @Scheduled(Schedulers.IO)
+    public static class PipelineController {
+
+        @RequestMapping(value = "/users/{id}", method = RequestMethod.POST)
+        public User update(@PathVariable("id") long id, @RequestBody User user) {
+            user.setId(id);
+            return user;
+        }
+
+        @RequestMapping(value = "/users", method = RequestMethod.GET)
+        public User query(@QueryBean User user) {
+            return user;
+        }
+
+        @RequestMapping(value = "/async/{id}", method = RequestMethod.GET)
+        public CompletableFuture<User> async(@PathVariable("id") long id) {
+            final User user = new User();
+            user.setId(id);
+            user.setName("foo");
+            return CompletableFuture.completedFuture(user);
+        }
+    }
+
+    public static class User {
+
+        private long id;
+        private String name;
+        private int age;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+
+    private static final class PassThroughFilter implements Filter {
+
+        @Override
+        public CompletableFuture<Void> doFilter(AsyncRequest request, AsyncResponse response, FilterChain chain) {
+            response.setHeader("X-Pipeline", "1");
+            return chain.doFilter(request, response);
+        }
+    }
+
+    private static final class AttributeInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(AsyncRequest request, AsyncResponse response, Object handler) {
+            request.setAttribute("pipeline", StringUtils.empty());
+            return true;
+        }
+    }
+
+    private static final class PipelineRestlight
+            extends AbstractRestlight<PipelineRestlight, PipelineDeployments, RestlightOptions> {
+
+        private RestlightHandler handler;
+
+        private PipelineRestlight(RestlightOptions options) {
+            super(options);
+        }
+
+        @Override
+        protected PipelineDeployments createDeployments() {
+            return new PipelineDeployments(this, options);
+        }
+
+        @Override
+        protected RestlightServer doBuildServer(RestlightHandler handler) {
+            // wrap filters in the same way as RestlightServerBootstrap does
+            final List<Filter> filters = prepareFilters();
+            OrderedComparator.sort(filters);
+            this.handler = filters.isEmpty() ? handler : new FilteredHandler(handler, filters);
+            return new NoopServer(this.handler);
+        }
+    }
+
+    private static final class PipelineDeployments
+            extends Deployments<PipelineRestlight, PipelineDeployments, RestlightOptions> {
+
+        private PipelineDeployments(PipelineRestlight restlight, RestlightOptions options) {
+            super(restlight, options);
+        }
+    }
+
+    private static final class NoopServer implements RestlightServer {
+
+        private final RestlightHandler handler;
+        private volatile boolean started;
+
+        private NoopServer(RestlightHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean isStarted() {
+            return started;
+        }
+
+        @Override
+        public void start() {
+            handler.onStart();
+            started = true;
+        }
+
+        @Override
+        public void shutdown() {
+            handler.shutdown();
+            started = false;
+        }
+
+        @Override
+        public void await() {
+        }
+
+        @Override
+        public Executor ioExecutor() {
+            return null;
+        }
+
+        @Override
+        public Executor bizExecutor() {
+            return null;
+        }
+
+        @Override
+        public SocketAddress address() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.ext;
+
+import com.google.common.util.concurrent.RateLimiter;
+import esa.restlight.ext.filter.ratelimit.TokenBucket;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lock-free {@link TokenBucket} with the {@code synchronized} {@link RateLimiter} of Guava under
+ * contention. A huge rate means that almost every acquisition succeeds so that the cost of acquiring is measured, and a
+ * small rate means that almost every acquisition fails which is the case while a client is being limited.
+ */
+@SuppressWarnings("UnstableApiUsage")
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(Threads.MAX)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    @Param({"1000000000", "1000"})
+    private double permitsPerSecond;
+
+    private TokenBucket bucket;
+    private RateLimiter guava;
+
+    @Setup
+    public void setUp() {
+        this.bucket = new TokenBucket(permitsPerSecond, (int) Math.min(Integer.MAX_VALUE, permitsPerSecond));
+        this.guava = RateLimiter.create(permitsPerSecond);
+    }
+
+    @Benchmark
+    public boolean tokenBucket() {
+        return bucket.tryAcquire() == 0L;
+    }
+
+    @Benchmark
+    public boolean guava() {
+        return guava.tryAcquire();
+    }
+}
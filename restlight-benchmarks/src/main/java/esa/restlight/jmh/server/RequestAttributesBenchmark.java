@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.server;
+
+import esa.commons.netty.http.Http1HeadersImpl;
+import esa.httpserver.core.Aggregation;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.Request;
+import esa.httpserver.impl.AsyncRequestImpl;
+import esa.restlight.server.route.predicate.PatternsPredicate;
+import esa.restlight.server.route.predicate.ProducesPredicate;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of creating a request and setting the attributes of a typical routing. Run it with {@code -prof
+ * gc} to see the allocation per operation.
+ */
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(Threads.MAX)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestAttributesBenchmark {
+
+    private static final Map<String, String> VARS = Collections.singletonMap("id", "1");
+    private static final String MEDIA_TYPES = "application/json";
+
+    private Request request;
+
+    @Setup
+    public void setUp() {
+        final Aggregation aggregation = (Aggregation) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Aggregation.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "body":
+                            return Unpooled.EMPTY_BUFFER;
+                        case "trailers":
+                            return new Http1HeadersImpl();
+                        default:
+                            return null;
+                    }
+                });
+        final Http1HeadersImpl headers = new Http1HeadersImpl();
+        request = (Request) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Request.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "rawMethod":
+                            return "GET";
+                        case "headers":
+                            return headers;
+                        case "aggregated":
+                            return aggregation;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Benchmark
+    public Object wellKnownAttributes(Blackhole bh) {
+        final AsyncRequest req = new AsyncRequestImpl(request);
+        bh.consume(req);
+        req.setAttribute(PatternsPredicate.TEMPLATE_VARIABLES, VARS);
+        req.setAttribute(ProducesPredicate.COMPATIBLE_MEDIA_TYPES, MEDIA_TYPES);
+        req.getAttribute(ProducesPredicate.COMPATIBLE_MEDIA_TYPES);
+        return req.getAttribute(PatternsPredicate.TEMPLATE_VARIABLES);
+    }
+
+    @Benchmark
+    public Object userAttributes(Blackhole bh) {
+        final AsyncRequest req = new AsyncRequestImpl(request);
+        bh.consume(req);
+        req.setAttribute("foo", VARS);
+        req.setAttribute("bar", MEDIA_TYPES);
+        req.getAttribute("bar");
+        return req.getAttribute("foo");
+    }
+
+    /**
+     * Baseline: what a request used to cost with an eagerly created {@link ConcurrentHashMap}.
+     */
+    @Benchmark
+    public Object eagerMap(Blackhole bh) {
+        final AsyncRequest req = new AsyncRequestImpl(request);
+        bh.consume(req);
+        final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        attributes.put(PatternsPredicate.TEMPLATE_VARIABLES, VARS);
+        attributes.put(ProducesPredicate.COMPATIBLE_MEDIA_TYPES, MEDIA_TYPES);
+        attributes.get(ProducesPredicate.COMPATIBLE_MEDIA_TYPES);
+        return attributes.get(PatternsPredicate.TEMPLATE_VARIABLES);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.server;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.route.impl.CachedRouteRegistry;
+import esa.restlight.server.route.impl.SimpleRouteRegistry;
+import esa.restlight.server.route.impl.TrieRouteRegistry;
+import esa.restlight.test.mock.MockAsyncRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(Threads.MAX)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrieRouteRegistryBenchmark {
+
+    private ReadOnlyRouteRegistry trie;
+    private ReadOnlyRouteRegistry cache;
+    private ReadOnlyRouteRegistry noCache;
+
+    @Param({"10", "100", "1000"})
+    private int routes = 100;
+
+    private AsyncRequest[] requests;
+
+    @Setup
+    public void setUp() {
+        RouteRegistry trie = new TrieRouteRegistry();
+        RouteRegistry cache = new CachedRouteRegistry(1);
+        RouteRegistry noCache = new SimpleRouteRegistry();
+        requests = new AsyncRequest[routes];
+        for (int i = 0; i < routes; i++) {
+            final Mapping mapping;
+            final String uri;
+            switch (i % 4) {
+                case 0:
+                    mapping = Mapping.get("/api/v1/resource" + i + "/{id}");
+                    uri = "/api/v1/resource" + i + "/" + i;
+                    break;
+                case 1:
+                    mapping = Mapping.get("/api/v1/resource" + i + "/{id}/items/{item}");
+                    uri = "/api/v1/resource" + i + "/" + i + "/items/" + i;
+                    break;
+                case 2:
+                    mapping = Mapping.get("/api/v2/{tenant}/resource" + i);
+                    uri = "/api/v2/tenant" + i + "/resource" + i;
+                    break;
+                default:
+                    mapping = Mapping.get("/static/dir" + i + "/**");
+                    uri = "/static/dir" + i + "/foo/bar.js";
+                    break;
+            }
+            Route route = Route.route(mapping);
+            trie.registerRoute(route);
+            cache.registerRoute(route);
+            noCache.registerRoute(route);
+            requests[i] = MockAsyncRequest.aMockRequest()
+                    .withUri(uri)
+                    .build();
+        }
+        this.trie = trie.toReadOnly();
+        this.cache = cache.toReadOnly();
+        this.noCache = noCache.toReadOnly();
+    }
+
+    @Benchmark
+    public Route matchByTrieRouteRegistry() {
+        return trie.route(getRequest());
+    }
+
+    @Benchmark
+    public Route matchByCachedRouteRegistry() {
+        return cache.route(getRequest());
+    }
+
+    @Benchmark
+    public Route matchByDefaultRouteRegistry() {
+        return noCache.route(getRequest());
+    }
+
+    private AsyncRequest getRequest() {
+        return requests[ThreadLocalRandom.current().nextInt(routes)];
+    }
+}
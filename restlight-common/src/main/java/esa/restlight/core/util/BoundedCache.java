@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.util;
+
+import esa.commons.Checks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A lock-free cache which holds a bounded number of entries and evicts the ones which have not been used recently.
+ * <p>
+ * Entries are kept in two generations: new entries are put into the young one, and once it is full, it becomes the
+ * old one and the previous old one is dropped. Entries found in the old generation are promoted to the young one, so
+ * that the frequently used entries survive while the others are evicted after two generations, which means there are
+ * at most {@code 2 * maxSize} entries in the cache.
+ *
+ * @param <K> type of the key
+ * @param <V> type of the value
+ */
+public final class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private volatile ConcurrentHashMap<K, V> young;
+    private volatile ConcurrentHashMap<K, V> old;
+
+    public BoundedCache(int maxSize) {
+        Checks.checkArg(maxSize > 0, "maxSize must be positive");
+        this.maxSize = maxSize;
+        this.young = new ConcurrentHashMap<>(16);
+        this.old = new ConcurrentHashMap<>(16);
+    }
+
+    /**
+     * Gets the value of the given key.
+     *
+     * @param key key
+     * @return value or {@code null} if absent
+     */
+    public V get(K key) {
+        final V value = young.get(key);
+        if (value != null) {
+            return value;
+        }
+        final V promoted = old.get(key);
+        if (promoted != null) {
+            put(key, promoted);
+        }
+        return promoted;
+    }
+
+    /**
+     * Gets the value of the given key, or computes and caches it if absent.
+     *
+     * @param key      key
+     * @param function function to compute the value, which must not return {@code null}
+     * @return value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        final V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        final V computed = function.apply(key);
+        final V prev = young.putIfAbsent(key, computed);
+        rotateIfFull();
+        return prev == null ? computed : prev;
+    }
+
+    /**
+     * Puts the given entry into the cache.
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(K key, V value) {
+        young.put(key, value);
+        rotateIfFull();
+    }
+
+    /**
+     * Gets the number of the entries in the cache, which is an estimate.
+     *
+     * @return size
+     */
+    public int size() {
+        return young.size() + old.size();
+    }
+
+    private void rotateIfFull() {
+        final ConcurrentHashMap<K, V> y = young;
+        if (y.size() < maxSize) {
+            return;
+        }
+        synchronized (this) {
+            if (young == y) {
+                // entries being put into the young generation concurrently maybe lost, which is acceptable
+                old = y;
+                young = new ConcurrentHashMap<>(16);
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ import esa.commons.http.MimeType;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -33,6 +34,13 @@ public class MediaType extends MimeType {
     private static final Function3<String, String, Map<String, String>, MediaType> GENERATOR = MediaType::new;
     private static final ConcurrentHashMap<String, ParseResult> CACHE = new ConcurrentHashMap<>(16);
 
+    /**
+     * Max number of the recently used media type lists(such as the values of the {@code Accept} header) to cache in
+     * each generation of the {@link BoundedCache}.
+     */
+    private static final int MAX_LIST_CACHE_SIZE = 256;
+    private static final BoundedCache<String, List<MediaType>> LIST_CACHE = new BoundedCache<>(MAX_LIST_CACHE_SIZE);
+
     /**
      * Media type for all
      */
@@ -194,7 +202,24 @@ public class MediaType extends MimeType {
     }
 
     public static void valuesOf(String mediaTypes, List<? super MediaType> target) {
-        parseMimeTypes(mediaTypes, MediaType::valueOf, target);
+        target.addAll(cachedValuesOf(mediaTypes));
+    }
+
+    /**
+     * Parses media types string such as the value of the {@code Accept} header to an unmodifiable list of {@link
+     * MediaType}s. Parsed results are memoized in a bounded cache keyed by the raw string, because clients usually
+     * send only a handful of distinct values, the values which are not used recently will be evicted.
+     *
+     * @param mediaTypes media types string
+     *
+     * @return parsed, which must not be modified.
+     */
+    public static List<MediaType> cachedValuesOf(String mediaTypes) {
+        if (StringUtils.isEmpty(mediaTypes)) {
+            return Collections.emptyList();
+        }
+        return LIST_CACHE.computeIfAbsent(mediaTypes,
+                k -> Collections.unmodifiableList(parseMimeTypes(k, MediaType::valueOf)));
     }
 
     public static MediaType parseMediaType(String mediaType) {
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedCacheTest {
+
+    @Test
+    void testIllegalMaxSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0));
+    }
+
+    @Test
+    void testComputeIfAbsent() {
+        final BoundedCache<String, Object> cache = new BoundedCache<>(4);
+        final Object value = cache.computeIfAbsent("foo", k -> new Object());
+        assertSame(value, cache.computeIfAbsent("foo", k -> new Object()));
+        assertSame(value, cache.get("foo"));
+        assertNull(cache.get("bar"));
+    }
+
+    @Test
+    void testEvictEntriesNotUsedRecently() {
+        final BoundedCache<Integer, Integer> cache = new BoundedCache<>(4);
+        cache.put(0, 0);
+        for (int i = 1; i < 100; i++) {
+            cache.put(i, i);
+            // keep the hot one
+            assertEquals(0, cache.get(0));
+            assertTrue(cache.size() <= 8);
+        }
+        assertNull(cache.get(1));
+        assertEquals(99, cache.get(99));
+    }
+}
@@ -91,6 +91,20 @@ class MediaTypeTest {
         assertEquals("d", target.get(1).getParameter("c"));
     }
 
+    @Test
+    void testCachedValuesOf() {
+        assertTrue(MediaType.cachedValuesOf(null).isEmpty());
+        assertTrue(MediaType.cachedValuesOf("").isEmpty());
+
+        final List<MediaType> types = MediaType.cachedValuesOf("application/json, text/plain;q=0.8");
+        assertEquals(2, types.size());
+        assertEquals(MediaType.APPLICATION_JSON, types.get(0));
+        assertEquals(0.8D, types.get(1).qValue());
+        assertSame(types, MediaType.cachedValuesOf("application/json, text/plain;q=0.8"));
+        assertThrows(UnsupportedOperationException.class, () -> types.add(MediaType.ALL));
+        assertThrows(IllegalArgumentException.class, () -> MediaType.cachedValuesOf("xx,"));
+    }
+
     @Test
     void testParseMediaType() {
         assertThrows(IllegalArgumentException.class, () -> MediaType.parseMediaType(""));
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Indicates that whether a weak {@code ETag} should be generated for the serialized response bodies of current
+ * component(s), and a {@code 304 Not Modified} without body will be sent if the {@code If-None-Match} of the request
+ * matches it. This annotation takes precedence over the global option {@link
+ * esa.restlight.core.config.RestlightOptions#isEtag()}.
+ * <p>
+ * Note that it only works for the {@code GET} and {@code HEAD} requests whose response is sent with {@code 200}
+ * status by the return value of the handler, and the {@code ETag} set by the handler will be respected.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ETag {
+
+    /**
+     * Whether to generate {@code ETag} for current component(s).
+     *
+     * @return {@code true} mean the {@code ETag} should be generated, otherwise not.
+     */
+    boolean value() default true;
+
+}
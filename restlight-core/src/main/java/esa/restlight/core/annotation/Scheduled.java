@@ -34,7 +34,18 @@ public @interface Scheduled {
      * @return {@code ""} means default.
      * @see esa.restlight.server.schedule.Schedulers#IO
      * @see esa.restlight.server.schedule.Schedulers#BIZ
+     * @see esa.restlight.server.schedule.Schedulers#VIRTUAL
      */
     String value();
 
+    /**
+     * Maximum number of concurrent requests of every annotated handler on the {@link
+     * esa.restlight.server.schedule.Scheduler}, requests exceeding the limit will be rejected, which makes the handler
+     * could not use up all the resources of the shared {@link esa.restlight.server.schedule.Scheduler}.
+     *
+     * @return a value less than or equal to 0 means unlimited.
+     * @see esa.restlight.server.schedule.Schedulers#bulkhead(esa.restlight.server.schedule.Scheduler, int)
+     */
+    int bulkhead() default -1;
+
 }
@@ -27,6 +27,7 @@ public abstract class AbstractRestlightOptionsConfigure<C extends AbstractRestli
     private String validationMessageFile;
     private SerializesOptions serialize
             = SerializesOptionsConfigure.defaultOpts();
+    private boolean etag;
     private Map<String, String> ext = new LinkedHashMap<>();
 
     public C contextPath(String contextPath) {
@@ -44,6 +45,11 @@ public abstract class AbstractRestlightOptionsConfigure<C extends AbstractRestli
         return self();
     }
 
+    public C etag(boolean etag) {
+        this.etag = etag;
+        return self();
+    }
+
     public C ext(Map<String, String> ext) {
         this.ext = ext;
         return self();
@@ -55,6 +61,7 @@ public abstract class AbstractRestlightOptionsConfigure<C extends AbstractRestli
         options.setContextPath(contextPath);
         options.setValidationMessageFile(validationMessageFile);
         options.setSerialize(serialize);
+        options.setEtag(etag);
         options.setExt(ext);
         return options;
     }
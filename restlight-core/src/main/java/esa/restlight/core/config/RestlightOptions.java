@@ -30,6 +30,12 @@ public class RestlightOptions extends ServerOptions {
     private String validationMessageFile;
     private SerializesOptions serialize
             = SerializesOptionsConfigure.defaultOpts();
+    /**
+     * Whether to generate a weak {@code ETag} for the serialized response bodies of the {@code GET} and {@code HEAD}
+     * requests and send a {@code 304 Not Modified} if the {@code If-None-Match} of the request matches it, which
+     * could be overridden by {@link esa.restlight.core.annotation.ETag}.
+     */
+    private boolean etag;
     private Map<String, String> ext = new LinkedHashMap<>();
 
     @Deprecated
@@ -59,6 +65,14 @@ public class RestlightOptions extends ServerOptions {
         this.serialize = serialize;
     }
 
+    public boolean isEtag() {
+        return etag;
+    }
+
+    public void setEtag(boolean etag) {
+        this.etag = etag;
+    }
+
     public Map<String, String> getExt() {
         return ext;
     }
@@ -23,25 +23,32 @@ import esa.httpserver.core.AsyncResponse;
 import esa.restlight.core.method.MethodParam;
 import esa.restlight.core.serialize.Serializers;
 import esa.restlight.server.bootstrap.WebServerException;
+import esa.restlight.server.metrics.ExecutionTimings;
 import esa.restlight.server.route.Execution;
 import esa.restlight.server.util.Futures;
+import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Abstract implementation of {@link Execution} which handles a request by resolve arguments, invoke, handle return
- * value order.
+ * value order, and the time spent in each phase is exposed by {@link ExecutionTimings}.
  *
  * @param <H> Handler type
  */
-public abstract class AbstractHandlerExecution<H extends HandlerAdapter> implements Execution {
+public abstract class AbstractHandlerExecution<H extends HandlerAdapter> implements Execution, ExecutionTimings {
 
     private static final Logger logger =
             LoggerFactory.getLogger(AbstractRouteExecution.class);
 
     final H handlerAdapter;
 
+    private long resolveNanos = -1L;
+    private long invokeStart;
+    private long handleNanos = -1L;
+    private long serializeNanos = -1L;
+
     AbstractHandlerExecution(H handlerAdapter) {
         this.handlerAdapter = handlerAdapter;
     }
@@ -59,6 +66,7 @@ public abstract class AbstractHandlerExecution<H extends HandlerAdapter> impleme
     }
 
     protected Object[] resolveArguments(AsyncRequest request, AsyncResponse response) {
+        final long start = System.nanoTime();
         HandlerAdapter.ResolvableParam[] params = handlerAdapter.params();
         Object[] args = new Object[params.length];
         //resolve parameters one by one
@@ -86,6 +94,7 @@ public abstract class AbstractHandlerExecution<H extends HandlerAdapter> impleme
                 }
             }
         }
+        resolveNanos = System.nanoTime() - start;
         return args;
     }
 
@@ -98,6 +107,7 @@ public abstract class AbstractHandlerExecution<H extends HandlerAdapter> impleme
 
     protected CompletableFuture<Object> invoke(AsyncRequest request, AsyncResponse response, Object[] args) {
         CompletableFuture<Object> future;
+        invokeStart = System.nanoTime();
         try {
             final Object returnValue = handlerAdapter.invoke(request, response, args);
             if (handlerAdapter.isConcurrent() && returnValue == null) {
@@ -123,16 +133,24 @@ public abstract class AbstractHandlerExecution<H extends HandlerAdapter> impleme
 
 
     protected void handleReturnValue(Object returnValue, AsyncRequest request, AsyncResponse response) {
+        final long start = System.nanoTime();
+        if (invokeStart != 0L) {
+            handleNanos = start - invokeStart;
+        }
 
         if (this.handlerAdapter.hasCustomResponse()) {
             response.setStatus(handlerAdapter.customResponse().code());
         }
 
         if (!response.isCommitted()) {
+            // generate ETag for the body which is going to be sent if necessary
+            final AsyncResponse target = handlerAdapter.etag() && isCacheableMethod(request)
+                    ? new ETagResponse(request, response)
+                    : response;
             byte[] result;
             try {
                 result = handlerAdapter.returnValueResolver()
-                        .resolve(returnValue, request, response);
+                        .resolve(returnValue, request, target);
             } catch (Exception e) {
                 // wrapIfNecessary
                 throw new WebServerException("Error while resolving return value: " + e.getMessage(), e);
@@ -142,9 +160,34 @@ public abstract class AbstractHandlerExecution<H extends HandlerAdapter> impleme
                     logger.warn(getDetailedMessage("Ignore the non-null return value '{}', because response is " +
                             "not writable."), returnValue);
                 }
-                response.sendResult(result);
+                target.sendResult(result);
             }
         }
+        serializeNanos = System.nanoTime() - start;
+    }
+
+    private static boolean isCacheableMethod(AsyncRequest request) {
+        return HttpMethod.GET.equals(request.method()) || HttpMethod.HEAD.equals(request.method());
+    }
+
+    @Override
+    public long resolveNanos() {
+        return resolveNanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Note that it also includes the time of {@code postHandle} of the interceptors if there's any.
+     */
+    @Override
+    public long handleNanos() {
+        return handleNanos;
+    }
+
+    @Override
+    public long serializeNanos() {
+        return serializeNanos;
     }
 
     String getDetailedMessage(String text) {
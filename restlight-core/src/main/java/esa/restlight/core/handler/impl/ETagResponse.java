@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.handler.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.AsyncResponseWrapper;
+import esa.restlight.server.util.ETags;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+/**
+ * An {@link AsyncResponse} which generates a weak {@code ETag} for the body sent by {@code sendResult(...)}, and sends
+ * a {@code 304 Not Modified} without body instead if the {@code If-None-Match} of the request matches it.
+ */
+final class ETagResponse extends AsyncResponseWrapper {
+
+    private final AsyncRequest request;
+
+    ETagResponse(AsyncRequest request, AsyncResponse delegate) {
+        super(delegate);
+        this.request = request;
+    }
+
+    @Override
+    public void sendResult(byte[] body, int off, int len) {
+        if (body != null && notModified(Unpooled.wrappedBuffer(body, off, len))) {
+            delegate.sendResult(HttpResponseStatus.NOT_MODIFIED.code());
+        } else {
+            delegate.sendResult(body, off, len);
+        }
+    }
+
+    @Override
+    public void sendResult(byte[] body) {
+        if (body != null && notModified(Unpooled.wrappedBuffer(body))) {
+            delegate.sendResult(HttpResponseStatus.NOT_MODIFIED.code());
+        } else {
+            delegate.sendResult(body);
+        }
+    }
+
+    @Override
+    public void sendResult(ByteBuf body, int off, int len, boolean autoRelease) {
+        if (body != null && notModified(body.slice(off, len))) {
+            if (autoRelease) {
+                body.release();
+            }
+            delegate.sendResult(HttpResponseStatus.NOT_MODIFIED.code());
+        } else {
+            delegate.sendResult(body, off, len, autoRelease);
+        }
+    }
+
+    @Override
+    public void sendResult(ByteBuf body, boolean autoRelease) {
+        if (body != null && notModified(body.slice())) {
+            if (autoRelease) {
+                body.release();
+            }
+            delegate.sendResult(HttpResponseStatus.NOT_MODIFIED.code());
+        } else {
+            delegate.sendResult(body, autoRelease);
+        }
+    }
+
+    private boolean notModified(ByteBuf body) {
+        if (delegate.status() != HttpResponseStatus.OK.code() || !body.isReadable()) {
+            return false;
+        }
+        String etag = delegate.getHeader(HttpHeaderNames.ETAG);
+        if (etag == null) {
+            etag = ETags.weak(body);
+            delegate.setHeader(HttpHeaderNames.ETAG, etag);
+        }
+        return ETags.matches(request.getHeader(HttpHeaderNames.IF_NONE_MATCH), etag);
+    }
+}
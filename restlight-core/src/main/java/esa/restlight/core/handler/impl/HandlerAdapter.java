@@ -84,6 +84,15 @@ public class HandlerAdapter<H extends Handler> implements Handler {
         return isConcurrent;
     }
 
+    /**
+     * Whether to generate {@code ETag} for the response bodies.
+     *
+     * @return etag
+     */
+    boolean etag() {
+        return false;
+    }
+
     @Override
     public String toString() {
         return handler.toString();
@@ -22,26 +22,78 @@ import esa.httpserver.core.AsyncResponse;
 import esa.restlight.core.handler.HandlerInvoker;
 import esa.restlight.core.method.InvocableMethod;
 import esa.restlight.server.bootstrap.WebServerException;
+import esa.restlight.server.util.LoggerUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 /**
- * Default implementation of {@link HandlerInvoker} which invokes the target handler by reflection.
+ * Default implementation of {@link HandlerInvoker}.
+ * <p>
+ * The target handler is invoked by a {@link MethodHandle} which is bound to the handler object and spread from the
+ * arguments array once at construction, so that there's no access check and no {@link InvocationTargetException}
+ * wrapping per request, and this falls back to the reflection if the {@link MethodHandle} could not be created or if
+ * the given arguments do not match the parameter types exactly, which keeps the same behaviour with {@link
+ * Method#invoke(Object, Object...)}, such as primitive widening conversion and errors of illegal arguments.
  */
 public class HandlerInvokerImpl implements HandlerInvoker {
 
     private final InvocableMethod handler;
+    private final MethodHandle invoker;
+    private final Class<?>[] argTypes;
+    private final boolean[] primitives;
 
     public HandlerInvokerImpl(InvocableMethod handler) {
+        this(handler, true);
+    }
+
+    /**
+     * Creates a {@link HandlerInvokerImpl}.
+     *
+     * @param handler         handler
+     * @param useMethodHandle whether to try to invoke the handler by {@link MethodHandle}, otherwise the handler will
+     *                        always be invoked by reflection
+     */
+    public HandlerInvokerImpl(InvocableMethod handler, boolean useMethodHandle) {
         this.handler = handler;
+        final Class<?>[] parameterTypes = handler.method().getParameterTypes();
+        this.argTypes = new Class<?>[parameterTypes.length];
+        this.primitives = new boolean[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            this.primitives[i] = parameterTypes[i].isPrimitive();
+            this.argTypes[i] = MethodType.methodType(parameterTypes[i]).wrap().returnType();
+        }
+        this.invoker = useMethodHandle ? createInvoker(handler) : null;
     }
 
     @Override
     public Object invoke(AsyncRequest request, AsyncResponse response, Object[] args) throws Throwable {
+        if (invoker != null && isExactArgs(args)) {
+            return (Object) invoker.invokeExact(args);
+        }
         return doInvoke(args);
     }
 
+    private boolean isExactArgs(Object[] args) {
+        if (args == null) {
+            return argTypes.length == 0;
+        }
+        if (args.length != argTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < args.length; i++) {
+            final Object arg = args[i];
+            if (arg == null ? primitives[i] : !argTypes[i].isInstance(arg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private Object doInvoke(Object[] args) throws Throwable {
         final Method method = handler.method();
         ReflectionUtils.makeMethodAccessible(method);
@@ -56,6 +108,24 @@ public class HandlerInvokerImpl implements HandlerInvoker {
         }
     }
 
+    private static MethodHandle createInvoker(InvocableMethod handler) {
+        final Method method = handler.method();
+        try {
+            ReflectionUtils.makeMethodAccessible(method);
+            MethodHandle mh = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                mh = mh.bindTo(handler.object());
+            }
+            // (Object[])Object
+            return mh.asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (Throwable t) {
+            LoggerUtils.logger().debug("Failed to create method handle for {}, fall back to reflection",
+                    method.toGenericString(), t);
+            return null;
+        }
+    }
+
     private String getInvocationMessage(String text, Object[] resolvedArgs) {
         StringBuilder sb = new StringBuilder(getDetailedMessage(text));
         sb.append("Resolved arguments: \n");
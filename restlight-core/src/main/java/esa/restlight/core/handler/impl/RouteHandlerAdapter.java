@@ -31,8 +31,9 @@ import esa.restlight.server.route.predicate.RequestPredicate;
 import io.netty.util.concurrent.FastThreadLocal;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -46,15 +47,25 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
     private final RouteExecutionFactory executionFactory;
     private final ExceptionResolver<Throwable> exceptionResolver;
     private final Matcher interceptorMatcher;
+    private final boolean etag;
 
     public RouteHandlerAdapter(RouteHandler handler,
                                HandlerResolverFactory factory,
                                MultiValueMap<InterceptorPredicate, Interceptor> interceptors,
                                ExceptionResolver<Throwable> exceptionResolver) {
+        this(handler, factory, interceptors, exceptionResolver, false);
+    }
+
+    public RouteHandlerAdapter(RouteHandler handler,
+                               HandlerResolverFactory factory,
+                               MultiValueMap<InterceptorPredicate, Interceptor> interceptors,
+                               ExceptionResolver<Throwable> exceptionResolver,
+                               boolean etag) {
         super(handler, factory);
         this.interceptorMatcher = maybeMatchable(interceptors);
         this.executionFactory = RouteUtils.routeExecutionFactory(handler.handler().method().getReturnType());
         this.exceptionResolver = exceptionResolver;
+        this.etag = etag;
     }
 
     @Override
@@ -82,8 +93,17 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
         return exceptionResolver;
     }
 
+    @Override
+    boolean etag() {
+        return etag;
+    }
+
     /**
      * Converts the given {@link Interceptor} to {@link Matcher}.
+     * <p>
+     * Interceptors whose predicate is {@link InterceptorPredicate#ALWAYS} or {@link InterceptorPredicate#NEVER} have
+     * already been decided by the path and method of current route while deploying, so they will be attached to or
+     * ruled out from the result directly, and only the request-dependent predicates would be tested at runtime.
      */
     private Matcher maybeMatchable(MultiValueMap<InterceptorPredicate, Interceptor> interceptorLookup) {
         final List<InterceptorMapping> mappings = new ArrayList<>();
@@ -94,6 +114,10 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
                 final InterceptorPredicate predicate = entry.getKey();
                 List<Interceptor> interceptors = entry.getValue();
 
+                if (predicate == InterceptorPredicate.NEVER) {
+                    // never matched
+                    continue;
+                }
                 if (interceptors != null && !interceptors.isEmpty()) {
                     // compute the affinity
                     int affinity = 0;
@@ -101,7 +125,7 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
                         affinity += i.affinity();
                     }
 
-                    if (interceptors.size() > 1 && affinity > 20) {
+                    if (predicate != InterceptorPredicate.ALWAYS && interceptors.size() > 1 && affinity > 20) {
                         hasComplexMapping = true;
                         final FastThreadLocal<Boolean> shared = new FastThreadLocal<>();
                         for (InternalInterceptor interceptor : interceptors) {
@@ -120,7 +144,16 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
 
         // keep in sort
         OrderedComparator.sort(mappings);
-        if (hasComplexMapping) {
+        boolean allStatic = true;
+        for (InterceptorMapping mapping : mappings) {
+            if (!mapping.always) {
+                allStatic = false;
+                break;
+            }
+        }
+        if (allStatic) {
+            return new StaticMatcher(mappings);
+        } else if (hasComplexMapping) {
             return new CachedMatcher(mappings);
         } else {
             return new Matcher(mappings);
@@ -128,15 +161,15 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
     }
 
     private static class Matcher {
-        final List<InterceptorMapping> interceptorMappings;
+        final InterceptorMapping[] interceptorMappings;
 
         private Matcher(List<InterceptorMapping> interceptorMappings) {
-            this.interceptorMappings = interceptorMappings;
+            this.interceptorMappings = interceptorMappings.toArray(new InterceptorMapping[0]);
         }
 
         List<InternalInterceptor> match(AsyncRequest request) {
             //if lookup map is empty -> just return the all mapping interceptors
-            if (interceptorMappings.isEmpty()) {
+            if (interceptorMappings.length == 0) {
                 return null;
             }
 
@@ -146,12 +179,12 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
         }
 
         protected List<InternalInterceptor> doMatch(AsyncRequest request) {
-            // match interceptors by order
+            // match interceptors by order, the result would be accessed by index so that we use an array list here
             final List<InternalInterceptor> matchedInterceptors =
-                    new LinkedList<>();
+                    new ArrayList<>(interceptorMappings.length);
             //no way but to search from the whole collection
             for (InterceptorMapping mapping : interceptorMappings) {
-                if (mapping.test(request)) {
+                if (mapping.always || mapping.test(request)) {
                     matchedInterceptors.add(mapping.interceptor);
                 }
             }
@@ -159,6 +192,33 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
         }
     }
 
+    /**
+     * A {@link Matcher} whose interceptors are all certainly matched which means the result could be computed once
+     * while deploying and shared by all the requests.
+     */
+    private static class StaticMatcher extends Matcher {
+
+        private final List<InternalInterceptor> matched;
+
+        private StaticMatcher(List<InterceptorMapping> interceptorMappings) {
+            super(interceptorMappings);
+            if (interceptorMappings.isEmpty()) {
+                this.matched = null;
+            } else {
+                final InternalInterceptor[] interceptors = new InternalInterceptor[interceptorMappings.size()];
+                for (int i = 0; i < interceptors.length; i++) {
+                    interceptors[i] = interceptorMappings.get(i).interceptor;
+                }
+                this.matched = Collections.unmodifiableList(Arrays.asList(interceptors));
+            }
+        }
+
+        @Override
+        List<InternalInterceptor> match(AsyncRequest request) {
+            return matched;
+        }
+    }
+
     private static class CachedMatcher extends Matcher {
 
         private final FastThreadLocal[] locals;
@@ -190,10 +250,12 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
     private static class InterceptorMapping implements Ordered, RequestPredicate {
         private final InterceptorPredicate predicate;
         private final InternalInterceptor interceptor;
+        private final boolean always;
 
         private InterceptorMapping(InterceptorPredicate predicate, InternalInterceptor interceptor) {
             this.predicate = predicate;
             this.interceptor = interceptor;
+            this.always = predicate == InterceptorPredicate.ALWAYS;
         }
 
         @Override
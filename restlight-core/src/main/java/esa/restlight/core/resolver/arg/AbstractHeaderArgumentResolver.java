@@ -22,6 +22,7 @@ import esa.restlight.core.resolver.ArgumentResolverFactory;
 import esa.restlight.core.serialize.HttpRequestSerializer;
 import esa.restlight.core.util.ConverterUtils;
 import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.AsciiString;
 
 import java.util.Collection;
 import java.util.List;
@@ -60,17 +61,24 @@ public abstract class AbstractHeaderArgumentResolver implements ArgumentResolver
 
         private final Function<String, Object> converter;
         private final Function<Collection<String>, Object> strsConverter;
+        /**
+         * Header name whose hash code is computed only once instead of in every lookup.
+         */
+        private final AsciiString headerName;
 
         StringOrListResolver(Param param) {
             super(param);
             this.converter = ConverterUtils.str2ObjectConverter(param.genericType(), p -> p);
             this.strsConverter = ConverterUtils.strs2ObjectConverter(param.genericType());
+            this.headerName = AsciiString.cached(nav.name);
+            // compute the hash code eagerly
+            this.headerName.hashCode();
         }
 
         @Override
         protected Object resolveName(String name, AsyncRequest request) {
             if (strsConverter != null) {
-                List<String> values = request.headers().getAll(name);
+                List<String> values = request.headers().getAll(headerName);
                 if (values == null || values.isEmpty()) {
                     return null;
                 } else if (values.size() > 1) {
@@ -79,7 +87,7 @@ public abstract class AbstractHeaderArgumentResolver implements ArgumentResolver
                     return converter.apply(values.get(0));
                 }
             } else {
-                return converter.apply(request.headers().get(name));
+                return converter.apply(request.headers().get(headerName));
             }
         }
     }
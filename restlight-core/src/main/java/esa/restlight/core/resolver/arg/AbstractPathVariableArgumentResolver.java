@@ -22,9 +22,12 @@ import esa.restlight.core.resolver.ArgumentResolver;
 import esa.restlight.core.resolver.ArgumentResolverFactory;
 import esa.restlight.core.serialize.HttpRequestSerializer;
 import esa.restlight.core.util.ConverterUtils;
+import esa.restlight.server.util.PathTemplate;
 import esa.restlight.server.util.PathVariableUtils;
+import esa.restlight.server.util.PathVariables;
 
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 
@@ -41,9 +44,26 @@ public abstract class AbstractPathVariableArgumentResolver implements ArgumentRe
             protected final Function<String, Object> converter =
                     ConverterUtils.str2ObjectConverter(param.genericType(), p -> p);
 
+            /**
+             * index of the variable in the last seen template, a handler is usually mapped to a single template so
+             * that the index only needs to be computed once.
+             */
+            private volatile Slot slot;
+
             @Override
             protected Object resolveName(String name, AsyncRequest request) throws Exception {
-                String value = PathVariableUtils.getPathVariable(request, name);
+                final Map<String, String> variables = PathVariableUtils.getPathVariables(request);
+                final String value;
+                if (variables instanceof PathVariables) {
+                    final PathVariables vars = (PathVariables) variables;
+                    Slot s = slot;
+                    if (s == null || s.template != vars.template()) {
+                        slot = s = new Slot(vars.template(), vars.template().indexOf(name));
+                    }
+                    value = s.index < 0 ? null : vars.get(s.index);
+                } else {
+                    value = variables == null ? null : variables.get(name);
+                }
                 return converter.apply(StringUtils.isEmpty(value) ? value : cleanTemplateValueIfNecessary(value));
             }
 
@@ -54,6 +74,17 @@ public abstract class AbstractPathVariableArgumentResolver implements ArgumentRe
         };
     }
 
+    private static final class Slot {
+
+        private final PathTemplate template;
+        private final int index;
+
+        private Slot(PathTemplate template, int index) {
+            this.template = template;
+            this.index = index;
+        }
+    }
+
     /**
      * Create an instance of {@link NameAndValue} for the parameter.
      *
@@ -127,6 +127,9 @@ public abstract class AbstractRequestBodyArgumentResolver implements ArgumentRes
             if (serializer.preferStream()) {
                 return serializer.deSerialize(request.inputStream(), param.genericType());
             }
+            if (serializer.preferByteBuf()) {
+                return serializer.deSerialize(request.byteBufBody(), param.genericType());
+            }
             return serializer.deSerialize(request.body(), param.genericType());
         }
     }
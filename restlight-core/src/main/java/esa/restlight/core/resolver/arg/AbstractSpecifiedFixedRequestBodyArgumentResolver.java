@@ -128,6 +128,8 @@ public abstract class AbstractSpecifiedFixedRequestBodyArgumentResolver implemen
             Object resolved;
             if (serializer.preferStream()) {
                 resolved = serializer.deSerialize(request.inputStream(), param.genericType());
+            } else if (serializer.preferByteBuf()) {
+                resolved = serializer.deSerialize(request.byteBufBody(), param.genericType());
             } else {
                 resolved = serializer.deSerialize(request.body(), param.genericType());
             }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.resolver.arg;
+
+import esa.httpserver.core.StreamingBody;
+import esa.httpserver.impl.StreamingBodyImpl;
+import esa.restlight.core.method.Param;
+import esa.restlight.core.resolver.ArgumentResolver;
+import esa.restlight.core.resolver.ArgumentResolverFactory;
+import esa.restlight.core.serialize.HttpRequestSerializer;
+
+import java.util.List;
+
+/**
+ * Binds the {@link StreamingBody} of the request. If the body has already been aggregated(eg. streaming request body
+ * is disabled), a {@link StreamingBody} which emits the aggregated body as a single chunk will be bound.
+ * <p>
+ * Note: a handler method which declares a {@link StreamingBody} parameter will be treated as a route which consumes
+ * the request body as a stream.
+ */
+public class StreamingBodyArgumentResolverFactory implements ArgumentResolverFactory {
+
+    @Override
+    public ArgumentResolver createResolver(Param param,
+                                           List<? extends HttpRequestSerializer> serializers) {
+        return (request, response) -> {
+            final StreamingBody body = request.bodyStream();
+            if (body != null) {
+                return body;
+            }
+            final StreamingBodyImpl aggregated = new StreamingBodyImpl(request.alloc());
+            aggregated.onData(request.byteBufBody());
+            aggregated.onEnd();
+            response.onEnd(r -> aggregated.release());
+            return aggregated;
+        };
+    }
+
+    @Override
+    public boolean supports(Param parameter) {
+        return StreamingBody.class.isAssignableFrom(parameter.type());
+    }
+
+    /**
+     * Default to HIGHEST_PRECEDENCE.
+     *
+     * @return order
+     */
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
@@ -15,7 +15,6 @@
  */
 package esa.restlight.core.resolver.result;
 
-import esa.commons.StringUtils;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
 import esa.restlight.core.resolver.ReturnValueResolver;
@@ -23,9 +22,7 @@ import esa.restlight.core.serialize.Serializers;
 import esa.restlight.core.util.MediaType;
 import esa.restlight.server.route.predicate.ProducesPredicate;
 import io.netty.handler.codec.http.HttpHeaderNames;
-import io.netty.util.internal.InternalThreadLocalMap;
 
-import java.util.Collections;
 import java.util.List;
 
 abstract class AbstractDetectableReturnValueResolver implements ReturnValueResolver {
@@ -77,16 +74,10 @@ abstract class AbstractDetectableReturnValueResolver implements ReturnValueResol
         List<MediaType> compatibleTypes =
                 request.getUncheckedAttribute(ProducesPredicate.COMPATIBLE_MEDIA_TYPES);
         if (compatibleTypes == null) {
-            String accept = request.getHeader(HttpHeaderNames.ACCEPT);
-            if (!StringUtils.isEmpty(accept)) {
-                List<MediaType> ret = InternalThreadLocalMap.get().arrayList();
-                MediaType.valuesOf(accept, ret);
-                return ret;
-            }
-        } else {
-            return compatibleTypes;
+            // parsed results of the same Accept are shared, so that they could be used as the cache key
+            return MediaType.cachedValuesOf(request.getHeader(HttpHeaderNames.ACCEPT));
         }
-        return Collections.emptyList();
+        return compatibleTypes;
     }
 
     protected abstract byte[] resolve0(Object returnValue,
@@ -27,12 +27,13 @@ import esa.restlight.core.resolver.ReturnValueResolverFactory;
 import esa.restlight.core.serialize.HttpResponseSerializer;
 import esa.restlight.core.serialize.ProtoBufHttpBodySerializer;
 import esa.restlight.core.serialize.Serializers;
+import esa.restlight.core.util.BoundedCache;
 import esa.restlight.core.util.Constants;
 import esa.restlight.core.util.FutureUtils;
 import esa.restlight.core.util.MediaType;
 import esa.restlight.server.bootstrap.WebServerException;
-import io.netty.util.internal.InternalThreadLocalMap;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -74,7 +75,21 @@ public abstract class AbstractResponseBodyReturnValueResolver implements ReturnV
 
     static class DefaultResolver extends AbstractDetectableReturnValueResolver implements ReturnValueResolver {
 
+        /**
+         * Max number of the recently used (media types, type of return value) pairs to cache in each generation of
+         * the {@link BoundedCache} of a resolver.
+         */
+        private static final int MAX_SERIALIZER_CACHE_SIZE = 64;
+
         private final List<? extends HttpResponseSerializer> serializers;
+        /**
+         * Serializers selected for the media types and the type of the return value, media types are compared by
+         * identity because they are shared by the requests with the same {@code Accept}, and the keys of the lists
+         * which have been evicted from the cache of {@link MediaType#cachedValuesOf(String)} will be evicted from
+         * here as well since they could never be hit again.
+         */
+        private final BoundedCache<SerializerKey, HttpResponseSerializer> selected =
+                new BoundedCache<>(MAX_SERIALIZER_CACHE_SIZE);
 
         DefaultResolver(List<? extends HttpResponseSerializer> serializers, boolean detect) {
             super(detect);
@@ -92,33 +107,68 @@ public abstract class AbstractResponseBodyReturnValueResolver implements ReturnV
                         "), acceptMediaTypes: " + mediaTypes);
             }
 
-            HttpResponseSerializer serializer = null;
+            final SerializerKey key = new SerializerKey(mediaTypes, returnValue.getClass());
+            HttpResponseSerializer serializer = selected.get(key);
+            if (serializer == null) {
+                serializer = selectSerializer(mediaTypes, returnValue.getClass());
+                selected.put(key, serializer);
+            }
+
+            final Object returnValueToWrite = serializer.customResponse(request, response, returnValue);
+            return Serializers.serializeBySerializer(serializer, returnValueToWrite, response);
+        }
+
+        private HttpResponseSerializer selectSerializer(List<MediaType> mediaTypes, Class<?> type) {
             if (mediaTypes.isEmpty()) {
-                serializer = serializers.get(0);
-            } else {
-                outerloop:
-                for (MediaType mediaType : mediaTypes) {
-                    for (HttpResponseSerializer ser : serializers) {
-                        if (ser.supportsWrite(mediaType, returnValue.getClass())) {
-                            serializer = ser;
-                            break outerloop;
-                        }
+                return serializers.get(0);
+            }
+            for (MediaType mediaType : mediaTypes) {
+                for (HttpResponseSerializer ser : serializers) {
+                    if (ser.supportsWrite(mediaType, type)) {
+                        return ser;
                     }
                 }
-                if (serializer == null) {
-                    logger.warn("Failed to find serializer for media type '{}', try to use default serializer.",
-                            mediaTypes);
-                    serializer = serializers.get(0);
-                }
             }
+            logger.warn("Failed to find serializer for media type '{}', try to use default serializer.",
+                    mediaTypes);
+            return serializers.get(0);
+        }
+    }
 
-            final Object returnValueToWrite = serializer.customResponse(request, response, returnValue);
-            return Serializers.serializeBySerializer(serializer, returnValueToWrite, response);
+    private static final class SerializerKey {
+
+        private final List<MediaType> mediaTypes;
+        private final Class<?> type;
+
+        private SerializerKey(List<MediaType> mediaTypes, Class<?> type) {
+            this.mediaTypes = mediaTypes;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final SerializerKey that = (SerializerKey) o;
+            return mediaTypes == that.mediaTypes && type == that.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(mediaTypes) + type.hashCode();
         }
     }
 
     static class NegotiationResolver extends DefaultResolver {
 
+        private static final List<MediaType> JSON = Collections.singletonList(MediaType.APPLICATION_JSON);
+        private static final List<MediaType> PROTO_BUF =
+                Collections.singletonList(ProtoBufHttpBodySerializer.PROTOBUF);
+
         private final String parameterName;
 
         NegotiationResolver(List<? extends HttpResponseSerializer> serializers,
@@ -132,13 +182,9 @@ public abstract class AbstractResponseBodyReturnValueResolver implements ReturnV
             // judge by parameter
             final String format = request.getParameter(parameterName);
             if (Constants.NEGOTIATION_JSON_FORMAT.equals(format)) {
-                List<MediaType> ret = InternalThreadLocalMap.get().arrayList(1);
-                ret.add(MediaType.APPLICATION_JSON);
-                return ret;
+                return JSON;
             } else if (Constants.NEGOTIATION_PROTO_BUF_FORMAT.equals(format)) {
-                List<MediaType> ret = InternalThreadLocalMap.get().arrayList(1);
-                ret.add(ProtoBufHttpBodySerializer.PROTOBUF);
-                return ret;
+                return PROTO_BUF;
             } else {
                 // fallback to default
                 return super.getMediaTypes(request);
@@ -20,6 +20,7 @@ import esa.httpserver.core.AsyncResponse;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
 import esa.restlight.core.util.MediaType;
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpHeaderNames;
 
 import java.lang.reflect.Type;
@@ -55,11 +56,24 @@ public abstract class BaseHttpBodySerializer implements HttpBodySerializer {
         return serializer().deSerialize(data, type);
     }
 
+    @Override
+    public <T> T deSerialize(ByteBuf data, Type type) throws Exception {
+        if (data == null || !data.isReadable()) {
+            return null;
+        }
+        return serializer().deSerialize(data, type);
+    }
+
     @Override
     public void serialize(Object target, HttpOutputStream outputStream) throws Exception {
         serializer().serialize(target, outputStream);
     }
 
+    @Override
+    public void serialize(Object target, ByteBuf buffer) throws Exception {
+        serializer().serialize(target, buffer);
+    }
+
     @Override
     public <T> T deSerialize(HttpInputStream inputStream, Type type) throws Exception {
         if (inputStream.available() == 0) {
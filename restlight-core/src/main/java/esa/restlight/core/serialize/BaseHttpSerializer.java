@@ -28,4 +28,18 @@ public interface BaseHttpSerializer extends Ordered {
     default boolean preferStream() {
         return false;
     }
+
+    /**
+     * Prefer to serialize into or deserialize from the {@link io.netty.buffer.ByteBuf} directly which is allocated
+     * from the pooled allocator of the connection, which avoids the intermediate byte array.
+     * <p>
+     * This is an explicit opt-in, because {@code serialize(Object)} and {@code deSerialize(byte[], Type)} will not be
+     * called any more once it is enabled, the built-in serializers enable it only if it is specified by their
+     * constructors.
+     *
+     * @return prefer
+     */
+    default boolean preferByteBuf() {
+        return false;
+    }
 }
@@ -20,4 +20,8 @@ public class FastJsonHttpBodySerializer extends HttpJsonBodySerializerAdapter {
     public FastJsonHttpBodySerializer() {
         super(new FastJsonSerializer());
     }
+
+    public FastJsonHttpBodySerializer(boolean preferByteBuf) {
+        super(new FastJsonSerializer(), preferByteBuf);
+    }
 }
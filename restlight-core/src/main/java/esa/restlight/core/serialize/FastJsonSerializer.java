@@ -19,6 +19,8 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 
 import java.lang.reflect.Type;
 
@@ -40,6 +42,11 @@ public class FastJsonSerializer implements JsonSerializer {
         JSON.writeJSONString(outputStream, target);
     }
 
+    @Override
+    public void serialize(Object target, ByteBuf buffer) throws Exception {
+        JSON.writeJSONString(new ByteBufOutputStream(buffer), target);
+    }
+
     @Override
     public <T> T deSerialize(byte[] data, Type type) {
         return JSON.parseObject(data, type);
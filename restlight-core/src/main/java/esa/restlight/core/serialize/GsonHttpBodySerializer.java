@@ -27,4 +27,7 @@ public class GsonHttpBodySerializer extends HttpJsonBodySerializerAdapter {
         super(new GsonSerializer(gsonBuilder));
     }
 
+    public GsonHttpBodySerializer(GsonBuilder gsonBuilder, boolean preferByteBuf) {
+        super(new GsonSerializer(gsonBuilder), preferByteBuf);
+    }
 }
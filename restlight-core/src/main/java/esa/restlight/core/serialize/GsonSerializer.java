@@ -19,7 +19,11 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 
@@ -49,6 +53,13 @@ public class GsonSerializer implements JsonSerializer {
         outputStream.write(gson.toJson(target).getBytes(StandardCharsets.UTF_8));
     }
 
+    @Override
+    public void serialize(Object target, ByteBuf buffer) throws Exception {
+        final Writer writer = new OutputStreamWriter(new ByteBufOutputStream(buffer), StandardCharsets.UTF_8);
+        gson.toJson(target, writer);
+        writer.flush();
+    }
+
     @Override
     public <T> T deSerialize(byte[] data, Type type) {
         return gson.fromJson(new String(data, StandardCharsets.UTF_8), type);
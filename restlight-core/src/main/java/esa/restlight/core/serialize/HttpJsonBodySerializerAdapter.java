@@ -20,10 +20,25 @@ import esa.commons.Checks;
 public abstract class HttpJsonBodySerializerAdapter extends BaseHttpBodySerializer {
 
     private final Serializer serializer;
+    private final boolean preferByteBuf;
 
     public HttpJsonBodySerializerAdapter(Serializer serializer) {
+        this(serializer, false);
+    }
+
+    /**
+     * @param serializer    serializer
+     * @param preferByteBuf whether to prefer {@link io.netty.buffer.ByteBuf}, see {@link #preferByteBuf()}
+     */
+    public HttpJsonBodySerializerAdapter(Serializer serializer, boolean preferByteBuf) {
         Checks.checkNotNull(serializer, "serializer");
         this.serializer = serializer;
+        this.preferByteBuf = preferByteBuf;
+    }
+
+    @Override
+    public boolean preferByteBuf() {
+        return preferByteBuf;
     }
 
     @Override
@@ -26,4 +26,8 @@ public class JacksonHttpBodySerializer extends HttpJsonBodySerializerAdapter {
     public JacksonHttpBodySerializer(ObjectMapper objectMapper) {
         super(new JacksonSerializer(objectMapper));
     }
+
+    public JacksonHttpBodySerializer(ObjectMapper objectMapper, boolean preferByteBuf) {
+        super(new JacksonSerializer(objectMapper), preferByteBuf);
+    }
 }
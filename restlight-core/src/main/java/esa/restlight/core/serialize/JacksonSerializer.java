@@ -26,6 +26,9 @@ import com.fasterxml.jackson.databind.type.TypeFactory;
 import esa.commons.Checks;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -58,6 +61,11 @@ public class JacksonSerializer implements JsonSerializer {
         objectMapper.writeValue((OutputStream) outputStream, target);
     }
 
+    @Override
+    public void serialize(Object target, ByteBuf buffer) throws Exception {
+        objectMapper.writeValue((OutputStream) new ByteBufOutputStream(buffer), target);
+    }
+
     @Override
     public <T> T deSerialize(byte[] data, Type type) throws IOException {
         return objectMapper.readValue(data, getJavaType(type));
@@ -68,6 +76,18 @@ public class JacksonSerializer implements JsonSerializer {
         return objectMapper.readValue((InputStream) inputStream, getJavaType(type));
     }
 
+    @Override
+    public <T> T deSerialize(ByteBuf data, Type type) throws Exception {
+        if (data.hasArray()) {
+            return objectMapper.readValue(data.array(),
+                    data.arrayOffset() + data.readerIndex(),
+                    data.readableBytes(),
+                    getJavaType(type));
+        }
+        // read from the duplicated buffer to keep the reader index of the origin buffer
+        return objectMapper.readValue((InputStream) new ByteBufInputStream(data.duplicate()), getJavaType(type));
+    }
+
     public static synchronized ObjectMapper getDefaultMapper() {
         if (DEFAULT_OBJECT_MAPPER == null) {
             final ObjectMapper objectMapper = new ObjectMapper();
@@ -21,6 +21,7 @@ import esa.httpserver.core.AsyncResponse;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
 import esa.restlight.core.util.MediaType;
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.util.AsciiString;
 
@@ -46,13 +47,23 @@ public class ProtoBufHttpBodySerializer implements HttpBodySerializer {
     public static final AsciiString X_PROTOBUF_MESSAGE_HEADER = AsciiString.cached("X-Protobuf-Message");
 
     private final ProtoBufSerializer serializer;
+    private final boolean preferByteBuf;
 
     public ProtoBufHttpBodySerializer() {
         this(new ProtoBufSerializer());
     }
 
     public ProtoBufHttpBodySerializer(ProtoBufSerializer serializer) {
+        this(serializer, false);
+    }
+
+    /**
+     * @param serializer    serializer
+     * @param preferByteBuf whether to prefer {@link ByteBuf}, see {@link #preferByteBuf()}
+     */
+    public ProtoBufHttpBodySerializer(ProtoBufSerializer serializer, boolean preferByteBuf) {
         this.serializer = serializer;
+        this.preferByteBuf = preferByteBuf;
     }
 
     @Override
@@ -86,6 +97,16 @@ public class ProtoBufHttpBodySerializer implements HttpBodySerializer {
         serializer.serialize(target, outputStream);
     }
 
+    @Override
+    public void serialize(Object target, ByteBuf buffer) throws Exception {
+        serializer.serialize(target, buffer);
+    }
+
+    @Override
+    public boolean preferByteBuf() {
+        return preferByteBuf;
+    }
+
     @Override
     public <T> T deSerialize(byte[] data, Type type) throws Exception {
         if (data == null || data.length == 0) {
@@ -94,6 +115,14 @@ public class ProtoBufHttpBodySerializer implements HttpBodySerializer {
         return serializer.deSerialize(data, type);
     }
 
+    @Override
+    public <T> T deSerialize(ByteBuf data, Type type) throws Exception {
+        if (data == null || !data.isReadable()) {
+            return null;
+        }
+        return serializer.deSerialize(data, type);
+    }
+
     @Override
     public <T> T deSerialize(HttpInputStream inputStream, Type type) throws Exception {
         if (inputStream.available() == 0) {
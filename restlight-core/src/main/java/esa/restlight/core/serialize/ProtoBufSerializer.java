@@ -15,10 +15,14 @@
  */
 package esa.restlight.core.serialize;
 
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.Message;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.HttpOutputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
@@ -66,6 +70,21 @@ public class ProtoBufSerializer implements Serializer {
                 target.getClass().getName());
     }
 
+    @Override
+    public void serialize(Object target, ByteBuf buffer) throws Exception {
+        if (target == null) {
+            return;
+        }
+        if (target instanceof Message) {
+            Message message = (Message) target;
+            buffer.ensureWritable(message.getSerializedSize());
+            message.writeTo(new ByteBufOutputStream(buffer));
+            return;
+        }
+        throw new UnsupportedOperationException("Could not serialize class: " +
+                target.getClass().getName());
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T> T deSerialize(byte[] data, Type type) throws Exception {
@@ -82,6 +101,19 @@ public class ProtoBufSerializer implements Serializer {
         return (T) builder.build();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T deSerialize(ByteBuf data, Type type) throws Exception {
+        Message.Builder builder = getMessageBuilder((Class<? extends Message>) type);
+        if (data.nioBufferCount() == 1) {
+            // parse from the underlying memory directly without copying
+            builder.mergeFrom(CodedInputStream.newInstance(data.nioBuffer()), extensionRegistry);
+        } else {
+            builder.mergeFrom(new ByteBufInputStream(data.duplicate()), extensionRegistry);
+        }
+        return (T) builder.build();
+    }
+
     private Message.Builder getMessageBuilder(Class<? extends Message> clazz) throws Exception {
         Method method = METHOD_CACHE.get(clazz);
         if (method == null) {
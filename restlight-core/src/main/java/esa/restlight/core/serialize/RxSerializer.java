@@ -16,6 +16,8 @@
 package esa.restlight.core.serialize;
 
 import esa.httpserver.core.HttpInputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 
 import java.lang.reflect.Type;
 
@@ -47,4 +49,20 @@ public interface RxSerializer {
      */
     <T> T deSerialize(HttpInputStream inputStream, Type type) throws Exception;
 
+    /**
+     * deSerialize the data from {@link ByteBuf} to the object directly, the default implementation copies the
+     * readable bytes to a byte array and then deSerializes it.
+     * <p>
+     * Note: the implementations should not modify the {@code readerIndex} or {@code writerIndex} of the given buffer.
+     *
+     * @param data data
+     * @param type data type
+     * @param <T>  generic type
+     * @return decoded value
+     * @throws Exception error
+     */
+    default <T> T deSerialize(ByteBuf data, Type type) throws Exception {
+        return deSerialize(ByteBufUtil.getBytes(data), type);
+    }
+
 }
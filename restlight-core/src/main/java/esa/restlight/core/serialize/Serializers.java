@@ -37,6 +37,10 @@ public final class Serializers {
             serializeAndCloseStream(serializer, response.outputStream(), returnValue);
             return alreadyWrite();
         }
+        if (serializer.preferByteBuf()) {
+            serializeToByteBuf(serializer, response, returnValue);
+            return alreadyWrite();
+        }
         return serializer.serialize(returnValue);
     }
 
@@ -48,6 +52,19 @@ public final class Serializers {
         return ALREADY_WRITE;
     }
 
+    private static void serializeToByteBuf(HttpResponseSerializer serializer,
+                                           AsyncResponse response,
+                                           Object obj) throws Exception {
+        final ByteBuf buffer = response.alloc().buffer();
+        try {
+            serializer.serialize(obj, buffer);
+        } catch (Throwable t) {
+            buffer.release();
+            throw t;
+        }
+        response.sendResult(buffer, buffer.readerIndex(), buffer.readableBytes(), true);
+    }
+
     private static void serializeAndCloseStream(HttpResponseSerializer serializer,
                                                 HttpOutputStream outputStream,
                                                 Object obj) throws IOException {
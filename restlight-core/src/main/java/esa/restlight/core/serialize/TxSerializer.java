@@ -16,6 +16,7 @@
 package esa.restlight.core.serialize;
 
 import esa.httpserver.core.HttpOutputStream;
+import io.netty.buffer.ByteBuf;
 
 /**
  * This serializer is used to serialize the data to byte[] for http response.
@@ -42,4 +43,20 @@ public interface TxSerializer {
      */
     void serialize(Object target, HttpOutputStream outputStream) throws Exception;
 
+    /**
+     * serialize the object to the given {@link ByteBuf} directly, the default implementation serializes the object to
+     * a byte array and then copies it to the buffer.
+     *
+     * @param target target
+     * @param buffer buffer to write to
+     *
+     * @throws Exception error
+     */
+    default void serialize(Object target, ByteBuf buffer) throws Exception {
+        final byte[] data = serialize(target);
+        if (data != null) {
+            buffer.writeBytes(data);
+        }
+    }
+
 }
@@ -24,6 +24,7 @@ import esa.restlight.core.serialize.HttpBodySerializer;
 import esa.restlight.core.serialize.HttpRequestSerializer;
 import esa.restlight.core.serialize.HttpResponseSerializer;
 import esa.restlight.core.serialize.JacksonHttpBodySerializer;
+import esa.restlight.core.serialize.JacksonSerializer;
 import esa.restlight.core.spi.DefaultSerializerFactory;
 import esa.restlight.core.util.Constants;
 
@@ -50,11 +51,12 @@ public class JacksonDefaultSerializerFactory implements DefaultSerializerFactory
         if (jackson == null) {
             synchronized (this) {
                 final Object objectMapper = ctx.attribute(OBJECT_MAPPER);
+                // it is safe to prefer ByteBuf because the default serializer is never customized by the subclasses
                 if (objectMapper instanceof ObjectMapper) {
-                    jackson = new JacksonHttpBodySerializer((ObjectMapper) objectMapper);
+                    jackson = new JacksonHttpBodySerializer((ObjectMapper) objectMapper, true);
                     return jackson;
                 } else {
-                    jackson = new JacksonHttpBodySerializer();
+                    jackson = new JacksonHttpBodySerializer(JacksonSerializer.getDefaultMapper(), true);
                 }
             }
         }
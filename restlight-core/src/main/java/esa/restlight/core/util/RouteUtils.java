@@ -19,7 +19,9 @@ import com.google.common.util.concurrent.ListenableFuture;
 import esa.commons.Checks;
 import esa.commons.StringUtils;
 import esa.commons.spi.SpiLoader;
+import esa.httpserver.core.StreamingBody;
 import esa.restlight.core.DeployContext;
+import esa.restlight.core.annotation.ETag;
 import esa.restlight.core.annotation.Scheduled;
 import esa.restlight.core.config.RestlightOptions;
 import esa.restlight.core.handler.RouteHandler;
@@ -34,6 +36,7 @@ import esa.restlight.core.handler.locate.CompositeRouteHandlerLocator;
 import esa.restlight.core.handler.locate.MappingLocator;
 import esa.restlight.core.handler.locate.RouteHandlerLocator;
 import esa.restlight.core.method.InvocableMethod;
+import esa.restlight.core.method.MethodParam;
 import esa.restlight.core.spi.MappingLocatorFactory;
 import esa.restlight.core.spi.RouteHandlerLocatorFactory;
 import esa.restlight.server.route.Mapping;
@@ -62,6 +65,23 @@ public class RouteUtils {
                 || (Future.class.isAssignableFrom(type));
     }
 
+    /**
+     * Whether the given handler consumes the request body as a stream, which means there's a {@link StreamingBody}
+     * parameter declared in the handler method.
+     *
+     * @param handler handler
+     *
+     * @return {@code true} if the request body should be streamed
+     */
+    public static boolean isStreamingBody(InvocableMethod handler) {
+        for (MethodParam param : handler.parameters()) {
+            if (StreamingBody.class.isAssignableFrom(param.type())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static String scheduling(InvocableMethod handler) {
         return scheduling(handler, null);
     }
@@ -82,6 +102,38 @@ public class RouteUtils {
         return scheduled.value();
     }
 
+    /**
+     * Gets the bulkhead of the given handler which is declared by {@link Scheduled#bulkhead()}.
+     *
+     * @param handler handler
+     *
+     * @return bulkhead, a value less than or equal to 0 means unlimited.
+     */
+    public static int bulkhead(InvocableMethod handler) {
+        Scheduled scheduled = handler.getMethodAnnotation(Scheduled.class);
+        if (scheduled == null) {
+            scheduled = handler.beanType().getAnnotation(Scheduled.class);
+        }
+        return scheduled == null ? -1 : scheduled.bulkhead();
+    }
+
+    /**
+     * Whether to generate {@code ETag} for the response bodies of the given handler, which is declared by {@link
+     * ETag} or the global option if absent.
+     *
+     * @param handler handler
+     * @param global  global option
+     *
+     * @return etag
+     */
+    public static boolean etag(InvocableMethod handler, boolean global) {
+        ETag etag = handler.getMethodAnnotation(ETag.class);
+        if (etag == null) {
+            etag = handler.beanType().getAnnotation(ETag.class);
+        }
+        return etag == null ? global : etag.value();
+    }
+
     /**
      * Choose a implementation of {@link RouteExecution} by the return value type of the given handler, and use the
      * non-asynchronous implementation({@link DefaultRouteExecution}) as the default.
@@ -154,13 +206,19 @@ public class RouteUtils {
         final RouteHandlerAdapter handlerAdapter = new RouteHandlerAdapter(routeHandler,
                 ctx.resolverFactory().get(),
                 filter(ctx, mapping, routeHandler, ctx.interceptors().orElse(Collections.emptyList())),
-                ctx.exceptionResolverFactory().get().createResolver(routeHandler));
+                ctx.exceptionResolverFactory().get().createResolver(routeHandler),
+                etag(routeHandler.handler(), ctx.options().isEtag()));
         Scheduler scheduler = ctx.schedulers().get(handlerAdapter.scheduler());
         Checks.checkNotNull(scheduler,
                 "Could not find any scheduler named '" + handlerAdapter.scheduler() + "'");
+        final int bulkhead = bulkhead(routeHandler.handler());
+        if (bulkhead > 0) {
+            scheduler = Schedulers.bulkhead(scheduler, bulkhead);
+        }
         final Route route = Route.route(mapping)
                 .executionFactory(handlerAdapter::toExecution)
                 .schedule(scheduler)
+                .streamingBody(isStreamingBody(routeHandler.handler()))
                 .handlerObject(handlerAdapter.handler());
         return Optional.of(route);
     }
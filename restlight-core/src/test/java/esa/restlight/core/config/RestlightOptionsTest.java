@@ -20,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RestlightOptionsTest {
 
@@ -29,6 +30,7 @@ class RestlightOptionsTest {
                 .contextPath("foo")
                 .validationMessageFile("bar")
                 .serialize(null)
+                .etag(true)
                 .ext(null)
                 .configured();
 
@@ -36,6 +38,7 @@ class RestlightOptionsTest {
         assertEquals("foo", options.getContextPath());
         assertEquals("bar", options.getValidationMessageFile());
         assertNull(options.getSerialize());
+        assertTrue(options.isEtag());
         assertNull(options.getExt());
     }
 
@@ -47,6 +50,7 @@ class RestlightOptionsTest {
         assertEquals(def.getContextPath(), options.getContextPath());
         assertEquals(def.getValidationMessageFile(), options.getValidationMessageFile());
         assertEquals(def.getExt(), options.getExt());
+        assertEquals(def.isEtag(), options.isEtag());
         assertNotNull(def.getSerialize());
     }
 
@@ -19,11 +19,16 @@ import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
 import esa.restlight.core.method.MethodParam;
 import esa.restlight.core.resolver.ArgumentResolver;
+import esa.restlight.core.serialize.Serializers;
 import esa.restlight.server.bootstrap.WebServerException;
+import esa.restlight.server.util.ETags;
 import esa.restlight.server.util.Futures;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import org.junit.jupiter.api.Test;
 
@@ -243,6 +248,62 @@ class AbstractHandlerExecutionTest {
         assertArrayEquals("foo".getBytes(), ByteBufUtil.getBytes(response.getSentData()));
     }
 
+    @Test
+    void testHandleReturnValueWithETag() {
+        final HandlerAdapter mock = mock(HandlerAdapter.class);
+        final AbstractHandlerExecution<HandlerAdapter> execution = new AbstractHandlerExecution<HandlerAdapter>(mock) {
+            @Override
+            protected CompletableFuture<Object> transferToFuture(Object returnValue) {
+                return Futures.completedFuture(returnValue);
+            }
+        };
+        when(mock.etag()).thenReturn(true);
+        when(mock.returnValueResolver())
+                .thenReturn((returnValue, request1, response1) -> returnValue.toString().getBytes());
+
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        execution.handleReturnValue("foo",
+                MockAsyncRequest.aMockRequest().withMethod(HttpMethod.GET).build(), response);
+        final String etag = response.getHeader(HttpHeaderNames.ETAG);
+        assertEquals(ETags.weak(Unpooled.wrappedBuffer("foo".getBytes())), etag);
+        assertEquals(200, response.status());
+        assertArrayEquals("foo".getBytes(), ByteBufUtil.getBytes(response.getSentData()));
+
+        final MockAsyncResponse notModified = MockAsyncResponse.aMockResponse().build();
+        execution.handleReturnValue("foo", MockAsyncRequest.aMockRequest()
+                .withMethod(HttpMethod.GET)
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), etag)
+                .build(), notModified);
+        assertEquals(304, notModified.status());
+        assertEquals(etag, notModified.getHeader(HttpHeaderNames.ETAG));
+        assertEquals(0, notModified.getSentData().readableBytes());
+
+        // body which is written by the serializer directly
+        when(mock.returnValueResolver())
+                .thenReturn((returnValue, request1, response1) -> {
+                    final byte[] bytes = returnValue.toString().getBytes();
+                    response1.sendResult(Unpooled.wrappedBuffer(bytes), 0, bytes.length);
+                    return Serializers.alreadyWrite();
+                });
+        final MockAsyncResponse notModified1 = MockAsyncResponse.aMockResponse().build();
+        execution.handleReturnValue("foo", MockAsyncRequest.aMockRequest()
+                .withMethod(HttpMethod.GET)
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), etag)
+                .build(), notModified1);
+        assertEquals(304, notModified1.status());
+        assertEquals(0, notModified1.getSentData().readableBytes());
+
+        // not a GET request
+        final MockAsyncResponse post = MockAsyncResponse.aMockResponse().build();
+        execution.handleReturnValue("foo", MockAsyncRequest.aMockRequest()
+                .withMethod(HttpMethod.POST)
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), etag)
+                .build(), post);
+        assertEquals(200, post.status());
+        assertNull(post.getHeader(HttpHeaderNames.ETAG));
+        assertArrayEquals("foo".getBytes(), ByteBufUtil.getBytes(post.getSentData()));
+    }
+
     @Test
     void testHandleReturnValueButResponseCommitted() {
         final HandlerAdapter mock = mock(HandlerAdapter.class);
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.handler.impl;
+
+import esa.restlight.core.method.HandlerMethod;
+import esa.restlight.server.bootstrap.WebServerException;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HandlerInvokerImplTest {
+
+    private static final Subject SUBJECT = new Subject();
+
+    @Test
+    void testInvoke() throws Throwable {
+        for (boolean useMethodHandle : new boolean[]{true, false}) {
+            assertEquals(3, invoke(useMethodHandle, "add", 1, 2L));
+            assertNull(invoke(useMethodHandle, "none"));
+            assertNull(invoke(useMethodHandle, "none", (Object[]) null));
+            assertEquals("foo", invoke(useMethodHandle, "concat", "f", "oo"));
+            assertEquals("foo", invoke(useMethodHandle, "staticMethod", "foo"));
+            assertEquals("bar", invoke(useMethodHandle, "privateMethod", "bar"));
+        }
+    }
+
+    @Test
+    void testFallbackToReflection() throws Throwable {
+        // primitive widening conversion
+        assertEquals(3, invoke(true, "add", 1, 2));
+    }
+
+    @Test
+    void testIllegalArguments() {
+        for (boolean useMethodHandle : new boolean[]{true, false}) {
+            assertThrows(WebServerException.class, () -> invoke(useMethodHandle, "add", null, 2L));
+            assertThrows(WebServerException.class, () -> invoke(useMethodHandle, "add", "1", 2L));
+            assertThrows(WebServerException.class, () -> invoke(useMethodHandle, "add", 1));
+            assertThrows(WebServerException.class, () -> invoke(useMethodHandle, "concat", 1, "oo"));
+        }
+    }
+
+    @Test
+    void testUnwrapException() {
+        for (boolean useMethodHandle : new boolean[]{true, false}) {
+            assertThrows(IOException.class, () -> invoke(useMethodHandle, "err"));
+        }
+    }
+
+    private static Object invoke(boolean useMethodHandle, String method, Object... args) throws Throwable {
+        Class<?>[] types = null;
+        for (Method m : Subject.class.getDeclaredMethods()) {
+            if (m.getName().equals(method)) {
+                types = m.getParameterTypes();
+            }
+        }
+        final HandlerInvokerImpl invoker = new HandlerInvokerImpl(
+                HandlerMethod.of(Subject.class.getDeclaredMethod(method, types), SUBJECT), useMethodHandle);
+        return invoker.invoke(MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build(),
+                args);
+    }
+
+    private static class Subject {
+
+        public int add(int a, long b) {
+            return (int) (a + b);
+        }
+
+        public void none() {
+        }
+
+        public String concat(String a, String b) {
+            return a + b;
+        }
+
+        public static String staticMethod(String a) {
+            return a;
+        }
+
+        private String privateMethod(String a) {
+            return a;
+        }
+
+        public void err() throws IOException {
+            throw new IOException();
+        }
+    }
+}
@@ -204,6 +204,75 @@ class RouteHandlerAdapterTest {
         assertSame(interceptor0, matched.get(3));
     }
 
+    @Test
+    void testMatchStaticInterceptor() throws NoSuchMethodException {
+        final RouteHandler handler = mock(RouteHandler.class);
+        when(handler.intercepted()).thenReturn(true);
+        when(handler.handler())
+                .thenReturn(HandlerMethod.of(HandlerAdapterTest.class.getDeclaredMethod("normal", String.class),
+                        new HandlerAdapterTest()));
+        final MultiValueMap<InterceptorPredicate, Interceptor> interceptors = new LinkedMultiValueMap<>();
+        final Interceptor interceptor0 = mock(Interceptor.class);
+        when(interceptor0.getOrder()).thenReturn(0);
+        final Interceptor interceptor1 = mock(Interceptor.class);
+        when(interceptor1.getOrder()).thenReturn(-1);
+        final Interceptor interceptor2 = mock(Interceptor.class);
+        when(interceptor2.getOrder()).thenReturn(-2);
+        interceptors.add(InterceptorPredicate.ALWAYS, interceptor0);
+        interceptors.add(InterceptorPredicate.ALWAYS, interceptor1);
+        interceptors.add(InterceptorPredicate.NEVER, interceptor2);
+
+        final RouteHandlerAdapter adapter =
+                new RouteHandlerAdapter(handler, mock(HandlerResolverFactory.class), interceptors, null);
+
+        final List<InternalInterceptor> matched =
+                adapter.getMatchingInterceptors(MockAsyncRequest.aMockRequest().build());
+        assertNotNull(matched);
+        assertEquals(2, matched.size());
+        assertSame(interceptor1, matched.get(0));
+        assertSame(interceptor0, matched.get(1));
+        // computed only once
+        assertSame(matched, adapter.getMatchingInterceptors(MockAsyncRequest.aMockRequest().build()));
+        assertThrows(UnsupportedOperationException.class, () -> matched.remove(0));
+
+        final MultiValueMap<InterceptorPredicate, Interceptor> never = new LinkedMultiValueMap<>();
+        never.add(InterceptorPredicate.NEVER, interceptor2);
+        assertNull(new RouteHandlerAdapter(handler, mock(HandlerResolverFactory.class), never, null)
+                .getMatchingInterceptors(MockAsyncRequest.aMockRequest().build()));
+    }
+
+    @Test
+    void testMatchMixedInterceptor() throws NoSuchMethodException {
+        final RouteHandler handler = mock(RouteHandler.class);
+        when(handler.intercepted()).thenReturn(true);
+        when(handler.handler())
+                .thenReturn(HandlerMethod.of(HandlerAdapterTest.class.getDeclaredMethod("normal", String.class),
+                        new HandlerAdapterTest()));
+        final MultiValueMap<InterceptorPredicate, Interceptor> interceptors = new LinkedMultiValueMap<>();
+        final Interceptor interceptor0 = mock(Interceptor.class);
+        when(interceptor0.getOrder()).thenReturn(0);
+        final Interceptor interceptor1 = mock(Interceptor.class);
+        when(interceptor1.getOrder()).thenReturn(-1);
+        final InterceptorPredicate p1 = mock(InterceptorPredicate.class);
+        when(p1.test(any())).thenReturn(true, false);
+        interceptors.add(InterceptorPredicate.ALWAYS, interceptor0);
+        interceptors.add(p1, interceptor1);
+
+        final RouteHandlerAdapter adapter =
+                new RouteHandlerAdapter(handler, mock(HandlerResolverFactory.class), interceptors, null);
+
+        List<InternalInterceptor> matched = adapter.getMatchingInterceptors(MockAsyncRequest.aMockRequest().build());
+        assertNotNull(matched);
+        assertEquals(2, matched.size());
+        assertSame(interceptor1, matched.get(0));
+        assertSame(interceptor0, matched.get(1));
+
+        matched = adapter.getMatchingInterceptors(MockAsyncRequest.aMockRequest().build());
+        assertNotNull(matched);
+        assertEquals(1, matched.size());
+        assertSame(interceptor0, matched.get(0));
+        verify(p1, times(2)).test(any());
+    }
 
     private String normal(String foo) {
         return foo;
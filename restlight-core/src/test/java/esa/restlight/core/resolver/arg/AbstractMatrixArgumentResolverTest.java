@@ -18,6 +18,7 @@ package esa.restlight.core.resolver.arg;
 import esa.commons.collection.LinkedMultiValueMap;
 import esa.commons.collection.MultiValueMap;
 import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.RequestAttributes;
 import esa.restlight.core.method.MethodParamImpl;
 import esa.restlight.core.method.Param;
 import esa.restlight.core.resolver.ArgumentResolver;
@@ -39,7 +40,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AbstractMatrixArgumentResolverTest {
 
-    private static final String attrKey = "$matrix.vars";
+    private static final String attrKey = RequestAttributes.MATRIX_VARIABLES;
 
     @Test
     void testSingleValue() throws Exception {
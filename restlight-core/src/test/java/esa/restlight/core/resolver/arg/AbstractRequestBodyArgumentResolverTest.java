@@ -4,15 +4,18 @@ import esa.commons.http.HttpHeaderNames;
 import esa.commons.http.HttpHeaderValues;
 import esa.restlight.core.method.Param;
 import esa.restlight.core.serialize.JacksonHttpBodySerializer;
+import esa.restlight.core.serialize.JacksonSerializer;
 import esa.restlight.server.bootstrap.WebServerException;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -84,6 +87,40 @@ class AbstractRequestBodyArgumentResolverTest {
         assertEquals("bar", ((Subject) ret).getFoo());
     }
 
+    @Test
+    void testCustomizedDeserializationIsNotBypassed() throws Exception {
+        final Param param = mock(Param.class);
+        when(param.type()).thenReturn((Class) Subject.class);
+        when(param.genericType()).thenReturn(Subject.class);
+        final AbstractRequestBodyArgumentResolver resolver = new AbstractRequestBodyArgumentResolver() {
+            @Override
+            protected NameAndValue createNameAndValue(Param param) {
+                return new NameAndValue("X", true);
+            }
+        };
+        final Subject customized = new Subject();
+        final JacksonHttpBodySerializer serializer = new JacksonHttpBodySerializer() {
+            @Override
+            public <T> T deSerialize(byte[] data, Type type) {
+                return (T) customized;
+            }
+        };
+        final MockAsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                .withBody("{\"foo\": \"bar\"}".getBytes(StandardCharsets.UTF_8))
+                .build();
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        assertSame(customized, resolver.createResolver(param, Collections.singletonList(serializer))
+                .resolve(request, response));
+
+        // prefer ByteBuf explicitly
+        final Object ret = resolver.createResolver(param, Collections.singletonList(
+                new JacksonHttpBodySerializer(JacksonSerializer.getDefaultMapper(), true)))
+                .resolve(request, response);
+        assertTrue(ret instanceof Subject);
+        assertEquals("bar", ((Subject) ret).getFoo());
+    }
+
     @Test
     void testMissingRequiredValue() {
         final Param param = mock(Param.class);
@@ -35,6 +35,7 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -96,6 +97,36 @@ class AbstractResponseBodyReturnValueResolverTest {
                         MockAsyncRequest.aMockRequest().build(), MockAsyncResponse.aMockResponse().build()));
     }
 
+    @Test
+    void testSelectedSerializerIsCached() throws Throwable {
+        final AtomicInteger supports = new AtomicInteger();
+        final HttpResponseSerializer serializer = new HttpResponseSerializer1() {
+            @Override
+            public boolean supportsWrite(MediaType mediaType, Type type) {
+                supports.incrementAndGet();
+                return true;
+            }
+        };
+        final AbstractResponseBodyReturnValueResolver.DefaultResolver resolver = new
+                AbstractResponseBodyReturnValueResolver.DefaultResolver(Collections.singletonList(serializer), false);
+        final List<MediaType> json = MediaType.cachedValuesOf("application/json");
+        resolver.resolve0("", json, MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build());
+        resolver.resolve0("", json, MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build());
+        assertEquals(1, supports.get());
+
+        // another type of return value
+        resolver.resolve0(1, json, MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build());
+        assertEquals(2, supports.get());
+
+        // another accept
+        resolver.resolve0("", MediaType.cachedValuesOf("text/plain"), MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build());
+        assertEquals(3, supports.get());
+    }
+
     @Test
     void testGetMediaTypesOfNegotiationResolver() {
         final String format = "format0";
@@ -19,6 +19,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -79,4 +81,21 @@ class JacksonSerializerTest {
     void getDefaultMapper() {
         assertEquals(defaultObjectMapper, JacksonSerializer.getDefaultMapper());
     }
+
+    @Test
+    void deSerializeByteBuf() throws Exception {
+        final ByteBuf heap = Unpooled.buffer().writeByte('x').writeBytes(pojoBytes);
+        heap.skipBytes(1);
+        assertEquals(pojo, defaultJacksonSerializer.deSerialize(heap, Pojo.class));
+        assertEquals(pojoBytes.length, heap.readableBytes());
+
+        final ByteBuf direct = Unpooled.directBuffer().writeBytes(pojoBytes);
+        try {
+            assertEquals(pojo, defaultJacksonSerializer.deSerialize(direct, Pojo.class));
+            assertEquals(pojoBytes.length, direct.readableBytes());
+        } finally {
+            direct.release();
+        }
+    }
+
 }
@@ -18,6 +18,8 @@ package esa.restlight.core.serialize;
 import esa.httpserver.core.HttpOutputStream;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -72,4 +74,25 @@ class ProtoBufSerializerTest {
         assertEquals(pojo.getName(), pojoReduction.getName());
         assertEquals(pojo.getAge(), pojoReduction.getAge());
     }
+
+    @Test
+    void deSerializeByteBuf() throws Exception {
+        final ByteBuf heap = Unpooled.wrappedBuffer(pojoBytes);
+        assertEquals(pojo, protoBufSerializer.deSerialize(heap, PojoProtobuf.Pojo.class));
+        assertEquals(pojoBytes.length, heap.readableBytes());
+
+        final ByteBuf direct = Unpooled.directBuffer().writeBytes(pojoBytes);
+        try {
+            assertEquals(pojo, protoBufSerializer.deSerialize(direct, PojoProtobuf.Pojo.class));
+            assertEquals(pojoBytes.length, direct.readableBytes());
+        } finally {
+            direct.release();
+        }
+
+        final ByteBuf composite = Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(pojoBytes, 0, 2),
+                Unpooled.wrappedBuffer(pojoBytes, 2, pojoBytes.length - 2));
+        assertEquals(pojo, protoBufSerializer.deSerialize(composite, PojoProtobuf.Pojo.class));
+        assertEquals(pojoBytes.length, composite.readableBytes());
+    }
+
 }
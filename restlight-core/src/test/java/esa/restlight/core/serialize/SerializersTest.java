@@ -18,6 +18,7 @@ package esa.restlight.core.serialize;
 import esa.restlight.core.resolver.ReturnValueResolver;
 import esa.restlight.core.util.MediaType;
 import esa.restlight.test.mock.MockAsyncResponse;
+import com.google.gson.GsonBuilder;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.HttpHeaderNames;
@@ -42,19 +43,37 @@ class SerializersTest {
         final GsonHttpBodySerializer gsonHttpBodySerializer = new GsonHttpBodySerializer();
         final FastJsonHttpBodySerializer fastJsonHttpBodySerializer = new FastJsonHttpBodySerializer();
         final ProtoBufHttpBodySerializer protoBufHttpBodySerializer = new ProtoBufHttpBodySerializer();
-        final MockAsyncResponse response = new MockAsyncResponse();
         final byte[] pojoBytesJackson = jacksonHttpBodySerializer.serialize(pojo);
         assertArrayEquals(pojoBytesJackson,
-                Serializers.serializeBySerializer(jacksonHttpBodySerializer, pojo, response));
+                Serializers.serializeBySerializer(jacksonHttpBodySerializer, pojo, new MockAsyncResponse()));
         final byte[] pojoBytesGson = gsonHttpBodySerializer.serialize(pojo);
         assertArrayEquals(pojoBytesGson,
-                Serializers.serializeBySerializer(gsonHttpBodySerializer, pojo, response));
+                Serializers.serializeBySerializer(gsonHttpBodySerializer, pojo, new MockAsyncResponse()));
         final byte[] pojoBytesFastJson = fastJsonHttpBodySerializer.serialize(pojo);
         assertArrayEquals(pojoBytesFastJson,
-                Serializers.serializeBySerializer(fastJsonHttpBodySerializer, pojo, response));
+                Serializers.serializeBySerializer(fastJsonHttpBodySerializer, pojo, new MockAsyncResponse()));
         final byte[] pojoBytesProto = protoBufHttpBodySerializer.serialize(pojoProto);
         assertArrayEquals(pojoBytesProto, pojoProto.toByteArray());
 
+        // prefer ByteBuf explicitly
+        assertSerializedToByteBuf(pojoBytesJackson,
+                new JacksonHttpBodySerializer(JacksonSerializer.getDefaultMapper(), true), pojo);
+        assertSerializedToByteBuf(pojoBytesGson, new GsonHttpBodySerializer(new GsonBuilder(), true), pojo);
+        assertSerializedToByteBuf(pojoBytesFastJson, new FastJsonHttpBodySerializer(true), pojo);
+        assertSerializedToByteBuf(pojoBytesProto,
+                new ProtoBufHttpBodySerializer(new ProtoBufSerializer(), true), pojoProto);
+
+        // customized serialization of byte array should not be bypassed by default
+        final JacksonHttpBodySerializer customized = new JacksonHttpBodySerializer() {
+            @Override
+            public byte[] serialize(Object target) {
+                return new byte[]{1};
+            }
+        };
+        assertArrayEquals(new byte[]{1},
+                Serializers.serializeBySerializer(customized, pojo, new MockAsyncResponse()));
+
+        final MockAsyncResponse response = new MockAsyncResponse();
         final BaseHttpBodySerializer baseHttpBodySerializer = new BaseHttpBodySerializer() {
             @Override
             public boolean preferStream() {
@@ -72,6 +91,18 @@ class SerializersTest {
 
     }
 
+    private static void assertSerializedToByteBuf(byte[] expected,
+                                                  HttpResponseSerializer serializer,
+                                                  Object value) throws Exception {
+        final MockAsyncResponse response = new MockAsyncResponse();
+        assertEquals(ReturnValueResolver.ALREADY_WRITE,
+                Serializers.serializeBySerializer(serializer, value, response));
+        final ByteBuf sent = response.getSentData();
+        final byte[] actual = new byte[sent.readableBytes()];
+        sent.getBytes(sent.readerIndex(), actual);
+        assertArrayEquals(expected, actual);
+    }
+
     @Test
     void alreadyWrite() {
         assertFalse(Serializers.alreadyWrite(new byte[]{}));
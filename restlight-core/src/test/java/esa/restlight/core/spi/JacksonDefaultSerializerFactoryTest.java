@@ -39,6 +39,7 @@ class JacksonDefaultSerializerFactoryTest {
         final HttpRequestSerializer rx = factory.defaultRequestSerializer(MockContext.mock());
         assertNotNull(rx);
         assertTrue(rx instanceof JacksonHttpBodySerializer);
+        assertTrue(rx.preferByteBuf());
         assertSame(rx, factory.defaultRequestSerializer(MockContext.mock()));
         assertSame(rx, factory.defaultResponseSerializer(MockContext.mock()));
         assertSame(rx, factory.defaultResponseSerializer(MockContext.mock()));
@@ -18,7 +18,9 @@ package esa.restlight.core.util;
 import com.google.common.util.concurrent.ListenableFuture;
 import esa.restlight.core.DeployContext;
 import esa.restlight.core.annotation.Scheduled;
+import esa.restlight.core.annotation.ETag;
 import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.core.config.RestlightOptionsConfigure;
 import esa.restlight.core.handler.RouteHandler;
 import esa.restlight.core.handler.locate.RouteHandlerLocator;
 import esa.restlight.core.method.HandlerMethod;
@@ -85,9 +87,26 @@ class RouteUtilsTest {
                 RouteUtils.scheduling(method8, Schedulers.BIZ));
     }
 
+    @Test
+    void testETag() throws NoSuchMethodException {
+        final HandlerMethod method2
+                = HandlerMethod.of(Subject.class.getDeclaredMethod("method2"), SUBJECT);
+        assertFalse(RouteUtils.etag(method2, false));
+        assertTrue(RouteUtils.etag(method2, true));
+
+        final HandlerMethod method9
+                = HandlerMethod.of(Subject.class.getDeclaredMethod("method9"), SUBJECT);
+        assertTrue(RouteUtils.etag(method9, false));
+
+        final HandlerMethod method10
+                = HandlerMethod.of(Subject.class.getDeclaredMethod("method10"), SUBJECT);
+        assertFalse(RouteUtils.etag(method10, true));
+    }
+
     @Test
     void testExtractRouteByMappingAndRouteHandler() throws NoSuchMethodException {
         final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        when(ctx.options()).thenReturn(RestlightOptionsConfigure.defaultOpts());
         final Mapping mapping = Mapping.get();
 
         assertFalse(RouteUtils.extractRoute(ctx, null, mock(RouteHandler.class)).isPresent());
@@ -126,6 +145,7 @@ class RouteUtilsTest {
     @Test
     void testExtractRouteByMappingAndMethod() throws NoSuchMethodException {
         final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        when(ctx.options()).thenReturn(RestlightOptionsConfigure.defaultOpts());
         final Mapping mapping = Mapping.get();
         assertFalse(RouteUtils.extractRoute(ctx,
                 RouteUtilsTest.class,
@@ -172,6 +192,7 @@ class RouteUtilsTest {
     @Test
     void testExtractRouteByMethod() throws NoSuchMethodException {
         final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        when(ctx.options()).thenReturn(RestlightOptionsConfigure.defaultOpts());
         assertFalse(RouteUtils.extractRoute(ctx,
                 RouteUtilsTest.class,
                 RouteUtilsTest.class.getDeclaredMethod("normal", String.class),
@@ -257,5 +278,13 @@ class RouteUtilsTest {
         @Scheduled(Schedulers.IO)
         void method8() {
         }
+
+        @ETag
+        void method9() {
+        }
+
+        @ETag(false)
+        void method10() {
+        }
     }
 }
@@ -17,10 +17,14 @@ package esa.restlight.ext.filter.starter.autoconfigurer;
 
 import esa.restlight.core.util.Ordered;
 import esa.restlight.ext.filter.accesslog.AccessLogFilter;
+import esa.restlight.ext.filter.cache.ResponseCacheFilter;
+import esa.restlight.ext.filter.compress.CompressionFilter;
 import esa.restlight.ext.filter.connectionlimit.ConnectionLimitFilter;
 import esa.restlight.ext.filter.cors.CorsFilter;
 import esa.restlight.ext.filter.cpuload.CpuLoadProtectionFilter;
 import esa.restlight.ext.filter.ipwhitelist.IpWhiteListFilter;
+import esa.restlight.ext.filter.ratelimit.RateLimitFilter;
+import esa.restlight.ext.filter.resource.StaticResourceFilter;
 import esa.restlight.ext.filter.xss.XssFilter;
 import esa.restlight.starter.ServerStarter;
 import esa.restlight.starter.autoconfigure.AutoRestlightServerOptions;
@@ -42,7 +46,11 @@ import static esa.restlight.starter.autoconfigure.AutoRestlightServerOptions.PRE
         CpuLoadProtectionProperties.class,
         ConnectionLimitProperties.class,
         XssProperties.class,
-        IpWhiteListProperties.class})
+        IpWhiteListProperties.class,
+        ResponseCacheProperties.class,
+        CompressionProperties.class,
+        StaticResourceProperties.class,
+        RateLimitProperties.class})
 public class RestlightExtFilterAutoConfiguration {
 
     static final String EXT = PREFIX + ".ext.";
@@ -111,4 +119,32 @@ public class RestlightExtFilterAutoConfiguration {
     public CorsFilter corsFilter(CorsProperties options) {
         return new CorsFilter(options.getRules());
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = ResponseCacheProperties.PREFIX, name = "enable", havingValue = "true")
+    public ResponseCacheFilter responseCacheFilter(ResponseCacheProperties options) {
+        return new ResponseCacheFilter(options);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = CompressionProperties.PREFIX, name = "enable", havingValue = "true")
+    public CompressionFilter compressionFilter(CompressionProperties options) {
+        return new CompressionFilter(options);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = StaticResourceProperties.PREFIX, name = "enable", havingValue = "true")
+    public StaticResourceFilter staticResourceFilter(StaticResourceProperties options) {
+        return new StaticResourceFilter(options);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = RateLimitProperties.PREFIX, name = "enable", havingValue = "true")
+    public RateLimitFilter rateLimitFilter(RateLimitProperties options) {
+        return new RateLimitFilter(options);
+    }
 }
@@ -38,15 +38,21 @@ public class AccessLogFilter implements Filter {
     private static final Logger log = LoggerFactory.getLogger(AccessLogFilter.class);
     private final InternalLogger logger;
     private final boolean fullUri;
+    private final AsyncAccessLogWriter writer;
 
     public AccessLogFilter(AccessLogOptions options) {
-        this(forLogger(options).build(), options.isFullUri());
+        this(forLogger(options).build(), options.isFullUri(), options.isAsync(), options.getBufferSize());
     }
 
     AccessLogFilter(InternalLogger logger, boolean fullUri) {
+        this(logger, fullUri, false, 0);
+    }
+
+    AccessLogFilter(InternalLogger logger, boolean fullUri, boolean async, int bufferSize) {
         Checks.checkNotNull(logger);
         this.logger = logger;
         this.fullUri = fullUri;
+        this.writer = async ? new AsyncAccessLogWriter(logger, bufferSize) : null;
     }
 
     static InternalLoggers.Builder forLogger(AccessLogOptions options) {
@@ -75,21 +81,67 @@ public class AccessLogFilter implements Filter {
         final String remoteAddr = request.remoteAddr();
         final int remotePort = request.remotePort();
         final long start = System.nanoTime();
-        response.onEnd(r -> {
-            final String log = StringUtils.concat(
-                    DateUtils.now(),
-                    " [", method.name(),
-                    " ", path,
-                    " ", protocol,
-                    "] contentLength=", String.valueOf(contentLength),
-                    ", remoteAddr=", remoteAddr,
-                    ", remotePort=", String.valueOf(remotePort),
-                    ", code=", String.valueOf(r.status()),
-                    ", duration=",
-                    String.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)), " mills");
-
-            logger.info(log);
-        });
+        if (writer == null) {
+            response.onEnd(r -> logger.info(format(new StringBuilder(128),
+                    System.currentTimeMillis(),
+                    method,
+                    path,
+                    protocol,
+                    contentLength,
+                    remoteAddr,
+                    remotePort,
+                    r.status(),
+                    System.nanoTime() - start).toString()));
+        } else {
+            // only capture the fields here, the log will be formatted and written by the writer thread
+            response.onEnd(r -> writer.offer(System.currentTimeMillis(),
+                    System.nanoTime() - start,
+                    method,
+                    path,
+                    protocol,
+                    contentLength,
+                    remoteAddr,
+                    remotePort,
+                    r.status()));
+        }
         return chain.doFilter(request, response);
     }
+
+    /**
+     * Gets the number of the access logs dropped because the buffer of the asynchronous writer was full.
+     *
+     * @return dropped count, always {@code 0} if the access logs are written synchronously
+     */
+    public long droppedCount() {
+        return writer == null ? 0L : writer.dropped();
+    }
+
+    @Override
+    public void shutdown() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    static StringBuilder format(StringBuilder sb,
+                                long timestamp,
+                                HttpMethod method,
+                                String path,
+                                String protocol,
+                                int contentLength,
+                                String remoteAddr,
+                                int remotePort,
+                                int status,
+                                long durationNanos) {
+        return sb.append(DateUtils.formatByCache(timestamp))
+                .append(" [").append(method.name())
+                .append(' ').append(path)
+                .append(' ').append(protocol)
+                .append("] contentLength=").append(contentLength)
+                .append(", remoteAddr=").append(remoteAddr)
+                .append(", remotePort=").append(remotePort)
+                .append(", code=").append(status)
+                .append(", duration=").append(TimeUnit.NANOSECONDS.toMillis(durationNanos))
+                .append(" mills");
+    }
 }
@@ -28,6 +28,15 @@ public class AccessLogOptions implements Serializable {
     private String datePattern = "yyyy-MM-dd";
     private int maxHistory = 10;
     private boolean fullUri;
+    /**
+     * Whether to write the access logs in a dedicated thread.
+     */
+    private boolean async = true;
+    /**
+     * Capacity of the buffer which holds the access logs waiting to be written asynchronously, access logs will be
+     * dropped if the buffer is full.
+     */
+    private int bufferSize = 8192;
 
     public String getDirectory() {
         return directory;
@@ -84,4 +93,20 @@ public class AccessLogOptions implements Serializable {
     public void setFullUri(boolean fullUri) {
         this.fullUri = fullUri;
     }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
 }
@@ -23,6 +23,8 @@ public final class AccessLogOptionsConfigure {
     private String datePattern = "yyyy-MM-dd";
     private int maxHistory = 10;
     private boolean fullUri;
+    private boolean async = true;
+    private int bufferSize = 8192;
 
     private AccessLogOptionsConfigure() {
     }
@@ -70,6 +72,16 @@ public final class AccessLogOptionsConfigure {
         return this;
     }
 
+    public AccessLogOptionsConfigure async(boolean async) {
+        this.async = async;
+        return this;
+    }
+
+    public AccessLogOptionsConfigure bufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
     public AccessLogOptions configured() {
         AccessLogOptions accessLogOptions = new AccessLogOptions();
         accessLogOptions.setDirectory(directory);
@@ -79,6 +91,8 @@ public final class AccessLogOptionsConfigure {
         accessLogOptions.setDatePattern(datePattern);
         accessLogOptions.setMaxHistory(maxHistory);
         accessLogOptions.setFullUri(fullUri);
+        accessLogOptions.setAsync(async);
+        accessLogOptions.setBufferSize(bufferSize);
         return accessLogOptions;
     }
 }
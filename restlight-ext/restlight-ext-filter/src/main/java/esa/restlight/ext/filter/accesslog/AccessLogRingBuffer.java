@@ -0,0 +1,162 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.accesslog;
+
+import esa.commons.Checks;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.util.internal.MathUtil;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded lock-free ring buffer of access log entries which supports multiple producers and a single consumer.
+ * <p>
+ * The fields of the entries are stored in preallocated parallel arrays instead of allocating an object for each
+ * entry. A producer claims a slot by CAS on the tail sequence, fills the fields and then publishes the slot by setting
+ * the sequence of the slot, the entry will be dropped and counted if the buffer is full.
+ */
+final class AccessLogRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final long[] timestamps;
+    private final long[] durations;
+    private final int[] contentLengths;
+    private final int[] remotePorts;
+    private final int[] statuses;
+    private final HttpMethod[] methods;
+    private final String[] paths;
+    private final String[] protocols;
+    private final String[] remoteAddrs;
+
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * next sequence to consume, which is only updated by the consumer
+     */
+    private volatile long head;
+    private final LongAdder dropped = new LongAdder();
+
+    AccessLogRingBuffer(int capacity) {
+        Checks.checkArg(capacity > 0, "capacity must be positive");
+        this.capacity = MathUtil.safeFindNextPositivePowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            published.lazySet(i, -1L);
+        }
+        this.timestamps = new long[this.capacity];
+        this.durations = new long[this.capacity];
+        this.contentLengths = new int[this.capacity];
+        this.remotePorts = new int[this.capacity];
+        this.statuses = new int[this.capacity];
+        this.methods = new HttpMethod[this.capacity];
+        this.paths = new String[this.capacity];
+        this.protocols = new String[this.capacity];
+        this.remoteAddrs = new String[this.capacity];
+    }
+
+    boolean offer(long timestamp,
+                  long durationNanos,
+                  HttpMethod method,
+                  String path,
+                  String protocol,
+                  int contentLength,
+                  String remoteAddr,
+                  int remotePort,
+                  int status) {
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head >= capacity) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1L));
+
+        final int i = (int) seq & mask;
+        timestamps[i] = timestamp;
+        durations[i] = durationNanos;
+        methods[i] = method;
+        paths[i] = path;
+        protocols[i] = protocol;
+        contentLengths[i] = contentLength;
+        remoteAddrs[i] = remoteAddr;
+        remotePorts[i] = remotePort;
+        statuses[i] = status;
+        // release the fields above to the consumer
+        published.lazySet(i, seq);
+        return true;
+    }
+
+    /**
+     * Formats at most {@code maxEntries} published entries into the given {@link StringBuilder}, one entry per line.
+     * This method must only be called by the single consumer.
+     *
+     * @param sb         target
+     * @param maxEntries max entries to drain
+     * @return number of the entries drained
+     */
+    int drainTo(StringBuilder sb, int maxEntries) {
+        long seq = head;
+        int n = 0;
+        while (n < maxEntries) {
+            final int i = (int) seq & mask;
+            if (published.get(i) != seq) {
+                break;
+            }
+            if (sb.length() > 0) {
+                sb.append(System.lineSeparator());
+            }
+            AccessLogFilter.format(sb,
+                    timestamps[i],
+                    methods[i],
+                    paths[i],
+                    protocols[i],
+                    contentLengths[i],
+                    remoteAddrs[i],
+                    remotePorts[i],
+                    statuses[i],
+                    durations[i]);
+            // do not retain the objects
+            methods[i] = null;
+            paths[i] = null;
+            protocols[i] = null;
+            remoteAddrs[i] = null;
+            seq++;
+            n++;
+        }
+        if (n > 0) {
+            // hand over the slots to the producers
+            head = seq;
+        }
+        return n;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int size() {
+        return (int) (tail.get() - head);
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
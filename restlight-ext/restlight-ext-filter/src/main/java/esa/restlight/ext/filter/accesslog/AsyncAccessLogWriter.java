@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.accesslog;
+
+import esa.commons.logging.InternalLogger;
+import esa.commons.logging.Logger;
+import esa.commons.logging.LoggerFactory;
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import io.netty.handler.codec.http.HttpMethod;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes the access logs in a dedicated thread so that the thread which completes the response(usually an IO
+ * thread) would never be blocked by the file I/O.
+ * <p>
+ * Entries are captured into an {@link AccessLogRingBuffer} and drained in batches, each batch is written to the
+ * underlying {@link InternalLogger} at once as a multi-line message. The writer thread parks itself while there is
+ * no entry and would be unparked by the next {@link #offer}, so that it costs nothing while idle.
+ */
+final class AsyncAccessLogWriter implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncAccessLogWriter.class);
+
+    private static final int BATCH_SIZE = 256;
+    /**
+     * Upper bound of parking while idle, which is only a safety net and should never be reached under load.
+     */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(50L);
+
+    private final InternalLogger logger;
+    private final AccessLogRingBuffer buffer;
+    private final Thread thread;
+    private volatile boolean running = true;
+    /**
+     * whether the writer thread is going to park or has been parked
+     */
+    private volatile boolean idle;
+    private long reportedDropped;
+
+    AsyncAccessLogWriter(InternalLogger logger, int bufferSize) {
+        this.logger = logger;
+        this.buffer = new AccessLogRingBuffer(bufferSize);
+        this.thread = new RestlightThreadFactory("Restlight-AccessLog").newThread(this);
+        this.thread.start();
+    }
+
+    boolean offer(long timestamp,
+                  long durationNanos,
+                  HttpMethod method,
+                  String path,
+                  String protocol,
+                  int contentLength,
+                  String remoteAddr,
+                  int remotePort,
+                  int status) {
+        if (!buffer.offer(timestamp, durationNanos, method, path, protocol, contentLength,
+                remoteAddr, remotePort, status)) {
+            return false;
+        }
+        if (idle) {
+            idle = false;
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    long dropped() {
+        return buffer.dropped();
+    }
+
+    @Override
+    public void run() {
+        final StringBuilder sb = new StringBuilder(BATCH_SIZE * 128);
+        while (running) {
+            if (!flush(sb)) {
+                reportDropped();
+                idle = true;
+                // check again after publishing the idle state, otherwise an entry offered just before it would be
+                // missed until the timeout
+                if (running && buffer.size() == 0) {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+                idle = false;
+            }
+        }
+        // write the rest of entries before exiting
+        while (flush(sb)) {
+            // keep draining
+        }
+        reportDropped();
+    }
+
+    void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5L));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean flush(StringBuilder sb) {
+        sb.setLength(0);
+        if (buffer.drainTo(sb, BATCH_SIZE) == 0) {
+            return false;
+        }
+        try {
+            logger.info(sb.toString());
+        } catch (Throwable t) {
+            log.warn("Error while writing access logs", t);
+        }
+        return true;
+    }
+
+    private void reportDropped() {
+        final long dropped = buffer.dropped();
+        if (dropped != reportedDropped) {
+            log.warn("{} access log(s) dropped since the buffer(capacity={}) is full, {} in total",
+                    dropped - reportedDropped, buffer.capacity(), dropped);
+            reportedDropped = dropped;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.IllegalReferenceCountException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cached response whose body is held in an off-heap {@link ByteBuf} which is shared by all the responses served
+ * from it. The body will be released once this response is evicted from the cache.
+ */
+final class CachedResponse {
+
+    /**
+     * estimated bytes of the headers and the object itself.
+     */
+    private static final int OVERHEAD = 256;
+
+    final Map<String, List<String>> headers;
+    final String etag;
+    final long expireAtNanos;
+    private final ByteBuf body;
+
+    CachedResponse(Map<String, List<String>> headers, String etag, ByteBuf body, long expireAtNanos) {
+        this.headers = headers;
+        this.etag = etag;
+        this.body = body;
+        this.expireAtNanos = expireAtNanos;
+    }
+
+    boolean isExpired(long nowNanos) {
+        return nowNanos - expireAtNanos >= 0L;
+    }
+
+    /**
+     * Gets a retained duplicate of the body which should be released by the caller.
+     *
+     * @return body or {@code null} if the body has already been released because of evicting.
+     */
+    ByteBuf retainedBody() {
+        try {
+            return body.retainedDuplicate();
+        } catch (IllegalReferenceCountException e) {
+            return null;
+        }
+    }
+
+    int weight() {
+        return body.readableBytes() + OVERHEAD;
+    }
+
+    void release() {
+        body.release();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cache;
+
+import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.AsyncResponseWrapper;
+import esa.httpserver.core.HttpOutputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.cookie.Cookie;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * An {@link AsyncResponseWrapper} which captures the body when it is sent by {@code sendResult(...)}, a response
+ * which is written by {@link #outputStream()}, {@code sendFile(...)} or has trailers or cookies will never be cached.
+ */
+final class CachingResponse extends AsyncResponseWrapper {
+
+    private final ResponseCacheFilter filter;
+    private final String key;
+    private boolean uncacheable;
+
+    CachingResponse(AsyncResponse delegate, ResponseCacheFilter filter, String key) {
+        super(delegate);
+        this.filter = filter;
+        this.key = key;
+    }
+
+    @Override
+    public HttpOutputStream outputStream() {
+        uncacheable = true;
+        return delegate.outputStream();
+    }
+
+    @Override
+    public void sendResult(byte[] body, int off, int len) {
+        capture(body == null ? Unpooled.EMPTY_BUFFER : Unpooled.wrappedBuffer(body, off, len));
+        delegate.sendResult(body, off, len);
+    }
+
+    @Override
+    public void sendResult(byte[] body) {
+        capture(body == null ? Unpooled.EMPTY_BUFFER : Unpooled.wrappedBuffer(body));
+        delegate.sendResult(body);
+    }
+
+    @Override
+    public void sendResult(ByteBuf body, int off, int len, boolean autoRelease) {
+        capture(body == null ? Unpooled.EMPTY_BUFFER : body.slice(off, len));
+        delegate.sendResult(body, off, len, autoRelease);
+    }
+
+    @Override
+    public void sendResult(ByteBuf body, boolean autoRelease) {
+        capture(body == null ? Unpooled.EMPTY_BUFFER : body.slice());
+        delegate.sendResult(body, autoRelease);
+    }
+
+    @Override
+    public void sendFile(File file, long offset, long length) {
+        uncacheable = true;
+        delegate.sendFile(file, offset, length);
+    }
+
+    @Override
+    public void sendRedirect(String newUri) {
+        uncacheable = true;
+        delegate.sendRedirect(newUri);
+    }
+
+    @Override
+    public void addTrailer(CharSequence name, String value) {
+        uncacheable = true;
+        delegate.addTrailer(name, value);
+    }
+
+    @Override
+    public void setTrailer(CharSequence name, String value) {
+        uncacheable = true;
+        delegate.setTrailer(name, value);
+    }
+
+    @Override
+    public void setTrailers(CharSequence name, List<String> values) {
+        uncacheable = true;
+        delegate.setTrailers(name, values);
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        uncacheable = true;
+        delegate.addCookie(cookie);
+    }
+
+    @Override
+    public void addCookie(String name, String value) {
+        uncacheable = true;
+        delegate.addCookie(name, value);
+    }
+
+    private void capture(ByteBuf body) {
+        if (!uncacheable && !delegate.isCommitted()) {
+            // only the first result is captured
+            uncacheable = true;
+            filter.store(key, delegate, body);
+        }
+    }
+}
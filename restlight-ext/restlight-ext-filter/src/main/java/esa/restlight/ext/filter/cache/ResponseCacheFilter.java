@@ -0,0 +1,378 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import esa.commons.Checks;
+import esa.commons.StringUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.handler.Filter;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.ETags;
+import esa.restlight.server.util.Futures;
+import esa.restlight.server.util.LoggerUtils;
+import esa.restlight.server.util.PathMatcher;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.AsciiString;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Filter} which caches the responses of the {@code GET} requests whose path matches one of the configured
+ * patterns, so that the subsequent requests could be served without resolving arguments, invoking the handler and
+ * serializing the result.
+ * <p>
+ * Responses are keyed by the uri(including the query string) and the values of the configured request headers, and
+ * only the {@code 200} responses without cookies, trailers or a {@code Cache-Control} header which forbids caching are
+ * cached. A response whose {@code Vary} header names a request header which is not a part of the key(or {@code *})
+ * is never cached, because it could not be told apart from the responses of the other values of that header. The
+ * requests with an {@code Authorization} header are neither served nor cached unless the {@code Authorization} is
+ * one of the configured request headers, because their responses are usually personalized.
+ * <p>
+ * The body is held in an off-heap {@link ByteBuf} and the cache is bounded by the total bytes of the bodies. A weak
+ * {@code ETag} is generated for a cached response if there's no one, so that a {@code 304 Not Modified} will be sent
+ * directly if the {@code If-None-Match} of the request matches it.
+ * <p>
+ * This filter runs inside the {@code CompressionFilter} so that the uncompressed body is cached and the cached
+ * response is still compressed by the negotiated encoding of each request.
+ */
+public class ResponseCacheFilter implements Filter {
+
+    private static final String NO_STORE = "no-store";
+    private static final String PRIVATE = "private";
+    private static final String MAX_AGE = "max-age";
+    private static final String S_MAXAGE = "s-maxage";
+
+    private final PathMatcher[] paths;
+    private final String[] varyHeaders;
+    private final boolean varyByAuthorization;
+    private final int maxEntrySize;
+    private final long expireNanos;
+    private final Cache<String, CachedResponse> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ResponseCacheFilter(ResponseCacheOptions options) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkArg(options.getPaths() != null && !options.getPaths().isEmpty(),
+                "Paths of response cache must not be empty!");
+        Checks.checkArg(options.getMaxSize() > 0L, "maxSize must be positive");
+        Checks.checkArg(options.getExpire() > 0L, "expire must be positive");
+        final List<PathMatcher> matchers = new ArrayList<>(options.getPaths().size());
+        for (String path : options.getPaths()) {
+            if (!StringUtils.isEmpty(path)) {
+                matchers.add(new PathMatcher(path));
+            }
+        }
+        this.paths = matchers.toArray(new PathMatcher[0]);
+        this.varyHeaders = options.getVaryHeaders() == null
+                ? new String[0]
+                : options.getVaryHeaders().toArray(new String[0]);
+        this.varyByAuthorization = isVaryHeader(HttpHeaderNames.AUTHORIZATION.toString());
+        this.maxEntrySize = options.getMaxEntrySize();
+        this.expireNanos = TimeUnit.MILLISECONDS.toNanos(options.getExpire());
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(options.getMaxSize())
+                .<String, CachedResponse>weigher((key, value) -> value.weight())
+                .expireAfterWrite(options.getExpire(), TimeUnit.MILLISECONDS)
+                .<String, CachedResponse>removalListener(notification -> notification.getValue().release())
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<Void> doFilter(AsyncRequest request, AsyncResponse response, FilterChain chain) {
+        if (!HttpMethod.GET.equals(request.method()) || !isCacheable(request.path())) {
+            return chain.doFilter(request, response);
+        }
+        final String cacheControl = request.getHeader(HttpHeaderNames.CACHE_CONTROL);
+        if (hasDirective(cacheControl, NO_STORE)
+                || (!varyByAuthorization && request.containsHeader(HttpHeaderNames.AUTHORIZATION))) {
+            return chain.doFilter(request, response);
+        }
+        final String key = key(request);
+        if (!hasDirective(cacheControl, HttpHeaderValues.NO_CACHE.toString()) && !response.isCommitted()) {
+            final CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                if (cached.isExpired(System.nanoTime())) {
+                    cache.asMap().remove(key, cached);
+                } else if (send(request, response, cached)) {
+                    hits.increment();
+                    return Futures.completedFuture();
+                }
+            }
+        }
+        misses.increment();
+        return chain.doFilter(request, new CachingResponse(response, this, key));
+    }
+
+    /**
+     * Stores the response which is going to be sent if it is cacheable.
+     *
+     * @param key      cache key
+     * @param response original response
+     * @param body     body which is going to be sent
+     */
+    void store(String key, AsyncResponse response, ByteBuf body) {
+        try {
+            final int length = body.readableBytes();
+            if (response.status() != HttpResponseStatus.OK.code() || length > maxEntrySize
+                    || response.containsHeader(HttpHeaderNames.SET_COOKIE)
+                    || !isVaryCovered(response.getHeaders(HttpHeaderNames.VARY))) {
+                return;
+            }
+            final String cacheControl = response.getHeader(HttpHeaderNames.CACHE_CONTROL);
+            if (hasDirective(cacheControl, NO_STORE)
+                    || hasDirective(cacheControl, PRIVATE)
+                    || hasDirective(cacheControl, HttpHeaderValues.NO_CACHE.toString())) {
+                return;
+            }
+            long ttl = maxAgeNanos(cacheControl);
+            if (ttl == 0L) {
+                return;
+            }
+            if (ttl < 0L || ttl > expireNanos) {
+                ttl = expireNanos;
+            }
+
+            String etag = response.getHeader(HttpHeaderNames.ETAG);
+            if (etag == null) {
+                etag = ETags.weak(body);
+                response.setHeader(HttpHeaderNames.ETAG, etag);
+            }
+            final ByteBuf copied = Unpooled.directBuffer(length, length);
+            try {
+                copied.writeBytes(body, body.readerIndex(), length);
+                cache.put(key, new CachedResponse(copyHeaders(response), etag, copied,
+                        System.nanoTime() + ttl));
+            } catch (Throwable t) {
+                copied.release();
+                throw t;
+            }
+        } catch (Throwable t) {
+            LoggerUtils.logger().warn("Failed to cache the response of '" + key + "'", t);
+        }
+    }
+
+    /**
+     * Gets the number of the requests which are served by the cache.
+     *
+     * @return count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of the cacheable requests which are not served by the cache.
+     *
+     * @return count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of the cached responses.
+     *
+     * @return size
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 700;
+    }
+
+    @Override
+    public void shutdown() {
+        cache.invalidateAll();
+    }
+
+    private boolean isCacheable(String path) {
+        for (PathMatcher matcher : paths) {
+            if (matcher.match(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether all the request headers listed in the {@code Vary} of the response are a part of the cache key.
+     */
+    private boolean isVaryCovered(Collection<String> vary) {
+        if (vary == null) {
+            return true;
+        }
+        for (String value : vary) {
+            for (String v : value.split(",")) {
+                final String name = v.trim();
+                if (!name.isEmpty() && !isVaryHeader(name)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isVaryHeader(String name) {
+        for (String h : varyHeaders) {
+            if (h.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String key(AsyncRequest request) {
+        final String uri = request.uri();
+        if (varyHeaders.length == 0) {
+            return uri;
+        }
+        final StringBuilder sb = new StringBuilder(uri.length() + 16 * varyHeaders.length).append(uri);
+        for (String name : varyHeaders) {
+            final String value = request.getHeader(name);
+            sb.append('\n');
+            if (value != null) {
+                sb.append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean send(AsyncRequest request, AsyncResponse response, CachedResponse cached) {
+        if (ETags.matches(request.getHeader(HttpHeaderNames.IF_NONE_MATCH), cached.etag)) {
+            // see https://tools.ietf.org/html/rfc7232#section-4.1
+            for (Map.Entry<String, List<String>> header : cached.headers.entrySet()) {
+                if (isKeptBy304(header.getKey())) {
+                    response.setHeaders(header.getKey(), header.getValue());
+                }
+            }
+            response.setHeader(HttpHeaderNames.ETAG, cached.etag);
+            response.sendResult(HttpResponseStatus.NOT_MODIFIED.code());
+            return true;
+        }
+        final ByteBuf body = cached.retainedBody();
+        if (body == null) {
+            // evicted concurrently
+            return false;
+        }
+        for (Map.Entry<String, List<String>> header : cached.headers.entrySet()) {
+            response.setHeaders(header.getKey(), header.getValue());
+        }
+        response.setHeader(HttpHeaderNames.ETAG, cached.etag);
+        response.sendResult(HttpResponseStatus.OK.code(), body, body.readerIndex(), body.readableBytes(), true);
+        return true;
+    }
+
+    private static Map<String, List<String>> copyHeaders(AsyncResponse response) {
+        final Collection<String> names = response.headerNames();
+        if (names == null || names.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, List<String>> headers = new LinkedHashMap<>(names.size());
+        for (String name : names) {
+            if (isHopByHop(name)) {
+                continue;
+            }
+            headers.put(name, Collections.unmodifiableList(new ArrayList<>(response.getHeaders(name))));
+        }
+        return Collections.unmodifiableMap(headers);
+    }
+
+    private static boolean isHopByHop(String name) {
+        return HttpHeaderNames.CONTENT_LENGTH.contentEqualsIgnoreCase(name)
+                || HttpHeaderNames.TRANSFER_ENCODING.contentEqualsIgnoreCase(name)
+                || HttpHeaderNames.CONNECTION.contentEqualsIgnoreCase(name)
+                || HttpHeaderNames.KEEP_ALIVE.contentEqualsIgnoreCase(name)
+                || HttpHeaderNames.DATE.contentEqualsIgnoreCase(name)
+                || HttpHeaderNames.ETAG.contentEqualsIgnoreCase(name);
+    }
+
+    private static boolean isKeptBy304(String name) {
+        return HttpHeaderNames.CACHE_CONTROL.contentEqualsIgnoreCase(name)
+                || HttpHeaderNames.CONTENT_LOCATION.contentEqualsIgnoreCase(name)
+                || HttpHeaderNames.EXPIRES.contentEqualsIgnoreCase(name)
+                || HttpHeaderNames.VARY.contentEqualsIgnoreCase(name);
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String d : cacheControl.split(",")) {
+            final String trimmed = d.trim();
+            if (AsciiString.contentEqualsIgnoreCase(trimmed, directive)
+                    || AsciiString.regionMatches(trimmed, true, 0, directive + '=', 0, directive.length() + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the {@code s-maxage} or {@code max-age} of the {@code Cache-Control}.
+     *
+     * @return max age in nanos or {@code -1} if absent.
+     */
+    private static long maxAgeNanos(String cacheControl) {
+        if (cacheControl == null) {
+            return -1L;
+        }
+        long maxAge = -1L;
+        for (String d : cacheControl.split(",")) {
+            final String trimmed = d.trim();
+            final int eq = trimmed.indexOf('=');
+            if (eq < 0) {
+                continue;
+            }
+            final String name = trimmed.substring(0, eq).trim();
+            final boolean shared = S_MAXAGE.equalsIgnoreCase(name);
+            if (shared || MAX_AGE.equalsIgnoreCase(name)) {
+                try {
+                    final long seconds = Long.parseLong(trimmed.substring(eq + 1).trim());
+                    if (seconds >= 0L) {
+                        maxAge = TimeUnit.SECONDS.toNanos(seconds);
+                        if (shared) {
+                            // s-maxage takes precedence over max-age for shared caches
+                            return maxAge;
+                        }
+                    }
+                } catch (NumberFormatException ignored) {
+                    // ignore the illegal value
+                }
+            }
+        }
+        return maxAge;
+    }
+}
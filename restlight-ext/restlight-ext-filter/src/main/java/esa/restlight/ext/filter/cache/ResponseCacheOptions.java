@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cache;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResponseCacheOptions implements Serializable {
+
+    private static final long serialVersionUID = -3316395512384577519L;
+
+    /**
+     * Path patterns of the {@code GET} requests whose responses are allowed to be cached.
+     */
+    private List<String> paths = new ArrayList<>(0);
+    /**
+     * Names of the request headers which are a part of the cache key besides the uri. Requests with an {@code
+     * Authorization} header are not cached unless the {@code Authorization} is one of them.
+     */
+    private List<String> varyHeaders = new ArrayList<>(0);
+    /**
+     * Max total bytes of the cached response bodies.
+     */
+    private long maxSize = 64L * 1024L * 1024L;
+    /**
+     * Max bytes of a single response body which is allowed to be cached.
+     */
+    private int maxEntrySize = 1024 * 1024;
+    /**
+     * Expire mills time of a cached response, a smaller {@code max-age} of the {@code Cache-Control} header of the
+     * response takes precedence over it.
+     */
+    private long expire = 60L * 1000L;
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public List<String> getVaryHeaders() {
+        return varyHeaders;
+    }
+
+    public void setVaryHeaders(List<String> varyHeaders) {
+        this.varyHeaders = varyHeaders;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public void setMaxEntrySize(int maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public long getExpire() {
+        return expire;
+    }
+
+    public void setExpire(long expire) {
+        this.expire = expire;
+    }
+}
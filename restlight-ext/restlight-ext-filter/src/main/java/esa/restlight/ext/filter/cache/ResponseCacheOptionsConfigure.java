@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ResponseCacheOptionsConfigure {
+
+    private List<String> paths = new ArrayList<>(0);
+    private List<String> varyHeaders = new ArrayList<>(0);
+    private long maxSize = 64L * 1024L * 1024L;
+    private int maxEntrySize = 1024 * 1024;
+    private long expire = 60L * 1000L;
+
+    private ResponseCacheOptionsConfigure() {
+    }
+
+    public static ResponseCacheOptionsConfigure newOpts() {
+        return new ResponseCacheOptionsConfigure();
+    }
+
+    public static ResponseCacheOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public ResponseCacheOptionsConfigure paths(List<String> paths) {
+        this.paths = paths;
+        return this;
+    }
+
+    public ResponseCacheOptionsConfigure varyHeaders(List<String> varyHeaders) {
+        this.varyHeaders = varyHeaders;
+        return this;
+    }
+
+    public ResponseCacheOptionsConfigure maxSize(long maxSize) {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    public ResponseCacheOptionsConfigure maxEntrySize(int maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+        return this;
+    }
+
+    public ResponseCacheOptionsConfigure expire(long expire) {
+        this.expire = expire;
+        return this;
+    }
+
+    public ResponseCacheOptions configured() {
+        final ResponseCacheOptions options = new ResponseCacheOptions();
+        options.setPaths(paths);
+        options.setVaryHeaders(varyHeaders);
+        options.setMaxSize(maxSize);
+        options.setMaxEntrySize(maxEntrySize);
+        options.setExpire(expire);
+        return options;
+    }
+}
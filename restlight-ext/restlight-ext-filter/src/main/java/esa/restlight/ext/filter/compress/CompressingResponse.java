@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.compress;
+
+import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.AsyncResponseWrapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * An {@link AsyncResponseWrapper} which compresses the body when it is sent by {@code sendResult(...)}, a response
+ * which is written by {@link #outputStream()} or {@code sendFile(...)} will never be compressed. The body is sent as it
+ * is if there's no acceptable encoding, but it still goes through the {@link CompressionFilter} so that the {@code
+ * Vary} header would be set.
+ */
+final class CompressingResponse extends AsyncResponseWrapper {
+
+    private final CompressionFilter filter;
+    /**
+     * negotiated encoding, {@code null} if there's no acceptable one
+     */
+    private final ContentEncoding encoding;
+
+    CompressingResponse(AsyncResponse delegate, CompressionFilter filter, ContentEncoding encoding) {
+        super(delegate);
+        this.filter = filter;
+        this.encoding = encoding;
+    }
+
+    @Override
+    public void sendResult(byte[] body, int off, int len) {
+        final ByteBuf compressed = compress(body == null ? null : Unpooled.wrappedBuffer(body, off, len));
+        if (compressed == null) {
+            delegate.sendResult(body, off, len);
+        } else {
+            delegate.sendResult(compressed, compressed.readerIndex(), compressed.readableBytes(), true);
+        }
+    }
+
+    @Override
+    public void sendResult(byte[] body) {
+        final ByteBuf compressed = compress(body == null ? null : Unpooled.wrappedBuffer(body));
+        if (compressed == null) {
+            delegate.sendResult(body);
+        } else {
+            delegate.sendResult(compressed, compressed.readerIndex(), compressed.readableBytes(), true);
+        }
+    }
+
+    @Override
+    public void sendResult(ByteBuf body, int off, int len, boolean autoRelease) {
+        final ByteBuf compressed = compress(body == null ? null : body.slice(off, len));
+        if (compressed == null) {
+            delegate.sendResult(body, off, len, autoRelease);
+        } else {
+            if (autoRelease) {
+                body.release();
+            }
+            delegate.sendResult(compressed, compressed.readerIndex(), compressed.readableBytes(), true);
+        }
+    }
+
+    @Override
+    public void sendResult(ByteBuf body, boolean autoRelease) {
+        final ByteBuf compressed = compress(body == null ? null : body.slice());
+        if (compressed == null) {
+            delegate.sendResult(body, autoRelease);
+        } else {
+            if (autoRelease) {
+                body.release();
+            }
+            delegate.sendResult(compressed, compressed.readerIndex(), compressed.readableBytes(), true);
+        }
+    }
+
+    private ByteBuf compress(ByteBuf body) {
+        if (body == null || delegate.isCommitted()) {
+            return null;
+        }
+        return filter.compress(delegate, encoding, body);
+    }
+}
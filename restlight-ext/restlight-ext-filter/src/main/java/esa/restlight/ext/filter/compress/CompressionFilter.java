@@ -0,0 +1,314 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.compress;
+
+import esa.commons.Checks;
+import esa.commons.StringUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.handler.Filter;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.LoggerUtils;
+import esa.restlight.server.util.PathMatcher;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Filter} which compresses the response body by the content encoding negotiated from the {@code
+ * Accept-Encoding} of the request.
+ * <p>
+ * Only the body which is sent by {@code sendResult(...)} will be compressed, and it will be skipped if the body is
+ * smaller than the configured threshold, the media type of the response is excluded or the {@code Content-Encoding}
+ * of the response has already been set. Compression is done by the pooled {@link java.util.zip.Deflater}s, and the
+ * original body will be sent if the compressed one is not smaller than it. A {@code Vary: Accept-Encoding} is added
+ * to every response which is compressible, whether it is compressed or not, so that a shared cache would never serve
+ * a compressed body to a client which does not accept it, or the other way around.
+ * <p>
+ * Note: it is unnecessary to enable the {@code compress} of the server options at the same time.
+ */
+public class CompressionFilter implements Filter {
+
+    private static final String IDENTITY = "identity";
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private final ContentEncoding[] encodings;
+    private final int minSize;
+    private final int level;
+    private final String[] excludedMediaTypes;
+    private final PathMatcher[] excludedPaths;
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+
+    public CompressionFilter(CompressionOptions options) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkArg(options.getLevel() >= 1 && options.getLevel() <= 9,
+                "level must be between 1 and 9");
+        Checks.checkArg(options.getMinSize() >= 0, "minSize must not be negative");
+        final List<ContentEncoding> encodings = new ArrayList<>(ContentEncoding.values().length);
+        if (options.getEncodings() != null) {
+            for (String name : options.getEncodings()) {
+                final ContentEncoding encoding = ContentEncoding.of(name);
+                if (encoding == null) {
+                    LoggerUtils.logger().warn("Unsupported content encoding '{}' will be ignored.", name);
+                } else if (!encodings.contains(encoding)) {
+                    encodings.add(encoding);
+                }
+            }
+        }
+        Checks.checkArg(!encodings.isEmpty(), "Encodings of compression must not be empty!");
+        this.encodings = encodings.toArray(new ContentEncoding[0]);
+        this.minSize = options.getMinSize();
+        this.level = options.getLevel();
+
+        final List<String> mediaTypes = new ArrayList<>();
+        if (options.getExcludedMediaTypes() != null) {
+            for (String mediaType : options.getExcludedMediaTypes()) {
+                if (!StringUtils.isEmpty(mediaType)) {
+                    final String m = mediaType.trim().toLowerCase(Locale.ROOT);
+                    // 'image/*' -> 'image/'
+                    mediaTypes.add(m.endsWith("/*") ? m.substring(0, m.length() - 1) : m);
+                }
+            }
+        }
+        this.excludedMediaTypes = mediaTypes.toArray(new String[0]);
+
+        final List<PathMatcher> paths = new ArrayList<>();
+        if (options.getExcludedPaths() != null) {
+            for (String path : options.getExcludedPaths()) {
+                if (!StringUtils.isEmpty(path)) {
+                    paths.add(new PathMatcher(path));
+                }
+            }
+        }
+        this.excludedPaths = paths.toArray(new PathMatcher[0]);
+    }
+
+    @Override
+    public CompletableFuture<Void> doFilter(AsyncRequest request, AsyncResponse response, FilterChain chain) {
+        if (isExcludedPath(request.path())) {
+            return chain.doFilter(request, response);
+        }
+        return chain.doFilter(request, new CompressingResponse(response, this,
+                negotiate(request.getHeader(HttpHeaderNames.ACCEPT_ENCODING))));
+    }
+
+    /**
+     * Compresses the body which is going to be sent if necessary.
+     *
+     * @param response original response
+     * @param encoding negotiated encoding, {@code null} if there's no acceptable one
+     * @param body     body which is going to be sent
+     * @return compressed body or {@code null} if the body should be sent as it is.
+     */
+    ByteBuf compress(AsyncResponse response, ContentEncoding encoding, ByteBuf body) {
+        final int length = body.readableBytes();
+        if (length < minSize || length == 0 || !isCompressible(response)) {
+            return null;
+        }
+        // the response varies by the Accept-Encoding even if it is not compressed this time
+        addVary(response);
+        if (encoding == null) {
+            return null;
+        }
+        final ByteBuf result;
+        try {
+            result = Deflaters.compress(encoding, level, body, response.alloc());
+        } catch (Throwable t) {
+            LoggerUtils.logger().warn("Failed to compress the response by '" + encoding.value + "'", t);
+            return null;
+        }
+        if (result == null) {
+            return null;
+        }
+        compressed.increment();
+        bytesIn.add(length);
+        bytesOut.add(result.readableBytes());
+
+        response.setHeader(HttpHeaderNames.CONTENT_ENCODING, encoding.value);
+        final String etag = response.getHeader(HttpHeaderNames.ETAG);
+        if (etag != null && !etag.startsWith(WEAK_PREFIX)) {
+            // representation has been changed, see https://tools.ietf.org/html/rfc7232#section-2.1
+            response.setHeader(HttpHeaderNames.ETAG, WEAK_PREFIX + etag);
+        }
+        return result;
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 600;
+    }
+
+    /**
+     * Gets the number of the responses which have been compressed.
+     *
+     * @return count
+     */
+    public long compressedCount() {
+        return compressed.sum();
+    }
+
+    /**
+     * Gets the total bytes of the original bodies of the compressed responses.
+     *
+     * @return bytes
+     */
+    public long bytesIn() {
+        return bytesIn.sum();
+    }
+
+    /**
+     * Gets the total bytes of the compressed bodies.
+     *
+     * @return bytes
+     */
+    public long bytesOut() {
+        return bytesOut.sum();
+    }
+
+    /**
+     * Gets the total bytes saved by compression.
+     *
+     * @return bytes
+     */
+    public long bytesSaved() {
+        return bytesIn.sum() - bytesOut.sum();
+    }
+
+    /**
+     * Selects the encoding with the highest quality in the given {@code Accept-Encoding}, the configured order of the
+     * encodings takes precedence if there're more than one encodings with the same quality.
+     */
+    ContentEncoding negotiate(String acceptEncoding) {
+        if (StringUtils.isEmpty(acceptEncoding)) {
+            return null;
+        }
+        final float[] qualities = new float[ContentEncoding.values().length];
+        final boolean[] present = new boolean[qualities.length];
+        float any = -1f;
+        int start = 0;
+        final int len = acceptEncoding.length();
+        while (start < len) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end < 0) {
+                end = len;
+            }
+            final String token = acceptEncoding.substring(start, end);
+            start = end + 1;
+
+            final int semi = token.indexOf(';');
+            final String name = (semi < 0 ? token : token.substring(0, semi)).trim();
+            if (name.isEmpty() || IDENTITY.equalsIgnoreCase(name)) {
+                continue;
+            }
+            final float q = semi < 0 ? 1f : quality(token.substring(semi + 1));
+            if (ANY.equals(name)) {
+                any = q;
+                continue;
+            }
+            final ContentEncoding encoding = ContentEncoding.of(name);
+            if (encoding != null) {
+                present[encoding.ordinal()] = true;
+                qualities[encoding.ordinal()] = q;
+            }
+        }
+
+        ContentEncoding selected = null;
+        float max = 0f;
+        for (ContentEncoding encoding : encodings) {
+            final float q = present[encoding.ordinal()] ? qualities[encoding.ordinal()] : any;
+            if (q > max) {
+                max = q;
+                selected = encoding;
+            }
+        }
+        return selected;
+    }
+
+    private boolean isCompressible(AsyncResponse response) {
+        final int status = response.status();
+        if (status < HttpResponseStatus.OK.code()
+                || status == HttpResponseStatus.NO_CONTENT.code()
+                || status == HttpResponseStatus.PARTIAL_CONTENT.code()
+                || status == HttpResponseStatus.NOT_MODIFIED.code()) {
+            return false;
+        }
+        if (response.containsHeader(HttpHeaderNames.CONTENT_ENCODING)
+                || response.containsHeader(HttpHeaderNames.CONTENT_RANGE)) {
+            return false;
+        }
+        final String contentType = response.getHeader(HttpHeaderNames.CONTENT_TYPE);
+        if (contentType == null || excludedMediaTypes.length == 0) {
+            return true;
+        }
+        final int semi = contentType.indexOf(';');
+        final String mediaType = (semi < 0 ? contentType : contentType.substring(0, semi))
+                .trim().toLowerCase(Locale.ROOT);
+        for (String excluded : excludedMediaTypes) {
+            if (excluded.endsWith("/") ? mediaType.startsWith(excluded) : mediaType.equals(excluded)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isExcludedPath(String path) {
+        for (PathMatcher matcher : excludedPaths) {
+            if (matcher.match(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addVary(AsyncResponse response) {
+        final String vary = response.getHeader(HttpHeaderNames.VARY);
+        if (vary == null) {
+            response.setHeader(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING.toString());
+            return;
+        }
+        for (String v : vary.split(",")) {
+            final String trimmed = v.trim();
+            if (ANY.equals(trimmed) || HttpHeaderNames.ACCEPT_ENCODING.contentEqualsIgnoreCase(trimmed)) {
+                return;
+            }
+        }
+        response.setHeader(HttpHeaderNames.VARY, vary + ", " + HttpHeaderNames.ACCEPT_ENCODING);
+    }
+
+    private static float quality(String params) {
+        for (String param : params.split(";")) {
+            final String p = param.trim();
+            if (p.length() > 2 && (p.charAt(0) == 'q' || p.charAt(0) == 'Q') && p.charAt(1) == '=') {
+                try {
+                    final float q = Float.parseFloat(p.substring(2).trim());
+                    return q < 0f ? 0f : Math.min(q, 1f);
+                } catch (NumberFormatException ignored) {
+                    return 0f;
+                }
+            }
+        }
+        return 1f;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.compress;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CompressionOptions implements Serializable {
+
+    private static final long serialVersionUID = 4532806271736451186L;
+
+    /**
+     * Supported content encodings in order of preference, only {@code gzip} and {@code deflate} are supported for
+     * now.
+     */
+    private List<String> encodings = new ArrayList<>(Arrays.asList("gzip", "deflate"));
+    /**
+     * Min bytes of a response body which is allowed to be compressed, compressing a tiny body costs more cpu than it
+     * saves.
+     */
+    private int minSize = 1024;
+    /**
+     * Compression level from {@code 1}(fastest) to {@code 9}(best compression).
+     */
+    private int level = 6;
+    /**
+     * Media types of the responses which should never be compressed, such as the media types which have already been
+     * compressed. A wildcard subtype such as {@code image/*} is allowed.
+     */
+    private List<String> excludedMediaTypes = new ArrayList<>(Arrays.asList("image/*",
+            "video/*",
+            "audio/*",
+            "application/zip",
+            "application/gzip",
+            "application/x-gzip",
+            "application/x-7z-compressed",
+            "application/x-rar-compressed",
+            "application/octet-stream"));
+    /**
+     * Path patterns of the requests whose responses should never be compressed.
+     */
+    private List<String> excludedPaths = new ArrayList<>(0);
+
+    public List<String> getEncodings() {
+        return encodings;
+    }
+
+    public void setEncodings(List<String> encodings) {
+        this.encodings = encodings;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public List<String> getExcludedMediaTypes() {
+        return excludedMediaTypes;
+    }
+
+    public void setExcludedMediaTypes(List<String> excludedMediaTypes) {
+        this.excludedMediaTypes = excludedMediaTypes;
+    }
+
+    public List<String> getExcludedPaths() {
+        return excludedPaths;
+    }
+
+    public void setExcludedPaths(List<String> excludedPaths) {
+        this.excludedPaths = excludedPaths;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.compress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class CompressionOptionsConfigure {
+
+    private List<String> encodings = new ArrayList<>(Arrays.asList("gzip", "deflate"));
+    private int minSize = 1024;
+    private int level = 6;
+    private List<String> excludedMediaTypes = new ArrayList<>(Arrays.asList("image/*",
+            "video/*",
+            "audio/*",
+            "application/zip",
+            "application/gzip",
+            "application/x-gzip",
+            "application/x-7z-compressed",
+            "application/x-rar-compressed",
+            "application/octet-stream"));
+    private List<String> excludedPaths = new ArrayList<>(0);
+
+    private CompressionOptionsConfigure() {
+    }
+
+    public static CompressionOptionsConfigure newOpts() {
+        return new CompressionOptionsConfigure();
+    }
+
+    public static CompressionOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public CompressionOptionsConfigure encodings(List<String> encodings) {
+        this.encodings = encodings;
+        return this;
+    }
+
+    public CompressionOptionsConfigure minSize(int minSize) {
+        this.minSize = minSize;
+        return this;
+    }
+
+    public CompressionOptionsConfigure level(int level) {
+        this.level = level;
+        return this;
+    }
+
+    public CompressionOptionsConfigure excludedMediaTypes(List<String> excludedMediaTypes) {
+        this.excludedMediaTypes = excludedMediaTypes;
+        return this;
+    }
+
+    public CompressionOptionsConfigure excludedPaths(List<String> excludedPaths) {
+        this.excludedPaths = excludedPaths;
+        return this;
+    }
+
+    public CompressionOptions configured() {
+        final CompressionOptions options = new CompressionOptions();
+        options.setEncodings(encodings);
+        options.setMinSize(minSize);
+        options.setLevel(level);
+        options.setExcludedMediaTypes(excludedMediaTypes);
+        options.setExcludedPaths(excludedPaths);
+        return options;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.compress;
+
+/**
+ * Content encodings supported by the {@link CompressionFilter}.
+ */
+enum ContentEncoding {
+
+    /**
+     * Gzip format, see https://tools.ietf.org/html/rfc1952
+     */
+    GZIP("gzip", true),
+
+    /**
+     * Zlib format, see https://tools.ietf.org/html/rfc1950
+     */
+    DEFLATE("deflate", false);
+
+    final String value;
+    /**
+     * Whether the raw deflate data is required, the gzip header and trailer are written by ourselves.
+     */
+    final boolean nowrap;
+
+    ContentEncoding(String value, boolean nowrap) {
+        this.value = value;
+        this.nowrap = nowrap;
+    }
+
+    static ContentEncoding of(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (ContentEncoding encoding : values()) {
+            if (encoding.value.equalsIgnoreCase(name.trim())) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+}
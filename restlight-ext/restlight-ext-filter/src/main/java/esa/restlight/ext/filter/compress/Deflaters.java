@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.compress;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.netty.util.concurrent.FastThreadLocalThread;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses the bytes with the pooled {@link Deflater}s instead of allocating the native zlib stream for every
+ * response.
+ * <p>
+ * {@link Deflater}s are pooled per thread only if the thread is a {@link FastThreadLocalThread} which cleans up its
+ * {@link FastThreadLocal}s on exit(such as the event loops), so that they would be {@link Deflater#end()}ed once the
+ * thread exits. The other threads(such as the biz threads, or the threads of a customized executor) share a bounded
+ * pool, and a {@link Deflater} is ended right away if the pool is full.
+ */
+final class Deflaters {
+
+    private static final int MAX_LEVEL = 9;
+    private static final int SHARED_POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final FastThreadLocal<Deflater[]> POOL = new FastThreadLocal<Deflater[]>() {
+        @Override
+        protected Deflater[] initialValue() {
+            return new Deflater[(MAX_LEVEL + 1) * 2];
+        }
+
+        @Override
+        protected void onRemoval(Deflater[] value) {
+            for (Deflater deflater : value) {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+        }
+    };
+
+    private static final ArrayBlockingQueue<Deflater>[] SHARED = newSharedPool();
+
+    /**
+     * Compresses the readable bytes of the given {@code src}.
+     *
+     * @param encoding encoding
+     * @param level    compression level
+     * @param src      bytes to compress
+     * @param alloc    allocator of the result
+     * @return compressed bytes or {@code null} if the compressed result is not smaller than the original one.
+     */
+    static ByteBuf compress(ContentEncoding encoding, int level, ByteBuf src, ByteBufAllocator alloc) {
+        final int length = src.readableBytes();
+        final byte[] in;
+        final int inOffset;
+        if (src.hasArray()) {
+            in = src.array();
+            inOffset = src.arrayOffset() + src.readerIndex();
+        } else {
+            in = ByteBufUtil.getBytes(src, src.readerIndex(), length, false);
+            inOffset = 0;
+        }
+
+        final boolean local = FastThreadLocalThread.willCleanupFastThreadLocals(Thread.currentThread());
+        final int index = index(level, encoding.nowrap);
+        final Deflater deflater = local ? acquireLocal(index, level, encoding.nowrap)
+                : acquireShared(index, level, encoding.nowrap);
+        ByteBuf out = null;
+        boolean success = false;
+        try {
+            out = alloc.heapBuffer(Math.max(64, length >> 1));
+            if (encoding == ContentEncoding.GZIP) {
+                out.writeBytes(GZIP_HEADER);
+            }
+            deflater.setInput(in, inOffset, length);
+            deflater.finish();
+            final int step = Math.max(64, length >> 3);
+            while (!deflater.finished()) {
+                if (out.writerIndex() >= length) {
+                    // not worth it
+                    return null;
+                }
+                out.ensureWritable(step);
+                final int n = deflater.deflate(out.array(),
+                        out.arrayOffset() + out.writerIndex(),
+                        out.writableBytes());
+                out.writerIndex(out.writerIndex() + n);
+            }
+            if (encoding == ContentEncoding.GZIP) {
+                final CRC32 crc = new CRC32();
+                crc.update(in, inOffset, length);
+                out.writeIntLE((int) crc.getValue());
+                out.writeIntLE(length);
+            }
+            if (out.readableBytes() >= length) {
+                return null;
+            }
+            success = true;
+            return out;
+        } finally {
+            deflater.reset();
+            if (!local && !SHARED[index].offer(deflater)) {
+                deflater.end();
+            }
+            if (!success && out != null) {
+                out.release();
+            }
+        }
+    }
+
+    private static int index(int level, boolean nowrap) {
+        return (level << 1) | (nowrap ? 1 : 0);
+    }
+
+    private static Deflater acquireShared(int index, int level, boolean nowrap) {
+        final Deflater deflater = SHARED[index].poll();
+        return deflater == null ? new Deflater(level, nowrap) : deflater;
+    }
+
+    private static Deflater acquireLocal(int index, int level, boolean nowrap) {
+        final Deflater[] deflaters = POOL.get();
+        Deflater deflater = deflaters[index];
+        if (deflater == null) {
+            deflater = new Deflater(level, nowrap);
+            deflaters[index] = deflater;
+        }
+        return deflater;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayBlockingQueue<Deflater>[] newSharedPool() {
+        final ArrayBlockingQueue<Deflater>[] pool = new ArrayBlockingQueue[(MAX_LEVEL + 1) * 2];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new ArrayBlockingQueue<>(SHARED_POOL_SIZE);
+        }
+        return pool;
+    }
+
+    private Deflaters() {
+    }
+}
@@ -32,6 +32,15 @@ import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * A {@link Filter} which discards new connections by a rate while the cpu load is over the threshold.
+ *
+ * @deprecated it could do nothing with the requests of the established connections, use the request level admission
+ * control configured by {@link esa.restlight.server.config.SchedulingOptions#getAdmission()} instead, which also
+ * considers the queue usage of the biz schedulers and the lag of the event loops and rejects the requests of the
+ * routes with lower priority first.
+ */
+@Deprecated
 public class CpuLoadProtectionFilter implements Filter {
 
     private static final double MAX_CPU_LOAD_VALUE = 100.0D;
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ipwhitelist;
+
+import io.netty.util.NetUtil;
+
+import java.util.Arrays;
+
+/**
+ * A binary prefix trie of the IPv4 and IPv6 CIDR blocks which matches the raw bytes of an address by walking at most
+ * 32 or 128 nodes, a plain address is regarded as a CIDR block with the full prefix length.
+ * <p>
+ * The nodes are kept in flat arrays, and an IPv4-mapped IPv6 address(::ffff:a.b.c.d) is regarded as the IPv4 address
+ * both in the CIDR blocks and the addresses to match, so an IPv4-mapped CIDR block must have a prefix length of at
+ * least 96. It is not thread-safe while adding CIDR blocks, and should be published safely after that.
+ */
+final class CidrTrie {
+
+    private static final int IPV4_ROOT = 0;
+    private static final int IPV6_ROOT = 1;
+    private static final int IPV4_BYTES = 4;
+    private static final int IPV6_BYTES = 16;
+    /**
+     * length of the prefix of IPv4-mapped IPv6 address in bytes
+     */
+    private static final int MAPPED_PREFIX_BYTES = 12;
+
+    /**
+     * children of node i are at 2i(bit 0) and 2i+1(bit 1), 0 means absent because the roots are never a child.
+     */
+    private int[] children = new int[32];
+    private boolean[] terminals = new boolean[16];
+    private int size = 2;
+    private int blocks;
+
+    /**
+     * Adds a CIDR block such as 10.0.0.0/8, 2001:db8::/32 or a plain address such as 127.0.0.1, ::1.
+     *
+     * @param cidr CIDR block or address
+     *
+     * @throws IllegalArgumentException if given value is not a legal CIDR block or address
+     */
+    void add(String cidr) {
+        final String value = cidr.trim();
+        final int slash = value.indexOf('/');
+        // never resolve the host name
+        final byte[] address = NetUtil.createByteArrayFromIpAddressString(slash < 0
+                ? value
+                : value.substring(0, slash));
+        if (address == null) {
+            throw new IllegalArgumentException("Illegal ip address or CIDR block: " + cidr);
+        }
+        int prefixLength = address.length << 3;
+        if (slash >= 0) {
+            try {
+                prefixLength = Integer.parseInt(value.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Illegal prefix length of CIDR block: " + cidr);
+            }
+            if (prefixLength < 0 || prefixLength > address.length << 3) {
+                throw new IllegalArgumentException("Illegal prefix length of CIDR block: " + cidr);
+            }
+        }
+        add(address, prefixLength);
+    }
+
+    /**
+     * Adds a CIDR block.
+     *
+     * @param address      raw bytes of the address
+     * @param prefixLength prefix length in bits
+     *
+     * @throws IllegalArgumentException if the address is IPv4-mapped but the prefix length is shorter than 96, which
+     *                                  could never be matched because the IPv4-mapped addresses are always matched as
+     *                                  IPv4 addresses
+     */
+    void add(byte[] address, int prefixLength) {
+        int offset = 0;
+        int bits = prefixLength;
+        if (isMapped(address)) {
+            if (prefixLength < MAPPED_PREFIX_BYTES << 3) {
+                throw new IllegalArgumentException("Prefix length of IPv4-mapped CIDR block must be at least 96: "
+                        + prefixLength);
+            }
+            offset = MAPPED_PREFIX_BYTES;
+            bits -= MAPPED_PREFIX_BYTES << 3;
+        }
+        int node = root(address.length - offset);
+        if (node < 0) {
+            throw new IllegalArgumentException("Illegal length of address: " + address.length);
+        }
+        for (int i = 0; i < bits; i++) {
+            if (terminals[node]) {
+                // already covered by a shorter prefix
+                return;
+            }
+            final int index = (node << 1) | bit(address, offset, i);
+            int child = children[index];
+            if (child == 0) {
+                child = newNode();
+                children[index] = child;
+            }
+            node = child;
+        }
+        // nodes under current one are unreachable from now on because the matching stops at the first terminal
+        terminals[node] = true;
+        blocks++;
+    }
+
+    /**
+     * Determines whether given address is in any of the CIDR blocks.
+     *
+     * @param address raw bytes of the address
+     *
+     * @return {@code true} if matched, otherwise {@code false}
+     */
+    boolean matches(byte[] address) {
+        if (address == null) {
+            return false;
+        }
+        final int offset = isMapped(address) ? MAPPED_PREFIX_BYTES : 0;
+        int node = root(address.length - offset);
+        if (node < 0) {
+            return false;
+        }
+        final int bits = (address.length - offset) << 3;
+        for (int i = 0; ; i++) {
+            if (terminals[node]) {
+                return true;
+            }
+            if (i == bits) {
+                return false;
+            }
+            node = children[(node << 1) | bit(address, offset, i)];
+            if (node == 0) {
+                return false;
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return blocks == 0;
+    }
+
+    private int newNode() {
+        if (size == terminals.length) {
+            terminals = Arrays.copyOf(terminals, size << 1);
+            children = Arrays.copyOf(children, size << 2);
+        }
+        return size++;
+    }
+
+    private static int root(int length) {
+        if (length == IPV4_BYTES) {
+            return IPV4_ROOT;
+        }
+        if (length == IPV6_BYTES) {
+            return IPV6_ROOT;
+        }
+        return -1;
+    }
+
+    private static int bit(byte[] address, int offset, int i) {
+        return (address[offset + (i >>> 3)] >>> (7 - (i & 7))) & 1;
+    }
+
+    private static boolean isMapped(byte[] address) {
+        if (address.length != IPV6_BYTES) {
+            return false;
+        }
+        for (int i = 0; i < MAPPED_PREFIX_BYTES - 2; i++) {
+            if (address[i] != 0) {
+                return false;
+            }
+        }
+        return address[MAPPED_PREFIX_BYTES - 2] == (byte) 0xff && address[MAPPED_PREFIX_BYTES - 1] == (byte) 0xff;
+    }
+}
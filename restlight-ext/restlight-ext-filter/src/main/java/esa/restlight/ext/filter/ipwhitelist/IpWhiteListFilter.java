@@ -18,6 +18,7 @@ package esa.restlight.ext.filter.ipwhitelist;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import esa.commons.Checks;
 import esa.commons.StringUtils;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
@@ -29,7 +30,11 @@ import esa.restlight.server.util.Futures;
 import esa.restlight.server.util.LoggerUtils;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.NetUtil;
 
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -38,6 +43,18 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
+/**
+ * A {@link Filter} which rejects the requests whose remote address is not in the configured ips, or is in the
+ * configured ips if it is in blacklist mode.
+ * <p>
+ * The ips could be plain addresses or CIDR blocks of IPv4 and IPv6, which are compiled into a {@link CidrTrie} and
+ * matched by the raw bytes of the remote address. Regex is also supported by the ips starting with 'regex:' for
+ * compatibility, which is only evaluated with the string of the remote address if none of the CIDR blocks is matched
+ * and the results of it are cached by the {@link IpWhiteListOptions#getCacheSize()}.
+ * <p>
+ * A subclass always matches the ips by the string returned by {@link #getRemoteAddr(AsyncRequest)} because whether
+ * that method is overridden is not detected, see {@link #isRemoteAddrOverridden()}.
+ */
 public class IpWhiteListFilter implements Filter {
 
     /**
@@ -46,66 +63,54 @@ public class IpWhiteListFilter implements Filter {
     private static final String REGEX_PREFIX = "regex:";
     private static final int EFFECTIVE_EXPIRE = 500;
 
-    /**
-     * Hold a cache
-     */
-    private final LoadingCache<String, Boolean> cache;
-    private final Predicate<String> predicate;
+    private final boolean blacklist;
+    private final long cacheSize;
+    private final long expire;
+    private volatile Rules rules;
 
     public IpWhiteListFilter(IpWhiteListOptions options) {
-        List<Predicate<String>> predicates = buildPredicates(options.getIps());
-        if (predicates.isEmpty()) {
-            throw new IllegalArgumentException("Ip predicates must not be empty!");
-        }
-        this.predicate = ip -> predicates.stream().anyMatch(p -> p.test(ip));
-        //init cache
-        cache = buildCache(options.getCacheSize(), options.getExpire());
+        Checks.checkNotNull(options, "options");
+        this.blacklist = options.isBlacklist();
+        this.cacheSize = options.getCacheSize();
+        this.expire = options.getExpire();
+        this.rules = compile(options.getIps());
     }
 
-    private LoadingCache<String, Boolean> buildCache(long cacheSize, long expire) {
-        if (cacheSize > 0) {
-            if (expire > EFFECTIVE_EXPIRE) {
-                return CacheBuilder.newBuilder()
-                        .maximumSize(cacheSize)
-                        .expireAfterAccess(expire, TimeUnit.MILLISECONDS)
-                        .build(new CacheLoader<String, Boolean>() {
-                            @Override
-                            public Boolean load(String key) {
-                                return predicate.test(key);
-                            }
-                        });
-            } else {
-                return CacheBuilder.newBuilder()
-                        .maximumSize(cacheSize)
-                        .build(new CacheLoader<String, Boolean>() {
-                            @Override
-                            public Boolean load(String key) {
-                                return predicate.test(key);
-                            }
-                        });
-            }
-        }
-        return null;
+    /**
+     * Reloads the ips, and the current ips will be kept if any of the given ips is illegal.
+     *
+     * @param ips ips
+     *
+     * @throws IllegalArgumentException if any of the given ips is illegal
+     */
+    public void reload(List<String> ips) {
+        this.rules = compile(ips);
     }
 
     @Override
     public CompletableFuture<Void> doFilter(AsyncRequest request, AsyncResponse response, FilterChain chain) {
-        String ip = getRemoteAddr(request);
-        boolean valid = false;
-        if (ip != null) {
-            if (cache == null) {
-                valid = predicate.test(ip);
-            } else {
-                valid = cache.getUnchecked(ip);
-            }
+        final Rules current = this.rules;
+        String ip = null;
+        final boolean matched;
+        if (isRemoteAddrOverridden()) {
+            ip = getRemoteAddr(request);
+            matched = ip != null && current.test(ip);
+        } else if (current.trie.matches(remoteAddress(request))) {
+            matched = true;
+        } else if (current.regex != null) {
+            ip = request.remoteAddr();
+            matched = ip != null && current.testRegex(ip);
+        } else {
+            matched = false;
         }
-        if (!valid && !response.isCommitted()) {
+        if (matched == blacklist && !response.isCommitted()) {
             response.setHeader(HttpHeaderNames.CONTENT_TYPE, MediaType.TEXT_PLAIN.value());
             response.sendResult(HttpResponseStatus.UNAUTHORIZED.code(),
                     ErrorDetail.buildErrorMsg(request.path(),
                             HttpResponseStatus.UNAUTHORIZED.reasonPhrase(),
                             HttpResponseStatus.UNAUTHORIZED.reasonPhrase(), HttpResponseStatus.UNAUTHORIZED.code()));
-            LoggerUtils.logger().warn("Unauthorized client ip address: {}", ip);
+            LoggerUtils.logger().warn("Unauthorized client ip address: {}",
+                    ip == null ? request.remoteAddr() : ip);
             return Futures.completedFuture();
         }
         return chain.doFilter(request, response);
@@ -113,6 +118,9 @@ public class IpWhiteListFilter implements Filter {
 
     /**
      * Get remote ip address.
+     * <p>
+     * Note that this method is only used if {@link #isRemoteAddrOverridden()} is {@code true}, and then the ips will be
+     * matched by the string returned by it instead of the raw bytes of the remote address.
      *
      * @param request request
      *
@@ -122,30 +130,107 @@ public class IpWhiteListFilter implements Filter {
         return request.remoteAddr();
     }
 
+    /**
+     * Whether the remote address should always be resolved by {@link #getRemoteAddr(AsyncRequest)}, which is {@code
+     * true} for any subclass by default since it may have overridden that method(such as resolving the client ip from
+     * the {@code X-Forwarded-For} header). A subclass which does not override {@link #getRemoteAddr(AsyncRequest)}
+     * could override this method to return {@code false}, so that the ips would be matched by the raw bytes of the
+     * remote address without parsing the string of it.
+     *
+     * @return {@code true} if the {@link #getRemoteAddr(AsyncRequest)} should be used
+     */
+    protected boolean isRemoteAddrOverridden() {
+        return getClass() != IpWhiteListFilter.class;
+    }
+
     @Override
     public int getOrder() {
         return HIGHEST_PRECEDENCE + 100;
     }
 
-    private List<Predicate<String>> buildPredicates(Collection<String> ipPredicates) {
-        List<Predicate<String>> predicates = new ArrayList<>();
-        if (ipPredicates == null || ipPredicates.isEmpty()) {
-            return predicates;
+    private static byte[] remoteAddress(AsyncRequest request) {
+        final SocketAddress address = request.remoteAddress();
+        if (address instanceof InetSocketAddress) {
+            final InetAddress inet = ((InetSocketAddress) address).getAddress();
+            if (inet != null) {
+                return inet.getAddress();
+            }
         }
+        final String ip = request.remoteAddr();
+        return StringUtils.isEmpty(ip) ? null : NetUtil.createByteArrayFromIpAddressString(ip);
+    }
 
-        for (String ipPredicate : ipPredicates) {
-            if (StringUtils.isEmpty(ipPredicate)) {
-                continue;
+    private Rules compile(Collection<String> ips) {
+        final CidrTrie trie = new CidrTrie();
+        final List<Predicate<String>> predicates = new ArrayList<>();
+        if (ips != null) {
+            for (String ip : ips) {
+                if (StringUtils.isEmpty(ip)) {
+                    continue;
+                }
+                if (ip.startsWith(REGEX_PREFIX)) {
+                    //resolve regex ip
+                    predicates.add(new RegexPredicate(ip.substring(REGEX_PREFIX.length())));
+                } else {
+                    //resolve real ip or CIDR block
+                    trie.add(ip);
+                }
             }
-            if (ipPredicate.startsWith(REGEX_PREFIX)) {
-                //resolve regex ip
-                predicates.add(new RegexPredicate(ipPredicate.substring(REGEX_PREFIX.length())));
+        }
+        if (!blacklist && trie.isEmpty() && predicates.isEmpty()) {
+            throw new IllegalArgumentException("Ip predicates must not be empty!");
+        }
+        return new Rules(trie, predicates, cacheSize, expire);
+    }
+
+    private static final class Rules {
+
+        private final CidrTrie trie;
+        private final Predicate<String> regex;
+        private final LoadingCache<String, Boolean> cache;
+
+        private Rules(CidrTrie trie, List<Predicate<String>> predicates, long cacheSize, long expire) {
+            this.trie = trie;
+            if (predicates.isEmpty()) {
+                this.regex = null;
+            } else if (predicates.size() == 1) {
+                this.regex = predicates.get(0);
             } else {
-                //resolve real ip
-                predicates.add(ipPredicate::equals);
+                this.regex = ip -> predicates.stream().anyMatch(p -> p.test(ip));
+            }
+            this.cache = regex == null ? null : buildCache(regex, cacheSize, expire);
+        }
+
+        /**
+         * Matches the ip string, which is only used if the {@link IpWhiteListFilter#isRemoteAddrOverridden()} is {@code
+         * true}.
+         */
+        private boolean test(String ip) {
+            return trie.matches(NetUtil.createByteArrayFromIpAddressString(ip)) || (regex != null && testRegex(ip));
+        }
+
+        private boolean testRegex(String ip) {
+            return cache == null ? regex.test(ip) : cache.getUnchecked(ip);
+        }
+
+        private static LoadingCache<String, Boolean> buildCache(Predicate<String> predicate,
+                                                                long cacheSize,
+                                                                long expire) {
+            if (cacheSize <= 0) {
+                return null;
+            }
+            final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                    .maximumSize(cacheSize);
+            if (expire > EFFECTIVE_EXPIRE) {
+                builder.expireAfterAccess(expire, TimeUnit.MILLISECONDS);
             }
+            return builder.build(new CacheLoader<String, Boolean>() {
+                @Override
+                public Boolean load(String key) {
+                    return predicate.test(key);
+                }
+            });
         }
-        return predicates;
     }
 
     /**
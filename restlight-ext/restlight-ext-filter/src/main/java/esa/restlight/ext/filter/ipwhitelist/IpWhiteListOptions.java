@@ -23,7 +23,24 @@ public class IpWhiteListOptions implements Serializable {
 
     private static final long serialVersionUID = -4138004923188908891L;
 
+    /**
+     * Plain ip addresses, CIDR blocks of IPv4 and IPv6 or regex starts with 'regex:'. An IPv4-mapped IPv6 address is
+     * matched as the IPv4 address, so an IPv4-mapped CIDR block must have a prefix length of at least 96.
+     * <p>
+     * Note that for any subclass of the {@link IpWhiteListFilter}, the ips are matched by the string returned by
+     * {@link IpWhiteListFilter#getRemoteAddr(esa.httpserver.core.AsyncRequest)} whether it is overridden or not,
+     * unless the subclass overrides {@link IpWhiteListFilter#isRemoteAddrOverridden()} to return {@code false}.
+     */
     private List<String> ips = new ArrayList<>(0);
+
+    /**
+     * Whether to reject the requests from the {@link #ips} instead of the others.
+     */
+    private boolean blacklist;
+
+    /**
+     * Max size of the cache of the regex results.
+     */
     private int cacheSize = 1024;
     private long expire = 60L * 1000;
 
@@ -35,6 +52,14 @@ public class IpWhiteListOptions implements Serializable {
         this.ips = ips;
     }
 
+    public boolean isBlacklist() {
+        return blacklist;
+    }
+
+    public void setBlacklist(boolean blacklist) {
+        this.blacklist = blacklist;
+    }
+
     public int getCacheSize() {
         return cacheSize;
     }
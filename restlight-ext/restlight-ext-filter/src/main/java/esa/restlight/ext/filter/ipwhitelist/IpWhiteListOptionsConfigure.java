@@ -21,6 +21,7 @@ import java.util.List;
 public final class IpWhiteListOptionsConfigure {
 
     private List<String> ips = new ArrayList<>(0);
+    private boolean blacklist;
     private int cacheSize = 1024;
     private long expire = 60L * 1000;
 
@@ -40,6 +41,11 @@ public final class IpWhiteListOptionsConfigure {
         return this;
     }
 
+    public IpWhiteListOptionsConfigure blacklist(boolean blacklist) {
+        this.blacklist = blacklist;
+        return this;
+    }
+
     public IpWhiteListOptionsConfigure cacheSize(int cacheSize) {
         this.cacheSize = cacheSize;
         return this;
@@ -55,6 +61,7 @@ public final class IpWhiteListOptionsConfigure {
         options.setCacheSize(cacheSize);
         options.setExpire(expire);
         options.setIps(ips);
+        options.setBlacklist(blacklist);
         return options;
     }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import esa.commons.Checks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ConcurrencyLimiter} which adapts the limit to the observed latency by the gradient of the latency.
+ * <p>
+ * Latency samples are aggregated lock-free in a short window, and the limit is updated once per window by
+ * comparing the average latency of the window with a long-term average which stands for the latency without queueing:
+ * <pre>
+ * gradient = max(0.5, min(1.0, TOLERANCE * longRtt / shortRtt))
+ * newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ * so that the limit keeps growing by a small queue while the latency is stable and shrinks quickly once the requests
+ * start queueing. The gradient based limit is smoothed to avoid oscillation, but the limit will be halved directly if
+ * there's any failed request in the window, and it will not grow while the concurrent requests are far less than the
+ * limit.
+ */
+final class AdaptiveConcurrencyLimiter extends ConcurrencyLimiter {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double TOLERANCE = 1.5D;
+    private static final double SMOOTHING = 0.2D;
+    private static final int INITIAL_LIMIT = 20;
+
+    private final int min;
+    private final int max;
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+    private final AtomicInteger maxInflight = new AtomicInteger();
+    private final AtomicLong nextUpdateNanos = new AtomicLong(System.nanoTime() + WINDOW_NANOS);
+    /**
+     * only updated by the thread which wins the CAS of {@link #nextUpdateNanos}, but the winners of the successive
+     * windows may be different threads.
+     */
+    private volatile double estimatedLimit;
+    private volatile double longRtt;
+
+    AdaptiveConcurrencyLimiter(int min, int max) {
+        super(Math.max(min, Math.min(max, INITIAL_LIMIT)));
+        Checks.checkArg(min > 0, "min must be positive");
+        Checks.checkArg(max >= min, "max must not be less than min");
+        this.min = min;
+        this.max = max;
+        this.estimatedLimit = limit;
+    }
+
+    @Override
+    void onSample(long rttNanos, boolean dropped, int inflight) {
+        rttSum.add(rttNanos);
+        samples.increment();
+        if (dropped) {
+            drops.increment();
+        }
+        int m;
+        while (inflight > (m = maxInflight.get()) && !maxInflight.compareAndSet(m, inflight)) {
+            // retry
+        }
+        final long now = System.nanoTime();
+        final long next = nextUpdateNanos.get();
+        if (now - next >= 0L && samples.sum() >= MIN_WINDOW_SAMPLES
+                && nextUpdateNanos.compareAndSet(next, now + WINDOW_NANOS)) {
+            update();
+        }
+    }
+
+    private void update() {
+        final long count = samples.sumThenReset();
+        final long sum = rttSum.sumThenReset();
+        final long dropped = drops.sumThenReset();
+        final int peak = maxInflight.getAndSet(0);
+        if (count <= 0L) {
+            return;
+        }
+        final double shortRtt = Math.max(1D, (double) sum / count);
+        double longTerm = longRtt;
+        if (longTerm <= 0D) {
+            longTerm = shortRtt;
+        } else {
+            longTerm += (shortRtt - longTerm) / LONG_WINDOW;
+            if (longTerm / shortRtt > 2D) {
+                // the latency has dropped a lot, let the long-term average catch up faster
+                longTerm *= 0.95D;
+            }
+        }
+        longRtt = longTerm;
+
+        final double current = estimatedLimit;
+        double newLimit;
+        if (dropped > 0L) {
+            // back off immediately without smoothing
+            newLimit = current * 0.5D;
+        } else {
+            final double gradient = Math.max(0.5D, Math.min(1.0D, TOLERANCE * longTerm / shortRtt));
+            if (gradient >= 1.0D && peak < current / 2D) {
+                // not limited by this limiter, there's no evidence that a larger limit is fine.
+                return;
+            }
+            newLimit = current * gradient + Math.sqrt(current);
+            newLimit = current * (1D - SMOOTHING) + newLimit * SMOOTHING;
+        }
+        newLimit = Math.max(min, Math.min(max, newLimit));
+        estimatedLimit = newLimit;
+        limit = (int) newLimit;
+    }
+}
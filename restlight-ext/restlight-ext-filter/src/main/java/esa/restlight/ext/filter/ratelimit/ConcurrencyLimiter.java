@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import esa.commons.Checks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of the concurrent requests by a fixed limit.
+ */
+class ConcurrencyLimiter {
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    volatile int limit;
+
+    ConcurrencyLimiter(int limit) {
+        Checks.checkArg(limit > 0, "limit must be positive");
+        this.limit = limit;
+    }
+
+    boolean tryAcquire() {
+        for (; ; ) {
+            final int n = inflight.get();
+            if (n >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(n, n + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit acquired by {@link #tryAcquire()}.
+     *
+     * @param rttNanos time the request took
+     * @param dropped  whether the request failed
+     */
+    void release(long rttNanos, boolean dropped) {
+        final int n = inflight.getAndDecrement();
+        onSample(rttNanos, dropped, n);
+    }
+
+    /**
+     * Called when a request completes.
+     *
+     * @param rttNanos time the request took
+     * @param dropped  whether the request failed
+     * @param inflight number of the concurrent requests including this one
+     */
+    void onSample(long rttNanos, boolean dropped, int inflight) {
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+}
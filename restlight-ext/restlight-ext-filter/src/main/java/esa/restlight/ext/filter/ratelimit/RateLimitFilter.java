@@ -0,0 +1,276 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import esa.commons.Checks;
+import esa.commons.StringUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.handler.Filter;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.Futures;
+import esa.restlight.server.util.LoggerUtils;
+import esa.restlight.server.util.PathMatcher;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Filter} which limits the rate and the concurrency of the requests by the configured {@link
+ * RateLimitRule}s, and a request is limited by the first rule which matches it. Rejected requests will be responded
+ * with a {@code 429 Too Many Requests} and a {@code Retry-After} header.
+ * <p>
+ * The rate is limited by the lock-free {@link TokenBucket}s, a rule whose key is {@link RateLimitKey#RULE} holds a
+ * single bucket, otherwise the buckets are created for each key lazily and kept in a bounded cache which is
+ * segmented by the hash of the key and evicts the least recently used buckets. The concurrency could be limited by a
+ * fixed limit or a limit which is adapted to the observed latency of the requests matched by the rule, where a request
+ * ended with an error, a {@code 5xx} or a {@code 429} status, or taking longer than the drop timeout of the rule is
+ * regarded as dropped.
+ */
+public class RateLimitFilter implements Filter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1L);
+    private static final String RETRY_AFTER_CONCURRENCY = "1";
+
+    private final Limiter[] limiters;
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimitFilter(RateLimitOptions options) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkArg(options.getRules() != null && !options.getRules().isEmpty(),
+                "Rules of rate limit must not be empty!");
+        Checks.checkArg(options.getMaxKeys() > 0L, "maxKeys must be positive");
+        final List<Limiter> limiters = new ArrayList<>(options.getRules().size());
+        for (RateLimitRule rule : options.getRules()) {
+            limiters.add(new Limiter(rule, options.getMaxKeys(), options.getKeyExpire()));
+        }
+        this.limiters = limiters.toArray(new Limiter[0]);
+    }
+
+    @Override
+    public CompletableFuture<Void> doFilter(AsyncRequest request, AsyncResponse response, FilterChain chain) {
+        final Limiter limiter = match(request);
+        if (limiter == null) {
+            return chain.doFilter(request, response);
+        }
+        final TokenBucket bucket = limiter.bucket(request);
+        if (bucket != null) {
+            final long wait = bucket.tryAcquire();
+            if (wait > 0L) {
+                // round up to seconds
+                reject(request, response, String.valueOf((wait + NANOS_PER_SECOND - 1L) / NANOS_PER_SECOND));
+                return Futures.completedFuture();
+            }
+        }
+        final ConcurrencyLimiter concurrency = limiter.concurrency;
+        if (concurrency == null) {
+            return chain.doFilter(request, response);
+        }
+        if (!concurrency.tryAcquire()) {
+            reject(request, response, RETRY_AFTER_CONCURRENCY);
+            return Futures.completedFuture();
+        }
+        final long start = System.nanoTime();
+        final CompletableFuture<Void> future;
+        try {
+            future = chain.doFilter(request, response);
+        } catch (Throwable t) {
+            concurrency.release(System.nanoTime() - start, true);
+            throw t;
+        }
+        future.whenComplete((r, t) -> {
+            final long rtt = System.nanoTime() - start;
+            concurrency.release(rtt, t != null || isDropped(response.status(), rtt, limiter.dropTimeoutNanos));
+        });
+        return future;
+    }
+
+    /**
+     * Gets the number of the requests which are rejected.
+     *
+     * @return count
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void shutdown() {
+        for (Limiter limiter : limiters) {
+            if (limiter.buckets != null) {
+                limiter.buckets.invalidateAll();
+            }
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 400;
+    }
+
+    /**
+     * Whether a completed request should be regarded as dropped, which means that the server is overloaded.
+     *
+     * @param status       status of the response
+     * @param rttNanos     time the request took
+     * @param timeoutNanos drop timeout, a value less than or equal to 0 means no timeout
+     * @return {@code true} if the response is a {@code 5xx} or a {@code 429}, or the request took longer than the
+     * timeout
+     */
+    static boolean isDropped(int status, long rttNanos, long timeoutNanos) {
+        return status >= HttpResponseStatus.INTERNAL_SERVER_ERROR.code()
+                || status == HttpResponseStatus.TOO_MANY_REQUESTS.code()
+                || (timeoutNanos > 0L && rttNanos > timeoutNanos);
+    }
+
+    private Limiter match(AsyncRequest request) {
+        for (Limiter limiter : limiters) {
+            if (limiter.matches(request)) {
+                return limiter;
+            }
+        }
+        return null;
+    }
+
+    private void reject(AsyncRequest request, AsyncResponse response, String retryAfter) {
+        rejected.increment();
+        LoggerUtils.logErrorPeriodically("Request({} {}) rejected because of too many requests",
+                request.method(), request.path());
+        response.setHeader(HttpHeaderNames.RETRY_AFTER, retryAfter);
+        response.sendResult(HttpResponseStatus.TOO_MANY_REQUESTS.code());
+    }
+
+    private static final class Limiter {
+
+        private final PathMatcher[] paths;
+        private final String[] methods;
+        private final RateLimitKey key;
+        private final String keyHeader;
+        private final double permitsPerSecond;
+        private final int burst;
+        /**
+         * the only bucket if the key is {@link RateLimitKey#RULE}
+         */
+        private final TokenBucket bucket;
+        private final Cache<String, TokenBucket> buckets;
+        private final ConcurrencyLimiter concurrency;
+        private final long dropTimeoutNanos;
+
+        private Limiter(RateLimitRule rule, long maxKeys, long keyExpire) {
+            Checks.checkNotNull(rule, "rule");
+            final List<PathMatcher> matchers = new ArrayList<>();
+            if (rule.getPaths() != null) {
+                for (String path : rule.getPaths()) {
+                    if (!StringUtils.isEmpty(path)) {
+                        matchers.add(new PathMatcher(path));
+                    }
+                }
+            }
+            this.paths = matchers.toArray(new PathMatcher[0]);
+            this.methods = rule.getMethods() == null
+                    ? new String[0]
+                    : rule.getMethods().stream().map(HttpMethod::name).toArray(String[]::new);
+            this.key = rule.getKey() == null ? RateLimitKey.RULE : rule.getKey();
+            Checks.checkArg(key != RateLimitKey.HEADER || !StringUtils.isEmpty(rule.getKeyHeader()),
+                    "keyHeader must not be empty");
+            this.keyHeader = rule.getKeyHeader();
+            this.permitsPerSecond = rule.getPermitsPerSecond();
+            this.burst = rule.getBurst() > 0
+                    ? rule.getBurst()
+                    : (int) Math.max(1D, Math.min(Integer.MAX_VALUE, Math.ceil(permitsPerSecond)));
+            if (permitsPerSecond <= 0D) {
+                this.bucket = null;
+                this.buckets = null;
+            } else if (key == RateLimitKey.RULE) {
+                this.bucket = new TokenBucket(permitsPerSecond, burst);
+                this.buckets = null;
+            } else {
+                this.bucket = null;
+                // a bucket must not be expired before it's refilled, otherwise the limit would be broken.
+                final long expireNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(keyExpire),
+                        new TokenBucket(permitsPerSecond, burst).refillNanos());
+                this.buckets = CacheBuilder.newBuilder()
+                        .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                        .maximumSize(maxKeys)
+                        .expireAfterAccess(expireNanos, TimeUnit.NANOSECONDS)
+                        .build();
+            }
+            if (rule.getMaxConcurrent() <= 0) {
+                this.concurrency = null;
+            } else if (rule.isAdaptiveConcurrency()) {
+                this.concurrency = new AdaptiveConcurrencyLimiter(rule.getMinConcurrent(), rule.getMaxConcurrent());
+            } else {
+                this.concurrency = new ConcurrencyLimiter(rule.getMaxConcurrent());
+            }
+            this.dropTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(rule.getDropTimeout());
+        }
+
+        private boolean matches(AsyncRequest request) {
+            if (methods.length > 0) {
+                final String method = request.method().name();
+                boolean matched = false;
+                for (String m : methods) {
+                    if (m.equals(method)) {
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) {
+                    return false;
+                }
+            }
+            if (paths.length == 0) {
+                return true;
+            }
+            final String path = request.path();
+            for (PathMatcher matcher : paths) {
+                if (matcher.match(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private TokenBucket bucket(AsyncRequest request) {
+            if (buckets == null) {
+                return bucket;
+            }
+            String k = null;
+            if (key == RateLimitKey.HEADER) {
+                k = request.getHeader(keyHeader);
+            }
+            if (StringUtils.isEmpty(k)) {
+                k = request.remoteAddr();
+                if (k == null) {
+                    return null;
+                }
+            }
+            final TokenBucket b = buckets.getIfPresent(k);
+            if (b != null) {
+                return b;
+            }
+            return buckets.asMap().computeIfAbsent(k, ignored -> new TokenBucket(permitsPerSecond, burst));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+/**
+ * Decides which requests share the same token bucket of a {@link RateLimitRule}.
+ */
+public enum RateLimitKey {
+
+    /**
+     * All the requests matched by the rule share a single token bucket, no matter which route they are routed to, use
+     * a rule per route to limit the routes separately.
+     */
+    RULE,
+
+    /**
+     * Requests from the same client address share a token bucket.
+     */
+    CLIENT_IP,
+
+    /**
+     * Requests with the same value of the configured header(such as an api key) share a token bucket, requests without
+     * that header are limited by the client address.
+     */
+    HEADER
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RateLimitOptions implements Serializable {
+
+    private static final long serialVersionUID = -8840209613541623571L;
+
+    /**
+     * Rules of limiting, a request is limited by the first rule which matches it.
+     */
+    private List<RateLimitRule> rules = new ArrayList<>(0);
+    /**
+     * Max number of the token buckets kept for a rule whose key is not {@link RateLimitKey#RULE}, the least recently
+     * used ones will be evicted if exceeded.
+     */
+    private long maxKeys = 100000L;
+    /**
+     * Expire mills time of a token bucket which has not been used, a bucket will never expire before it is refilled.
+     */
+    private long keyExpire = 60L * 1000L;
+
+    public List<RateLimitRule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<RateLimitRule> rules) {
+        this.rules = rules;
+    }
+
+    public long getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(long maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public long getKeyExpire() {
+        return keyExpire;
+    }
+
+    public void setKeyExpire(long keyExpire) {
+        this.keyExpire = keyExpire;
+    }
+}
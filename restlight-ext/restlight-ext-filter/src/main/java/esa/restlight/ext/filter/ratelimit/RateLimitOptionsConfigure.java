@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class RateLimitOptionsConfigure {
+
+    private List<RateLimitRule> rules = new ArrayList<>(0);
+    private long maxKeys = 100000L;
+    private long keyExpire = 60L * 1000L;
+
+    private RateLimitOptionsConfigure() {
+    }
+
+    public static RateLimitOptionsConfigure newOpts() {
+        return new RateLimitOptionsConfigure();
+    }
+
+    public static RateLimitOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public RateLimitOptionsConfigure rules(List<RateLimitRule> rules) {
+        this.rules = rules;
+        return this;
+    }
+
+    public RateLimitOptionsConfigure maxKeys(long maxKeys) {
+        this.maxKeys = maxKeys;
+        return this;
+    }
+
+    public RateLimitOptionsConfigure keyExpire(long keyExpire) {
+        this.keyExpire = keyExpire;
+        return this;
+    }
+
+    public RateLimitOptions configured() {
+        final RateLimitOptions options = new RateLimitOptions();
+        options.setRules(rules);
+        options.setMaxKeys(maxKeys);
+        options.setKeyExpire(keyExpire);
+        return options;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import esa.restlight.core.method.HttpMethod;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class RateLimitRule implements Serializable {
+
+    private static final long serialVersionUID = 4170815330612271840L;
+
+    /**
+     * Path patterns of the requests which are limited by this rule, empty means any path.
+     */
+    private List<String> paths = new ArrayList<>(0);
+    /**
+     * Http methods of the requests which are limited by this rule, empty means any method.
+     */
+    private Set<HttpMethod> methods = new HashSet<>(0);
+    /**
+     * Which requests share the same token bucket.
+     */
+    private RateLimitKey key = RateLimitKey.RULE;
+    /**
+     * Name of the header whose value is used as the key of the token bucket if the {@link #key} is {@link
+     * RateLimitKey#HEADER}.
+     */
+    private String keyHeader = "X-Api-Key";
+    /**
+     * Permits which are added to a token bucket per second, a value less than or equal to 0 means that the rate is not
+     * limited.
+     */
+    private double permitsPerSecond;
+    /**
+     * Capacity of a token bucket which is the max number of the requests allowed in a burst, defaults to the permits
+     * per second(at least 1) if it's less than or equal to 0.
+     */
+    private int burst;
+    /**
+     * Max number of the concurrent requests matched by this rule, a value less than or equal to 0 means that the
+     * concurrency is not limited.
+     */
+    private int maxConcurrent;
+    /**
+     * Whether to adapt the concurrency limit between {@link #minConcurrent} and {@link #maxConcurrent} to the observed
+     * latency of the requests.
+     */
+    private boolean adaptiveConcurrency;
+    /**
+     * Min concurrency limit if the {@link #adaptiveConcurrency} is enabled.
+     */
+    private int minConcurrent = 1;
+    /**
+     * Requests which take longer than this(in milliseconds) are regarded as dropped by the adaptive concurrency limit
+     * just like the ones ended with an error, a {@code 5xx} or a {@code 429} status, a value less than or equal to 0
+     * means no timeout.
+     */
+    private long dropTimeout;
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public Set<HttpMethod> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(Set<HttpMethod> methods) {
+        this.methods = methods;
+    }
+
+    public RateLimitKey getKey() {
+        return key;
+    }
+
+    public void setKey(RateLimitKey key) {
+        this.key = key;
+    }
+
+    public String getKeyHeader() {
+        return keyHeader;
+    }
+
+    public void setKeyHeader(String keyHeader) {
+        this.keyHeader = keyHeader;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public void setPermitsPerSecond(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    public int getMinConcurrent() {
+        return minConcurrent;
+    }
+
+    public void setMinConcurrent(int minConcurrent) {
+        this.minConcurrent = minConcurrent;
+    }
+
+    public long getDropTimeout() {
+        return dropTimeout;
+    }
+
+    public void setDropTimeout(long dropTimeout) {
+        this.dropTimeout = dropTimeout;
+    }
+}
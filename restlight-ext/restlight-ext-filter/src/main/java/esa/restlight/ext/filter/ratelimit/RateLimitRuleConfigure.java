@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import esa.commons.Checks;
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.route.Mapping;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class RateLimitRuleConfigure {
+
+    private List<String> paths = new ArrayList<>(0);
+    private Set<HttpMethod> methods = new HashSet<>(0);
+    private RateLimitKey key = RateLimitKey.RULE;
+    private String keyHeader = "X-Api-Key";
+    private double permitsPerSecond;
+    private int burst;
+    private int maxConcurrent;
+    private boolean adaptiveConcurrency;
+    private int minConcurrent = 1;
+    private long dropTimeout;
+
+    private RateLimitRuleConfigure() {
+    }
+
+    public static RateLimitRuleConfigure newOpts() {
+        return new RateLimitRuleConfigure();
+    }
+
+    public static RateLimitRule defaultOpts() {
+        return newOpts().configured();
+    }
+
+    /**
+     * Limits the requests which are matched by the paths and methods of the given {@link Mapping}.
+     *
+     * @param mapping mapping
+     * @return this
+     */
+    public RateLimitRuleConfigure mapping(Mapping mapping) {
+        Checks.checkNotNull(mapping, "mapping");
+        this.paths = mapping.path() == null ? new ArrayList<>(0) : new ArrayList<>(Arrays.asList(mapping.path()));
+        this.methods = mapping.method() == null ? new HashSet<>(0) : new HashSet<>(Arrays.asList(mapping.method()));
+        return this;
+    }
+
+    public RateLimitRuleConfigure paths(List<String> paths) {
+        this.paths = paths;
+        return this;
+    }
+
+    public RateLimitRuleConfigure methods(Set<HttpMethod> methods) {
+        this.methods = methods;
+        return this;
+    }
+
+    public RateLimitRuleConfigure key(RateLimitKey key) {
+        this.key = key;
+        return this;
+    }
+
+    public RateLimitRuleConfigure keyHeader(String keyHeader) {
+        this.keyHeader = keyHeader;
+        return this;
+    }
+
+    public RateLimitRuleConfigure permitsPerSecond(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+        return this;
+    }
+
+    public RateLimitRuleConfigure burst(int burst) {
+        this.burst = burst;
+        return this;
+    }
+
+    public RateLimitRuleConfigure maxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+        return this;
+    }
+
+    public RateLimitRuleConfigure adaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+        return this;
+    }
+
+    public RateLimitRuleConfigure minConcurrent(int minConcurrent) {
+        this.minConcurrent = minConcurrent;
+        return this;
+    }
+
+    public RateLimitRuleConfigure dropTimeout(long dropTimeout) {
+        this.dropTimeout = dropTimeout;
+        return this;
+    }
+
+    public RateLimitRule configured() {
+        final RateLimitRule rule = new RateLimitRule();
+        rule.setPaths(paths);
+        rule.setMethods(methods);
+        rule.setKey(key);
+        rule.setKeyHeader(keyHeader);
+        rule.setPermitsPerSecond(permitsPerSecond);
+        rule.setBurst(burst);
+        rule.setMaxConcurrent(maxConcurrent);
+        rule.setAdaptiveConcurrency(adaptiveConcurrency);
+        rule.setMinConcurrent(minConcurrent);
+        rule.setDropTimeout(dropTimeout);
+        return rule;
+    }
+}
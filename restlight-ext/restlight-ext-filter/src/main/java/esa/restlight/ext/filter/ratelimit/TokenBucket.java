@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import esa.commons.Checks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket.
+ * <p>
+ * It is implemented as the Generic Cell Rate Algorithm which is equivalent to a token bucket, so that the whole state
+ * is a single {@code long}(the theoretical arrival time of the next request) which is updated by a CAS, instead of the
+ * {@code synchronized} blocks of the {@code RateLimiter} of Guava. A bucket is full when it is created.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong tat;
+
+    /**
+     * Creates a token bucket.
+     *
+     * @param permitsPerSecond permits which are added to this bucket per second
+     * @param burst            capacity of this bucket
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        Checks.checkArg(permitsPerSecond > 0D, "permitsPerSecond must be positive");
+        Checks.checkArg(burst > 0, "burst must be positive");
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1L) / permitsPerSecond));
+        this.capacityNanos = intervalNanos * burst;
+        this.tat = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Tries to acquire a permit.
+     *
+     * @return {@code 0} if acquired, otherwise the nanos to wait until a permit would be available.
+     */
+    public long tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    long tryAcquire(long nowNanos) {
+        for (; ; ) {
+            final long t = tat.get();
+            final long next = (t - nowNanos > 0L ? t : nowNanos) + intervalNanos;
+            final long wait = next - nowNanos - capacityNanos;
+            if (wait > 0L) {
+                return wait;
+            }
+            if (tat.compareAndSet(t, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Gets the nanos which a bucket takes to be refilled from empty.
+     *
+     * @return nanos
+     */
+    long refillNanos() {
+        return capacityNanos;
+    }
+}
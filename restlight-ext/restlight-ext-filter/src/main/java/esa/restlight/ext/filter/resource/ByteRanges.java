@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.resource;
+
+import java.util.Arrays;
+
+/**
+ * Parser of the {@code Range} header which is defined in RFC 7233.
+ * <p>
+ * Ranges are returned as an array of {@code [first, last]} pairs whose positions are inclusive, overlapping or
+ * adjacent ranges are coalesced and sorted by their first positions, which is allowed by RFC 7233 and prevents the
+ * clients from asking for the same bytes repeatedly.
+ */
+final class ByteRanges {
+
+    static final long[] UNSATISFIABLE = new long[0];
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private ByteRanges() {
+    }
+
+    /**
+     * Parses the given {@code Range} header.
+     *
+     * @param range     value of the {@code Range} header
+     * @param length    length of the file
+     * @param maxRanges max number of the ranges
+     * @return {@code null} if the header should be ignored because it is absent, illegal or asks for too many ranges,
+     * {@link #UNSATISFIABLE} if none of the ranges is satisfiable, otherwise the {@code [first, last]} pairs.
+     */
+    static long[] parse(String range, long length, int maxRanges) {
+        if (range == null || range.length() <= BYTES_UNIT.length()
+                || !range.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+        long[] ranges = new long[4];
+        int size = 0;
+        int count = 0;
+        int start = BYTES_UNIT.length();
+        final int len = range.length();
+        while (start < len) {
+            int end = range.indexOf(',', start);
+            if (end < 0) {
+                end = len;
+            }
+            final String spec = range.substring(start, end).trim();
+            start = end + 1;
+            if (spec.isEmpty()) {
+                continue;
+            }
+            if (++count > maxRanges) {
+                return null;
+            }
+            final int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            final long first;
+            final long last;
+            if (dash == 0) {
+                // suffix-byte-range-spec
+                final long suffix = parseLong(spec, 1, spec.length());
+                if (suffix < 0L) {
+                    return null;
+                }
+                if (suffix == 0L || length == 0L) {
+                    continue;
+                }
+                first = Math.max(0L, length - suffix);
+                last = length - 1L;
+            } else {
+                first = parseLong(spec, 0, dash);
+                if (first < 0L) {
+                    return null;
+                }
+                if (dash == spec.length() - 1) {
+                    last = length - 1L;
+                } else {
+                    final long l = parseLong(spec, dash + 1, spec.length());
+                    if (l < first) {
+                        return null;
+                    }
+                    last = Math.min(l, length - 1L);
+                }
+                if (first >= length) {
+                    continue;
+                }
+            }
+            if (size == ranges.length) {
+                ranges = Arrays.copyOf(ranges, size << 1);
+            }
+            ranges[size++] = first;
+            ranges[size++] = last;
+        }
+        if (count == 0) {
+            return null;
+        }
+        if (size == 0) {
+            return UNSATISFIABLE;
+        }
+        return coalesce(ranges, size);
+    }
+
+    private static long[] coalesce(long[] ranges, int size) {
+        if (size == 2) {
+            return new long[]{ranges[0], ranges[1]};
+        }
+        final int n = size >> 1;
+        final long[][] pairs = new long[n][];
+        for (int i = 0; i < n; i++) {
+            pairs[i] = new long[]{ranges[i << 1], ranges[(i << 1) + 1]};
+        }
+        Arrays.sort(pairs, (a, b) -> Long.compare(a[0], b[0]));
+        final long[] result = new long[size];
+        int j = 0;
+        result[j++] = pairs[0][0];
+        result[j++] = pairs[0][1];
+        for (int i = 1; i < n; i++) {
+            if (pairs[i][0] <= result[j - 1] + 1L) {
+                result[j - 1] = Math.max(result[j - 1], pairs[i][1]);
+            } else {
+                result[j++] = pairs[i][0];
+                result[j++] = pairs[i][1];
+            }
+        }
+        return j == size ? result : Arrays.copyOf(result, j);
+    }
+
+    /**
+     * Parses the digits in the given region.
+     *
+     * @return value or {@code -1} if there's any illegal character or the value overflows.
+     */
+    private static long parseLong(String s, int from, int to) {
+        if (from >= to) {
+            return -1L;
+        }
+        long value = 0L;
+        for (int i = from; i < to; i++) {
+            final char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1L;
+            }
+            if (value > (Long.MAX_VALUE - (c - '0')) / 10L) {
+                return -1L;
+            }
+            value = value * 10L + (c - '0');
+        }
+        return value;
+    }
+}
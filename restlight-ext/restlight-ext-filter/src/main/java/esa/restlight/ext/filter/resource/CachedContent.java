@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.resource;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.IllegalReferenceCountException;
+
+/**
+ * Content of a small static file which is held in an off-heap {@link ByteBuf} and shared by all the responses served
+ * from it. The content will be released once it is evicted from the cache.
+ */
+final class CachedContent {
+
+    /**
+     * estimated bytes of the object itself.
+     */
+    private static final int OVERHEAD = 64;
+
+    private final long length;
+    private final long lastModified;
+    private final ByteBuf content;
+
+    CachedContent(FileMeta meta, ByteBuf content) {
+        this.length = meta.length;
+        this.lastModified = meta.lastModified;
+        this.content = content;
+    }
+
+    /**
+     * Whether this content is still the same as the file described by the given {@link FileMeta}.
+     */
+    boolean isValid(FileMeta meta) {
+        return length == meta.length && lastModified == meta.lastModified;
+    }
+
+    /**
+     * Gets a retained slice of the content which should be released by the caller.
+     *
+     * @param index  start index
+     * @param length length
+     * @return slice or {@code null} if the content has already been released because of evicting.
+     */
+    ByteBuf retainedSlice(int index, int length) {
+        try {
+            return content.retainedSlice(index, length);
+        } catch (IllegalReferenceCountException e) {
+            return null;
+        }
+    }
+
+    int weight() {
+        return content.readableBytes() + OVERHEAD;
+    }
+
+    void release() {
+        content.release();
+    }
+}
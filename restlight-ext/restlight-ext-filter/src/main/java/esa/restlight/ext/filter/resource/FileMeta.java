@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.resource;
+
+import esa.commons.http.MimeMappings;
+
+import java.io.File;
+
+/**
+ * Attributes of a static file which are needed to serve it, such as length, last modified time and the validators,
+ * so that they could be cached instead of being read from the file system for every request.
+ */
+final class FileMeta {
+
+    static final FileMeta NOT_FOUND = new FileMeta();
+
+    final File file;
+    final String key;
+    final long length;
+    /**
+     * last modified time in mills which is truncated to seconds just like the {@code Last-Modified} header.
+     */
+    final long lastModified;
+    final String lastModifiedDate;
+    final String etag;
+    final String contentType;
+
+    FileMeta(File file, long length, long lastModified) {
+        this.file = file;
+        this.key = file.getPath();
+        this.length = length;
+        this.lastModified = lastModified / 1000L * 1000L;
+        this.lastModifiedDate = HttpDates.format(this.lastModified);
+        // a strong validator derived from the length and the last modified time of the file just like what nginx does
+        this.etag = "\"" + Long.toHexString(lastModified) + '-' + Long.toHexString(length) + '"';
+        this.contentType = MimeMappings.getMimeTypeOrDefault(key);
+    }
+
+    private FileMeta() {
+        this.file = null;
+        this.key = null;
+        this.length = -1L;
+        this.lastModified = -1L;
+        this.lastModifiedDate = null;
+        this.etag = null;
+        this.contentType = null;
+    }
+
+    boolean exists() {
+        return file != null;
+    }
+}
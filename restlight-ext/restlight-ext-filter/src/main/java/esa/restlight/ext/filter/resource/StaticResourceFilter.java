@@ -0,0 +1,560 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.resource;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import esa.commons.Checks;
+import esa.commons.StringUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import esa.restlight.server.handler.Filter;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.ETags;
+import esa.restlight.server.util.Futures;
+import esa.restlight.server.util.LoggerUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpScheme;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Filter} which serves the static files under the configured location for the {@code GET} and {@code HEAD}
+ * requests whose path starts with the configured prefix, the requests will be passed to the next filter if there's
+ * no such file.
+ * <p>
+ * Byte ranges(including the multiple ranges which will be sent as a {@code multipart/byteranges} body), {@code
+ * If-Range} and the conditional requests({@code If-Match}, {@code If-None-Match}, {@code If-Modified-Since} and {@code
+ * If-Unmodified-Since}) are supported by using the {@code Last-Modified} and a strong {@code ETag} derived from the
+ * length and the last modified time of the file.
+ * <p>
+ * Files are sent by {@link AsyncResponse#sendFile(File, long, long)} which transfers the file by a zero-copy {@code
+ * FileRegion} on plain connections. Over TLS the file must be read and encrypted in user space anyway, so it will be
+ * sent as a memory-mapped buffer which is split into TLS records by the server if {@link
+ * StaticResourceOptions#isMmapUnderTls()} is enabled. The small files are cached in an off-heap LRU cache which is
+ * bounded by the total bytes of the files, and the attributes of the files are cached for a short time so that the hot
+ * files could be served without touching the file system.
+ * <p>
+ * Only the requests which could be served by the cached attributes and contents are served in the calling thread(which
+ * is usually an io thread). The blocking file system operations, such as resolving the attributes of a file, loading a
+ * file into the cache and mapping a file into memory, are executed by the given {@link Executor} instead, and so are
+ * the following filters of the requests which have to resolve the attributes of a file before they are passed to them.
+ */
+public class StaticResourceFilter implements Filter {
+
+    private static final long MAX_CACHED_STATS = 16384L;
+    private static final int MAX_PENDING_TASKS = 1024;
+    private static final String CRLF = "\r\n";
+
+    private final String prefix;
+    private final Path root;
+    private final String indexFile;
+    private final String cacheControl;
+    private final int maxRanges;
+    private final int maxCachedFileSize;
+    private final boolean mmapUnderTls;
+    private final Cache<String, FileMeta> stats;
+    private final Cache<String, CachedContent> contents;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Executor executor;
+    /**
+     * the executor created by this filter which should be shutdown with this filter.
+     */
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Creates a {@link StaticResourceFilter} which executes the blocking file system operations by a dedicated thread
+     * pool.
+     *
+     * @param options options
+     */
+    public StaticResourceFilter(StaticResourceOptions options) {
+        this(options, null);
+    }
+
+    /**
+     * Creates a {@link StaticResourceFilter}.
+     *
+     * @param options  options
+     * @param executor executor of the blocking file system operations, a dedicated thread pool will be created if it
+     *                 is {@code null}.
+     */
+    public StaticResourceFilter(StaticResourceOptions options, Executor executor) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkArg(!StringUtils.isEmpty(options.getPath()) && options.getPath().startsWith("/"),
+                "Path of static resources must start with '/'");
+        Checks.checkArg(!StringUtils.isEmpty(options.getLocation()),
+                "Location of static resources must not be empty!");
+        Checks.checkArg(options.getMaxRanges() > 0, "maxRanges must be positive");
+        Checks.checkArg(options.getMaxCacheSize() > 0L, "maxCacheSize must be positive");
+        Checks.checkArg(options.getStatExpire() >= 0L, "statExpire must not be negative");
+        final File location = new File(options.getLocation());
+        Checks.checkArg(location.isDirectory(), "Location of static resources '" + options.getLocation()
+                + "' is not a directory");
+        String path = options.getPath();
+        while (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        this.prefix = "/".equals(path) ? "" : path;
+        try {
+            this.root = location.toPath().toRealPath();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to resolve the location of static resources", e);
+        }
+        this.indexFile = options.getIndexFile();
+        this.cacheControl = options.getMaxAge() < 0L ? null : "max-age=" + options.getMaxAge();
+        this.maxRanges = options.getMaxRanges();
+        this.maxCachedFileSize = options.getMaxCachedFileSize();
+        this.mmapUnderTls = options.isMmapUnderTls();
+        this.stats = CacheBuilder.newBuilder()
+                .maximumSize(MAX_CACHED_STATS)
+                .expireAfterWrite(options.getStatExpire(), TimeUnit.MILLISECONDS)
+                .build();
+        this.contents = CacheBuilder.newBuilder()
+                .maximumWeight(options.getMaxCacheSize())
+                .<String, CachedContent>weigher((key, value) -> value.weight())
+                .<String, CachedContent>removalListener(notification -> notification.getValue().release())
+                .build();
+        if (executor == null) {
+            final int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+            final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                    60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(MAX_PENDING_TASKS),
+                    new RestlightThreadFactory("Restlight-StaticResource"));
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+            this.ownedExecutor = pool;
+        } else {
+            this.executor = executor;
+            this.ownedExecutor = null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> doFilter(AsyncRequest request, AsyncResponse response, FilterChain chain) {
+        final boolean head = HttpMethod.HEAD.equals(request.method());
+        if (!head && !HttpMethod.GET.equals(request.method())) {
+            return chain.doFilter(request, response);
+        }
+        final String path = request.path();
+        if (!isResource(path)) {
+            return chain.doFilter(request, response);
+        }
+        final String relative = path.substring(prefix.length());
+        final FileMeta meta = stats.getIfPresent(relative);
+        if (meta != null) {
+            if (!meta.exists()) {
+                return chain.doFilter(request, response);
+            }
+            try {
+                if (serve(request, response, meta, head, false)) {
+                    return Futures.completedFuture();
+                }
+            } catch (IOException e) {
+                onFailed(relative, meta, e);
+                return Futures.completedExceptionally(e);
+            }
+        }
+
+        // the file system must be touched, do not block current thread
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    final FileMeta m = stat(relative);
+                    if (!m.exists()) {
+                        chain.doFilter(request, response).whenComplete((r, t) -> {
+                            if (t == null) {
+                                future.complete(null);
+                            } else {
+                                future.completeExceptionally(t);
+                            }
+                        });
+                        return;
+                    }
+                    try {
+                        serve(request, response, m, head, true);
+                        future.complete(null);
+                    } catch (IOException e) {
+                        onFailed(relative, m, e);
+                        future.completeExceptionally(e);
+                    }
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return Futures.completedExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Gets the number of the responses which are served by the in-memory cache.
+     *
+     * @return count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of the responses of the cacheable files which are not served by the in-memory cache.
+     *
+     * @return count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of the files cached in memory.
+     *
+     * @return size
+     */
+    public long size() {
+        return contents.size();
+    }
+
+    @Override
+    public void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        stats.invalidateAll();
+        contents.invalidateAll();
+    }
+
+    private void onFailed(String relative, FileMeta meta, IOException e) {
+        // the file may have been changed or deleted after its attributes are cached
+        stats.invalidate(relative);
+        LoggerUtils.logger().warn("Failed to send static resource '" + meta.key + "'", e);
+    }
+
+    private boolean isResource(String path) {
+        if (path == null || !path.startsWith(prefix)) {
+            return false;
+        }
+        return path.length() == prefix.length() || path.charAt(prefix.length()) == '/';
+    }
+
+    private FileMeta stat(String relative) {
+        FileMeta meta = stats.getIfPresent(relative);
+        if (meta == null) {
+            meta = doStat(relative);
+            stats.put(relative, meta);
+        }
+        return meta;
+    }
+
+    private FileMeta doStat(String relative) {
+        // the path of the request has already been decoded, so do not decode it again.
+        if (relative.indexOf('\0') >= 0 || relative.indexOf('\\') >= 0) {
+            return FileMeta.NOT_FOUND;
+        }
+        int start = 0;
+        while (start < relative.length() && relative.charAt(start) == '/') {
+            start++;
+        }
+        try {
+            final Path target = root.resolve(relative.substring(start)).normalize();
+            if (!target.startsWith(root)) {
+                return FileMeta.NOT_FOUND;
+            }
+            File file = target.toFile();
+            if (file.isDirectory()) {
+                if (StringUtils.isEmpty(indexFile)) {
+                    return FileMeta.NOT_FOUND;
+                }
+                file = new File(file, indexFile);
+            }
+            if (!file.isFile() || file.isHidden()) {
+                return FileMeta.NOT_FOUND;
+            }
+            // do not follow the symbolic links which point to the outside of the root
+            final Path real = file.toPath().toRealPath();
+            if (!real.startsWith(root)) {
+                return FileMeta.NOT_FOUND;
+            }
+            return new FileMeta(real.toFile(), file.length(), file.lastModified());
+        } catch (InvalidPathException | IOException e) {
+            return FileMeta.NOT_FOUND;
+        }
+    }
+
+    /**
+     * Serves the given file.
+     *
+     * @param blocking whether the blocking file system operations are allowed
+     * @return {@code false} if the file could not be served without the blocking file system operations, and nothing
+     * has been sent.
+     */
+    private boolean serve(AsyncRequest request,
+                          AsyncResponse response,
+                          FileMeta meta,
+                          boolean head,
+                          boolean blocking) throws IOException {
+        response.setHeader(HttpHeaderNames.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaderNames.ETAG, meta.etag);
+        response.setHeader(HttpHeaderNames.LAST_MODIFIED, meta.lastModifiedDate);
+        if (cacheControl != null) {
+            response.setHeader(HttpHeaderNames.CACHE_CONTROL, cacheControl);
+        }
+        final int status = evaluatePreconditions(request, meta);
+        if (status != HttpResponseStatus.OK.code()) {
+            response.sendResult(status);
+            return true;
+        }
+
+        long[] ranges = null;
+        if (!head && isIfRangeMatched(request.getHeader(HttpHeaderNames.IF_RANGE), meta)) {
+            ranges = ByteRanges.parse(request.getHeader(HttpHeaderNames.RANGE), meta.length, maxRanges);
+        }
+        if (ranges == null) {
+            return send(request, response, meta, HttpResponseStatus.OK.code(), 0L, meta.length, head, blocking);
+        } else if (ranges.length == 0) {
+            response.setHeader(HttpHeaderNames.CONTENT_RANGE, "bytes */" + meta.length);
+            response.sendResult(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE.code());
+            return true;
+        } else if (ranges.length == 2) {
+            response.setHeader(HttpHeaderNames.CONTENT_RANGE, contentRange(ranges[0], ranges[1], meta.length));
+            return send(request, response, meta, HttpResponseStatus.PARTIAL_CONTENT.code(),
+                    ranges[0], ranges[1] - ranges[0] + 1L, false, blocking);
+        } else if (blocking) {
+            // multiple ranges are rare, always build them in the blocking way
+            sendMultipart(response, meta, ranges);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean send(AsyncRequest request,
+                         AsyncResponse response,
+                         FileMeta meta,
+                         int status,
+                         long offset,
+                         long length,
+                         boolean head,
+                         boolean blocking) throws IOException {
+        response.setHeader(HttpHeaderNames.CONTENT_TYPE, meta.contentType);
+        if (head || length == 0L) {
+            response.setHeader(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(length));
+            response.sendResult(status);
+            return true;
+        }
+        ByteBuf body = lookup(meta, offset, length);
+        if (body == null) {
+            final boolean cacheable = meta.length <= maxCachedFileSize;
+            final boolean mapped = !cacheable && mmapUnderTls && length <= Integer.MAX_VALUE
+                    && HttpScheme.HTTPS.name().contentEqualsIgnoreCase(request.scheme());
+            if (cacheable || mapped) {
+                if (!blocking) {
+                    return false;
+                }
+                body = cacheable ? load(meta, offset, length) : map(meta, offset, length);
+            }
+        }
+        if (body != null) {
+            response.sendResult(status, body, body.readerIndex(), body.readableBytes(), true);
+        } else {
+            response.setStatus(status);
+            response.sendFile(meta.file, offset, length);
+        }
+        return true;
+    }
+
+    private void sendMultipart(AsyncResponse response, FileMeta meta, long[] ranges) throws IOException {
+        final String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong())
+                + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        final CompositeByteBuf body = response.alloc().compositeBuffer(ranges.length + 1);
+        try {
+            for (int i = 0; i < ranges.length; i += 2) {
+                final String part = (i == 0 ? "--" : CRLF + "--") + boundary + CRLF
+                        + HttpHeaderNames.CONTENT_TYPE + ": " + meta.contentType + CRLF
+                        + HttpHeaderNames.CONTENT_RANGE + ": " + contentRange(ranges[i], ranges[i + 1], meta.length)
+                        + CRLF + CRLF;
+                body.addComponent(true, ByteBufUtil.writeAscii(response.alloc(), part));
+                final long length = ranges[i + 1] - ranges[i] + 1L;
+                if ((long) body.writerIndex() + length > Integer.MAX_VALUE - 1024L) {
+                    throw new IOException("Too large multipart/byteranges body");
+                }
+                ByteBuf content = lookup(meta, ranges[i], length);
+                if (content == null) {
+                    content = meta.length <= maxCachedFileSize
+                            ? load(meta, ranges[i], length)
+                            : map(meta, ranges[i], length);
+                }
+                body.addComponent(true, content);
+            }
+            body.addComponent(true, ByteBufUtil.writeAscii(response.alloc(), CRLF + "--" + boundary + "--" + CRLF));
+        } catch (Throwable t) {
+            body.release();
+            throw t;
+        }
+        response.setHeader(HttpHeaderNames.CONTENT_TYPE, "multipart/byteranges; boundary=" + boundary);
+        response.sendResult(HttpResponseStatus.PARTIAL_CONTENT.code(), body, body.readerIndex(),
+                body.readableBytes(), true);
+    }
+
+    /**
+     * Gets a retained slice of the cached content of the given file.
+     *
+     * @return slice or {@code null} if the file is not allowed to be cached or it has not been cached yet.
+     */
+    private ByteBuf lookup(FileMeta meta, long offset, long length) {
+        if (meta.length > maxCachedFileSize) {
+            return null;
+        }
+        final CachedContent content = contents.getIfPresent(meta.key);
+        if (content != null && content.isValid(meta)) {
+            final ByteBuf slice = content.retainedSlice((int) offset, (int) length);
+            if (slice != null) {
+                hits.increment();
+                return slice;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads the whole content of the given small file into the cache and gets a retained slice of it, which is a
+     * blocking operation.
+     */
+    private ByteBuf load(FileMeta meta, long offset, long length) throws IOException {
+        misses.increment();
+        final int size = (int) meta.length;
+        final ByteBuf buf = Unpooled.directBuffer(size, size);
+        final CachedContent content;
+        try (FileChannel channel = FileChannel.open(meta.file.toPath(), StandardOpenOption.READ)) {
+            while (buf.isWritable()) {
+                if (buf.writeBytes(channel, buf.writerIndex(), buf.writableBytes()) < 0) {
+                    throw new IOException("File '" + meta.key + "' has been changed");
+                }
+            }
+            content = new CachedContent(meta, buf);
+        } catch (Throwable t) {
+            buf.release();
+            throw t;
+        }
+        // the returned slice must be retained before putting, otherwise it may be evicted and released immediately.
+        final ByteBuf slice = buf.retainedSlice((int) offset, (int) length);
+        contents.put(meta.key, content);
+        return slice;
+    }
+
+    /**
+     * Maps the given region of the file into memory, the mapping will be unmapped once the buffer is garbage
+     * collected.
+     */
+    private static ByteBuf map(FileMeta meta, long offset, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(meta.file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < offset + length) {
+                throw new IOException("File '" + meta.key + "' has been changed");
+            }
+            return Unpooled.wrappedBuffer(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+        }
+    }
+
+    /**
+     * Evaluates the preconditions in the order which is defined in RFC 7232.
+     *
+     * @return {@code 200} if the request should be served normally, otherwise the status code which should be sent.
+     */
+    private static int evaluatePreconditions(AsyncRequest request, FileMeta meta) {
+        final String ifMatch = request.getHeader(HttpHeaderNames.IF_MATCH);
+        if (ifMatch != null) {
+            if (!isStrongMatched(ifMatch, meta.etag)) {
+                return HttpResponseStatus.PRECONDITION_FAILED.code();
+            }
+        } else {
+            final long since = HttpDates.parse(request.getHeader(HttpHeaderNames.IF_UNMODIFIED_SINCE));
+            if (since >= 0L && meta.lastModified > since) {
+                return HttpResponseStatus.PRECONDITION_FAILED.code();
+            }
+        }
+        final String ifNoneMatch = request.getHeader(HttpHeaderNames.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            if (ETags.matches(ifNoneMatch, meta.etag)) {
+                return HttpResponseStatus.NOT_MODIFIED.code();
+            }
+        } else {
+            final long since = HttpDates.parse(request.getHeader(HttpHeaderNames.IF_MODIFIED_SINCE));
+            if (since >= 0L && meta.lastModified <= since) {
+                return HttpResponseStatus.NOT_MODIFIED.code();
+            }
+        }
+        return HttpResponseStatus.OK.code();
+    }
+
+    /**
+     * Whether the {@code Range} should be evaluated, which requires the {@code If-Range} to be absent or to be the same
+     * as the current strong validator.
+     */
+    private static boolean isIfRangeMatched(String ifRange, FileMeta meta) {
+        if (ifRange == null) {
+            return true;
+        }
+        final String value = ifRange.trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            return value.equals(meta.etag);
+        }
+        return HttpDates.parse(value) == meta.lastModified;
+    }
+
+    private static boolean isStrongMatched(String ifMatch, String etag) {
+        int start = 0;
+        final int len = ifMatch.length();
+        while (start < len) {
+            int end = ifMatch.indexOf(',', start);
+            if (end < 0) {
+                end = len;
+            }
+            final String candidate = ifMatch.substring(start, end).trim();
+            if ("*".equals(candidate) || etag.equals(candidate)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static String contentRange(long first, long last, long length) {
+        return "bytes " + first + '-' + last + '/' + length;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.resource;
+
+import java.io.Serializable;
+
+public class StaticResourceOptions implements Serializable {
+
+    private static final long serialVersionUID = 2370417380125689517L;
+
+    /**
+     * Path prefix of the requests which should be served from the {@link #location}.
+     */
+    private String path = "/static";
+    /**
+     * Directory in the file system where the static resources are located.
+     */
+    private String location;
+    /**
+     * Name of the file which will be served if the request points to a directory.
+     */
+    private String indexFile = "index.html";
+    /**
+     * Value of the {@code max-age} directive of the {@code Cache-Control} header in seconds, a negative value means
+     * that no {@code Cache-Control} header will be sent.
+     */
+    private long maxAge = -1L;
+    /**
+     * Max number of the ranges in a single request, the {@code Range} header will be ignored and the whole file will
+     * be sent if the request asks for more ranges.
+     */
+    private int maxRanges = 16;
+    /**
+     * Max bytes of a file which is allowed to be cached in memory, the larger ones are always sent from the file.
+     */
+    private int maxCachedFileSize = 64 * 1024;
+    /**
+     * Max total bytes of the files which are cached in memory.
+     */
+    private long maxCacheSize = 64L * 1024L * 1024L;
+    /**
+     * Expire mills time of the cached attributes(such as length, last modified time) of a file, modifications of the
+     * file will be visible after this time at most.
+     */
+    private long statExpire = 1000L;
+    /**
+     * Whether to send the files by memory-mapped buffers instead of the {@code sendfile} if the request is over TLS,
+     * in which case the file must be read and encrypted in user space anyway. Note that the mappings are only released
+     * by the garbage collection, and truncating a file while it is mapped may crash the JVM.
+     */
+    private boolean mmapUnderTls;
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getIndexFile() {
+        return indexFile;
+    }
+
+    public void setIndexFile(String indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public int getMaxRanges() {
+        return maxRanges;
+    }
+
+    public void setMaxRanges(int maxRanges) {
+        this.maxRanges = maxRanges;
+    }
+
+    public int getMaxCachedFileSize() {
+        return maxCachedFileSize;
+    }
+
+    public void setMaxCachedFileSize(int maxCachedFileSize) {
+        this.maxCachedFileSize = maxCachedFileSize;
+    }
+
+    public long getMaxCacheSize() {
+        return maxCacheSize;
+    }
+
+    public void setMaxCacheSize(long maxCacheSize) {
+        this.maxCacheSize = maxCacheSize;
+    }
+
+    public long getStatExpire() {
+        return statExpire;
+    }
+
+    public void setStatExpire(long statExpire) {
+        this.statExpire = statExpire;
+    }
+
+    public boolean isMmapUnderTls() {
+        return mmapUnderTls;
+    }
+
+    public void setMmapUnderTls(boolean mmapUnderTls) {
+        this.mmapUnderTls = mmapUnderTls;
+    }
+}
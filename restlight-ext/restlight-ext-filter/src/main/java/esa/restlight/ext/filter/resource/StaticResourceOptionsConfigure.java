@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.resource;
+
+public final class StaticResourceOptionsConfigure {
+
+    private String path = "/static";
+    private String location;
+    private String indexFile = "index.html";
+    private long maxAge = -1L;
+    private int maxRanges = 16;
+    private int maxCachedFileSize = 64 * 1024;
+    private long maxCacheSize = 64L * 1024L * 1024L;
+    private long statExpire = 1000L;
+    private boolean mmapUnderTls;
+
+    private StaticResourceOptionsConfigure() {
+    }
+
+    public static StaticResourceOptionsConfigure newOpts() {
+        return new StaticResourceOptionsConfigure();
+    }
+
+    public static StaticResourceOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public StaticResourceOptionsConfigure path(String path) {
+        this.path = path;
+        return this;
+    }
+
+    public StaticResourceOptionsConfigure location(String location) {
+        this.location = location;
+        return this;
+    }
+
+    public StaticResourceOptionsConfigure indexFile(String indexFile) {
+        this.indexFile = indexFile;
+        return this;
+    }
+
+    public StaticResourceOptionsConfigure maxAge(long maxAge) {
+        this.maxAge = maxAge;
+        return this;
+    }
+
+    public StaticResourceOptionsConfigure maxRanges(int maxRanges) {
+        this.maxRanges = maxRanges;
+        return this;
+    }
+
+    public StaticResourceOptionsConfigure maxCachedFileSize(int maxCachedFileSize) {
+        this.maxCachedFileSize = maxCachedFileSize;
+        return this;
+    }
+
+    public StaticResourceOptionsConfigure maxCacheSize(long maxCacheSize) {
+        this.maxCacheSize = maxCacheSize;
+        return this;
+    }
+
+    public StaticResourceOptionsConfigure statExpire(long statExpire) {
+        this.statExpire = statExpire;
+        return this;
+    }
+
+    public StaticResourceOptionsConfigure mmapUnderTls(boolean mmapUnderTls) {
+        this.mmapUnderTls = mmapUnderTls;
+        return this;
+    }
+
+    public StaticResourceOptions configured() {
+        final StaticResourceOptions options = new StaticResourceOptions();
+        options.setPath(path);
+        options.setLocation(location);
+        options.setIndexFile(indexFile);
+        options.setMaxAge(maxAge);
+        options.setMaxRanges(maxRanges);
+        options.setMaxCachedFileSize(maxCachedFileSize);
+        options.setMaxCacheSize(maxCacheSize);
+        options.setStatExpire(statExpire);
+        options.setMmapUnderTls(mmapUnderTls);
+        return options;
+    }
+}
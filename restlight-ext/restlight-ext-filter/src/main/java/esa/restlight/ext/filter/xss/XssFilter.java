@@ -19,6 +19,7 @@ import esa.commons.Checks;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
 import esa.httpserver.core.HttpInputStream;
+import esa.httpserver.core.StreamingBody;
 import esa.restlight.server.handler.Filter;
 import esa.restlight.server.handler.FilterChain;
 import esa.restlight.server.util.LoggerUtils;
@@ -30,6 +31,7 @@ import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.cookie.Cookie;
 
 import java.io.UnsupportedEncodingException;
+import java.net.SocketAddress;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -161,11 +163,21 @@ public class XssFilter implements Filter {
             return delegate.byteBufBody();
         }
 
+        @Override
+        public StreamingBody bodyStream() {
+            return delegate.bodyStream();
+        }
+
         @Override
         public String remoteAddr() {
             return delegate.remoteAddr();
         }
 
+        @Override
+        public SocketAddress remoteAddress() {
+            return delegate.remoteAddress();
+        }
+
         @Override
         public String tcpSourceAddr() {
             return delegate.tcpSourceAddr();
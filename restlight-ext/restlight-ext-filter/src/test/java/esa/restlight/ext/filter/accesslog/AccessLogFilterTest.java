@@ -91,4 +91,33 @@ class AccessLogFilterTest {
                 && s.contains("code=" + response.status())));
     }
 
+    @Test
+    void testAsyncDoFilter() {
+        final InternalLogger mock = mock(InternalLogger.class);
+        final AccessLogFilter filter = new AccessLogFilter(mock, false, true, 16);
+        try {
+            for (int i = 0; i < 3; i++) {
+                final AsyncRequest request = MockAsyncRequest.aMockRequest()
+                        .withUri("/foo/" + i)
+                        .withMethod("GET")
+                        .withRemoteAddr("127.0.0.1")
+                        .withRemotePort(8081)
+                        .withProtocol(HttpVersion.HTTP_1_1)
+                        .build();
+                final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+                filter.doFilter(request, response, (req, res) -> {
+                    res.sendResult(200);
+                    return Futures.completedFuture();
+                }).join();
+            }
+        } finally {
+            filter.shutdown();
+        }
+        verify(mock, atLeastOnce()).info(argThat(s -> s.contains("/foo/0")
+                && s.contains("remoteAddr=127.0.0.1")
+                && s.contains("code=200")));
+        verify(mock, atLeastOnce()).info(argThat(s -> s.contains("/foo/2")));
+        assertEquals(0L, filter.droppedCount());
+    }
+
 }
@@ -33,6 +33,8 @@ class AccessLogOptionsTest {
                 .datePattern("qux")
                 .maxHistory(1)
                 .fullUri(true)
+                .async(false)
+                .bufferSize(2)
                 .configured();
 
 
@@ -43,6 +45,8 @@ class AccessLogOptionsTest {
         assertEquals("qux", options.getDatePattern());
         assertEquals(1, options.getMaxHistory());
         assertTrue(options.isFullUri());
+        assertFalse(options.isAsync());
+        assertEquals(2, options.getBufferSize());
     }
 
     @Test
@@ -57,6 +61,8 @@ class AccessLogOptionsTest {
         assertEquals(def.getDatePattern(), options.getDatePattern());
         assertEquals(def.getMaxHistory(), options.getMaxHistory());
         assertEquals(def.isFullUri(), options.isFullUri());
+        assertEquals(def.isAsync(), options.isAsync());
+        assertEquals(def.getBufferSize(), options.getBufferSize());
     }
 
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.accesslog;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogRingBufferTest {
+
+    @Test
+    void testOfferAndDrain() {
+        assertThrows(IllegalArgumentException.class, () -> new AccessLogRingBuffer(0));
+        final AccessLogRingBuffer buffer = new AccessLogRingBuffer(3);
+        assertEquals(4, buffer.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(offer(buffer, "/foo/" + i));
+        }
+        assertEquals(4, buffer.size());
+        assertFalse(offer(buffer, "/bar"));
+        assertEquals(1L, buffer.dropped());
+
+        final StringBuilder sb = new StringBuilder();
+        assertEquals(3, buffer.drainTo(sb, 3));
+        final String[] lines = sb.toString().split(System.lineSeparator());
+        assertEquals(3, lines.length);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(lines[i].contains("[GET /foo/" + i + " HTTP/1.1] contentLength=5, remoteAddr=127.0.0.1, "
+                    + "remotePort=8080, code=200, duration=2 mills"));
+        }
+
+        assertTrue(offer(buffer, "/foo/4"));
+        sb.setLength(0);
+        assertEquals(2, buffer.drainTo(sb, 10));
+        assertTrue(sb.toString().contains("/foo/3"));
+        assertTrue(sb.toString().contains("/foo/4"));
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.drainTo(sb, 10));
+    }
+
+    @Test
+    void testMultiProducers() throws InterruptedException {
+        final AccessLogRingBuffer buffer = new AccessLogRingBuffer(1024);
+        final int producers = 4;
+        final int count = 10000;
+        final CountDownLatch latch = new CountDownLatch(producers);
+        for (int i = 0; i < producers; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < count; j++) {
+                    offer(buffer, "/foo");
+                }
+                latch.countDown();
+            }).start();
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        long drained = 0L;
+        while (latch.getCount() > 0L || buffer.size() > 0) {
+            sb.setLength(0);
+            drained += buffer.drainTo(sb, 128);
+        }
+        assertTrue(latch.await(10L, TimeUnit.SECONDS));
+        assertEquals(producers * count, drained + buffer.dropped());
+    }
+
+    private static boolean offer(AccessLogRingBuffer buffer, String path) {
+        return buffer.offer(System.currentTimeMillis(),
+                TimeUnit.MILLISECONDS.toNanos(2L),
+                HttpMethod.GET,
+                path,
+                "HTTP/1.1",
+                5,
+                "127.0.0.1",
+                8080,
+                200);
+    }
+}
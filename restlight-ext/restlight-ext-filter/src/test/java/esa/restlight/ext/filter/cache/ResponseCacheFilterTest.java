@@ -0,0 +1,325 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cache;
+
+import esa.restlight.core.util.OrderedComparator;
+import esa.restlight.ext.filter.compress.CompressionFilter;
+import esa.restlight.ext.filter.compress.CompressionOptionsConfigure;
+import esa.restlight.server.handler.Filter;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.Futures;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResponseCacheFilterTest {
+
+    @Test
+    void testIllegalOptions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ResponseCacheFilter(ResponseCacheOptionsConfigure.defaultOpts()));
+    }
+
+    @Test
+    void testCacheAndConditionalGet() {
+        final ResponseCacheFilter filter = newFilter();
+        final AtomicInteger invoked = new AtomicInteger();
+        final FilterChain chain = (req, res) -> {
+            invoked.incrementAndGet();
+            res.setHeader(HttpHeaderNames.CONTENT_TYPE, "text/plain");
+            final ByteBuf body = res.alloc().buffer();
+            body.writeBytes("hello".getBytes(StandardCharsets.UTF_8));
+            res.sendResult(body, body.readerIndex(), body.readableBytes());
+            return Futures.completedFuture();
+        };
+
+        final MockAsyncResponse first = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/foo?a=1").build(), first, chain);
+        assertEquals(1, invoked.get());
+        assertEquals("hello", first.getSentData().toString(StandardCharsets.UTF_8));
+        final String etag = first.getHeader(HttpHeaderNames.ETAG);
+        assertNotNull(etag);
+        assertEquals(1L, filter.size());
+
+        // served by cache
+        final MockAsyncResponse second = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/foo?a=1").build(), second, chain);
+        assertEquals(1, invoked.get());
+        assertEquals(200, second.status());
+        assertEquals("hello", second.getSentData().toString(StandardCharsets.UTF_8));
+        assertEquals("text/plain", second.getHeader(HttpHeaderNames.CONTENT_TYPE));
+        assertEquals(etag, second.getHeader(HttpHeaderNames.ETAG));
+        assertEquals(1L, filter.hitCount());
+
+        // conditional get
+        final MockAsyncResponse third = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/foo?a=1").withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), etag).build(),
+                third, chain);
+        assertEquals(1, invoked.get());
+        assertEquals(304, third.status());
+        assertEquals(0, third.getSentData().readableBytes());
+        assertEquals(etag, third.getHeader(HttpHeaderNames.ETAG));
+
+        // different query
+        filter.doFilter(get("/foo?a=2").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(2, invoked.get());
+
+        // no-cache of request
+        filter.doFilter(get("/foo?a=1").withHeader(HttpHeaderNames.CACHE_CONTROL.toString(), "no-cache").build(),
+                MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(3, invoked.get());
+
+        // path not matched
+        filter.doFilter(get("/bar").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        filter.doFilter(get("/bar").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(5, invoked.get());
+
+        // not a GET request
+        filter.doFilter(MockAsyncRequest.aMockRequest().withMethod(HttpMethod.POST).withUri("/foo?a=1").build(),
+                MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(6, invoked.get());
+
+        filter.shutdown();
+        assertEquals(0L, filter.size());
+    }
+
+    @Test
+    void testVaryHeaders() {
+        final ResponseCacheFilter filter = newFilter();
+        final AtomicInteger invoked = new AtomicInteger();
+        final FilterChain chain = (req, res) -> {
+            invoked.incrementAndGet();
+            res.sendResult(req.getHeader("X-Tenant").getBytes(StandardCharsets.UTF_8));
+            return Futures.completedFuture();
+        };
+        filter.doFilter(get("/foo").withHeader("X-Tenant", "a").build(), MockAsyncResponse.aMockResponse().build(),
+                chain);
+        filter.doFilter(get("/foo").withHeader("X-Tenant", "b").build(), MockAsyncResponse.aMockResponse().build(),
+                chain);
+        assertEquals(2, invoked.get());
+
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/foo").withHeader("X-Tenant", "b").build(), response, chain);
+        assertEquals(2, invoked.get());
+        assertEquals("b", response.getSentData().toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testUncacheableResponse() {
+        final ResponseCacheFilter filter = newFilter();
+        final AtomicInteger invoked = new AtomicInteger();
+
+        final FilterChain noStore = (req, res) -> {
+            invoked.incrementAndGet();
+            res.setHeader(HttpHeaderNames.CACHE_CONTROL, "no-store");
+            res.sendResult(new byte[]{1});
+            return Futures.completedFuture();
+        };
+        assertNotCached(filter, noStore, invoked);
+
+        final FilterChain error = (req, res) -> {
+            invoked.incrementAndGet();
+            res.sendResult(500, new byte[]{1});
+            return Futures.completedFuture();
+        };
+        assertNotCached(filter, error, invoked);
+
+        final FilterChain cookie = (req, res) -> {
+            invoked.incrementAndGet();
+            res.addCookie("foo", "bar");
+            res.sendResult(new byte[]{1});
+            return Futures.completedFuture();
+        };
+        assertNotCached(filter, cookie, invoked);
+
+        final FilterChain tooLarge = (req, res) -> {
+            invoked.incrementAndGet();
+            res.sendResult(new byte[1025]);
+            return Futures.completedFuture();
+        };
+        assertNotCached(filter, tooLarge, invoked);
+
+        final FilterChain maxAge0 = (req, res) -> {
+            invoked.incrementAndGet();
+            res.setHeader(HttpHeaderNames.CACHE_CONTROL, "public, max-age=0");
+            res.sendResult(new byte[]{1});
+            return Futures.completedFuture();
+        };
+        assertNotCached(filter, maxAge0, invoked);
+
+        final FilterChain varyOthers = (req, res) -> {
+            invoked.incrementAndGet();
+            res.setHeader(HttpHeaderNames.VARY, "X-Tenant, Accept-Language");
+            res.sendResult(new byte[]{1});
+            return Futures.completedFuture();
+        };
+        assertNotCached(filter, varyOthers, invoked);
+
+        final FilterChain varyAny = (req, res) -> {
+            invoked.incrementAndGet();
+            res.setHeader(HttpHeaderNames.VARY, "*");
+            res.sendResult(new byte[]{1});
+            return Futures.completedFuture();
+        };
+        assertNotCached(filter, varyAny, invoked);
+        assertEquals(0L, filter.size());
+    }
+
+    @Test
+    void testCacheInsideCompression() throws IOException {
+        final byte[] expect = String.join("", Collections.nCopies(256, "hello restlight"))
+                .getBytes(StandardCharsets.UTF_8);
+        final ResponseCacheFilter cache = new ResponseCacheFilter(ResponseCacheOptionsConfigure.newOpts()
+                .paths(Collections.singletonList("/foo"))
+                .configured());
+        final CompressionFilter compression = new CompressionFilter(CompressionOptionsConfigure.defaultOpts());
+        final List<Filter> filters = new ArrayList<>(Arrays.asList(cache, compression));
+        OrderedComparator.sort(filters);
+        assertEquals(Arrays.asList(compression, cache), filters);
+
+        final AtomicInteger invoked = new AtomicInteger();
+        final FilterChain handler = (req, res) -> {
+            invoked.incrementAndGet();
+            res.setHeader(HttpHeaderNames.CONTENT_TYPE, "text/plain");
+            res.sendResult(expect);
+            return Futures.completedFuture();
+        };
+        final FilterChain chain = (req, res) -> filters.get(0).doFilter(req, res,
+                (req0, res0) -> filters.get(1).doFilter(req0, res0, handler));
+
+        final MockAsyncResponse first = MockAsyncResponse.aMockResponse().build();
+        chain.doFilter(get("/foo").withHeader(HttpHeaderNames.ACCEPT_ENCODING.toString(), "gzip").build(), first);
+        assertEquals(1, invoked.get());
+        assertEquals("gzip", first.getHeader(HttpHeaderNames.CONTENT_ENCODING));
+        assertArrayEquals(expect, gunzip(first.getSentData()));
+        assertEquals(1L, cache.size());
+
+        // the uncompressed body has been cached
+        final MockAsyncResponse identity = MockAsyncResponse.aMockResponse().build();
+        chain.doFilter(get("/foo").build(), identity);
+        assertEquals(1, invoked.get());
+        assertFalse(identity.containsHeader(HttpHeaderNames.CONTENT_ENCODING));
+        assertArrayEquals(expect, ByteBufUtil.getBytes(identity.getSentData()));
+
+        // and it is compressed again by the negotiated encoding
+        final MockAsyncResponse gzip = MockAsyncResponse.aMockResponse().build();
+        chain.doFilter(get("/foo").withHeader(HttpHeaderNames.ACCEPT_ENCODING.toString(), "gzip").build(), gzip);
+        assertEquals(1, invoked.get());
+        assertEquals(2L, cache.hitCount());
+        assertEquals("gzip", gzip.getHeader(HttpHeaderNames.CONTENT_ENCODING));
+        assertArrayEquals(expect, gunzip(gzip.getSentData()));
+    }
+
+    @Test
+    void testAuthorization() {
+        final ResponseCacheFilter filter = newFilter();
+        final AtomicInteger invoked = new AtomicInteger();
+        final FilterChain chain = (req, res) -> {
+            invoked.incrementAndGet();
+            res.sendResult(String.valueOf(req.getHeader(HttpHeaderNames.AUTHORIZATION))
+                    .getBytes(StandardCharsets.UTF_8));
+            return Futures.completedFuture();
+        };
+        // a public response has been cached
+        filter.doFilter(get("/foo").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(1L, filter.size());
+
+        // requests with credentials are neither served nor cached
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/foo").withHeader(HttpHeaderNames.AUTHORIZATION.toString(), "Basic a").build(),
+                response, chain);
+        assertEquals(2, invoked.get());
+        assertEquals("Basic a", response.getSentData().toString(StandardCharsets.UTF_8));
+        filter.doFilter(get("/foo?a=1").withHeader(HttpHeaderNames.AUTHORIZATION.toString(), "Basic a").build(),
+                MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(1L, filter.size());
+        assertEquals(0L, filter.hitCount());
+
+        // keyed by the credentials
+        final ResponseCacheFilter keyed = new ResponseCacheFilter(ResponseCacheOptionsConfigure.newOpts()
+                .paths(Collections.singletonList("/foo"))
+                .varyHeaders(Collections.singletonList("authorization"))
+                .configured());
+        keyed.doFilter(get("/foo").withHeader(HttpHeaderNames.AUTHORIZATION.toString(), "Basic a").build(),
+                MockAsyncResponse.aMockResponse().build(), chain);
+        final MockAsyncResponse other = MockAsyncResponse.aMockResponse().build();
+        keyed.doFilter(get("/foo").withHeader(HttpHeaderNames.AUTHORIZATION.toString(), "Basic b").build(),
+                other, chain);
+        assertEquals(4, invoked.get());
+        assertEquals("Basic b", other.getSentData().toString(StandardCharsets.UTF_8));
+        keyed.doFilter(get("/foo").withHeader(HttpHeaderNames.AUTHORIZATION.toString(), "Basic a").build(),
+                MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(4, invoked.get());
+        assertEquals(1L, keyed.hitCount());
+
+        filter.shutdown();
+        keyed.shutdown();
+    }
+
+    private static byte[] gunzip(ByteBuf compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteBufInputStream(compressed))) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buf = new byte[1024];
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static void assertNotCached(ResponseCacheFilter filter, FilterChain chain, AtomicInteger invoked) {
+        final int before = invoked.get();
+        filter.doFilter(get("/foo").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        filter.doFilter(get("/foo").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(before + 2, invoked.get());
+        assertEquals(0L, filter.hitCount());
+    }
+
+    private static ResponseCacheFilter newFilter() {
+        return new ResponseCacheFilter(ResponseCacheOptionsConfigure.newOpts()
+                .paths(Collections.singletonList("/foo"))
+                .varyHeaders(Collections.singletonList("X-Tenant"))
+                .maxEntrySize(1024)
+                .configured());
+    }
+
+    private static MockAsyncRequest.Builder get(String uri) {
+        return MockAsyncRequest.aMockRequest().withMethod(HttpMethod.GET).withUri(uri);
+    }
+}
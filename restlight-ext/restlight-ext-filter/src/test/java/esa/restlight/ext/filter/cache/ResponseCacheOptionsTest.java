@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseCacheOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final ResponseCacheOptions options = ResponseCacheOptionsConfigure.newOpts()
+                .paths(Arrays.asList("/foo", "/bar/**"))
+                .varyHeaders(Collections.singletonList("Accept"))
+                .maxSize(1L)
+                .maxEntrySize(2)
+                .expire(3L)
+                .configured();
+        assertArrayEquals(new String[]{"/foo", "/bar/**"}, options.getPaths().toArray());
+        assertArrayEquals(new String[]{"Accept"}, options.getVaryHeaders().toArray());
+        assertEquals(1L, options.getMaxSize());
+        assertEquals(2, options.getMaxEntrySize());
+        assertEquals(3L, options.getExpire());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final ResponseCacheOptions options = ResponseCacheOptionsConfigure.defaultOpts();
+        final ResponseCacheOptions def = new ResponseCacheOptions();
+
+        assertEquals(def.getPaths(), options.getPaths());
+        assertEquals(def.getVaryHeaders(), options.getVaryHeaders());
+        assertEquals(def.getMaxSize(), options.getMaxSize());
+        assertEquals(def.getMaxEntrySize(), options.getMaxEntrySize());
+        assertEquals(def.getExpire(), options.getExpire());
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.compress;
+
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.Futures;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionFilterTest {
+
+    private static final byte[] BODY = body(4096);
+
+    @Test
+    void testIllegalOptions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CompressionFilter(CompressionOptionsConfigure.newOpts().level(0).configured()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CompressionFilter(CompressionOptionsConfigure.newOpts()
+                        .encodings(Collections.singletonList("br"))
+                        .configured()));
+    }
+
+    @Test
+    void testNegotiate() {
+        final CompressionFilter filter = new CompressionFilter(CompressionOptionsConfigure.defaultOpts());
+        assertNull(filter.negotiate(null));
+        assertNull(filter.negotiate(""));
+        assertNull(filter.negotiate("identity"));
+        assertNull(filter.negotiate("br"));
+        assertNull(filter.negotiate("gzip;q=0, deflate;q=0"));
+        assertEquals(ContentEncoding.GZIP, filter.negotiate("gzip, deflate, br"));
+        assertEquals(ContentEncoding.GZIP, filter.negotiate("deflate, gzip"));
+        assertEquals(ContentEncoding.DEFLATE, filter.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(ContentEncoding.DEFLATE, filter.negotiate("gzip;q=0, *"));
+        assertEquals(ContentEncoding.GZIP, filter.negotiate("*"));
+        assertEquals(ContentEncoding.GZIP, filter.negotiate("GZIP ; Q=1"));
+    }
+
+    @Test
+    void testCompressByGzip() throws IOException {
+        final CompressionFilter filter = new CompressionFilter(CompressionOptionsConfigure.defaultOpts());
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(request("gzip").build(), response, (req, res) -> {
+            res.setHeader(HttpHeaderNames.CONTENT_TYPE, "application/json;charset=utf-8");
+            res.setHeader(HttpHeaderNames.ETAG, "\"foo\"");
+            final ByteBuf body = Unpooled.wrappedBuffer(BODY);
+            res.sendResult(body, body.readerIndex(), body.readableBytes(), true);
+            return Futures.completedFuture();
+        });
+        assertEquals("gzip", response.getHeader(HttpHeaderNames.CONTENT_ENCODING));
+        assertEquals("accept-encoding", response.getHeader(HttpHeaderNames.VARY));
+        assertEquals("W/\"foo\"", response.getHeader(HttpHeaderNames.ETAG));
+
+        final byte[] sent = ByteBufUtil.getBytes(response.getSentData());
+        assertTrue(sent.length < BODY.length);
+        assertArrayEquals(BODY, read(new GZIPInputStream(new ByteArrayInputStream(sent))));
+        assertEquals(1L, filter.compressedCount());
+        assertEquals(BODY.length, filter.bytesIn());
+        assertEquals(sent.length, filter.bytesOut());
+        assertEquals(BODY.length - sent.length, filter.bytesSaved());
+    }
+
+    @Test
+    void testCompressByDeflate() throws IOException {
+        final CompressionFilter filter = new CompressionFilter(CompressionOptionsConfigure.defaultOpts());
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(request("deflate").build(), response, (req, res) -> {
+            res.setHeader(HttpHeaderNames.VARY, "Origin");
+            res.sendResult(BODY, 0, BODY.length);
+            return Futures.completedFuture();
+        });
+        assertEquals("deflate", response.getHeader(HttpHeaderNames.CONTENT_ENCODING));
+        assertEquals("Origin, accept-encoding", response.getHeader(HttpHeaderNames.VARY));
+        final byte[] sent = ByteBufUtil.getBytes(response.getSentData());
+        assertArrayEquals(BODY, read(new InflaterInputStream(new ByteArrayInputStream(sent))));
+    }
+
+    @Test
+    void testCompressInFastThreadLocalThread() throws Exception {
+        final CompressionFilter filter = new CompressionFilter(CompressionOptionsConfigure.defaultOpts());
+        final CompletableFuture<byte[]> sent = new CompletableFuture<>();
+        // deflaters are pooled by the thread which cleans up its FastThreadLocals
+        new DefaultThreadFactory("compress").newThread(() -> {
+            try {
+                for (int i = 0; i < 2; i++) {
+                    final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+                    filter.doFilter(request("gzip").build(), response, (req, res) -> {
+                        res.sendResult(BODY);
+                        return Futures.completedFuture();
+                    });
+                    if (i == 1) {
+                        sent.complete(ByteBufUtil.getBytes(response.getSentData()));
+                    }
+                }
+            } catch (Throwable t) {
+                sent.completeExceptionally(t);
+            }
+        }).start();
+        assertArrayEquals(BODY, read(new GZIPInputStream(new ByteArrayInputStream(sent.get(10L, TimeUnit.SECONDS)))));
+        assertEquals(2L, filter.compressedCount());
+    }
+
+    @Test
+    void testSkipCompression() {
+        final CompressionFilter filter = new CompressionFilter(CompressionOptionsConfigure.newOpts()
+                .minSize(1024)
+                .excludedPaths(Collections.singletonList("/excluded/**"))
+                .configured());
+
+        // too small
+        assertNotCompressed(filter, request("gzip"), (req, res) -> {
+            res.sendResult(Arrays.copyOf(BODY, 1023));
+            return Futures.completedFuture();
+        });
+
+        // excluded media type
+        assertNotCompressed(filter, request("gzip"), (req, res) -> {
+            res.setHeader(HttpHeaderNames.CONTENT_TYPE, "image/png");
+            res.sendResult(BODY);
+            return Futures.completedFuture();
+        });
+
+        // already encoded
+        assertNotCompressed(filter, request("gzip"), (req, res) -> {
+            res.setHeader(HttpHeaderNames.CONTENT_ENCODING, "br");
+            res.sendResult(BODY);
+            return Futures.completedFuture();
+        });
+
+        // not modified
+        assertNotCompressed(filter, request("gzip"), (req, res) -> {
+            res.sendResult(304, BODY);
+            return Futures.completedFuture();
+        });
+
+        // excluded path
+        assertNotCompressed(filter, MockAsyncRequest.aMockRequest().withUri("/excluded/foo")
+                .withHeader(HttpHeaderNames.ACCEPT_ENCODING.toString(), "gzip"), (req, res) -> {
+            res.sendResult(BODY);
+            return Futures.completedFuture();
+        });
+
+        // not acceptable, but it is still compressible for the others
+        assertNotCompressed(filter, request("br"), (req, res) -> {
+            res.sendResult(BODY);
+            return Futures.completedFuture();
+        }, true);
+        assertNotCompressed(filter, MockAsyncRequest.aMockRequest().withUri("/foo"), (req, res) -> {
+            res.sendResult(BODY);
+            return Futures.completedFuture();
+        }, true);
+
+        // incompressible
+        final byte[] random = new byte[4096];
+        new Random(1L).nextBytes(random);
+        assertNotCompressed(filter, request("gzip"), (req, res) -> {
+            res.sendResult(random);
+            return Futures.completedFuture();
+        }, true);
+        assertEquals(0L, filter.compressedCount());
+        assertEquals(0L, filter.bytesSaved());
+    }
+
+    private static void assertNotCompressed(CompressionFilter filter,
+                                            MockAsyncRequest.Builder request,
+                                            FilterChain chain) {
+        assertNotCompressed(filter, request, chain, false);
+    }
+
+    private static void assertNotCompressed(CompressionFilter filter,
+                                            MockAsyncRequest.Builder request,
+                                            FilterChain chain,
+                                            boolean vary) {
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(request.build(), response, chain);
+        final String encoding = response.getHeader(HttpHeaderNames.CONTENT_ENCODING);
+        assertTrue(encoding == null || "br".equals(encoding));
+        if (vary) {
+            assertEquals("accept-encoding", response.getHeader(HttpHeaderNames.VARY));
+        } else {
+            assertNull(response.getHeader(HttpHeaderNames.VARY));
+        }
+    }
+
+    private static MockAsyncRequest.Builder request(String acceptEncoding) {
+        return MockAsyncRequest.aMockRequest()
+                .withUri("/foo")
+                .withHeader(HttpHeaderNames.ACCEPT_ENCODING.toString(), acceptEncoding);
+    }
+
+    private static byte[] body(int size) {
+        final StringBuilder sb = new StringBuilder(size);
+        int i = 0;
+        while (sb.length() < size) {
+            sb.append("{\"id\":").append(i++).append(",\"name\":\"restlight\"},");
+        }
+        return sb.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buf = new byte[1024];
+        int n;
+        while ((n = in.read(buf)) > 0) {
+            out.write(buf, 0, n);
+        }
+        in.close();
+        return out.toByteArray();
+    }
+}
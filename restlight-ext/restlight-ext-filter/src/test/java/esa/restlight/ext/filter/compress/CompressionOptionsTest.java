@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.compress;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompressionOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final CompressionOptions options = CompressionOptionsConfigure.newOpts()
+                .encodings(Collections.singletonList("deflate"))
+                .minSize(1)
+                .level(2)
+                .excludedMediaTypes(Collections.singletonList("image/*"))
+                .excludedPaths(Collections.singletonList("/foo/**"))
+                .configured();
+        assertArrayEquals(new String[]{"deflate"}, options.getEncodings().toArray());
+        assertEquals(1, options.getMinSize());
+        assertEquals(2, options.getLevel());
+        assertArrayEquals(new String[]{"image/*"}, options.getExcludedMediaTypes().toArray());
+        assertArrayEquals(new String[]{"/foo/**"}, options.getExcludedPaths().toArray());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final CompressionOptions options = CompressionOptionsConfigure.defaultOpts();
+        final CompressionOptions def = new CompressionOptions();
+
+        assertEquals(def.getEncodings(), options.getEncodings());
+        assertEquals(def.getMinSize(), options.getMinSize());
+        assertEquals(def.getLevel(), options.getLevel());
+        assertEquals(def.getExcludedMediaTypes(), options.getExcludedMediaTypes());
+        assertEquals(def.getExcludedPaths(), options.getExcludedPaths());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ipwhitelist;
+
+import io.netty.util.NetUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CidrTrieTest {
+
+    @Test
+    void testMatchIpv4() {
+        final CidrTrie trie = new CidrTrie();
+        assertTrue(trie.isEmpty());
+        trie.add("10.0.0.0/8");
+        trie.add("192.168.1.0/24");
+        trie.add("127.0.0.1");
+        // covered by 10.0.0.0/8
+        trie.add("10.1.0.0/16");
+        assertFalse(trie.isEmpty());
+
+        assertTrue(matches(trie, "10.0.0.0"));
+        assertTrue(matches(trie, "10.255.255.255"));
+        assertTrue(matches(trie, "192.168.1.1"));
+        assertTrue(matches(trie, "127.0.0.1"));
+        assertFalse(matches(trie, "11.0.0.0"));
+        assertFalse(matches(trie, "9.255.255.255"));
+        assertFalse(matches(trie, "192.168.2.1"));
+        assertFalse(matches(trie, "127.0.0.2"));
+        assertFalse(matches(trie, "::1"));
+        assertFalse(trie.matches(null));
+        assertFalse(trie.matches(new byte[5]));
+    }
+
+    @Test
+    void testMatchIpv6() {
+        final CidrTrie trie = new CidrTrie();
+        trie.add("2001:db8::/32");
+        trie.add("::1");
+
+        assertTrue(matches(trie, "2001:db8::1"));
+        assertTrue(matches(trie, "2001:db8:ffff:ffff:ffff:ffff:ffff:ffff"));
+        assertTrue(matches(trie, "::1"));
+        assertFalse(matches(trie, "2001:db9::1"));
+        assertFalse(matches(trie, "::2"));
+        assertFalse(matches(trie, "127.0.0.1"));
+    }
+
+    @Test
+    void testIpv4Mapped() {
+        final CidrTrie trie = new CidrTrie();
+        trie.add("::ffff:172.16.0.0/108");
+        trie.add("10.0.0.0/8");
+
+        assertTrue(matches(trie, "172.16.0.1"));
+        assertTrue(matches(trie, "172.31.255.255"));
+        assertFalse(matches(trie, "172.32.0.0"));
+        assertTrue(matches(trie, "::ffff:10.0.0.1"));
+        assertFalse(matches(trie, "::ffff:11.0.0.1"));
+    }
+
+    @Test
+    void testMatchAll() {
+        final CidrTrie trie = new CidrTrie();
+        trie.add("0.0.0.0/0");
+        assertTrue(matches(trie, "8.8.8.8"));
+        assertFalse(matches(trie, "::1"));
+        trie.add("::/0");
+        assertTrue(matches(trie, "::1"));
+    }
+
+    @Test
+    void testIllegal() {
+        final CidrTrie trie = new CidrTrie();
+        assertThrows(IllegalArgumentException.class, () -> trie.add("localhost"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("10.0.0.0/33"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("10.0.0.0/-1"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("10.0.0.0/a"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("::/129"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("::ffff:0:0/80"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("::ffff:10.0.0.0/95"));
+        assertTrue(trie.isEmpty());
+    }
+
+    private static boolean matches(CidrTrie trie, String ip) {
+        return trie.matches(NetUtil.createByteArrayFromIpAddressString(ip));
+    }
+}
@@ -26,9 +26,12 @@ import io.netty.handler.codec.http.HttpHeaderNames;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class IpWhiteListFilterTest {
 
@@ -66,6 +69,113 @@ class IpWhiteListFilterTest {
         assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.2").build(), cached);
     }
 
+    @Test
+    void testCidr() {
+        final IpWhiteListFilter filter = new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                .ips(Arrays.asList("10.0.0.0/8", "2001:db8::/32", "127.0.0.1"))
+                .configured());
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("10.1.2.3").build(), filter);
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("2001:db8::1").build(), filter);
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.1").build(), filter);
+        assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("11.0.0.1").build(), filter);
+        assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("2001:db9::1").build(), filter);
+        assertNotAllowed(MockAsyncRequest.aMockRequest().build(), filter);
+    }
+
+    @Test
+    void testBlacklist() {
+        final IpWhiteListFilter filter = new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                .ips(Arrays.asList("10.0.0.0/8", "regex:192\\.168\\..*"))
+                .blacklist(true)
+                .configured());
+        assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("10.1.2.3").build(), filter);
+        assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("192.168.1.1").build(), filter);
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("11.0.0.1").build(), filter);
+        assertAllowed(MockAsyncRequest.aMockRequest().build(), filter);
+
+        // empty blacklist means allowing all
+        final IpWhiteListFilter empty = new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                .blacklist(true)
+                .configured());
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("10.1.2.3").build(), empty);
+    }
+
+    @Test
+    void testReload() {
+        final IpWhiteListFilter filter = new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                .ips(Collections.singletonList("10.0.0.0/8"))
+                .configured());
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("10.1.2.3").build(), filter);
+        assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("11.1.2.3").build(), filter);
+
+        filter.reload(Collections.singletonList("11.0.0.0/8"));
+        assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("10.1.2.3").build(), filter);
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("11.1.2.3").build(), filter);
+
+        // keep the current ips if the given ones are illegal
+        assertThrows(IllegalArgumentException.class, () -> filter.reload(Collections.singletonList("foo")));
+        assertThrows(IllegalArgumentException.class, () -> filter.reload(Collections.emptyList()));
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("11.1.2.3").build(), filter);
+    }
+
+    @Test
+    void testOverrideRemoteAddr() {
+        final IpWhiteListFilter filter = new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                .ips(Arrays.asList("10.0.0.0/8", "regex:192\\.168\\..*"))
+                .configured()) {
+            @Override
+            protected String getRemoteAddr(AsyncRequest request) {
+                return request.getHeader("X-Real-IP");
+            }
+        };
+        assertAllowed(MockAsyncRequest.aMockRequest()
+                .withRemoteAddr("11.0.0.1")
+                .withHeader("X-Real-IP", "10.0.0.1")
+                .build(), filter);
+        assertAllowed(MockAsyncRequest.aMockRequest()
+                .withRemoteAddr("11.0.0.1")
+                .withHeader("X-Real-IP", "192.168.0.1")
+                .build(), filter);
+        assertNotAllowed(MockAsyncRequest.aMockRequest()
+                .withRemoteAddr("10.0.0.1")
+                .build(), filter);
+    }
+
+    @Test
+    void testRemoteAddrNotOverridden() {
+        final IpWhiteListFilter filter = new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                .ips(Collections.singletonList("10.0.0.0/8"))
+                .configured()) {
+            @Override
+            protected String getRemoteAddr(AsyncRequest request) {
+                return request.getHeader("X-Real-IP");
+            }
+
+            @Override
+            protected boolean isRemoteAddrOverridden() {
+                return false;
+            }
+        };
+        assertAllowed(MockAsyncRequest.aMockRequest()
+                .withRemoteAddr("10.0.0.1")
+                .withHeader("X-Real-IP", "11.0.0.1")
+                .build(), filter);
+        assertNotAllowed(MockAsyncRequest.aMockRequest()
+                .withRemoteAddr("11.0.0.1")
+                .withHeader("X-Real-IP", "10.0.0.1")
+                .build(), filter);
+    }
+
+    @Test
+    void testIllegalIps() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new IpWhiteListFilter(IpWhiteListOptionsConfigure.defaultOpts()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                        .ips(Collections.singletonList("10.0.0.0/40"))
+                        .configured()));
+    }
+
     private static void assertAllowed(AsyncRequest request, IpWhiteListFilter filter) {
         final FilterChain chain = ((req, res) -> {
             res.sendResult(200);
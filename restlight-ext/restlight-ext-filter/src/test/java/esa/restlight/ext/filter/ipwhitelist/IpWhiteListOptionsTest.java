@@ -21,6 +21,7 @@ import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class IpWhiteListOptionsTest {
 
@@ -28,10 +29,12 @@ class IpWhiteListOptionsTest {
     void testConfigure() {
         final IpWhiteListOptions options = IpWhiteListOptionsConfigure.newOpts()
                 .ips(Arrays.asList("a", "b"))
+                .blacklist(true)
                 .cacheSize(1)
                 .expire(2)
                 .configured();
         assertArrayEquals(new String[]{"a", "b"}, options.getIps().toArray());
+        assertTrue(options.isBlacklist());
         assertEquals(1, options.getCacheSize());
         assertEquals(2, options.getExpire());
     }
@@ -42,6 +45,7 @@ class IpWhiteListOptionsTest {
         final IpWhiteListOptions def = new IpWhiteListOptions();
 
         assertEquals(def.getIps(), options.getIps());
+        assertEquals(def.isBlacklist(), options.isBlacklist());
         assertEquals(def.getCacheSize(), options.getCacheSize());
         assertEquals(def.getExpire(), options.getExpire());
     }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    void testFixedLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(0));
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.inflight());
+
+        limiter.release(1L, false);
+        assertEquals(1, limiter.inflight());
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void testAdaptiveLimit() throws InterruptedException {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(2, 1));
+
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1000);
+        assertEquals(20, limiter.limit());
+
+        // the limit grows while the latency is stable and the limiter is saturated
+        run(limiter, 5, TimeUnit.MILLISECONDS.toNanos(1L), false);
+        final int grown = limiter.limit();
+        assertTrue(grown > 20, String.valueOf(grown));
+
+        // and shrinks once the latency increases
+        run(limiter, 5, TimeUnit.MILLISECONDS.toNanos(10L), false);
+        final int shrunk = limiter.limit();
+        assertTrue(shrunk < grown, shrunk + " vs " + grown);
+
+        // and also shrinks if there's any failure
+        run(limiter, 3, TimeUnit.MILLISECONDS.toNanos(10L), true);
+        assertTrue(limiter.limit() < shrunk);
+        assertTrue(limiter.limit() >= 1);
+        assertEquals(0, limiter.inflight());
+    }
+
+    @Test
+    void testAdaptiveLimitHalvedByFailure() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1000);
+        assertEquals(20, limiter.limit());
+        run(limiter, 1, TimeUnit.MILLISECONDS.toNanos(1L), true);
+        assertEquals(10, limiter.limit());
+    }
+
+    private static void run(ConcurrencyLimiter limiter, int windows, long rtt, boolean dropped)
+            throws InterruptedException {
+        for (int i = 0; i < windows; i++) {
+            final int limit = limiter.limit();
+            for (int j = 0; j < limit; j++) {
+                assertTrue(limiter.tryAcquire());
+            }
+            assertFalse(limiter.tryAcquire());
+            Thread.sleep(110L);
+            for (int j = 0; j < limit; j++) {
+                limiter.release(rtt, dropped);
+            }
+        }
+    }
+}
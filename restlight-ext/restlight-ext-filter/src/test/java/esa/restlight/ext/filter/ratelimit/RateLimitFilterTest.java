@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.util.Futures;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+
+    private final AtomicInteger invoked = new AtomicInteger();
+    private final FilterChain chain = (req, res) -> {
+        invoked.incrementAndGet();
+        return Futures.completedFuture();
+    };
+
+    @Test
+    void testIllegalOptions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimitFilter(RateLimitOptionsConfigure.defaultOpts()));
+        assertThrows(IllegalArgumentException.class,
+                () -> newFilter(RateLimitRuleConfigure.newOpts()
+                        .key(RateLimitKey.HEADER)
+                        .keyHeader("")
+                        .permitsPerSecond(1D)
+                        .configured()));
+    }
+
+    @Test
+    void testLimitRule() {
+        final RateLimitFilter filter = newFilter(RateLimitRuleConfigure.newOpts()
+                .mapping(Mapping.get("/foo/{id}"))
+                .permitsPerSecond(0.001D)
+                .burst(2)
+                .configured());
+
+        assertEquals(200, send(filter, get("/foo/1")).status());
+        assertEquals(200, send(filter, get("/foo/2")).status());
+        final MockAsyncResponse rejected = send(filter, get("/foo/3"));
+        assertEquals(429, rejected.status());
+        assertEquals("1000", rejected.getHeader(HttpHeaderNames.RETRY_AFTER));
+        assertEquals(2, invoked.get());
+        assertEquals(1L, filter.rejectedCount());
+
+        // not matched
+        assertEquals(200, send(filter, get("/bar")).status());
+        assertEquals(200, send(filter, MockAsyncRequest.aMockRequest()
+                .withMethod(HttpMethod.POST).withUri("/foo/1")).status());
+        assertEquals(4, invoked.get());
+    }
+
+    @Test
+    void testLimitClientIp() {
+        final RateLimitFilter filter = newFilter(RateLimitRuleConfigure.newOpts()
+                .key(RateLimitKey.CLIENT_IP)
+                .permitsPerSecond(0.5D)
+                .configured());
+
+        assertEquals(200, send(filter, get("/foo").withRemoteAddr("10.0.0.1")).status());
+        final MockAsyncResponse rejected = send(filter, get("/foo").withRemoteAddr("10.0.0.1"));
+        assertEquals(429, rejected.status());
+        assertEquals("2", rejected.getHeader(HttpHeaderNames.RETRY_AFTER));
+        assertEquals(200, send(filter, get("/bar").withRemoteAddr("10.0.0.2")).status());
+        assertEquals(2, invoked.get());
+    }
+
+    @Test
+    void testLimitHeader() {
+        final RateLimitFilter filter = newFilter(RateLimitRuleConfigure.newOpts()
+                .paths(Collections.singletonList("/api/**"))
+                .key(RateLimitKey.HEADER)
+                .permitsPerSecond(1D)
+                .configured());
+
+        assertEquals(200, send(filter, get("/api/foo").withHeader("X-Api-Key", "a")).status());
+        assertEquals(429, send(filter, get("/api/foo").withHeader("X-Api-Key", "a")).status());
+        assertEquals(200, send(filter, get("/api/foo").withHeader("X-Api-Key", "b")).status());
+
+        // limited by the client address if there's no api key
+        assertEquals(200, send(filter, get("/api/foo").withRemoteAddr("10.0.0.1")).status());
+        assertEquals(429, send(filter, get("/api/foo").withRemoteAddr("10.0.0.1")).status());
+        assertEquals(3, invoked.get());
+    }
+
+    @Test
+    void testLimitConcurrency() {
+        final RateLimitFilter filter = newFilter(RateLimitRuleConfigure.newOpts()
+                .mapping(Mapping.mapping("/foo"))
+                .maxConcurrent(1)
+                .configured());
+        final CompletableFuture<Void> pending = new CompletableFuture<>();
+        final MockAsyncRequest request = get("/foo").build();
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        assertSame(pending, filter.doFilter(request, response, (req, res) -> pending));
+
+        final MockAsyncResponse rejected = send(filter, get("/foo"));
+        assertEquals(429, rejected.status());
+        assertEquals("1", rejected.getHeader(HttpHeaderNames.RETRY_AFTER));
+        assertEquals(0, invoked.get());
+
+        pending.complete(null);
+        assertEquals(200, send(filter, get("/foo")).status());
+        assertEquals(1, invoked.get());
+    }
+
+    @Test
+    void testIsDropped() {
+        assertFalse(RateLimitFilter.isDropped(200, 1L, 0L));
+        assertFalse(RateLimitFilter.isDropped(404, 1L, 0L));
+        assertTrue(RateLimitFilter.isDropped(429, 1L, 0L));
+        assertTrue(RateLimitFilter.isDropped(500, 1L, 0L));
+        assertTrue(RateLimitFilter.isDropped(503, 1L, 0L));
+        assertFalse(RateLimitFilter.isDropped(200, 10L, 10L));
+        assertTrue(RateLimitFilter.isDropped(200, 11L, 10L));
+    }
+
+    @Test
+    void testFirstMatchedRule() {
+        final RateLimitFilter filter = new RateLimitFilter(RateLimitOptionsConfigure.newOpts()
+                .rules(Arrays.asList(RateLimitRuleConfigure.newOpts()
+                                .paths(Collections.singletonList("/foo"))
+                                .configured(),
+                        RateLimitRuleConfigure.newOpts()
+                                .permitsPerSecond(0.001D)
+                                .configured()))
+                .configured());
+        for (int i = 0; i < 3; i++) {
+            final MockAsyncResponse response = send(filter, get("/foo"));
+            assertEquals(200, response.status());
+            assertNull(response.getHeader(HttpHeaderNames.RETRY_AFTER));
+        }
+        assertEquals(200, send(filter, get("/bar")).status());
+        assertEquals(429, send(filter, get("/bar")).status());
+        assertEquals(4, invoked.get());
+    }
+
+    private MockAsyncResponse send(RateLimitFilter filter, MockAsyncRequest.Builder request) {
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(request.build(), response, chain);
+        return response;
+    }
+
+    private static RateLimitFilter newFilter(RateLimitRule rule) {
+        return new RateLimitFilter(RateLimitOptionsConfigure.newOpts()
+                .rules(Collections.singletonList(rule))
+                .configured());
+    }
+
+    private static MockAsyncRequest.Builder get(String uri) {
+        return MockAsyncRequest.aMockRequest().withMethod(HttpMethod.GET).withUri(uri);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.route.Mapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final RateLimitRule rule = RateLimitRuleConfigure.defaultOpts();
+        final RateLimitOptions options = RateLimitOptionsConfigure.newOpts()
+                .rules(Collections.singletonList(rule))
+                .maxKeys(1L)
+                .keyExpire(2L)
+                .configured();
+        assertEquals(1, options.getRules().size());
+        assertSame(rule, options.getRules().get(0));
+        assertEquals(1L, options.getMaxKeys());
+        assertEquals(2L, options.getKeyExpire());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final RateLimitOptions options = RateLimitOptionsConfigure.defaultOpts();
+        final RateLimitOptions def = new RateLimitOptions();
+
+        assertEquals(def.getRules(), options.getRules());
+        assertEquals(def.getMaxKeys(), options.getMaxKeys());
+        assertEquals(def.getKeyExpire(), options.getKeyExpire());
+    }
+
+    @Test
+    void testConfigureRule() {
+        final RateLimitRule rule = RateLimitRuleConfigure.newOpts()
+                .paths(Collections.singletonList("/foo"))
+                .methods(Collections.singleton(HttpMethod.GET))
+                .key(RateLimitKey.HEADER)
+                .keyHeader("X-Token")
+                .permitsPerSecond(1D)
+                .burst(2)
+                .maxConcurrent(3)
+                .adaptiveConcurrency(true)
+                .minConcurrent(4)
+                .dropTimeout(5L)
+                .configured();
+        assertArrayEquals(new String[]{"/foo"}, rule.getPaths().toArray());
+        assertArrayEquals(new HttpMethod[]{HttpMethod.GET}, rule.getMethods().toArray());
+        assertEquals(RateLimitKey.HEADER, rule.getKey());
+        assertEquals("X-Token", rule.getKeyHeader());
+        assertEquals(1D, rule.getPermitsPerSecond());
+        assertEquals(2, rule.getBurst());
+        assertEquals(3, rule.getMaxConcurrent());
+        assertTrue(rule.isAdaptiveConcurrency());
+        assertEquals(4, rule.getMinConcurrent());
+        assertEquals(5L, rule.getDropTimeout());
+
+        final RateLimitRule fromMapping = RateLimitRuleConfigure.newOpts()
+                .mapping(Mapping.post("/bar"))
+                .configured();
+        assertArrayEquals(new String[]{"/bar"}, fromMapping.getPaths().toArray());
+        assertArrayEquals(new HttpMethod[]{HttpMethod.POST}, fromMapping.getMethods().toArray());
+    }
+
+    @Test
+    void testDefaultRule() {
+        final RateLimitRule rule = RateLimitRuleConfigure.defaultOpts();
+        final RateLimitRule def = new RateLimitRule();
+
+        assertEquals(def.getPaths(), rule.getPaths());
+        assertEquals(def.getMethods(), rule.getMethods());
+        assertEquals(def.getKey(), rule.getKey());
+        assertEquals(def.getKeyHeader(), rule.getKeyHeader());
+        assertEquals(def.getPermitsPerSecond(), rule.getPermitsPerSecond());
+        assertEquals(def.getBurst(), rule.getBurst());
+        assertEquals(def.getMaxConcurrent(), rule.getMaxConcurrent());
+        assertEquals(def.isAdaptiveConcurrency(), rule.isAdaptiveConcurrency());
+        assertEquals(def.getMinConcurrent(), rule.getMinConcurrent());
+        assertEquals(def.getDropTimeout(), rule.getDropTimeout());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    @Test
+    void testIllegalArgs() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0D, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1D, 0));
+    }
+
+    @Test
+    void testBurstAndRefill() {
+        final TokenBucket bucket = new TokenBucket(10D, 5);
+        final long now = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, bucket.tryAcquire(now));
+        }
+        final long interval = TimeUnit.MILLISECONDS.toNanos(100L);
+        assertEquals(interval, bucket.tryAcquire(now));
+        assertEquals(interval / 2L, bucket.tryAcquire(now + interval / 2L));
+
+        assertEquals(0L, bucket.tryAcquire(now + interval));
+        assertEquals(interval, bucket.tryAcquire(now + interval));
+
+        // refilled but never exceeds the capacity
+        final long later = now + TimeUnit.SECONDS.toNanos(10L);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, bucket.tryAcquire(later));
+        }
+        assertTrue(bucket.tryAcquire(later) > 0L);
+        assertEquals(5L * interval, bucket.refillNanos());
+    }
+
+    @Test
+    void testConcurrentAcquire() throws InterruptedException {
+        final int burst = 1000;
+        final TokenBucket bucket = new TokenBucket(1D, burst);
+        final AtomicInteger acquired = new AtomicInteger();
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < burst; j++) {
+                        if (bucket.tryAcquire() == 0L) {
+                            acquired.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        assertTrue(done.await(10L, TimeUnit.SECONDS));
+        // at most one more permit could be refilled during the test
+        assertTrue(acquired.get() >= burst && acquired.get() <= burst + 1, String.valueOf(acquired.get()));
+    }
+}
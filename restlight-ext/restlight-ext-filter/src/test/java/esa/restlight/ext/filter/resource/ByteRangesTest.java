@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.resource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ByteRangesTest {
+
+    @Test
+    void testIgnored() {
+        assertNull(ByteRanges.parse(null, 100L, 16));
+        assertNull(ByteRanges.parse("", 100L, 16));
+        assertNull(ByteRanges.parse("bytes=", 100L, 16));
+        assertNull(ByteRanges.parse("items=0-1", 100L, 16));
+        assertNull(ByteRanges.parse("bytes=1", 100L, 16));
+        assertNull(ByteRanges.parse("bytes=a-b", 100L, 16));
+        assertNull(ByteRanges.parse("bytes=5-1", 100L, 16));
+        assertNull(ByteRanges.parse("bytes=-", 100L, 16));
+        assertNull(ByteRanges.parse("bytes=99999999999999999999-", 100L, 16));
+        assertNull(ByteRanges.parse("bytes=0-1,2-3,4-5", 100L, 2));
+    }
+
+    @Test
+    void testSingleRange() {
+        assertArrayEquals(new long[]{0L, 9L}, ByteRanges.parse("bytes=0-9", 100L, 16));
+        assertArrayEquals(new long[]{0L, 9L}, ByteRanges.parse("Bytes=0-9", 100L, 16));
+        assertArrayEquals(new long[]{90L, 99L}, ByteRanges.parse("bytes=90-", 100L, 16));
+        assertArrayEquals(new long[]{90L, 99L}, ByteRanges.parse("bytes=90-200", 100L, 16));
+        assertArrayEquals(new long[]{90L, 99L}, ByteRanges.parse("bytes=-10", 100L, 16));
+        assertArrayEquals(new long[]{0L, 99L}, ByteRanges.parse("bytes=-200", 100L, 16));
+    }
+
+    @Test
+    void testUnsatisfiable() {
+        assertSame(ByteRanges.UNSATISFIABLE, ByteRanges.parse("bytes=100-", 100L, 16));
+        assertSame(ByteRanges.UNSATISFIABLE, ByteRanges.parse("bytes=-0", 100L, 16));
+        assertSame(ByteRanges.UNSATISFIABLE, ByteRanges.parse("bytes=-10", 0L, 16));
+        assertSame(ByteRanges.UNSATISFIABLE, ByteRanges.parse("bytes=100-200, 300-", 100L, 16));
+    }
+
+    @Test
+    void testMultipleRanges() {
+        assertArrayEquals(new long[]{0L, 0L, 10L, 19L, 90L, 99L},
+                ByteRanges.parse("bytes=0-0, ,10-19,-10", 100L, 16));
+        assertArrayEquals(new long[]{0L, 0L, 90L, 99L},
+                ByteRanges.parse("bytes=-10,0-0,100-", 100L, 16));
+        // overlapping and adjacent ranges are coalesced
+        assertArrayEquals(new long[]{0L, 29L, 50L, 59L},
+                ByteRanges.parse("bytes=50-59,10-29,0-9,5-15", 100L, 16));
+        assertArrayEquals(new long[]{0L, 99L},
+                ByteRanges.parse("bytes=0-50,-50", 100L, 16));
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.resource;
+
+import esa.commons.http.MimeMappings;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.Futures;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpScheme;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaticResourceFilterTest {
+
+    private static final String CONTENT = "hello world";
+
+    @TempDir
+    Path dir;
+
+    private Path root;
+    private final AtomicInteger invoked = new AtomicInteger();
+    private final FilterChain chain = (req, res) -> {
+        invoked.incrementAndGet();
+        return Futures.completedFuture();
+    };
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createDirectories(dir.resolve("root"));
+        Files.write(root.resolve("a.txt"), CONTENT.getBytes(StandardCharsets.UTF_8));
+        Files.write(root.resolve("index.html"), "<html/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(root.resolve(".hidden"), CONTENT.getBytes(StandardCharsets.UTF_8));
+        Files.write(dir.resolve("secret.txt"), CONTENT.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testIllegalOptions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StaticResourceFilter(StaticResourceOptionsConfigure.defaultOpts()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new StaticResourceFilter(StaticResourceOptionsConfigure.newOpts()
+                        .location(root.resolve("a.txt").toString())
+                        .configured()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new StaticResourceFilter(StaticResourceOptionsConfigure.newOpts()
+                        .path("static")
+                        .location(root.toString())
+                        .configured()));
+    }
+
+    @Test
+    void testServeAndCache() {
+        final StaticResourceFilter filter = newFilter(64 * 1024);
+
+        final MockAsyncResponse first = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/static/a.txt").build(), first, chain);
+        assertEquals(0, invoked.get());
+        assertEquals(200, first.status());
+        assertEquals(CONTENT, first.getSentData().toString(StandardCharsets.UTF_8));
+        assertEquals(MimeMappings.getMimeTypeOrDefault("a.txt"), first.getHeader(HttpHeaderNames.CONTENT_TYPE));
+        assertEquals("bytes", first.getHeader(HttpHeaderNames.ACCEPT_RANGES));
+        assertEquals("max-age=60", first.getHeader(HttpHeaderNames.CACHE_CONTROL));
+        assertNotNull(first.getHeader(HttpHeaderNames.ETAG));
+        assertNotNull(first.getHeader(HttpHeaderNames.LAST_MODIFIED));
+        assertEquals(1L, filter.size());
+        assertEquals(1L, filter.missCount());
+
+        final MockAsyncResponse second = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/static/a.txt").build(), second, chain);
+        assertEquals(CONTENT, second.getSentData().toString(StandardCharsets.UTF_8));
+        assertEquals(first.getHeader(HttpHeaderNames.ETAG), second.getHeader(HttpHeaderNames.ETAG));
+        assertEquals(1L, filter.hitCount());
+
+        final MockAsyncResponse head = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(MockAsyncRequest.aMockRequest().withMethod(HttpMethod.HEAD).withUri("/static/a.txt").build(),
+                head, chain);
+        assertEquals(200, head.status());
+        assertEquals(String.valueOf(CONTENT.length()), head.getHeader(HttpHeaderNames.CONTENT_LENGTH));
+        assertEquals(0, head.getSentData().readableBytes());
+
+        filter.shutdown();
+        assertEquals(0L, filter.size());
+    }
+
+    @Test
+    void testIndexFile() {
+        final StaticResourceFilter filter = newFilter(64 * 1024);
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/static/").build(), response, chain);
+        assertEquals("<html/>", response.getSentData().toString(StandardCharsets.UTF_8));
+        assertEquals(MimeMappings.getMimeTypeOrDefault("index.html"), response.getHeader(HttpHeaderNames.CONTENT_TYPE));
+
+        final MockAsyncResponse response1 = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/static").build(), response1, chain);
+        assertEquals("<html/>", response1.getSentData().toString(StandardCharsets.UTF_8));
+        assertEquals(0, invoked.get());
+    }
+
+    @Test
+    void testPassThrough() {
+        final StaticResourceFilter filter = newFilter(64 * 1024);
+        filter.doFilter(MockAsyncRequest.aMockRequest().withMethod(HttpMethod.POST).withUri("/static/a.txt").build(),
+                MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(1, invoked.get());
+        filter.doFilter(get("/foo/a.txt").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(2, invoked.get());
+        filter.doFilter(get("/staticfoo/a.txt").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(3, invoked.get());
+        filter.doFilter(get("/static/absent.txt").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(4, invoked.get());
+        filter.doFilter(get("/static/.hidden").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(5, invoked.get());
+    }
+
+    @Test
+    void testTraversal() throws IOException {
+        final StaticResourceFilter filter = newFilter(64 * 1024);
+        filter.doFilter(get("/static/../secret.txt").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(1, invoked.get());
+        filter.doFilter(get("/static/%2e%2e/secret.txt").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(2, invoked.get());
+
+        try {
+            Files.createSymbolicLink(root.resolve("link.txt"), dir.resolve("secret.txt"));
+        } catch (UnsupportedOperationException | IOException e) {
+            return;
+        }
+        filter.doFilter(get("/static/link.txt").build(), MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(3, invoked.get());
+    }
+
+    @Test
+    void testConditionalRequests() {
+        final StaticResourceFilter filter = newFilter(64 * 1024);
+        final MockAsyncResponse first = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/static/a.txt").build(), first, chain);
+        final String etag = first.getHeader(HttpHeaderNames.ETAG);
+        final String lastModified = first.getHeader(HttpHeaderNames.LAST_MODIFIED);
+
+        assertStatus(304, filter, get("/static/a.txt").withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), etag));
+        assertStatus(304, filter, get("/static/a.txt")
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "W/" + etag));
+        assertStatus(200, filter, get("/static/a.txt")
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "\"foo\"")
+                .withHeader(HttpHeaderNames.IF_MODIFIED_SINCE.toString(), lastModified));
+        assertStatus(304, filter, get("/static/a.txt")
+                .withHeader(HttpHeaderNames.IF_MODIFIED_SINCE.toString(), lastModified));
+        assertStatus(200, filter, get("/static/a.txt")
+                .withHeader(HttpHeaderNames.IF_MODIFIED_SINCE.toString(), "Thu, 01 Jan 1970 00:00:00 GMT"));
+
+        assertStatus(200, filter, get("/static/a.txt").withHeader(HttpHeaderNames.IF_MATCH.toString(), etag));
+        assertStatus(200, filter, get("/static/a.txt").withHeader(HttpHeaderNames.IF_MATCH.toString(), "*"));
+        assertStatus(412, filter, get("/static/a.txt").withHeader(HttpHeaderNames.IF_MATCH.toString(), "\"foo\""));
+        assertStatus(412, filter, get("/static/a.txt")
+                .withHeader(HttpHeaderNames.IF_MATCH.toString(), "W/" + etag));
+        assertStatus(412, filter, get("/static/a.txt")
+                .withHeader(HttpHeaderNames.IF_UNMODIFIED_SINCE.toString(), "Thu, 01 Jan 1970 00:00:00 GMT"));
+        assertStatus(200, filter, get("/static/a.txt")
+                .withHeader(HttpHeaderNames.IF_UNMODIFIED_SINCE.toString(), lastModified));
+    }
+
+    @Test
+    void testRanges() {
+        final StaticResourceFilter filter = newFilter(64 * 1024);
+        final MockAsyncResponse first = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/static/a.txt").build(), first, chain);
+        final String etag = first.getHeader(HttpHeaderNames.ETAG);
+
+        MockAsyncResponse response = range(filter, "bytes=0-4", null);
+        assertEquals(206, response.status());
+        assertEquals("hello", response.getSentData().toString(StandardCharsets.UTF_8));
+        assertEquals("bytes 0-4/11", response.getHeader(HttpHeaderNames.CONTENT_RANGE));
+
+        response = range(filter, "bytes=-5", etag);
+        assertEquals(206, response.status());
+        assertEquals("world", response.getSentData().toString(StandardCharsets.UTF_8));
+        assertEquals("bytes 6-10/11", response.getHeader(HttpHeaderNames.CONTENT_RANGE));
+
+        // If-Range does not match
+        response = range(filter, "bytes=-5", "\"foo\"");
+        assertEquals(200, response.status());
+        assertEquals(CONTENT, response.getSentData().toString(StandardCharsets.UTF_8));
+        assertNull(response.getHeader(HttpHeaderNames.CONTENT_RANGE));
+
+        // illegal range
+        response = range(filter, "bytes=a-", null);
+        assertEquals(200, response.status());
+        assertEquals(CONTENT, response.getSentData().toString(StandardCharsets.UTF_8));
+
+        response = range(filter, "bytes=11-", null);
+        assertEquals(416, response.status());
+        assertEquals("bytes */11", response.getHeader(HttpHeaderNames.CONTENT_RANGE));
+        assertEquals(0, response.getSentData().readableBytes());
+    }
+
+    @Test
+    void testMultipleRanges() {
+        final StaticResourceFilter filter = newFilter(64 * 1024);
+        final MockAsyncResponse response = range(filter, "bytes=0-0,6-10", null);
+        assertEquals(206, response.status());
+        final String contentType = response.getHeader(HttpHeaderNames.CONTENT_TYPE);
+        assertTrue(contentType.startsWith("multipart/byteranges; boundary="));
+        final String boundary = contentType.substring(contentType.indexOf('=') + 1);
+        assertEquals("--" + boundary + "\r\n"
+                        + "content-type: " + MimeMappings.getMimeTypeOrDefault("a.txt") + "\r\n"
+                        + "content-range: bytes 0-0/11\r\n"
+                        + "\r\n"
+                        + "h"
+                        + "\r\n--" + boundary + "\r\n"
+                        + "content-type: " + MimeMappings.getMimeTypeOrDefault("a.txt") + "\r\n"
+                        + "content-range: bytes 6-10/11\r\n"
+                        + "\r\n"
+                        + "world"
+                        + "\r\n--" + boundary + "--\r\n",
+                response.getSentData().toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testLargeFile() {
+        // files are always sent from the file system
+        final StaticResourceFilter filter = newFilter(0, true, Runnable::run);
+        final MockAsyncResponse response = range(filter, "bytes=0-4", null);
+        assertEquals(206, response.status());
+        assertEquals("bytes 0-4/11", response.getHeader(HttpHeaderNames.CONTENT_RANGE));
+        assertEquals(0L, filter.size());
+
+        // memory-mapped under TLS
+        final MockAsyncResponse tls = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(get("/static/a.txt").withSchema(HttpScheme.HTTPS)
+                .withHeader(HttpHeaderNames.RANGE.toString(), "bytes=6-").build(), tls, chain);
+        assertEquals(206, tls.status());
+        assertEquals("world", tls.getSentData().toString(StandardCharsets.UTF_8));
+
+        final MockAsyncResponse multipart = range(filter, "bytes=0-0,6-10", null);
+        assertEquals(206, multipart.status());
+        assertTrue(multipart.getSentData().toString(StandardCharsets.US_ASCII).contains("\r\n\r\nworld\r\n"));
+        assertEquals(0L, filter.size());
+    }
+
+    @Test
+    void testBlockingOperationsAreOffloaded() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final StaticResourceFilter filter = newFilter(64 * 1024, false, tasks::add);
+
+        // the attributes and the content of the file have not been cached
+        final MockAsyncResponse first = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> f1 = filter.doFilter(get("/static/a.txt").build(), first, chain);
+        assertFalse(f1.isDone());
+        assertEquals(1, tasks.size());
+        tasks.poll().run();
+        assertTrue(f1.isDone());
+        assertEquals(CONTENT, first.getSentData().toString(StandardCharsets.UTF_8));
+
+        // served by the cache in the calling thread
+        final MockAsyncResponse second = MockAsyncResponse.aMockResponse().build();
+        assertTrue(filter.doFilter(get("/static/a.txt").build(), second, chain).isDone());
+        assertTrue(tasks.isEmpty());
+        assertEquals(CONTENT, second.getSentData().toString(StandardCharsets.UTF_8));
+
+        // the absent files are passed to the next filter by the executor
+        final CompletableFuture<Void> f2 = filter.doFilter(get("/static/absent.txt").build(),
+                MockAsyncResponse.aMockResponse().build(), chain);
+        assertEquals(0, invoked.get());
+        tasks.poll().run();
+        assertTrue(f2.isDone());
+        assertEquals(1, invoked.get());
+        filter.shutdown();
+    }
+
+    private StaticResourceFilter newFilter(int maxCachedFileSize) {
+        return newFilter(maxCachedFileSize, false, Runnable::run);
+    }
+
+    private StaticResourceFilter newFilter(int maxCachedFileSize, boolean mmapUnderTls, Executor executor) {
+        return new StaticResourceFilter(StaticResourceOptionsConfigure.newOpts()
+                .path("/static/")
+                .location(root.toString() + File.separator)
+                .maxAge(60L)
+                .maxCachedFileSize(maxCachedFileSize)
+                .mmapUnderTls(mmapUnderTls)
+                .configured(), executor);
+    }
+
+    private MockAsyncResponse range(StaticResourceFilter filter, String range, String ifRange) {
+        final MockAsyncRequest.Builder builder = get("/static/a.txt")
+                .withHeader(HttpHeaderNames.RANGE.toString(), range);
+        if (ifRange != null) {
+            builder.withHeader(HttpHeaderNames.IF_RANGE.toString(), ifRange);
+        }
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(builder.build(), response, chain);
+        return response;
+    }
+
+    private void assertStatus(int expect, StaticResourceFilter filter, MockAsyncRequest.Builder request) {
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(request.build(), response, chain);
+        assertEquals(expect, response.status());
+    }
+
+    private static MockAsyncRequest.Builder get(String uri) {
+        return MockAsyncRequest.aMockRequest().withMethod(HttpMethod.GET).withUri(uri);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.resource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaticResourceOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final StaticResourceOptions options = StaticResourceOptionsConfigure.newOpts()
+                .path("/assets")
+                .location("/var/www")
+                .indexFile("default.html")
+                .maxAge(1L)
+                .maxRanges(2)
+                .maxCachedFileSize(3)
+                .maxCacheSize(4L)
+                .statExpire(5L)
+                .mmapUnderTls(true)
+                .configured();
+        assertEquals("/assets", options.getPath());
+        assertEquals("/var/www", options.getLocation());
+        assertEquals("default.html", options.getIndexFile());
+        assertEquals(1L, options.getMaxAge());
+        assertEquals(2, options.getMaxRanges());
+        assertEquals(3, options.getMaxCachedFileSize());
+        assertEquals(4L, options.getMaxCacheSize());
+        assertEquals(5L, options.getStatExpire());
+        assertTrue(options.isMmapUnderTls());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final StaticResourceOptions options = StaticResourceOptionsConfigure.defaultOpts();
+        final StaticResourceOptions def = new StaticResourceOptions();
+
+        assertEquals(def.getPath(), options.getPath());
+        assertEquals(def.getLocation(), options.getLocation());
+        assertEquals(def.getIndexFile(), options.getIndexFile());
+        assertEquals(def.getMaxAge(), options.getMaxAge());
+        assertEquals(def.getMaxRanges(), options.getMaxRanges());
+        assertEquals(def.getMaxCachedFileSize(), options.getMaxCachedFileSize());
+        assertEquals(def.getMaxCacheSize(), options.getMaxCacheSize());
+        assertEquals(def.getStatExpire(), options.getStatExpire());
+        assertEquals(def.isMmapUnderTls(), options.isMmapUnderTls());
+    }
+}
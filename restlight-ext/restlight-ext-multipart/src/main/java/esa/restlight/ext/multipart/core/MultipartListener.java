@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.multipart.core;
+
+/**
+ * Listener of the parts which are decoded by {@link StreamingMultipartDecoder}, every part will be notified as soon
+ * as it is decoded, which means before the whole request body is received.
+ * <p>
+ * Note: all the methods of a listener will be invoked serially but not always in the same thread.
+ */
+public interface MultipartListener {
+
+    /**
+     * Invoked when an attribute has been decoded.
+     *
+     * @param name  name of attribute
+     * @param value value of attribute
+     */
+    default void onAttribute(String name, String value) {
+    }
+
+    /**
+     * Invoked when a file part starts, the content of the file part will be passed to the returned {@link
+     * MultipartSink} if present, otherwise it will be stored in memory or a temporary file by the {@link
+     * MultipartConfig} and be notified by {@link #onFile(MultipartFile)} once it completes.
+     *
+     * @param name        name of the part
+     * @param filename    original filename
+     * @param contentType content type of the part
+     *
+     * @return sink to consume the content, or {@code null} to store the content by default.
+     */
+    default MultipartSink onFileStart(String name, String filename, String contentType) {
+        return null;
+    }
+
+    /**
+     * Invoked when a file part which is not consumed by a {@link MultipartSink} has been decoded.
+     *
+     * @param file file
+     */
+    default void onFile(MultipartFile file) {
+    }
+}
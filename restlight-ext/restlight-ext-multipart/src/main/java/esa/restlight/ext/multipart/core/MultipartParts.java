@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.multipart.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All the attributes and the stored files of a multipart request which is decoded by {@link
+ * StreamingMultipartDecoder}. Files consumed by a {@link MultipartSink} are not included.
+ */
+public final class MultipartParts {
+
+    private final Map<String, List<String>> attributes = new LinkedHashMap<>();
+    private final List<MultipartFile> files = new ArrayList<>();
+
+    MultipartParts() {
+    }
+
+    /**
+     * Gets the first value of the attribute with the given name.
+     *
+     * @param name name
+     *
+     * @return value, or {@code null} if absent
+     */
+    public String attribute(String name) {
+        final List<String> values = attributes.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    public Map<String, List<String>> attributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * Gets the first file with the given name.
+     *
+     * @param name name
+     *
+     * @return file, or {@code null} if absent
+     */
+    public MultipartFile file(String name) {
+        for (MultipartFile file : files) {
+            if (file.filedName().equals(name)) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    public List<MultipartFile> files() {
+        return Collections.unmodifiableList(files);
+    }
+
+    void addAttribute(String name, String value) {
+        attributes.computeIfAbsent(name, k -> new ArrayList<>(1)).add(value);
+    }
+
+    void addFile(MultipartFile file) {
+        files.add(file);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.multipart.core;
+
+import io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+
+/**
+ * Consumer of the content of a file part which is decoded by {@link StreamingMultipartDecoder}, the content will be
+ * passed to the sink as soon as it is decoded instead of being stored in memory or a temporary file.
+ */
+public interface MultipartSink {
+
+    /**
+     * Receives a piece of content of current file part, the given {@link ByteBuf} will be released after this method
+     * returns, so it must be retained if it is going to be used outside this method.
+     *
+     * @param content content
+     *
+     * @throws IOException any I/O error
+     */
+    void onData(ByteBuf content) throws IOException;
+
+    /**
+     * Invoked after the whole content of current file part has been received.
+     *
+     * @throws IOException any I/O error
+     */
+    void onEnd() throws IOException;
+
+    /**
+     * Invoked when error occurred before current file part ends, and there will be no more signals after this.
+     *
+     * @param t error
+     */
+    default void onError(Throwable t) {
+    }
+}
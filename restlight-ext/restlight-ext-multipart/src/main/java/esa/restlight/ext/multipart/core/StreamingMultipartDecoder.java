@@ -0,0 +1,415 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.multipart.core;
+
+import esa.commons.Checks;
+import esa.commons.StringUtils;
+import esa.commons.logging.Logger;
+import esa.commons.logging.LoggerFactory;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.StreamingBody;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http.multipart.Attribute;
+import io.netty.handler.codec.http.multipart.DefaultHttpDataFactory;
+import io.netty.handler.codec.http.multipart.DiskFileUpload;
+import io.netty.handler.codec.http.multipart.FileUpload;
+import io.netty.handler.codec.http.multipart.HttpPostMultipartRequestDecoder;
+import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder;
+import io.netty.handler.codec.http.multipart.InterfaceHttpData;
+import io.netty.handler.codec.http.multipart.MemoryFileUpload;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes a multipart request incrementally while the chunks of the {@link StreamingBody} are arriving, instead of
+ * aggregating the whole body in memory before decoding.
+ * <p>
+ * Chunks are requested one by one, and every chunk is offered to the decoder and released as soon as it has been
+ * decoded, content of the file parts is written to temporary files(or kept in memory if it does not exceed the
+ * memory threshold of the {@link MultipartConfig}) or passed to a {@link MultipartSink} supplied by the {@link
+ * MultipartListener} as it arrives, so that the memory used by an upload is bounded no matter how large it is.
+ * Attributes are notified to the {@link MultipartListener} once they have been decoded.
+ * <p>
+ * A handler should declare a {@link StreamingBody} parameter to make the request body to be streamed(see {@code
+ * ServerOptions#isStreamingBodyEnable()}), for example:
+ * <pre>{@code
+ * @PostMapping("/upload")
+ * public CompletableFuture<String> upload(AsyncRequest request, AsyncResponse response, StreamingBody body) {
+ *     return decoder.decode(request, response, body)
+ *             .thenApply(parts -> parts.file("file").originalFilename());
+ * }
+ * }</pre>
+ * All the stored files will be deleted after the response has been completed.
+ */
+public class StreamingMultipartDecoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingMultipartDecoder.class);
+
+    private static final MultipartListener NOOP = new MultipartListener() {
+    };
+
+    /**
+     * Decoded bytes will be discarded from the buffer of the decoder once they exceed this threshold.
+     */
+    private static final int DISCARD_THRESHOLD = 256 * 1024;
+
+    private final MultipartConfig config;
+    private final Executor executor;
+
+    public StreamingMultipartDecoder(MultipartConfig config) {
+        this(config, Runnable::run);
+    }
+
+    /**
+     * Creates a decoder which decodes the chunks in the given {@link Executor}, so that writing the temporary files
+     * will not block the io threads.
+     *
+     * @param config   config
+     * @param executor executor to decode the chunks
+     */
+    public StreamingMultipartDecoder(MultipartConfig config, Executor executor) {
+        Checks.checkNotNull(config, "config");
+        Checks.checkNotNull(executor, "executor");
+        this.config = config;
+        this.executor = executor;
+        final String tempDir = config.getTempDir();
+        if (StringUtils.isNotEmpty(tempDir)) {
+            DiskFileUpload.baseDirectory = tempDir;
+        }
+    }
+
+    public CompletableFuture<MultipartParts> decode(AsyncRequest request,
+                                                    AsyncResponse response,
+                                                    StreamingBody body) {
+        return decode(request, response, body, NOOP);
+    }
+
+    /**
+     * Decodes the given body of the multipart request.
+     *
+     * @param request  request
+     * @param response response
+     * @param body     body of the request
+     * @param listener listener to be notified once a part has been decoded
+     *
+     * @return future which will be completed after the whole body has been decoded
+     */
+    public CompletableFuture<MultipartParts> decode(AsyncRequest request,
+                                                    AsyncResponse response,
+                                                    StreamingBody body,
+                                                    MultipartListener listener) {
+        Checks.checkNotNull(request, "request");
+        Checks.checkNotNull(response, "response");
+        Checks.checkNotNull(body, "body");
+        Checks.checkNotNull(listener, "listener");
+        final HttpRequest head = new DefaultHttpRequest(request.httpVersion(),
+                request.method(),
+                request.uri(),
+                request.headers());
+        final CompletableFuture<MultipartParts> future = new CompletableFuture<>();
+        if (!HttpPostRequestDecoder.isMultipart(head)) {
+            future.completeExceptionally(new IllegalStateException("You excepted to accept a multipart request," +
+                    " but Content-Type is: " + request.getHeader(HttpHeaderNames.CONTENT_TYPE)));
+            return future;
+        }
+        final Decoding decoding;
+        try {
+            decoding = new Decoding(head, listener, future);
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            return future;
+        }
+        response.onEnd(r -> decoding.destroy());
+        body.subscribe(decoding);
+        return future;
+    }
+
+    private final class Decoding implements StreamingBody.Subscriber {
+
+        private final MultipartListener listener;
+        private final CompletableFuture<MultipartParts> future;
+        private final MultipartParts parts = new MultipartParts();
+        private final SinkAwareDataFactory factory;
+        private final HttpPostMultipartRequestDecoder decoder;
+        private final SerialExecutor serial = new SerialExecutor(executor);
+        private volatile StreamingBody.Subscription subscription;
+        private boolean done;
+        private boolean destroyed;
+
+        private Decoding(HttpRequest head,
+                         MultipartListener listener,
+                         CompletableFuture<MultipartParts> future) {
+            this.listener = listener;
+            this.future = future;
+            this.factory = new SinkAwareDataFactory(config, listener);
+            this.decoder = new HttpPostMultipartRequestDecoder(factory, head, config.getCharset());
+            this.decoder.setDiscardThreshold(DISCARD_THRESHOLD);
+        }
+
+        @Override
+        public void onSubscribe(StreamingBody.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1L);
+        }
+
+        @Override
+        public void onData(ByteBuf chunk) {
+            chunk.retain();
+            serial.execute(() -> {
+                try {
+                    if (done) {
+                        return;
+                    }
+                    decoder.offer(new DefaultHttpContent(chunk));
+                    drainParts();
+                } catch (Throwable t) {
+                    fail(t);
+                    return;
+                } finally {
+                    chunk.release();
+                }
+                subscription.request(1L);
+            });
+        }
+
+        @Override
+        public void onEnd(HttpHeaders trailers) {
+            serial.execute(() -> {
+                if (done) {
+                    return;
+                }
+                try {
+                    decoder.offer(LastHttpContent.EMPTY_LAST_CONTENT);
+                    drainParts();
+                } catch (Throwable t) {
+                    fail(t);
+                    return;
+                }
+                done = true;
+                future.complete(parts);
+            });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            serial.execute(() -> fail(t));
+        }
+
+        private void drainParts() throws IOException {
+            try {
+                while (decoder.hasNext()) {
+                    final InterfaceHttpData data = decoder.next();
+                    if (data.getHttpDataType() == InterfaceHttpData.HttpDataType.Attribute) {
+                        final Attribute attribute = (Attribute) data;
+                        final String value;
+                        try {
+                            value = attribute.getValue();
+                        } finally {
+                            attribute.delete();
+                        }
+                        parts.addAttribute(attribute.getName(), value);
+                        listener.onAttribute(attribute.getName(), value);
+                    } else if (data.getHttpDataType() == InterfaceHttpData.HttpDataType.FileUpload
+                            && !(data instanceof SinkFileUpload)) {
+                        final MultipartFile file = new MultipartFileImpl((FileUpload) data);
+                        parts.addFile(file);
+                        listener.onFile(file);
+                    }
+                }
+            } catch (HttpPostRequestDecoder.EndOfDataDecoderException ignored) {
+                // all of the parts have been decoded
+            }
+        }
+
+        private void fail(Throwable t) {
+            if (done) {
+                return;
+            }
+            done = true;
+            final StreamingBody.Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+            factory.abortSink(t);
+            future.completeExceptionally(t);
+        }
+
+        private void destroy() {
+            serial.execute(() -> {
+                if (destroyed) {
+                    return;
+                }
+                fail(new IllegalStateException("Response has been completed before the multipart body is decoded."));
+                destroyed = true;
+                try {
+                    // delete all the temporary files and release the undecoded buffer
+                    decoder.destroy();
+                } catch (Throwable th) {
+                    logger.error("Failed to destroy multipart decoder!", th);
+                }
+            });
+        }
+    }
+
+    /**
+     * A {@link DefaultHttpDataFactory} which creates the file parts that are consumed by the {@link MultipartSink}s
+     * supplied by the {@link MultipartListener}.
+     */
+    private static final class SinkAwareDataFactory extends DefaultHttpDataFactory {
+
+        private final MultipartListener listener;
+        private final long maxSize;
+        private SinkFileUpload current;
+
+        private SinkAwareDataFactory(MultipartConfig config, MultipartListener listener) {
+            // a threshold of 0 means that the file parts will always be written to the disk
+            super(config.isUseDisk() ? 0L : config.getMemoryThreshold(), config.getCharset());
+            this.listener = listener;
+            this.maxSize = config.getMaxSize();
+            setMaxLimit(maxSize);
+        }
+
+        @Override
+        public FileUpload createFileUpload(HttpRequest request,
+                                           String name,
+                                           String filename,
+                                           String contentType,
+                                           String contentTransferEncoding,
+                                           Charset charset,
+                                           long size) {
+            final MultipartSink sink = listener.onFileStart(name, filename, contentType);
+            if (sink == null) {
+                return super.createFileUpload(request, name, filename, contentType, contentTransferEncoding,
+                        charset, size);
+            }
+            final SinkFileUpload upload = new SinkFileUpload(sink, name, filename, contentType,
+                    contentTransferEncoding, charset, size);
+            upload.setMaxSize(maxSize);
+            current = upload;
+            return upload;
+        }
+
+        private void abortSink(Throwable t) {
+            final SinkFileUpload upload = current;
+            if (upload != null && !upload.isCompleted()) {
+                current = null;
+                try {
+                    upload.sink.onError(t);
+                } catch (Throwable th) {
+                    logger.error("Error while aborting multipart sink.", th);
+                }
+            }
+        }
+    }
+
+    /**
+     * A {@link FileUpload} which passes its content to the {@link MultipartSink} instead of holding it.
+     */
+    private static final class SinkFileUpload extends MemoryFileUpload {
+
+        private final MultipartSink sink;
+
+        private SinkFileUpload(MultipartSink sink,
+                               String name,
+                               String filename,
+                               String contentType,
+                               String contentTransferEncoding,
+                               Charset charset,
+                               long size) {
+            super(name, filename, contentType, contentTransferEncoding, charset, size);
+            this.sink = sink;
+        }
+
+        @Override
+        public void addContent(ByteBuf buffer, boolean last) throws IOException {
+            if (buffer != null) {
+                try {
+                    final long newSize = size + buffer.readableBytes();
+                    checkSize(newSize);
+                    if (buffer.isReadable()) {
+                        sink.onData(buffer);
+                    }
+                    size = newSize;
+                } finally {
+                    buffer.release();
+                }
+            }
+            if (last) {
+                sink.onEnd();
+                setCompleted();
+            }
+        }
+    }
+
+    /**
+     * Executes the tasks one by one in submission order.
+     */
+    private static final class SerialExecutor implements Executor, Runnable {
+
+        private final Executor delegate;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private SerialExecutor(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.offer(task);
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    delegate.execute(this);
+                } catch (Throwable t) {
+                    logger.warn("Failed to execute multipart decoding in executor, decode it in current thread.", t);
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            for (; ; ) {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        logger.error("Error while decoding multipart body.", t);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.multipart.core;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.impl.StreamingBodyImpl;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.util.CharsetUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingMultipartDecoderTest {
+
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=---1234";
+    private static final String ATTRIBUTE_PART = "-----1234\r\n" +
+            "Content-Disposition: form-data; name=\"foo\"\r\n" +
+            "\r\n" +
+            "bar\r\n";
+    private static final String FILE_PART = "-----1234\r\n" +
+            "Content-Disposition: form-data; name=\"file\"; filename=\"foo.txt\"\r\n" +
+            "Content-Type: text/plain\r\n" +
+            "\r\n" +
+            "hello multipart\r\n" +
+            "-----1234--\r\n";
+
+    @Test
+    void testDecodeIncrementally() throws Exception {
+        final StreamingBodyImpl body = new StreamingBodyImpl(UnpooledByteBufAllocator.DEFAULT);
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final List<String> attributes = new ArrayList<>();
+        final List<MultipartFile> files = new ArrayList<>();
+        final CompletableFuture<MultipartParts> future = new StreamingMultipartDecoder(new MultipartConfig(true))
+                .decode(multipartRequest(), response, body, new MultipartListener() {
+                    @Override
+                    public void onAttribute(String name, String value) {
+                        attributes.add(name + "=" + value);
+                    }
+
+                    @Override
+                    public void onFile(MultipartFile file) {
+                        files.add(file);
+                    }
+                });
+
+        // the attribute should be notified once the next delimiter arrives
+        offer(body, ATTRIBUTE_PART + "-----1234\r\n", 5);
+        assertEquals(1, attributes.size());
+        assertEquals("foo=bar", attributes.get(0));
+        assertFalse(future.isDone());
+
+        offer(body, FILE_PART.substring("-----1234\r\n".length()), 5);
+        assertFalse(future.isDone());
+        body.onEnd();
+
+        final MultipartParts parts = future.get(1L, TimeUnit.SECONDS);
+        assertEquals("bar", parts.attribute("foo"));
+        assertNull(parts.attribute("baz"));
+        assertEquals(1, files.size());
+        final MultipartFile file = parts.file("file");
+        assertNotNull(file);
+        assertEquals(files.get(0), file);
+        assertEquals("foo.txt", file.originalFilename());
+        assertEquals("text/plain", file.contentType());
+        assertEquals("hello multipart", file.string());
+        assertFalse(file.isInMemory());
+        final File tmp = file.file();
+        assertTrue(tmp.exists());
+
+        // temporary files should be deleted after the response has been completed.
+        response.sendResult(200);
+        assertFalse(tmp.exists());
+    }
+
+    @Test
+    void testDecodeInExecutor() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final StreamingBodyImpl body = new StreamingBodyImpl(UnpooledByteBufAllocator.DEFAULT);
+            final CompletableFuture<MultipartParts> future =
+                    new StreamingMultipartDecoder(new MultipartConfig(1024L), executor)
+                            .decode(multipartRequest(), MockAsyncResponse.aMockResponse().build(), body);
+            offer(body, ATTRIBUTE_PART + FILE_PART, 3);
+            body.onEnd();
+            final MultipartParts parts = future.get(1L, TimeUnit.SECONDS);
+            assertEquals("bar", parts.attribute("foo"));
+            assertEquals(1, parts.files().size());
+            assertTrue(parts.files().get(0).isInMemory());
+            assertEquals("hello multipart", parts.files().get(0).string());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDecodeToSink() throws Exception {
+        final StreamingBodyImpl body = new StreamingBodyImpl(UnpooledByteBufAllocator.DEFAULT);
+        final CollectingSink sink = new CollectingSink();
+        final CompletableFuture<MultipartParts> future = new StreamingMultipartDecoder(new MultipartConfig(true))
+                .decode(multipartRequest(), MockAsyncResponse.aMockResponse().build(), body, new MultipartListener() {
+                    @Override
+                    public MultipartSink onFileStart(String name, String filename, String contentType) {
+                        assertEquals("file", name);
+                        assertEquals("foo.txt", filename);
+                        assertEquals("text/plain", contentType);
+                        return sink;
+                    }
+                });
+        offer(body, ATTRIBUTE_PART + FILE_PART, 4);
+        body.onEnd();
+
+        final MultipartParts parts = future.get(1L, TimeUnit.SECONDS);
+        assertEquals("bar", parts.attribute("foo"));
+        assertTrue(parts.files().isEmpty());
+        assertArrayEquals("hello multipart".getBytes(CharsetUtil.UTF_8), sink.content.toByteArray());
+        assertTrue(sink.ended);
+        assertNull(sink.error);
+    }
+
+    @Test
+    void testExceedMaxSize() {
+        final StreamingBodyImpl body = new StreamingBodyImpl(UnpooledByteBufAllocator.DEFAULT);
+        final CollectingSink sink = new CollectingSink();
+        final MultipartConfig config = new MultipartConfig(true);
+        config.setMaxSize(4L);
+        final CompletableFuture<MultipartParts> future = new StreamingMultipartDecoder(config)
+                .decode(multipartRequest(), MockAsyncResponse.aMockResponse().build(), body, new MultipartListener() {
+                    @Override
+                    public MultipartSink onFileStart(String name, String filename, String contentType) {
+                        return sink;
+                    }
+                });
+        offer(body, FILE_PART, 64);
+        body.onEnd();
+
+        final ExecutionException ex = assertThrows(ExecutionException.class, future::get);
+        assertTrue(ex.getCause() instanceof IOException);
+        assertFalse(sink.ended);
+        assertNotNull(sink.error);
+    }
+
+    @Test
+    void testNotMultipart() {
+        final AsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.CONTENT_TYPE.toString(), "application/json")
+                .build();
+        final CompletableFuture<MultipartParts> future = new StreamingMultipartDecoder(new MultipartConfig(true))
+                .decode(request,
+                        MockAsyncResponse.aMockResponse().build(),
+                        new StreamingBodyImpl(UnpooledByteBufAllocator.DEFAULT));
+        final ExecutionException ex = assertThrows(ExecutionException.class, future::get);
+        assertTrue(ex.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void testResponseEndsBeforeBody() {
+        final StreamingBodyImpl body = new StreamingBodyImpl(UnpooledByteBufAllocator.DEFAULT);
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<MultipartParts> future = new StreamingMultipartDecoder(new MultipartConfig(true))
+                .decode(multipartRequest(), response, body);
+        offer(body, ATTRIBUTE_PART, 8);
+        response.sendResult(500);
+        assertTrue(future.isCompletedExceptionally());
+        // chunks arrived after that should be discarded
+        offer(body, FILE_PART, 8);
+        body.onEnd();
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    private static AsyncRequest multipartRequest() {
+        return MockAsyncRequest.aMockRequest()
+                .withUri("/upload")
+                .withHeader(HttpHeaderNames.CONTENT_TYPE.toString(), CONTENT_TYPE)
+                .build();
+    }
+
+    private static void offer(StreamingBodyImpl body, String content, int chunkSize) {
+        final byte[] bytes = content.getBytes(CharsetUtil.UTF_8);
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            final ByteBuf chunk = Unpooled.copiedBuffer(bytes, i, Math.min(chunkSize, bytes.length - i));
+            body.onData(chunk);
+            chunk.release();
+        }
+    }
+
+    private static final class CollectingSink implements MultipartSink {
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private boolean ended;
+        private Throwable error;
+
+        @Override
+        public void onData(ByteBuf data) {
+            final byte[] bytes = new byte[data.readableBytes()];
+            data.readBytes(bytes);
+            content.write(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void onEnd() {
+            ended = true;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.loadtest;
+
+import esa.commons.logging.Logger;
+import esa.commons.logging.LoggerFactory;
+import esa.restlight.server.metrics.LatencyHistogram;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpScheme;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.DefaultHttp2Connection;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.HttpConversionUtil;
+import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandler;
+import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandlerBuilder;
+import io.netty.handler.codec.http2.InboundHttp2ToHttpAdapterBuilder;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A load generator which sends requests over a number of keep-alive connections, every connection is driven by its
+ * own event loop without any lock.
+ * <p>
+ * In the closed-loop mode every connection keeps {@link LoadTestOptions#getPipelining()} requests in flight, which
+ * is the way most of the load testing tools work but the latencies will be underestimated once the server stalls,
+ * because no request is sent during the stall(the coordinated omission). In the open-loop mode every connection
+ * schedules its requests at a fixed interval and measures the latency from the time a request was intended to be
+ * sent instead of the time it was actually sent, the requests which could not be sent in time because of the
+ * in-flight limit are queued locally so that the time they spent waiting is counted.
+ * <p>
+ * The requests which are still queued or in flight when the test gives up waiting are counted as incomplete, and
+ * those intended to be sent in the measured period are also recorded with the latency from their intended start to
+ * the time the test gave up, which is a lower bound of their actual latencies, otherwise a stalled server would look
+ * better than a slow one.
+ */
+final class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    static final String PATH = "/loadtest";
+    /**
+     * Latencies are recorded with a relative error of at most 1/64.
+     */
+    static final int PRECISION = 6;
+
+    private static final int MAX_CONTENT_LENGTH = 16 * 1024 * 1024;
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10L);
+
+    private final LoadTestOptions options;
+    private final InetSocketAddress address;
+    private final String host;
+
+    LoadGenerator(LoadTestOptions options, InetSocketAddress address) {
+        this.options = options;
+        this.address = address;
+        this.host = address.getHostString() + ":" + address.getPort();
+    }
+
+    Result run() throws Exception {
+        final EventLoopGroup group = options.isUseNativeTransports()
+                ? new EpollEventLoopGroup(options.getClientThreads(),
+                new DefaultThreadFactory("loadtest-client", true))
+                : new NioEventLoopGroup(options.getClientThreads(),
+                new DefaultThreadFactory("loadtest-client", true));
+        final List<Connection> connections = new ArrayList<>(options.getConnections());
+        try {
+            final Bootstrap bootstrap = new Bootstrap()
+                    .group(group)
+                    .channel(options.isUseNativeTransports() ? EpollSocketChannel.class : NioSocketChannel.class)
+                    .option(ChannelOption.TCP_NODELAY, true);
+            for (int i = 0; i < options.getConnections(); i++) {
+                final Connection connection = new Connection();
+                bootstrap.clone()
+                        .handler(new ChannelInitializer<Channel>() {
+                            @Override
+                            protected void initChannel(Channel ch) {
+                                connection.init(ch);
+                            }
+                        })
+                        .connect(address)
+                        .sync();
+                connections.add(connection);
+            }
+
+            final long start = System.nanoTime();
+            final long measureFrom = start + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+            final long end = measureFrom + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+            final CompletableFuture<?>[] done = new CompletableFuture<?>[connections.size()];
+            for (int i = 0; i < connections.size(); i++) {
+                final Connection connection = connections.get(i);
+                connection.channel.eventLoop().execute(() -> connection.start(start, measureFrom, end));
+                done[i] = connection.done;
+            }
+
+            try {
+                CompletableFuture.allOf(done)
+                        .get(end - System.nanoTime() + DRAIN_TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                logger.warn("Some of the requests are not completed in time, they will be counted as incomplete.");
+            }
+
+            final Result result = new Result(end - measureFrom);
+            for (Connection connection : connections) {
+                // collect the result in the event loop to make sure that we could see the latest values.
+                connection.channel.eventLoop().submit(() -> connection.collect(result)).get();
+            }
+            return result;
+        } finally {
+            for (Connection connection : connections) {
+                connection.channel.close();
+            }
+            group.shutdownGracefully(0L, 1L, TimeUnit.SECONDS).syncUninterruptibly();
+        }
+    }
+
+    static final class Result {
+
+        final long durationNanos;
+        final LatencyHistogram histogram = new LatencyHistogram(PRECISION);
+        long completed;
+        long errors;
+        long incomplete;
+
+        Result(long durationNanos) {
+            this.durationNanos = durationNanos;
+        }
+
+        /**
+         * Number of the requests completed successfully per second, errors and incomplete requests are excluded.
+         */
+        double throughput() {
+            return completed * (double) TimeUnit.SECONDS.toNanos(1L) / durationNanos;
+        }
+    }
+
+    private final class Connection extends SimpleChannelInboundHandler<FullHttpResponse> implements Runnable {
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final LatencyHistogram histogram = new LatencyHistogram(PRECISION);
+        /**
+         * intended start times of the requests which are due but not sent yet, only used in the open-loop mode.
+         */
+        private final ArrayDeque<Long> pending = new ArrayDeque<>();
+        /**
+         * intended start times of the in-flight HTTP/1.1 requests in order.
+         */
+        private final ArrayDeque<Long> inflightRequests = new ArrayDeque<>();
+        /**
+         * intended start times of the in-flight HTTP/2 requests by stream id.
+         */
+        private final IntObjectHashMap<Long> inflightStreams = new IntObjectHashMap<>();
+        private final long intervalNanos;
+
+        private Channel channel;
+        private Http2Connection http2;
+        private long measureFrom;
+        private long end;
+        private long nextIntended;
+        private int inflight;
+        private long errors;
+
+        private Connection() {
+            this.intervalNanos = options.getRate() > 0
+                    ? Math.max(1L, TimeUnit.SECONDS.toNanos(options.getConnections()) / options.getRate())
+                    : 0L;
+        }
+
+        private void init(Channel ch) {
+            this.channel = ch;
+            if (options.isHttp2()) {
+                http2 = new DefaultHttp2Connection(false);
+                final HttpToHttp2ConnectionHandler handler = new HttpToHttp2ConnectionHandlerBuilder()
+                        .connection(http2)
+                        .frameListener(new InboundHttp2ToHttpAdapterBuilder(http2)
+                                .maxContentLength(MAX_CONTENT_LENGTH)
+                                .propagateSettings(false)
+                                .build())
+                        .build();
+                ch.pipeline().addLast(handler, this);
+            } else {
+                ch.pipeline().addLast(new HttpClientCodec(),
+                        new HttpObjectAggregator(MAX_CONTENT_LENGTH),
+                        this);
+            }
+        }
+
+        private void start(long start, long measureFrom, long end) {
+            this.measureFrom = measureFrom;
+            this.end = end;
+            if (intervalNanos > 0L) {
+                this.nextIntended = start;
+                run();
+            } else {
+                for (int i = 0; i < options.getPipelining(); i++) {
+                    send(start);
+                }
+                channel.flush();
+            }
+        }
+
+        /**
+         * Moves the due requests to the pending queue and schedules itself at the next intended time.
+         */
+        @Override
+        public void run() {
+            final long now = System.nanoTime();
+            while (nextIntended - now <= 0L && nextIntended - end < 0L) {
+                pending.add(nextIntended);
+                nextIntended += intervalNanos;
+            }
+            sendPending();
+            if (nextIntended - end < 0L) {
+                channel.eventLoop().schedule(this, nextIntended - now, TimeUnit.NANOSECONDS);
+            } else if (now - end < 0L) {
+                // check again at the end in case of all the requests have been completed before that
+                channel.eventLoop().schedule(this, end - now, TimeUnit.NANOSECONDS);
+            } else {
+                completeIfDrained(now);
+            }
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) {
+            final long now = System.nanoTime();
+            final Long intended;
+            if (http2 == null) {
+                intended = inflightRequests.poll();
+            } else {
+                intended = inflightStreams.remove(response.headers()
+                        .getInt(HttpConversionUtil.ExtensionHeaderNames.STREAM_ID.text(), -1));
+            }
+            if (intended == null) {
+                // unexpected response
+                errors++;
+                return;
+            }
+            inflight--;
+            if (intended - measureFrom >= 0L && intended - end < 0L) {
+                if (HttpResponseStatus.OK.equals(response.status())) {
+                    histogram.record(now - intended);
+                } else {
+                    errors++;
+                }
+            }
+
+            if (intervalNanos > 0L) {
+                sendPending();
+            } else if (now - end < 0L) {
+                send(now);
+                channel.flush();
+            }
+            completeIfDrained(now);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            logger.error("Unexpected error occurred in connection " + ctx.channel(), cause);
+            ctx.close();
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            done.complete(null);
+            super.channelInactive(ctx);
+        }
+
+        private void sendPending() {
+            boolean sent = false;
+            while (inflight < options.getPipelining() && !pending.isEmpty()) {
+                send(pending.poll());
+                sent = true;
+            }
+            if (sent) {
+                channel.flush();
+            }
+        }
+
+        private void send(long intended) {
+            final FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1,
+                    HttpMethod.GET,
+                    PATH,
+                    Unpooled.EMPTY_BUFFER);
+            request.headers().set(HttpHeaderNames.HOST, host);
+            if (http2 == null) {
+                inflightRequests.add(intended);
+            } else {
+                final int streamId = http2.local().incrementAndGetNextStreamId();
+                request.headers()
+                        .setInt(HttpConversionUtil.ExtensionHeaderNames.STREAM_ID.text(), streamId)
+                        .set(HttpConversionUtil.ExtensionHeaderNames.SCHEME.text(), HttpScheme.HTTP.name());
+                inflightStreams.put(streamId, Long.valueOf(intended));
+            }
+            inflight++;
+            channel.write(request);
+        }
+
+        private void completeIfDrained(long now) {
+            if (inflight == 0 && pending.isEmpty() && now - end >= 0L
+                    && (intervalNanos == 0L || nextIntended - end >= 0L)) {
+                done.complete(null);
+            }
+        }
+
+        private void collect(Result result) {
+            result.completed += histogram.count();
+            final long now = System.nanoTime();
+            pending.forEach(intended -> recordIncomplete(now, intended));
+            if (http2 == null) {
+                inflightRequests.forEach(intended -> recordIncomplete(now, intended));
+            } else {
+                inflightStreams.values().forEach(intended -> recordIncomplete(now, intended));
+            }
+            result.histogram.merge(histogram);
+            result.errors += errors;
+            result.incomplete += inflight + pending.size();
+        }
+
+        private void recordIncomplete(long now, long intended) {
+            if (intended - measureFrom >= 0L && intended - end < 0L) {
+                histogram.record(now - intended);
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.loadtest;
+
+import esa.restlight.server.Restlite;
+import esa.restlight.server.config.SchedulingOptionsConfigure;
+import esa.restlight.server.config.ServerOptionsConfigure;
+import esa.restlight.server.metrics.LatencyHistogram;
+import esa.restlight.server.route.Route;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static esa.restlight.server.route.Mapping.get;
+
+/**
+ * Entrance of the load test which boots a {@link Restlite} server on the loopback interface and drives it by the
+ * {@link LoadGenerator} in the same process, so that a change of server-level options could be regression-tested on a
+ * single box.
+ * <p>
+ * Every option of {@link LoadTestOptions} could be given by an argument like {@code --connections=64}, and a comma
+ * separated value such as {@code --scheduler=IO,BIZ --http2=false,true --useNativeTransports=true,false} runs every
+ * combination of the given values as a scenario, each scenario runs against a new server. For example:
+ * <pre>
+ * java -jar loadtest.jar --scheduler=IO,BIZ --http2=false,true --connections=64 --rate=100000
+ * </pre>
+ * Latency percentiles are reported in microseconds with a relative error of at most 1/64, use the open-loop mode(a
+ * positive {@code --rate}) to get latencies that are corrected for coordinated omission.
+ */
+public final class LoadTest {
+
+    private static final double[] PERCENTILES = {50D, 90D, 99D, 99.9D};
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final List<LoadTestOptions> scenarios = scenarios(args);
+        final List<String> summary = new ArrayList<>(scenarios.size());
+        for (LoadTestOptions options : scenarios) {
+            System.out.println("# Scenario: " + options);
+            final LoadGenerator.Result result = run(options);
+            System.out.println(report(result));
+            summary.add(String.format(Locale.ROOT, "%-140s %s", options, summary(result)));
+        }
+        if (scenarios.size() > 1) {
+            System.out.println("# Summary");
+            summary.forEach(System.out::println);
+        }
+    }
+
+    static LoadGenerator.Result run(LoadTestOptions options) throws Exception {
+        final InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), freePort());
+        final Restlite server = newServer(options, address);
+        try {
+            return new LoadGenerator(options, address).run();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    static Restlite newServer(LoadTestOptions options, InetSocketAddress address) {
+        final byte[] body = new byte[Math.max(0, options.getResponseSize())];
+        Arrays.fill(body, (byte) 'a');
+        final Restlite server = Restlite.forServer(ServerOptionsConfigure.newOpts()
+                .http2Enable(options.isHttp2())
+                .useNativeTransports(options.isUseNativeTransports())
+                .ioThreads(options.getIoThreads())
+                .scheduling(SchedulingOptionsConfigure.newOpts()
+                        .defaultScheduler(options.getScheduler())
+                        .configured())
+                .configured())
+                .address(address.getHostString(), address.getPort())
+                .daemon(true);
+        server.deployments()
+                .addRoute(Route.route(get(LoadGenerator.PATH))
+                        .handle((request, response) -> response.sendResult(body)));
+        server.start();
+        return server;
+    }
+
+    /**
+     * Parses the arguments to the scenarios which are the cartesian product of all the given values.
+     */
+    static List<LoadTestOptions> scenarios(String[] args) {
+        final Map<String, List<String>> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Illegal argument: '" + arg + "', expected: --name=value");
+            }
+            final int i = arg.indexOf('=');
+            values.put(arg.substring(2, i), Arrays.asList(arg.substring(i + 1).split(",")));
+        }
+        List<LoadTestOptions> scenarios = Collections.singletonList(LoadTestOptionsConfigure.defaultOpts());
+        for (Map.Entry<String, List<String>> entry : values.entrySet()) {
+            final List<LoadTestOptions> product = new ArrayList<>(scenarios.size() * entry.getValue().size());
+            for (LoadTestOptions base : scenarios) {
+                for (String value : entry.getValue()) {
+                    product.add(set(copyOf(base), entry.getKey(), value.trim()).configured());
+                }
+            }
+            scenarios = product;
+        }
+        return scenarios;
+    }
+
+    private static LoadTestOptionsConfigure copyOf(LoadTestOptions options) {
+        return LoadTestOptionsConfigure.newOpts()
+                .scheduler(options.getScheduler())
+                .http2(options.isHttp2())
+                .useNativeTransports(options.isUseNativeTransports())
+                .ioThreads(options.getIoThreads())
+                .clientThreads(options.getClientThreads())
+                .connections(options.getConnections())
+                .pipelining(options.getPipelining())
+                .rate(options.getRate())
+                .warmupSeconds(options.getWarmupSeconds())
+                .durationSeconds(options.getDurationSeconds())
+                .responseSize(options.getResponseSize());
+    }
+
+    private static LoadTestOptionsConfigure set(LoadTestOptionsConfigure configure, String name, String value) {
+        switch (name) {
+            case "scheduler":
+                return configure.scheduler(value);
+            case "http2":
+                return configure.http2(Boolean.parseBoolean(value));
+            case "useNativeTransports":
+                return configure.useNativeTransports(Boolean.parseBoolean(value));
+            case "ioThreads":
+                return configure.ioThreads(Integer.parseInt(value));
+            case "clientThreads":
+                return configure.clientThreads(Integer.parseInt(value));
+            case "connections":
+                return configure.connections(Integer.parseInt(value));
+            case "pipelining":
+                return configure.pipelining(Integer.parseInt(value));
+            case "rate":
+                return configure.rate(Integer.parseInt(value));
+            case "warmupSeconds":
+                return configure.warmupSeconds(Integer.parseInt(value));
+            case "durationSeconds":
+                return configure.durationSeconds(Integer.parseInt(value));
+            case "responseSize":
+                return configure.responseSize(Integer.parseInt(value));
+            default:
+                throw new IllegalArgumentException("Unknown option: '" + name + "'");
+        }
+    }
+
+    static String report(LoadGenerator.Result result) {
+        final LatencyHistogram h = result.histogram;
+        final StringBuilder sb = new StringBuilder(256)
+                .append(String.format(Locale.ROOT,
+                        "requests: %d, errors: %d, incomplete: %d, throughput: %.1f req/s%n",
+                        result.completed, result.errors, result.incomplete, result.throughput()))
+                .append(String.format(Locale.ROOT, "latency(us): min=%.1f, mean=%.1f",
+                        micros(h, 0D), h.count() == 0L ? 0D : h.totalTime(TimeUnit.MICROSECONDS) / h.count()));
+        for (double p : PERCENTILES) {
+            sb.append(String.format(Locale.ROOT, ", p%s=%.1f", percentileName(p), micros(h, p)));
+        }
+        return sb.append(String.format(Locale.ROOT, ", max=%.1f", h.max(TimeUnit.MICROSECONDS))).toString();
+    }
+
+    static String summary(LoadGenerator.Result result) {
+        final LatencyHistogram h = result.histogram;
+        return String.format(Locale.ROOT,
+                "%12.1f req/s p50=%.1fus p99=%.1fus p999=%.1fus errors=%d incomplete=%d",
+                result.throughput(),
+                micros(h, 50D),
+                micros(h, 99D),
+                micros(h, 99.9D),
+                result.errors,
+                result.incomplete);
+    }
+
+    private static String percentileName(double p) {
+        return p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p).replace(".", "");
+    }
+
+    /**
+     * Gets the value at the given percentile(between 0 and 100) in microseconds.
+     */
+    private static double micros(LatencyHistogram h, double percentile) {
+        return h.percentile(percentile / 100D, TimeUnit.MICROSECONDS);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.loadtest;
+
+import esa.commons.Platforms;
+import esa.restlight.server.schedule.Schedulers;
+import io.netty.channel.epoll.Epoll;
+
+import java.io.Serializable;
+
+public class LoadTestOptions implements Serializable {
+
+    private static final long serialVersionUID = -3349151474426368723L;
+
+    /**
+     * Name of the scheduler which handles the requests, {@link Schedulers#IO} or {@link Schedulers#BIZ}.
+     */
+    private String scheduler = Schedulers.BIZ;
+    /**
+     * Use h2c(HTTP/2 over cleartext with prior knowledge) or else HTTP/1.1.
+     */
+    private boolean http2;
+    /**
+     * Use Epoll transport for both server and client or else NIO.
+     */
+    private boolean useNativeTransports = Platforms.isLinux() && Epoll.isAvailable();
+    /**
+     * IO threads of the server.
+     */
+    private int ioThreads = Math.max(1, Platforms.cpuNum() >> 1);
+    /**
+     * IO threads of the client, the server and the client share the same box so that they should not exceed the
+     * number of cpus in total.
+     */
+    private int clientThreads = Math.max(1, Platforms.cpuNum() >> 1);
+    /**
+     * Number of keep-alive connections.
+     */
+    private int connections = 32;
+    /**
+     * Max number of in-flight requests of each connection, which is the depth of pipelining in HTTP/1.1 and the max
+     * concurrent streams in HTTP/2.
+     */
+    private int pipelining = 1;
+    /**
+     * Total requests per second of an open-loop generator, the latency is measured from the time when a request was
+     * intended to be sent, so that the queueing delay caused by a stalled server is not omitted. A value less than or
+     * equal to 0 means a closed-loop generator which sends a request as soon as the previous one completes.
+     */
+    private int rate;
+    /**
+     * Seconds to warm up before measuring.
+     */
+    private int warmupSeconds = 5;
+    /**
+     * Seconds to measure.
+     */
+    private int durationSeconds = 30;
+    /**
+     * Bytes of the response body.
+     */
+    private int responseSize = 128;
+
+    public String getScheduler() {
+        return scheduler;
+    }
+
+    public void setScheduler(String scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public void setHttp2(boolean http2) {
+        this.http2 = http2;
+    }
+
+    public boolean isUseNativeTransports() {
+        return useNativeTransports;
+    }
+
+    public void setUseNativeTransports(boolean useNativeTransports) {
+        this.useNativeTransports = useNativeTransports;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    public void setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public int getClientThreads() {
+        return clientThreads;
+    }
+
+    public void setClientThreads(int clientThreads) {
+        this.clientThreads = clientThreads;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public void setConnections(int connections) {
+        this.connections = connections;
+    }
+
+    public int getPipelining() {
+        return pipelining;
+    }
+
+    public void setPipelining(int pipelining) {
+        this.pipelining = pipelining;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public void setWarmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public int getResponseSize() {
+        return responseSize;
+    }
+
+    public void setResponseSize(int responseSize) {
+        this.responseSize = responseSize;
+    }
+
+    @Override
+    public String toString() {
+        return "scheduler=" + scheduler +
+                ", protocol=" + (http2 ? "h2c" : "http/1.1") +
+                ", transport=" + (useNativeTransports ? "epoll" : "nio") +
+                ", ioThreads=" + ioThreads +
+                ", clientThreads=" + clientThreads +
+                ", connections=" + connections +
+                ", pipelining=" + pipelining +
+                ", rate=" + (rate > 0 ? rate + "/s" : "closed-loop") +
+                ", responseSize=" + responseSize;
+    }
+}
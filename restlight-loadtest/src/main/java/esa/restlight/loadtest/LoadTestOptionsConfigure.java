@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.loadtest;
+
+import esa.commons.Platforms;
+import esa.restlight.server.schedule.Schedulers;
+import io.netty.channel.epoll.Epoll;
+
+public final class LoadTestOptionsConfigure {
+
+    private String scheduler = Schedulers.BIZ;
+    private boolean http2;
+    private boolean useNativeTransports = Platforms.isLinux() && Epoll.isAvailable();
+    private int ioThreads = Math.max(1, Platforms.cpuNum() >> 1);
+    private int clientThreads = Math.max(1, Platforms.cpuNum() >> 1);
+    private int connections = 32;
+    private int pipelining = 1;
+    private int rate;
+    private int warmupSeconds = 5;
+    private int durationSeconds = 30;
+    private int responseSize = 128;
+
+    private LoadTestOptionsConfigure() {
+    }
+
+    public static LoadTestOptionsConfigure newOpts() {
+        return new LoadTestOptionsConfigure();
+    }
+
+    public static LoadTestOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public LoadTestOptionsConfigure scheduler(String scheduler) {
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    public LoadTestOptionsConfigure http2(boolean http2) {
+        this.http2 = http2;
+        return this;
+    }
+
+    public LoadTestOptionsConfigure useNativeTransports(boolean useNativeTransports) {
+        this.useNativeTransports = useNativeTransports;
+        return this;
+    }
+
+    public LoadTestOptionsConfigure ioThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+        return this;
+    }
+
+    public LoadTestOptionsConfigure clientThreads(int clientThreads) {
+        this.clientThreads = clientThreads;
+        return this;
+    }
+
+    public LoadTestOptionsConfigure connections(int connections) {
+        this.connections = connections;
+        return this;
+    }
+
+    public LoadTestOptionsConfigure pipelining(int pipelining) {
+        this.pipelining = pipelining;
+        return this;
+    }
+
+    public LoadTestOptionsConfigure rate(int rate) {
+        this.rate = rate;
+        return this;
+    }
+
+    public LoadTestOptionsConfigure warmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+        return this;
+    }
+
+    public LoadTestOptionsConfigure durationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+        return this;
+    }
+
+    public LoadTestOptionsConfigure responseSize(int responseSize) {
+        this.responseSize = responseSize;
+        return this;
+    }
+
+    public LoadTestOptions configured() {
+        LoadTestOptions options = new LoadTestOptions();
+        options.setScheduler(scheduler);
+        options.setHttp2(http2);
+        options.setUseNativeTransports(useNativeTransports);
+        options.setIoThreads(ioThreads);
+        options.setClientThreads(clientThreads);
+        options.setConnections(connections);
+        options.setPipelining(pipelining);
+        options.setRate(rate);
+        options.setWarmupSeconds(warmupSeconds);
+        options.setDurationSeconds(durationSeconds);
+        options.setResponseSize(responseSize);
+        return options;
+    }
+}
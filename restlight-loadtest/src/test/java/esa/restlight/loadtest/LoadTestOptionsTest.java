@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.loadtest;
+
+import esa.restlight.server.schedule.Schedulers;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadTestOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final LoadTestOptions options = LoadTestOptionsConfigure.newOpts()
+                .scheduler(Schedulers.IO)
+                .http2(true)
+                .useNativeTransports(false)
+                .ioThreads(1)
+                .clientThreads(2)
+                .connections(3)
+                .pipelining(4)
+                .rate(5)
+                .warmupSeconds(6)
+                .durationSeconds(7)
+                .responseSize(8)
+                .configured();
+        assertEquals(Schedulers.IO, options.getScheduler());
+        assertTrue(options.isHttp2());
+        assertFalse(options.isUseNativeTransports());
+        assertEquals(1, options.getIoThreads());
+        assertEquals(2, options.getClientThreads());
+        assertEquals(3, options.getConnections());
+        assertEquals(4, options.getPipelining());
+        assertEquals(5, options.getRate());
+        assertEquals(6, options.getWarmupSeconds());
+        assertEquals(7, options.getDurationSeconds());
+        assertEquals(8, options.getResponseSize());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final LoadTestOptions options = LoadTestOptionsConfigure.defaultOpts();
+        final LoadTestOptions def = new LoadTestOptions();
+
+        assertEquals(def.getScheduler(), options.getScheduler());
+        assertEquals(def.isHttp2(), options.isHttp2());
+        assertEquals(def.isUseNativeTransports(), options.isUseNativeTransports());
+        assertEquals(def.getIoThreads(), options.getIoThreads());
+        assertEquals(def.getClientThreads(), options.getClientThreads());
+        assertEquals(def.getConnections(), options.getConnections());
+        assertEquals(def.getPipelining(), options.getPipelining());
+        assertEquals(def.getRate(), options.getRate());
+        assertEquals(def.getWarmupSeconds(), options.getWarmupSeconds());
+        assertEquals(def.getDurationSeconds(), options.getDurationSeconds());
+        assertEquals(def.getResponseSize(), options.getResponseSize());
+    }
+}
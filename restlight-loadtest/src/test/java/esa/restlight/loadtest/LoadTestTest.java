@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.loadtest;
+
+import esa.restlight.server.schedule.Schedulers;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadTestTest {
+
+    @Test
+    void testScenarios() {
+        final List<LoadTestOptions> scenarios = LoadTest.scenarios(new String[]{
+                "--scheduler=IO,BIZ", "--http2=false,true", "--connections=8"
+        });
+        assertEquals(4, scenarios.size());
+        assertEquals(Schedulers.IO, scenarios.get(0).getScheduler());
+        assertFalse(scenarios.get(0).isHttp2());
+        assertEquals(Schedulers.IO, scenarios.get(1).getScheduler());
+        assertTrue(scenarios.get(1).isHttp2());
+        assertEquals(Schedulers.BIZ, scenarios.get(2).getScheduler());
+        assertFalse(scenarios.get(2).isHttp2());
+        assertEquals(Schedulers.BIZ, scenarios.get(3).getScheduler());
+        assertTrue(scenarios.get(3).isHttp2());
+        scenarios.forEach(s -> assertEquals(8, s.getConnections()));
+
+        assertEquals(1, LoadTest.scenarios(new String[0]).size());
+        assertThrows(IllegalArgumentException.class, () -> LoadTest.scenarios(new String[]{"connections=8"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadTest.scenarios(new String[]{"--foo=8"}));
+    }
+
+    @Test
+    void testSummary() {
+        final LoadGenerator.Result result = new LoadGenerator.Result(TimeUnit.SECONDS.toNanos(2L));
+        result.completed = 100L;
+        result.errors = 3L;
+        result.incomplete = 5L;
+        // only the completed requests are counted
+        assertEquals(50D, result.throughput());
+        final String summary = LoadTest.summary(result);
+        assertTrue(summary.contains("errors=3 incomplete=5"), summary);
+    }
+
+    @Test
+    void testRunClosedLoop() throws Exception {
+        final LoadGenerator.Result result = LoadTest.run(LoadTestOptionsConfigure.newOpts()
+                .scheduler(Schedulers.IO)
+                .useNativeTransports(false)
+                .ioThreads(1)
+                .clientThreads(1)
+                .connections(2)
+                .pipelining(2)
+                .warmupSeconds(0)
+                .durationSeconds(1)
+                .configured());
+        assertTrue(result.histogram.count() > 0L);
+        assertEquals(0L, result.errors);
+        assertEquals(0L, result.incomplete);
+    }
+
+    @Test
+    void testRunOpenLoop() throws Exception {
+        final LoadGenerator.Result result = LoadTest.run(LoadTestOptionsConfigure.newOpts()
+                .scheduler(Schedulers.BIZ)
+                .useNativeTransports(false)
+                .ioThreads(1)
+                .clientThreads(1)
+                .connections(2)
+                .rate(1000)
+                .warmupSeconds(0)
+                .durationSeconds(1)
+                .configured());
+        assertTrue(result.histogram.count() > 0L);
+        assertEquals(0L, result.errors);
+        assertEquals(0L, result.incomplete);
+    }
+}
@@ -24,6 +24,7 @@ import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.cookie.Cookie;
 
+import java.net.SocketAddress;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -111,11 +112,26 @@ public interface AsyncRequest {
 
     /**
      * Get ByteBuf result of http body.
+     * <p>
+     * Note that the body is empty if the {@link #bodyStream()} is not {@code null} and it has not been aggregated by
+     * {@link StreamingBody#aggregate()} yet, which is the case of the routes consuming the body as a stream.
      *
      * @return body
      */
     ByteBuf byteBufBody();
 
+    /**
+     * Get the {@link StreamingBody} if current request has been dispatched before its body has been fully received,
+     * in which case the {@link #byteBufBody()} will be empty until the body has been aggregated by {@link
+     * StreamingBody#aggregate()}.
+     *
+     * @return streaming body, or {@code null} if the body has already been aggregated before dispatching
+     */
+    @Beta
+    default StreamingBody bodyStream() {
+        return null;
+    }
+
     /**
      * Body length.
      *
@@ -132,6 +148,16 @@ public interface AsyncRequest {
      */
     String remoteAddr();
 
+    /**
+     * Returns the socket address of the client or last proxy that sent the request, which is the same address as
+     * {@link #remoteAddr()} but without formatting it to a string.
+     *
+     * @return address or {@code null} if unknown
+     */
+    default SocketAddress remoteAddress() {
+        return null;
+    }
+
     /**
      * Returns the last proxy that sent the request.
      *
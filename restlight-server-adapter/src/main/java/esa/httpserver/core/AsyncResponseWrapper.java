@@ -0,0 +1,219 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.core;
+
+import esa.commons.Checks;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.cookie.Cookie;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A convenient implementation of {@link AsyncResponse} which delegates all the operations to the wrapped response,
+ * subclasses could override the methods they are interested in, such as the {@code sendResult(...)}, to decorate the
+ * original response.
+ * <p>
+ * Note: {@link #sendResult(byte[], int, int)}, {@link #sendResult(byte[])}, {@link #sendResult(ByteBuf, int, int,
+ * boolean)} and {@link #sendResult(ByteBuf, boolean)} are all delegated to the wrapped response directly, so a subclass
+ * which decorates the body should override all of them.
+ */
+public class AsyncResponseWrapper implements AsyncResponse {
+
+    protected final AsyncResponse delegate;
+
+    public AsyncResponseWrapper(AsyncResponse delegate) {
+        Checks.checkNotNull(delegate, "delegate");
+        this.delegate = delegate;
+    }
+
+    /**
+     * Gets the wrapped response.
+     *
+     * @return response
+     */
+    public AsyncResponse unwrap() {
+        return delegate;
+    }
+
+    @Override
+    public void setStatus(int code) {
+        delegate.setStatus(code);
+    }
+
+    @Override
+    public int status() {
+        return delegate.status();
+    }
+
+    @Override
+    public boolean isKeepAlive() {
+        return delegate.isKeepAlive();
+    }
+
+    @Override
+    public HttpOutputStream outputStream() {
+        return delegate.outputStream();
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        delegate.setBufferSize(size);
+    }
+
+    @Override
+    public int bufferSize() {
+        return delegate.bufferSize();
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return delegate.isCommitted();
+    }
+
+    @Override
+    public void reset() {
+        delegate.reset();
+    }
+
+    @Override
+    public void sendResult(byte[] body, int off, int len) {
+        delegate.sendResult(body, off, len);
+    }
+
+    @Override
+    public void sendResult(byte[] body) {
+        delegate.sendResult(body);
+    }
+
+    @Override
+    public void sendResult(ByteBuf body, int off, int len, boolean autoRelease) {
+        delegate.sendResult(body, off, len, autoRelease);
+    }
+
+    @Override
+    public void sendResult(ByteBuf body, boolean autoRelease) {
+        delegate.sendResult(body, autoRelease);
+    }
+
+    @Override
+    public void sendFile(File file, long offset, long length) {
+        delegate.sendFile(file, offset, length);
+    }
+
+    @Override
+    public void sendRedirect(String newUri) {
+        delegate.sendRedirect(newUri);
+    }
+
+    @Override
+    public ByteBufAllocator alloc() {
+        return delegate.alloc();
+    }
+
+    @Override
+    public String getHeader(CharSequence name) {
+        return delegate.getHeader(name);
+    }
+
+    @Override
+    public Collection<String> headerNames() {
+        return delegate.headerNames();
+    }
+
+    @Override
+    public Collection<String> getHeaders(CharSequence name) {
+        return delegate.getHeaders(name);
+    }
+
+    @Override
+    public boolean containsHeader(CharSequence name) {
+        return delegate.containsHeader(name);
+    }
+
+    @Override
+    public void addHeader(CharSequence name, String value) {
+        delegate.addHeader(name, value);
+    }
+
+    @Override
+    public void setHeader(CharSequence name, String value) {
+        delegate.setHeader(name, value);
+    }
+
+    @Override
+    public void setHeaders(CharSequence name, List<String> values) {
+        delegate.setHeaders(name, values);
+    }
+
+    @Override
+    public void setIntHeader(CharSequence name, int value) {
+        delegate.setIntHeader(name, value);
+    }
+
+    @Override
+    public void addIntHeader(CharSequence name, int value) {
+        delegate.addIntHeader(name, value);
+    }
+
+    @Override
+    public void setShortHeader(CharSequence name, short value) {
+        delegate.setShortHeader(name, value);
+    }
+
+    @Override
+    public void addShortHeader(CharSequence name, short value) {
+        delegate.addShortHeader(name, value);
+    }
+
+    @Override
+    public void addTrailer(CharSequence name, String value) {
+        delegate.addTrailer(name, value);
+    }
+
+    @Override
+    public void setTrailer(CharSequence name, String value) {
+        delegate.setTrailer(name, value);
+    }
+
+    @Override
+    public void setTrailers(CharSequence name, List<String> values) {
+        delegate.setTrailers(name, values);
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        delegate.addCookie(cookie);
+    }
+
+    @Override
+    public void addCookie(String name, String value) {
+        delegate.addCookie(name, value);
+    }
+
+    @Override
+    public void onEnd(Consumer<AsyncResponse> listener) {
+        delegate.onEnd(listener);
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.core;
+
+import esa.commons.annotation.Internal;
+
+/**
+ * Names of the well-known attributes of {@link AsyncRequest} which are set by Restlight while routing a request.
+ */
+@Internal
+public final class RequestAttributes {
+
+    /**
+     * Template variables of the matched path pattern.
+     */
+    public static final String TEMPLATE_VARIABLES = "$tmp.vars";
+
+    /**
+     * Status of the route matching, such as the {@code 405} if the method is not allowed.
+     */
+    public static final String MATCH_STATUS = "$mth.sts";
+
+    /**
+     * Media types which are compatible with both the {@code Accept} header and the producible media types.
+     */
+    public static final String COMPATIBLE_MEDIA_TYPES = "$cpt.mts";
+
+    /**
+     * Matrix variables of the request path.
+     */
+    public static final String MATRIX_VARIABLES = "$matrix.vars";
+
+    private RequestAttributes() {
+    }
+}
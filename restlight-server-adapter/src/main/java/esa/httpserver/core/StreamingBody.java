@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.core;
+
+import esa.commons.annotation.Beta;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaders;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A view of the http request body whose content is still arriving as a sequence of {@link ByteBuf} chunks.
+ * <p>
+ * The contract is shaped after the reactive-streams {@code Publisher}: the body could only be subscribed once, and
+ * the chunks will be delivered to the {@link Subscriber} only after they have been requested by {@link
+ * Subscription#request(long)}. Chunks that have not been requested yet will be buffered and won't be delivered to
+ * the subscriber.
+ */
+@Beta
+public interface StreamingBody {
+
+    /**
+     * Subscribes the chunks of current body. Only one {@link Subscriber} is allowed, and an {@link
+     * IllegalStateException} will be passed to {@link Subscriber#onError(Throwable)} if current body has already been
+     * subscribed or aggregated.
+     *
+     * @param subscriber subscriber
+     */
+    void subscribe(Subscriber subscriber);
+
+    /**
+     * Aggregates the whole body into a single {@link ByteBuf}. The returned future will be completed after the last
+     * chunk has been received, and the aggregated {@link ByteBuf} will be released after current request completes.
+     *
+     * @return future of aggregated body
+     */
+    CompletableFuture<ByteBuf> aggregate();
+
+    /**
+     * Whether the last chunk of current body has been received.
+     *
+     * @return {@code true} if ended
+     */
+    boolean isEnded();
+
+    /**
+     * Receiver of the body chunks.
+     */
+    interface Subscriber {
+
+        /**
+         * Invoked once after {@link StreamingBody#subscribe(Subscriber)}, no chunk will be delivered until the
+         * demand has been signaled by {@link Subscription#request(long)}.
+         *
+         * @param subscription subscription
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Invoked for each requested chunk. The given {@link ByteBuf} will be released after this method returns,
+         * so it must be retained if it is going to be used outside this method.
+         *
+         * @param chunk chunk
+         */
+        void onData(ByteBuf chunk);
+
+        /**
+         * Invoked after the last chunk has been delivered.
+         *
+         * @param trailers trailing headers
+         */
+        void onEnd(HttpHeaders trailers);
+
+        /**
+         * Invoked when error occurred while receiving the body, and there will be no more signals after this.
+         *
+         * @param t error
+         */
+        void onError(Throwable t);
+    }
+
+    /**
+     * The link between a {@link StreamingBody} and its {@link Subscriber}.
+     */
+    interface Subscription {
+
+        /**
+         * Requests {@code n} more chunks, {@link Long#MAX_VALUE} means unbounded.
+         *
+         * @param n number of chunks, must be positive
+         */
+        void request(long n);
+
+        /**
+         * Cancels the subscription and all the buffered and upcoming chunks will be discarded.
+         */
+        void cancel();
+    }
+}
@@ -23,6 +23,8 @@ import esa.commons.logging.LoggerFactory;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.Request;
+import esa.httpserver.core.RequestAttributes;
+import esa.httpserver.core.StreamingBody;
 import esa.restlight.core.util.MediaType;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
@@ -33,7 +35,6 @@ import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpVersion;
-import io.netty.handler.codec.http.QueryStringDecoder;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
 
@@ -42,12 +43,14 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Default implementation of {@link AsyncRequest} that wraps the {@link Request} as delegate.
@@ -59,44 +62,58 @@ public class AsyncRequestImpl implements AsyncRequest {
 
     private static final HttpVersion HTTP2 =
             new HttpVersion("HTTP", 2, 0, true);
-    private final ConcurrentHashMap<String, Object> attributes = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AsyncRequestImpl, ConcurrentHashMap> ATTRIBUTES_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(AsyncRequestImpl.class, ConcurrentHashMap.class, "attributes");
+
+    /*
+     * Well-known attributes which are set by the framework while routing, they are stored in the dedicated fields
+     * instead of the attributes map.
+     */
+    private volatile Object templateVariables;
+    private volatile Object matchStatus;
+    private volatile Object compatibleMediaTypes;
+    private volatile Object matrixVariables;
+    /**
+     * user attributes, which will be created lazily
+     */
+    private volatile ConcurrentHashMap<String, Object> attributes;
     private final Request req;
     private final HttpMethod method;
     private final HttpHeaders headers;
     private final HttpHeaders trailers;
-    private Map<String, List<String>> params;
+    private final StreamingBodyImpl streamingBody;
+    private ParameterStore params;
     private HttpInputStream is;
     private Set<Cookie> cookies;
 
     public AsyncRequestImpl(Request req) {
+        this(req, null);
+    }
+
+    /**
+     * Creates an {@link AsyncRequestImpl} whose body is still streaming if the given {@code streamingBody} is not
+     * {@code null}.
+     *
+     * @param req           request
+     * @param streamingBody streaming body
+     */
+    public AsyncRequestImpl(Request req, StreamingBodyImpl streamingBody) {
         this.req = req;
+        this.streamingBody = streamingBody;
         this.method = HttpMethod.valueOf(req.rawMethod());
-        if (req.headers() instanceof HttpHeaders) {
-            this.headers = (HttpHeaders) req.headers();
-        } else {
-            this.headers = new DefaultHttpHeaders();
-            Iterator<Map.Entry<CharSequence, CharSequence>> it =
-                    req.headers().iteratorCharSequence();
-            while (it.hasNext()) {
-                Map.Entry<CharSequence, CharSequence> entry = it.next();
-                this.headers.add(entry.getKey(), entry.getValue());
+        this.headers = toHttpHeaders(req.headers());
+        if (streamingBody == null) {
+            if (req.aggregated().trailers().isEmpty()) {
+                this.trailers = EmptyHttpHeaders.INSTANCE;
+            } else {
+                this.trailers = toHttpHeaders(req.aggregated().trailers());
             }
-        }
-
-        if (req.aggregated().trailers().isEmpty()) {
-            this.trailers = EmptyHttpHeaders.INSTANCE;
-        } else if (req.aggregated().trailers() instanceof HttpHeaders) {
-            this.trailers = (HttpHeaders) req.aggregated().trailers();
         } else {
-            this.trailers = new DefaultHttpHeaders();
-            Iterator<Map.Entry<CharSequence, CharSequence>> it =
-                    req.aggregated().trailers().iteratorCharSequence();
-            while (it.hasNext()) {
-                Map.Entry<CharSequence, CharSequence> entry = it.next();
-                this.trailers.add(entry.getKey(), entry.getValue());
-            }
+            // trailers will be received at the end of the body
+            this.trailers = null;
         }
-
     }
 
     @Override
@@ -141,14 +158,25 @@ public class AsyncRequestImpl implements AsyncRequest {
 
     @Override
     public HttpHeaders trailers() {
+        if (streamingBody != null) {
+            return streamingBody.trailers();
+        }
         return trailers;
     }
 
     @Override
     public ByteBuf byteBufBody() {
+        if (streamingBody != null) {
+            return streamingBody.aggregated();
+        }
         return req.aggregated().body();
     }
 
+    @Override
+    public StreamingBody bodyStream() {
+        return streamingBody;
+    }
+
     @Override
     public HttpInputStream inputStream() {
         if (is == null) {
@@ -162,6 +190,11 @@ public class AsyncRequestImpl implements AsyncRequest {
         return getHostAddress(req.remoteAddress());
     }
 
+    @Override
+    public SocketAddress remoteAddress() {
+        return req.remoteAddress();
+    }
+
     @Override
     public String tcpSourceAddr() {
         return getHostAddress(req.tcpSourceAddress());
@@ -182,11 +215,30 @@ public class AsyncRequestImpl implements AsyncRequest {
         return NetworkUtils.getPort(req.localAddress());
     }
 
+    @Override
+    public String getParameter(String parName) {
+        return params().getFirst(parName);
+    }
+
+    @Override
+    public List<String> getParameters(String parName) {
+        return params().get(parName);
+    }
+
     @Override
     public Map<String, List<String>> parameterMap() {
+        return params();
+    }
+
+    private ParameterStore params() {
         if (params == null) {
+            final ParameterStore store = new ParameterStore();
+            try {
+                store.decodeQuery(req.query(), StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                logger.warn("Error while parsing query parameter, query: " + req.query(), e);
+            }
             // merge parameters of application/x-www-form-urlencoded
-            Map<String, List<String>> decoded = req.paramMap();
             if (esa.commons.http.HttpMethod.POST.equals(req.method()) && byteBufBody().isReadable()) {
                 String contentType = req.headers().get(HttpHeaderNames.CONTENT_TYPE);
                 if (contentType != null
@@ -204,22 +256,17 @@ public class AsyncRequestImpl implements AsyncRequest {
                         if (charset == null) {
                             charset = StandardCharsets.UTF_8;
                         }
-                        String body = byteBufBody().toString(charset);
-                        final QueryStringDecoder decoder = new QueryStringDecoder(body, false);
-                        Map<String, List<String>> bodyParam = null;
+                        final ByteBuf body = byteBufBody();
                         try {
-                            bodyParam = decoder.parameters();
+                            // decode the bytes directly instead of converting them to a string first
+                            store.decodeBody(body, charset);
                         } catch (Exception e) {
-                            logger.warn("Error while parsing body parameter, body: " + body, e);
-                        }
-                        if (bodyParam != null && !bodyParam.isEmpty()) {
-                            bodyParam.putAll(decoded);
-                            decoded = bodyParam;
+                            logger.warn("Error while parsing body parameter, body: " + body.toString(charset), e);
                         }
                     }
                 }
             }
-            params = decoded;
+            params = store;
         }
         return params;
     }
@@ -239,22 +286,98 @@ public class AsyncRequestImpl implements AsyncRequest {
 
     @Override
     public void setAttribute(String name, Object value) {
-        this.attributes.put(name, value);
+        switch (name) {
+            case RequestAttributes.TEMPLATE_VARIABLES:
+                templateVariables = nonNull(value);
+                break;
+            case RequestAttributes.MATCH_STATUS:
+                matchStatus = nonNull(value);
+                break;
+            case RequestAttributes.COMPATIBLE_MEDIA_TYPES:
+                compatibleMediaTypes = nonNull(value);
+                break;
+            case RequestAttributes.MATRIX_VARIABLES:
+                matrixVariables = nonNull(value);
+                break;
+            default:
+                attributes().put(name, value);
+        }
     }
 
     @Override
     public Object getAttribute(String name) {
-        return this.attributes.get(name);
+        switch (name) {
+            case RequestAttributes.TEMPLATE_VARIABLES:
+                return templateVariables;
+            case RequestAttributes.MATCH_STATUS:
+                return matchStatus;
+            case RequestAttributes.COMPATIBLE_MEDIA_TYPES:
+                return compatibleMediaTypes;
+            case RequestAttributes.MATRIX_VARIABLES:
+                return matrixVariables;
+            default:
+                final ConcurrentHashMap<String, Object> attrs = this.attributes;
+                return attrs == null ? null : attrs.get(name);
+        }
     }
 
     @Override
     public Object removeAttribute(String name) {
-        return this.attributes.remove(name);
+        final Object removed;
+        switch (name) {
+            case RequestAttributes.TEMPLATE_VARIABLES:
+                removed = templateVariables;
+                templateVariables = null;
+                return removed;
+            case RequestAttributes.MATCH_STATUS:
+                removed = matchStatus;
+                matchStatus = null;
+                return removed;
+            case RequestAttributes.COMPATIBLE_MEDIA_TYPES:
+                removed = compatibleMediaTypes;
+                compatibleMediaTypes = null;
+                return removed;
+            case RequestAttributes.MATRIX_VARIABLES:
+                removed = matrixVariables;
+                matrixVariables = null;
+                return removed;
+            default:
+                final ConcurrentHashMap<String, Object> attrs = this.attributes;
+                return attrs == null ? null : attrs.remove(name);
+        }
     }
 
     @Override
     public String[] attributeNames() {
-        return this.attributes.keySet().toArray(new String[0]);
+        final ConcurrentHashMap<String, Object> attrs = this.attributes;
+        final List<String> names = new ArrayList<>(attrs == null ? 4 : attrs.size() + 4);
+        if (templateVariables != null) {
+            names.add(RequestAttributes.TEMPLATE_VARIABLES);
+        }
+        if (matchStatus != null) {
+            names.add(RequestAttributes.MATCH_STATUS);
+        }
+        if (compatibleMediaTypes != null) {
+            names.add(RequestAttributes.COMPATIBLE_MEDIA_TYPES);
+        }
+        if (matrixVariables != null) {
+            names.add(RequestAttributes.MATRIX_VARIABLES);
+        }
+        if (attrs != null) {
+            names.addAll(attrs.keySet());
+        }
+        return names.toArray(new String[0]);
+    }
+
+    private ConcurrentHashMap<String, Object> attributes() {
+        ConcurrentHashMap<String, Object> attrs = this.attributes;
+        if (attrs == null) {
+            attrs = new ConcurrentHashMap<>(8);
+            if (!ATTRIBUTES_UPDATER.compareAndSet(this, null, attrs)) {
+                attrs = this.attributes;
+            }
+        }
+        return attrs;
     }
 
     @Override
@@ -267,6 +390,27 @@ public class AsyncRequestImpl implements AsyncRequest {
         return req.toString();
     }
 
+    static HttpHeaders toHttpHeaders(esa.commons.http.HttpHeaders origin) {
+        if (origin instanceof HttpHeaders) {
+            return (HttpHeaders) origin;
+        }
+        final HttpHeaders converted = new DefaultHttpHeaders();
+        Iterator<Map.Entry<CharSequence, CharSequence>> it = origin.iteratorCharSequence();
+        while (it.hasNext()) {
+            Map.Entry<CharSequence, CharSequence> entry = it.next();
+            converted.add(entry.getKey(), entry.getValue());
+        }
+        return converted;
+    }
+
+    private static Object nonNull(Object value) {
+        // keep the same behaviour with the ConcurrentHashMap
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        return value;
+    }
+
     private static String getHostAddress(SocketAddress address) {
         if (address instanceof InetSocketAddress) {
             InetSocketAddress socketAddress = (InetSocketAddress) address;
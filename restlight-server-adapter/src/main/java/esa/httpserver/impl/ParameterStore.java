@@ -0,0 +1,348 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.internal.StringUtil;
+
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A parameter store which decodes the parameters of the query string and the {@code application/x-www-form-urlencoded}
+ * body into a flat array of names and values, the underlying bytes of the body are decoded directly without being
+ * converted to a {@link String} first.
+ * <p>
+ * Lookups by a name are served by scanning the flat array if there're only a few parameters, and a {@link
+ * LinkedHashMap} index is built lazily only if there're many parameters or this store is used as a whole {@link
+ * Map}(eg. iterating or modifying). Parameters of the query string take precedence over the ones of the body with the
+ * same name.
+ */
+final class ParameterStore extends AbstractMap<String, List<String>> {
+
+    /**
+     * Same as the default value of the {@link io.netty.handler.codec.http.QueryStringDecoder}.
+     */
+    private static final int MAX_PARAMS = 1024;
+    /**
+     * Max number of the parameters which could be looked up by scanning the flat array.
+     */
+    private static final int SCAN_THRESHOLD = 8;
+    private static final String[] EMPTY = new String[0];
+
+    /**
+     * name0, value0, name1, value1...
+     */
+    private String[] pairs = EMPTY;
+    private int size;
+    private int querySize;
+    private Map<String, List<String>> index;
+
+    /**
+     * Decodes the given query string, which must be called before {@link #decodeBody(ByteBuf, Charset)}. None of the
+     * parameters of the query string will be kept if it is illegal.
+     *
+     * @param query   query string
+     * @param charset charset
+     *
+     * @throws IllegalArgumentException if the query string is illegal
+     */
+    void decodeQuery(String query, Charset charset) {
+        if (query == null || query.isEmpty()) {
+            return;
+        }
+        final int mark = size;
+        try {
+            int start = 0;
+            final int len = query.length();
+            for (int i = 0; i <= len && size < MAX_PARAMS; i++) {
+                final char c = i == len ? '&' : query.charAt(i);
+                if (c == '&' || c == ';') {
+                    if (i > start) {
+                        final int eq = query.indexOf('=', start);
+                        if (eq < 0 || eq >= i) {
+                            add(decodeString(query, start, i, charset), StringUtil.EMPTY_STRING);
+                        } else if (eq > start) {
+                            add(decodeString(query, start, eq, charset), decodeString(query, eq + 1, i, charset));
+                        }
+                    }
+                    start = i + 1;
+                }
+            }
+        } catch (RuntimeException e) {
+            rollback(mark);
+            throw e;
+        }
+        querySize = size;
+    }
+
+    /**
+     * Decodes the readable bytes of the given {@code application/x-www-form-urlencoded} body. None of the parameters
+     * of the body will be kept if the body is illegal.
+     *
+     * @param body    body
+     * @param charset charset
+     *
+     * @throws IllegalArgumentException if the body is illegal
+     */
+    void decodeBody(ByteBuf body, Charset charset) {
+        final int mark = size;
+        try {
+            int start = body.readerIndex();
+            final int end = body.writerIndex();
+            for (int i = start; i <= end && size < MAX_PARAMS; i++) {
+                final byte b = i == end ? (byte) '&' : body.getByte(i);
+                if (b == '&' || b == ';') {
+                    if (i > start) {
+                        final int eq = body.indexOf(start, i, (byte) '=');
+                        if (eq < 0) {
+                            add(decodeBytes(body, start, i, charset), StringUtil.EMPTY_STRING);
+                        } else if (eq > start) {
+                            add(decodeBytes(body, start, eq, charset), decodeBytes(body, eq + 1, i, charset));
+                        }
+                    }
+                    start = i + 1;
+                }
+            }
+        } catch (RuntimeException e) {
+            rollback(mark);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the first value of the parameter with the given name without creating a {@link List}.
+     *
+     * @param name name
+     *
+     * @return value or {@code null} if absent
+     */
+    String getFirst(String name) {
+        if (index != null || size > SCAN_THRESHOLD) {
+            final List<String> values = index().get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+        if (name == null) {
+            return null;
+        }
+        final int i = indexOf(name, 0, querySize);
+        if (i >= 0) {
+            return pairs[(i << 1) + 1];
+        }
+        final int j = indexOf(name, querySize, size);
+        return j >= 0 ? pairs[(j << 1) + 1] : null;
+    }
+
+    @Override
+    public List<String> get(Object key) {
+        if (index != null || size > SCAN_THRESHOLD) {
+            return index().get(key);
+        }
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final String name = (String) key;
+        List<String> values = collect(name, 0, querySize);
+        if (values == null) {
+            values = collect(name, querySize, size);
+        }
+        return values;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return index == null ? size == 0 : index.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return index().size();
+    }
+
+    @Override
+    public List<String> put(String key, List<String> value) {
+        return index().put(key, value);
+    }
+
+    @Override
+    public List<String> remove(Object key) {
+        return index().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        index().clear();
+    }
+
+    @Override
+    public Set<Entry<String, List<String>>> entrySet() {
+        return index().entrySet();
+    }
+
+    private Map<String, List<String>> index() {
+        Map<String, List<String>> idx = index;
+        if (idx == null) {
+            idx = new LinkedHashMap<>(Math.max(16, size << 1));
+            // parameters of the body first, then override them by the ones of the query string
+            for (int i = querySize; i < size; i++) {
+                idx.computeIfAbsent(pairs[i << 1], k -> new ArrayList<>(1)).add(pairs[(i << 1) + 1]);
+            }
+            final Map<String, List<String>> query = new LinkedHashMap<>(Math.max(16, querySize << 1));
+            for (int i = 0; i < querySize; i++) {
+                query.computeIfAbsent(pairs[i << 1], k -> new ArrayList<>(1)).add(pairs[(i << 1) + 1]);
+            }
+            idx.putAll(query);
+            index = idx;
+        }
+        return idx;
+    }
+
+    private int indexOf(String name, int from, int to) {
+        final int hash = name.hashCode();
+        for (int i = from; i < to; i++) {
+            final String n = pairs[i << 1];
+            if (n.hashCode() == hash && n.equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<String> collect(String name, int from, int to) {
+        int i = indexOf(name, from, to);
+        if (i < 0) {
+            return null;
+        }
+        final List<String> values = new ArrayList<>(1);
+        for (; i < to; i++) {
+            final String n = pairs[i << 1];
+            if (n.equals(name)) {
+                values.add(pairs[(i << 1) + 1]);
+            }
+        }
+        return values;
+    }
+
+    private void add(String name, String value) {
+        final int i = size << 1;
+        if (i == pairs.length) {
+            pairs = Arrays.copyOf(pairs, Math.max(8, i << 1));
+        }
+        pairs[i] = name;
+        pairs[i + 1] = value;
+        size++;
+    }
+
+    private void rollback(int mark) {
+        Arrays.fill(pairs, mark << 1, size << 1, null);
+        size = mark;
+    }
+
+    private static String decodeString(String s, int from, int to, Charset charset) {
+        int firstEscaped = -1;
+        for (int i = from; i < to; i++) {
+            final char c = s.charAt(i);
+            if (c == '%' || c == '+') {
+                firstEscaped = i;
+                break;
+            }
+        }
+        if (firstEscaped < 0) {
+            return s.substring(from, to);
+        }
+        final StringBuilder sb = new StringBuilder(to - from).append(s, from, firstEscaped);
+        byte[] buf = null;
+        for (int i = firstEscaped; i < to; i++) {
+            final char c = s.charAt(i);
+            if (c != '%') {
+                sb.append(c == '+' ? ' ' : c);
+                continue;
+            }
+            if (buf == null) {
+                buf = new byte[(to - i) / 3];
+            }
+            int n = 0;
+            do {
+                if (i + 3 > to) {
+                    throw new IllegalArgumentException("unterminated escape sequence at index " + i + " of: "
+                            + s.substring(from, to));
+                }
+                buf[n++] = (byte) decodeHex(s.charAt(i + 1), s.charAt(i + 2), s, from, to);
+                i += 3;
+            } while (i < to && s.charAt(i) == '%');
+            i--;
+            sb.append(new String(buf, 0, n, charset));
+        }
+        return sb.toString();
+    }
+
+    private static String decodeBytes(ByteBuf buf, int from, int to, Charset charset) {
+        int firstEscaped = -1;
+        for (int i = from; i < to; i++) {
+            final byte b = buf.getByte(i);
+            if (b == '%' || b == '+') {
+                firstEscaped = i;
+                break;
+            }
+        }
+        if (firstEscaped < 0) {
+            return buf.toString(from, to - from, charset);
+        }
+        final byte[] decoded = new byte[to - from];
+        buf.getBytes(from, decoded, 0, firstEscaped - from);
+        int n = firstEscaped - from;
+        for (int i = firstEscaped; i < to; i++) {
+            final byte b = buf.getByte(i);
+            if (b == '+') {
+                decoded[n++] = ' ';
+            } else if (b == '%') {
+                if (i + 3 > to) {
+                    throw new IllegalArgumentException("unterminated escape sequence at index " + i);
+                }
+                final int hi = StringUtil.decodeHexNibble((char) buf.getByte(i + 1));
+                final int lo = StringUtil.decodeHexNibble((char) buf.getByte(i + 2));
+                if (hi == -1 || lo == -1) {
+                    throw new IllegalArgumentException("invalid hex byte at index " + i);
+                }
+                decoded[n++] = (byte) ((hi << 4) + lo);
+                i += 2;
+            } else {
+                decoded[n++] = b;
+            }
+        }
+        return new String(decoded, 0, n, charset);
+    }
+
+    private static int decodeHex(char c0, char c1, String s, int from, int to) {
+        final int hi = StringUtil.decodeHexNibble(c0);
+        final int lo = StringUtil.decodeHexNibble(c1);
+        if (hi == -1 || lo == -1) {
+            throw new IllegalArgumentException("invalid hex byte '" + c0 + c1 + "' of: " + s.substring(from, to));
+        }
+        return (hi << 4) + lo;
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.impl;
+
+import esa.commons.Checks;
+import esa.commons.annotation.Internal;
+import esa.commons.logging.Logger;
+import esa.commons.logging.LoggerFactory;
+import esa.httpserver.core.StreamingBody;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Default implementation of {@link StreamingBody}.
+ * <p>
+ * Chunks are produced by the io thread through {@link #onData(ByteBuf)}, {@link #onEnd()} and {@link
+ * #onError(Throwable)}, and they are buffered until the {@link Subscriber} requests them, which could be happened in
+ * any other threads. All signals to the subscriber are serialized by a work-in-progress counter, so the subscriber
+ * will never be invoked concurrently.
+ * <p>
+ * If the {@link Channel} of the request is given, reading from it will be paused while the buffered chunks exceed the
+ * high water mark or the subscriber has no demand, and resumed once the chunks are requested and the buffered chunks
+ * drop below half of the high water mark. Before the body is subscribed, reading is paused by the high water mark
+ * only, because the body may never be subscribed, for instance the request is rejected or not found, and then the body
+ * must be {@link #release() released} to resume the reading. The buffered chunks are capped by the max buffered bytes
+ * anyway, the body will be failed if the cap is exceeded, for instance the channel is unknown and the subscriber is
+ * too slow.
+ */
+@Internal
+public class StreamingBodyImpl implements StreamingBody {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingBodyImpl.class);
+
+    private static final AtomicReferenceFieldUpdater<StreamingBodyImpl, Subscriber> SUBSCRIBER_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(StreamingBodyImpl.class, Subscriber.class, "subscriber");
+    private static final AtomicLongFieldUpdater<StreamingBodyImpl> DEMAND_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(StreamingBodyImpl.class, "demand");
+    private static final AtomicIntegerFieldUpdater<StreamingBodyImpl> WIP_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(StreamingBodyImpl.class, "wip");
+    private static final AtomicLongFieldUpdater<StreamingBodyImpl> BUFFERED_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(StreamingBodyImpl.class, "buffered");
+
+    /**
+     * Default high water mark of the buffered chunks in bytes.
+     */
+    public static final int DEFAULT_HIGH_WATER_MARK = 64 * 1024;
+
+    /**
+     * Default max buffered chunks in bytes.
+     */
+    public static final int DEFAULT_MAX_BUFFERED = 4 * 1024 * 1024;
+
+    private final ByteBufAllocator alloc;
+    private final Channel channel;
+    private final long highWaterMark;
+    private final long lowWaterMark;
+    private final long maxBuffered;
+    private final Queue<ByteBuf> chunks = new ConcurrentLinkedQueue<>();
+    /**
+     * readable bytes of the chunks in the queue
+     */
+    private volatile long buffered;
+    private volatile Subscriber subscriber;
+    private volatile long demand;
+    private volatile int wip;
+    private volatile boolean ended;
+    private volatile boolean cancelled;
+    private volatile boolean released;
+    private volatile HttpHeaders trailers = EmptyHttpHeaders.INSTANCE;
+    private volatile Throwable error;
+    private volatile ByteBuf aggregated;
+    private boolean terminated;
+    /**
+     * whether the reading of the channel is paused, which is only accessed in {@link #drain()}
+     */
+    private boolean paused;
+
+    public StreamingBodyImpl(ByteBufAllocator alloc) {
+        this(alloc, null);
+    }
+
+    public StreamingBodyImpl(ByteBufAllocator alloc, Channel channel) {
+        this(alloc, channel, DEFAULT_HIGH_WATER_MARK, DEFAULT_MAX_BUFFERED);
+    }
+
+    /**
+     * Creates a new {@link StreamingBodyImpl}.
+     *
+     * @param alloc         allocator
+     * @param channel       channel of the request, reading from it will be paused and resumed by the demand of the
+     *                      subscriber, or {@code null} if the channel is unknown or should not be paused, such as an
+     *                      HTTP/2 connection which is shared by multiple requests.
+     * @param highWaterMark high water mark of the buffered chunks in bytes
+     * @param maxBuffered   max buffered chunks in bytes
+     */
+    public StreamingBodyImpl(ByteBufAllocator alloc, Channel channel, int highWaterMark, int maxBuffered) {
+        Checks.checkNotNull(alloc, "alloc");
+        Checks.checkArg(highWaterMark > 0, "highWaterMark must be positive");
+        Checks.checkArg(maxBuffered >= highWaterMark, "maxBuffered must not be less than highWaterMark");
+        this.alloc = alloc;
+        this.channel = channel;
+        this.highWaterMark = highWaterMark;
+        this.lowWaterMark = highWaterMark >> 1;
+        this.maxBuffered = maxBuffered;
+    }
+
+    /**
+     * Offers a received chunk. The given {@link ByteBuf} will be retained so that it is safe for the caller to release
+     * it after this method returns.
+     *
+     * @param chunk chunk
+     */
+    public void onData(ByteBuf chunk) {
+        if (ended || cancelled || released) {
+            return;
+        }
+        if (chunk.isReadable()) {
+            final int size = chunk.readableBytes();
+            if (BUFFERED_UPDATER.addAndGet(this, size) > maxBuffered) {
+                BUFFERED_UPDATER.addAndGet(this, -size);
+                onError(new TooLongFrameException("Buffered request body exceeds the limit of " + maxBuffered
+                        + " bytes, subscriber is too slow."));
+                return;
+            }
+            chunks.offer(chunk.retain());
+            drain();
+        }
+    }
+
+    /**
+     * Sets the received trailing headers.
+     *
+     * @param trailers trailing headers
+     */
+    public void onTrailer(esa.commons.http.HttpHeaders trailers) {
+        if (trailers != null && !trailers.isEmpty()) {
+            this.trailers = AsyncRequestImpl.toHttpHeaders(trailers);
+        }
+    }
+
+    /**
+     * Signals that the last chunk has been received.
+     */
+    public void onEnd() {
+        if (ended) {
+            return;
+        }
+        this.ended = true;
+        drain();
+    }
+
+    /**
+     * Signals that error occurred while receiving the body.
+     *
+     * @param t error
+     */
+    public void onError(Throwable t) {
+        if (ended) {
+            return;
+        }
+        this.error = t;
+        this.ended = true;
+        drain();
+    }
+
+    @Override
+    public void subscribe(Subscriber subscriber) {
+        Checks.checkNotNull(subscriber, "subscriber");
+        if (released || !SUBSCRIBER_UPDATER.compareAndSet(this, null, subscriber)) {
+            subscriber.onError(new IllegalStateException("Request body has already been subscribed or released."));
+            return;
+        }
+        subscriber.onSubscribe(new SubscriptionImpl());
+        drain();
+    }
+
+    @Override
+    public CompletableFuture<ByteBuf> aggregate() {
+        final CompletableFuture<ByteBuf> future = new CompletableFuture<>();
+        subscribe(new Aggregator(future));
+        return future;
+    }
+
+    @Override
+    public boolean isEnded() {
+        return ended;
+    }
+
+    /**
+     * Gets the readable bytes of the chunks which have not been delivered to the subscriber.
+     *
+     * @return buffered bytes
+     */
+    public long buffered() {
+        return buffered;
+    }
+
+    /**
+     * Gets the aggregated body.
+     *
+     * @return aggregated body, or an empty buffer if current body has not been aggregated by {@link #aggregate()}.
+     */
+    public ByteBuf aggregated() {
+        final ByteBuf body = aggregated;
+        return body == null ? Unpooled.EMPTY_BUFFER : body;
+    }
+
+    /**
+     * Gets the trailing headers.
+     *
+     * @return trailers, or an empty headers if current body has not ended yet.
+     */
+    public HttpHeaders trailers() {
+        return trailers;
+    }
+
+    /**
+     * Releases the aggregated body and discards all the buffered chunks. This should be called after the request has
+     * been completed.
+     */
+    public void release() {
+        released = true;
+        cancelled = true;
+        drain();
+    }
+
+    private void drain() {
+        if (WIP_UPDATER.getAndIncrement(this) != 0) {
+            return;
+        }
+        int missed = 1;
+        for (; ; ) {
+            if (cancelled) {
+                discardChunks();
+                if (released) {
+                    final Subscriber s = subscriber;
+                    if (s instanceof Aggregator && !terminated) {
+                        terminated = true;
+                        s.onError(new IllegalStateException("Request has been completed before the body ended."));
+                    }
+                    releaseAggregated();
+                }
+            } else {
+                final Subscriber s = subscriber;
+                if (s != null && !terminated) {
+                    drainTo(s);
+                }
+            }
+            updateReading();
+            missed = WIP_UPDATER.addAndGet(this, -missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Pauses or resumes reading from the channel by current demand and the buffered chunks. This is only called in
+     * {@link #drain()}, so that the last decision is always made by the latest state.
+     */
+    private void updateReading() {
+        if (channel == null) {
+            return;
+        }
+        final boolean pause;
+        if (ended || cancelled) {
+            // keep reading to receive the rest of the body(if any) and the next request of the connection
+            pause = false;
+        } else if (demand == 0L && subscriber != null) {
+            pause = true;
+        } else {
+            final long b = buffered;
+            pause = paused ? b > lowWaterMark : b > highWaterMark;
+        }
+        if (pause != paused) {
+            paused = pause;
+            channel.config().setAutoRead(!pause);
+        }
+    }
+
+    private void drainTo(Subscriber s) {
+        final long r = demand;
+        long e = 0L;
+        while (e != r && !cancelled) {
+            final ByteBuf chunk = chunks.poll();
+            if (chunk == null) {
+                break;
+            }
+            BUFFERED_UPDATER.addAndGet(this, -chunk.readableBytes());
+            try {
+                s.onData(chunk);
+            } catch (Throwable t) {
+                logger.warn("Error while delivering request body chunk to subscriber.", t);
+            } finally {
+                chunk.release();
+            }
+            e++;
+        }
+        if (e != 0L && r != Long.MAX_VALUE) {
+            DEMAND_UPDATER.addAndGet(this, -e);
+        }
+
+        // read the 'ended' before checking the queue, all of the chunks have been offered if it is true.
+        final boolean done = ended;
+        if (cancelled) {
+            return;
+        }
+        final Throwable err = error;
+        if (err != null) {
+            terminated = true;
+            discardChunks();
+            s.onError(err);
+        } else if (done && chunks.isEmpty()) {
+            terminated = true;
+            s.onEnd(trailers);
+        }
+    }
+
+    private void discardChunks() {
+        ByteBuf chunk;
+        while ((chunk = chunks.poll()) != null) {
+            BUFFERED_UPDATER.addAndGet(this, -chunk.readableBytes());
+            chunk.release();
+        }
+    }
+
+    private void releaseAggregated() {
+        final ByteBuf body = aggregated;
+        if (body != null) {
+            aggregated = null;
+            body.release();
+        }
+    }
+
+    private final class SubscriptionImpl implements Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0L) {
+                onError(new IllegalArgumentException("Requested chunks must be positive, but got " + n));
+                return;
+            }
+            for (; ; ) {
+                final long r = demand;
+                if (r == Long.MAX_VALUE) {
+                    break;
+                }
+                long u = r + n;
+                if (u < 0L) {
+                    u = Long.MAX_VALUE;
+                }
+                if (DEMAND_UPDATER.compareAndSet(StreamingBodyImpl.this, r, u)) {
+                    break;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+    }
+
+    private final class Aggregator implements Subscriber {
+
+        private final CompletableFuture<ByteBuf> future;
+        private CompositeByteBuf body;
+
+        private Aggregator(CompletableFuture<ByteBuf> future) {
+            this.future = future;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onData(ByteBuf chunk) {
+            if (body == null) {
+                body = alloc.compositeBuffer();
+            }
+            body.addComponent(true, chunk.retain());
+        }
+
+        @Override
+        public void onEnd(HttpHeaders trailers) {
+            if (body == null) {
+                aggregated = Unpooled.EMPTY_BUFFER;
+            } else {
+                aggregated = body;
+            }
+            future.complete(aggregated);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (body != null) {
+                body.release();
+                body = null;
+            }
+            future.completeExceptionally(t);
+        }
+    }
+}
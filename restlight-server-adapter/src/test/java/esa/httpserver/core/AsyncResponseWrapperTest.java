@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.core;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.cookie.DefaultCookie;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncResponseWrapperTest {
+
+    @Test
+    void testDelegate() {
+        assertThrows(NullPointerException.class, () -> new AsyncResponseWrapper(null));
+
+        final AsyncResponse mock = mock(AsyncResponse.class);
+        final AsyncResponseWrapper response = new AsyncResponseWrapper(mock);
+        assertSame(mock, response.unwrap());
+
+        when(mock.status()).thenReturn(500);
+        assertEquals(500, response.status());
+        response.setStatus(200);
+        verify(mock).setStatus(200);
+
+        when(mock.isKeepAlive()).thenReturn(true);
+        assertTrue(response.isKeepAlive());
+        when(mock.isCommitted()).thenReturn(true);
+        assertTrue(response.isCommitted());
+
+        when(mock.getHeader("a")).thenReturn("1");
+        assertEquals("1", response.getHeader("a"));
+        response.setHeader("b", "2");
+        verify(mock).setHeader("b", "2");
+        response.addHeader("c", "3");
+        verify(mock).addHeader("c", "3");
+        response.setHeaders("d", Collections.singletonList("4"));
+        verify(mock).setHeaders("d", Collections.singletonList("4"));
+        response.setTrailer("e", "5");
+        verify(mock).setTrailer("e", "5");
+
+        final DefaultCookie cookie = new DefaultCookie("f", "6");
+        response.addCookie(cookie);
+        verify(mock).addCookie(cookie);
+
+        final Consumer<AsyncResponse> listener = r -> {
+        };
+        response.onEnd(listener);
+        verify(mock).onEnd(listener);
+    }
+
+    @Test
+    void testSend() {
+        final AsyncResponse mock = mock(AsyncResponse.class);
+        final AsyncResponseWrapper response = new AsyncResponseWrapper(mock);
+
+        final byte[] bytes = new byte[]{1, 2};
+        response.sendResult(bytes);
+        verify(mock).sendResult(bytes);
+        response.sendResult(bytes, 0, 1);
+        verify(mock).sendResult(bytes, 0, 1);
+
+        final ByteBuf buf = Unpooled.wrappedBuffer(bytes);
+        response.sendResult(buf, false);
+        verify(mock).sendResult(buf, false);
+        response.sendResult(buf, 1, 1, true);
+        verify(mock).sendResult(buf, 1, 1, true);
+
+        final File file = new File("foo");
+        response.sendFile(file, 0L, 1L);
+        verify(mock).sendFile(file, 0L, 1L);
+
+        response.sendRedirect("/foo");
+        verify(mock).sendRedirect("/foo");
+    }
+
+    @Test
+    void testOverride() {
+        final AsyncResponse mock = mock(AsyncResponse.class);
+        final byte[] decorated = new byte[]{0};
+        final AsyncResponseWrapper response = new AsyncResponseWrapper(mock) {
+            @Override
+            public void sendResult(byte[] body) {
+                super.sendResult(decorated);
+            }
+        };
+
+        // default methods of the AsyncResponse go through the overridden one
+        response.sendResult(201, new byte[]{1});
+        verify(mock).setStatus(201);
+        verify(mock).sendResult(decorated);
+    }
+}
@@ -15,7 +15,6 @@
  */
 package esa.httpserver.impl;
 
-import esa.commons.collection.LinkedMultiValueMap;
 import esa.commons.http.HttpHeaders;
 import esa.commons.http.HttpMethod;
 import esa.commons.http.HttpVersion;
@@ -24,6 +23,7 @@ import esa.commons.netty.http.Http1HeadersImpl;
 import esa.httpserver.core.Aggregation;
 import esa.httpserver.core.HttpInputStream;
 import esa.httpserver.core.Request;
+import esa.httpserver.core.RequestAttributes;
 import esa.restlight.core.util.MediaType;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -35,6 +35,7 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -42,7 +43,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -116,6 +119,7 @@ class AsyncRequestImplTest {
         when(mock.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 8080));
         assertEquals("127.0.0.1", req.remoteAddr());
         assertEquals("127.0.0.1", req.getRemoteAddr());
+        assertEquals(new InetSocketAddress("127.0.0.1", 8080), req.remoteAddress());
         assertEquals(8080, req.remotePort());
 
         when(mock.tcpSourceAddress()).thenReturn(new InetSocketAddress("127.0.0.2", 8080));
@@ -128,11 +132,8 @@ class AsyncRequestImplTest {
         assertEquals(1234, req.localPort());
         assertEquals(1234, req.getLocalPort());
 
-        final LinkedMultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-        params.add("a", "1");
-        params.add("b", "2");
-        when(mock.paramMap()).thenReturn(params);
-        assertSame(params, req.parameterMap());
+        when(mock.query()).thenReturn("a=1&b=2");
+        assertSame(req.parameterMap(), req.parameterMap());
 
         assertEquals("1", req.getParameter("a"));
         assertEquals("2", req.getParameter("b"));
@@ -241,10 +242,7 @@ class AsyncRequestImplTest {
         headers.set(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE);
         when(mock.headers()).thenReturn(headers);
 
-        final LinkedMultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-        params.add("a", "1");
-        params.add("b", "2");
-        when(mock.paramMap()).thenReturn(params);
+        when(mock.query()).thenReturn("a=1&b=2");
 
         final Aggregation aggregation = mock(Aggregation.class);
         when(aggregation.trailers()).thenReturn(new Http1HeadersImpl());
@@ -259,6 +257,42 @@ class AsyncRequestImplTest {
         assertEquals("4", req.getParameter("c"));
     }
 
+    @Test
+    void testDecodeParams() {
+        final Request mock = mock(Request.class);
+        when(mock.rawMethod()).thenReturn(HttpMethod.POST.name());
+        when(mock.method()).thenReturn(HttpMethod.POST);
+        final HttpHeaders headers = new Http1HeadersImpl();
+        headers.set(HttpHeaderNames.CONTENT_TYPE, "application/x-www-form-urlencoded; charset=utf-8");
+        when(mock.headers()).thenReturn(headers);
+        when(mock.query()).thenReturn("a=1&b=%E4%BD%A0+%E5%A5%BD;c&a=2&=x");
+
+        final Aggregation aggregation = mock(Aggregation.class);
+        when(aggregation.trailers()).thenReturn(new Http1HeadersImpl());
+        final ByteBuf body = Unpooled.copiedBuffer("a=3&d=%41+b&e=%E4%BD%A0".getBytes(StandardCharsets.UTF_8));
+        when(aggregation.body()).thenReturn(body);
+        when(mock.aggregated()).thenReturn(aggregation);
+
+        final AsyncRequestImpl req = new AsyncRequestImpl(mock);
+        // query string takes precedence
+        assertEquals("1", req.getParameter("a"));
+        assertEquals(2, req.getParameters("a").size());
+        assertEquals("2", req.getParameters("a").get(1));
+        assertEquals("\u4f60 \u597d", req.getParameter("b"));
+        assertEquals("", req.getParameter("c"));
+        assertEquals("A b", req.getParameter("d"));
+        assertEquals("\u4f60", req.getParameter("e"));
+        assertNull(req.getParameter("f"));
+        assertNull(req.getParameters("f"));
+        assertFalse(req.parameterMap().containsKey(""));
+
+        // index
+        assertEquals(5, req.parameterMap().size());
+        assertEquals(2, req.parameterMap().get("a").size());
+        req.parameterMap().put("f", Collections.singletonList("6"));
+        assertEquals("6", req.getParameter("f"));
+    }
+
     @Test
     void testMergeUrlEncodedParamsWithIllegalContentType() {
         final Request mock = mock(Request.class);
@@ -268,10 +302,7 @@ class AsyncRequestImplTest {
         headers.set(HttpHeaderNames.CONTENT_TYPE, "abcdefghijklmnopqrstuvwxyz");
         when(mock.headers()).thenReturn(headers);
 
-        final LinkedMultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-        params.add("a", "1");
-        params.add("b", "2");
-        when(mock.paramMap()).thenReturn(params);
+        when(mock.query()).thenReturn("a=1&b=2");
 
         final Aggregation aggregation = mock(Aggregation.class);
         when(aggregation.trailers()).thenReturn(new Http1HeadersImpl());
@@ -294,10 +325,7 @@ class AsyncRequestImplTest {
         headers.set(HttpHeaderNames.CONTENT_TYPE, "application/x-www-form-urlencoded; charset=utf-8");
         when(mock.headers()).thenReturn(headers);
 
-        final LinkedMultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-        params.add("a", "1");
-        params.add("b", "2");
-        when(mock.paramMap()).thenReturn(params);
+        when(mock.query()).thenReturn("a=1&b=2");
 
         final Aggregation aggregation = mock(Aggregation.class);
         when(aggregation.trailers()).thenReturn(new Http1HeadersImpl());
@@ -338,6 +366,48 @@ class AsyncRequestImplTest {
         assertEquals(0, req.attributeNames().length);
     }
 
+    @Test
+    void testWellKnownAttribute() {
+        final Request mock = mock(Request.class);
+        when(mock.rawMethod()).thenReturn(HttpMethod.GET.name());
+        when(mock.headers()).thenReturn(new Http1HeadersImpl());
+
+        final Aggregation aggregation = mock(Aggregation.class);
+        when(aggregation.trailers()).thenReturn(new Http1HeadersImpl());
+        when(mock.aggregated()).thenReturn(aggregation);
+
+        final AsyncRequestImpl req = new AsyncRequestImpl(mock);
+        final Object vars = new Object();
+        req.setAttribute(RequestAttributes.TEMPLATE_VARIABLES, vars);
+        req.setAttribute(RequestAttributes.MATCH_STATUS, 405);
+        req.setAttribute(RequestAttributes.COMPATIBLE_MEDIA_TYPES, "text/plain");
+        req.setAttribute(RequestAttributes.MATRIX_VARIABLES, "m");
+        req.setAttribute("a", 1);
+        assertSame(vars, req.getAttribute(RequestAttributes.TEMPLATE_VARIABLES));
+        assertEquals(405, req.getAttribute(RequestAttributes.MATCH_STATUS));
+        assertEquals("text/plain", req.getAttribute(RequestAttributes.COMPATIBLE_MEDIA_TYPES));
+        assertEquals("m", req.getAttribute(RequestAttributes.MATRIX_VARIABLES));
+        assertTrue(req.hasAttribute(RequestAttributes.TEMPLATE_VARIABLES));
+        assertArrayEquals(new String[]{RequestAttributes.TEMPLATE_VARIABLES,
+                        RequestAttributes.MATCH_STATUS,
+                        RequestAttributes.COMPATIBLE_MEDIA_TYPES,
+                        RequestAttributes.MATRIX_VARIABLES,
+                        "a"},
+                req.attributeNames());
+
+        assertThrows(NullPointerException.class,
+                () -> req.setAttribute(RequestAttributes.TEMPLATE_VARIABLES, null));
+        assertThrows(NullPointerException.class, () -> req.setAttribute("b", null));
+
+        assertEquals(405, req.removeAttribute(RequestAttributes.MATCH_STATUS));
+        assertNull(req.removeAttribute(RequestAttributes.MATCH_STATUS));
+        assertFalse(req.hasAttribute(RequestAttributes.MATCH_STATUS));
+        assertSame(vars, req.removeAttribute(RequestAttributes.TEMPLATE_VARIABLES));
+        assertEquals("text/plain", req.removeAttribute(RequestAttributes.COMPATIBLE_MEDIA_TYPES));
+        assertEquals("m", req.removeAttribute(RequestAttributes.MATRIX_VARIABLES));
+        assertArrayEquals(new String[]{"a"}, req.attributeNames());
+    }
+
 
     private static void verifyHeaders(AsyncRequestImpl req) {
         assertEquals("1", req.headers().get("a"));
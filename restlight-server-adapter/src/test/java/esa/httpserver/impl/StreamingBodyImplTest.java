@@ -0,0 +1,281 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.httpserver.impl;
+
+import esa.commons.netty.http.Http1HeadersImpl;
+import esa.httpserver.core.StreamingBody;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StreamingBodyImplTest {
+
+    @Test
+    void testChunksAreDeliveredOnDemand() {
+        final StreamingBodyImpl body = new StreamingBodyImpl(ByteBufAllocator.DEFAULT);
+        final Recorder recorder = new Recorder();
+        body.subscribe(recorder);
+
+        final ByteBuf c1 = chunk("a");
+        final ByteBuf c2 = chunk("b");
+        body.onData(c1);
+        body.onData(c2);
+        c1.release();
+        c2.release();
+        assertTrue(recorder.chunks.isEmpty());
+
+        recorder.subscription.request(1L);
+        assertEquals(1, recorder.chunks.size());
+        assertEquals("a", recorder.chunks.get(0));
+
+        final Http1HeadersImpl trailers = new Http1HeadersImpl();
+        trailers.set("foo", "bar");
+        body.onTrailer(trailers);
+        body.onEnd();
+        assertTrue(body.isEnded());
+        // 'b' has not been requested
+        assertFalse(recorder.ended);
+
+        recorder.subscription.request(1L);
+        assertEquals(2, recorder.chunks.size());
+        assertEquals("b", recorder.chunks.get(1));
+        assertTrue(recorder.ended);
+        assertEquals("bar", recorder.trailers.get("foo"));
+        assertEquals("bar", body.trailers().get("foo"));
+        assertEquals(0, c1.refCnt());
+        assertEquals(0, c2.refCnt());
+    }
+
+    @Test
+    void testSubscribeTwice() {
+        final StreamingBodyImpl body = new StreamingBodyImpl(ByteBufAllocator.DEFAULT);
+        body.subscribe(new Recorder());
+        final Recorder another = new Recorder();
+        body.subscribe(another);
+        assertNull(another.subscription);
+        assertTrue(another.error instanceof IllegalStateException);
+
+        final CompletableFuture<ByteBuf> aggregated = body.aggregate();
+        assertTrue(aggregated.isCompletedExceptionally());
+    }
+
+    @Test
+    void testAggregate() {
+        final StreamingBodyImpl body = new StreamingBodyImpl(ByteBufAllocator.DEFAULT);
+        final CompletableFuture<ByteBuf> aggregated = body.aggregate();
+        final ByteBuf c1 = chunk("hello ");
+        final ByteBuf c2 = chunk("world");
+        body.onData(c1);
+        body.onData(c2);
+        c1.release();
+        c2.release();
+        assertFalse(aggregated.isDone());
+        assertEquals(0, body.aggregated().readableBytes());
+
+        body.onEnd();
+        assertTrue(aggregated.isDone());
+        final ByteBuf buf = aggregated.join();
+        assertEquals("hello world", buf.toString(StandardCharsets.UTF_8));
+        assertSame(buf, body.aggregated());
+
+        body.release();
+        assertEquals(0, buf.refCnt());
+        assertEquals(0, c1.refCnt());
+        assertEquals(0, c2.refCnt());
+    }
+
+    @Test
+    void testPauseReadingWithoutDemand() {
+        final Channel channel = mock(Channel.class);
+        final ChannelConfig config = mock(ChannelConfig.class);
+        when(channel.config()).thenReturn(config);
+        final StreamingBodyImpl body = new StreamingBodyImpl(ByteBufAllocator.DEFAULT, channel, 4, 16);
+        final Recorder recorder = new Recorder();
+        body.subscribe(recorder);
+
+        final ByteBuf c1 = chunk("a");
+        body.onData(c1);
+        c1.release();
+        // no demand
+        verify(config).setAutoRead(false);
+        assertEquals(1L, body.buffered());
+
+        recorder.subscription.request(2L);
+        assertEquals(1, recorder.chunks.size());
+        verify(config).setAutoRead(true);
+        assertEquals(0L, body.buffered());
+
+        recorder.subscription.request(Long.MAX_VALUE);
+        final ByteBuf c2 = chunk("bcdef");
+        body.onData(c2);
+        c2.release();
+        assertEquals(2, recorder.chunks.size());
+        assertEquals(0L, body.buffered());
+        body.onEnd();
+        assertTrue(recorder.ended);
+        verify(config, times(1)).setAutoRead(false);
+    }
+
+    @Test
+    void testNotPauseReadingBeforeSubscribed() {
+        final Channel channel = mock(Channel.class);
+        final ChannelConfig config = mock(ChannelConfig.class);
+        when(channel.config()).thenReturn(config);
+        final StreamingBodyImpl body = new StreamingBodyImpl(ByteBufAllocator.DEFAULT, channel, 4, 16);
+
+        final ByteBuf c1 = chunk("a");
+        body.onData(c1);
+        c1.release();
+        // no subscriber yet, the body may never be subscribed
+        verify(config, never()).setAutoRead(false);
+        assertEquals(1L, body.buffered());
+
+        final ByteBuf c2 = chunk("bcde");
+        body.onData(c2);
+        c2.release();
+        // exceeds the high water mark
+        verify(config).setAutoRead(false);
+
+        // released without any subscriber, such as the request has been rejected
+        body.release();
+        verify(config).setAutoRead(true);
+        assertEquals(0L, body.buffered());
+        assertEquals(0, c1.refCnt());
+        assertEquals(0, c2.refCnt());
+    }
+
+    @Test
+    void testBufferedLimit() {
+        final StreamingBodyImpl body =
+                new StreamingBodyImpl(ByteBufAllocator.DEFAULT, null, 4, 8);
+        final Recorder recorder = new Recorder();
+        body.subscribe(recorder);
+        final ByteBuf c1 = chunk("abcd");
+        final ByteBuf c2 = chunk("efghi");
+        body.onData(c1);
+        body.onData(c2);
+        c1.release();
+        c2.release();
+        assertTrue(recorder.error instanceof TooLongFrameException);
+        assertEquals(0, c1.refCnt());
+        assertEquals(0, c2.refCnt());
+        assertEquals(0L, body.buffered());
+    }
+
+    @Test
+    void testErrorBeforeEnd() {
+        final StreamingBodyImpl body = new StreamingBodyImpl(ByteBufAllocator.DEFAULT);
+        final Recorder recorder = new Recorder();
+        body.subscribe(recorder);
+        final ByteBuf c = chunk("a");
+        body.onData(c);
+        c.release();
+        final IllegalStateException ex = new IllegalStateException();
+        body.onError(ex);
+        assertSame(ex, recorder.error);
+        assertTrue(recorder.chunks.isEmpty());
+        assertEquals(0, c.refCnt());
+    }
+
+    @Test
+    void testCancelAndRelease() {
+        final StreamingBodyImpl body = new StreamingBodyImpl(ByteBufAllocator.DEFAULT);
+        final Recorder recorder = new Recorder();
+        body.subscribe(recorder);
+        final ByteBuf c = chunk("a");
+        body.onData(c);
+        c.release();
+        recorder.subscription.cancel();
+        assertEquals(0, c.refCnt());
+        recorder.subscription.request(1L);
+        assertTrue(recorder.chunks.isEmpty());
+
+        final StreamingBodyImpl body1 = new StreamingBodyImpl(ByteBufAllocator.DEFAULT);
+        final CompletableFuture<ByteBuf> aggregated = body1.aggregate();
+        final ByteBuf c1 = chunk("a");
+        body1.onData(c1);
+        c1.release();
+        body1.release();
+        assertTrue(aggregated.isCompletedExceptionally());
+        assertEquals(0, c1.refCnt());
+
+        final AtomicReference<Throwable> err = new AtomicReference<>();
+        body1.subscribe(new Recorder() {
+            @Override
+            public void onError(Throwable t) {
+                err.set(t);
+            }
+        });
+        assertNotNull(err.get());
+    }
+
+    private static ByteBuf chunk(String s) {
+        return Unpooled.copiedBuffer(s, StandardCharsets.UTF_8);
+    }
+
+    private static class Recorder implements StreamingBody.Subscriber {
+
+        private final List<String> chunks = new ArrayList<>();
+        private StreamingBody.Subscription subscription;
+        private boolean ended;
+        private HttpHeaders trailers;
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(StreamingBody.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onData(ByteBuf chunk) {
+            chunks.add(chunk.toString(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void onEnd(HttpHeaders trailers) {
+            this.ended = true;
+            this.trailers = trailers;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            this.error = t;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import esa.restlight.server.bootstrap.DispatcherExceptionHandler;
 import esa.restlight.server.bootstrap.DispatcherHandler;
 import esa.restlight.server.bootstrap.RestlightThreadFactory;
 import esa.restlight.server.config.BizThreadsOptions;
+import esa.restlight.server.config.QueueSheddingOptions;
 import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.config.TimeoutOptions;
 import esa.restlight.server.handler.RestlightHandler;
@@ -32,6 +33,8 @@ import esa.restlight.server.route.Route;
 import esa.restlight.server.route.RouteRegistry;
 import esa.restlight.server.route.impl.CachedRouteRegistry;
 import esa.restlight.server.route.impl.SimpleRouteRegistry;
+import esa.restlight.server.route.impl.TrieRouteRegistry;
+import esa.restlight.server.schedule.AdaptiveThreadPoolExecutor;
 import esa.restlight.server.schedule.ExecutorScheduler;
 import esa.restlight.server.schedule.RequestTask;
 import esa.restlight.server.schedule.RequestTaskHook;
@@ -101,16 +104,38 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
     private void configEmbeddedSchedulers(O options) {
         this.addScheduler(Schedulers.io());
         BizThreadsOptions bizOptions = options.getBizThreads();
-        final BlockingQueue<Runnable> workQueue = bizOptions.getBlockingQueueLength() > 0
-                ? new LinkedBlockingQueue<>(bizOptions.getBlockingQueueLength())
-                : new SynchronousQueue<>();
-        final ThreadPoolExecutor biz = new ThreadPoolExecutor(bizOptions.getCore(),
-                bizOptions.getMax(),
-                bizOptions.getKeepAliveTimeSeconds(),
-                TimeUnit.SECONDS,
-                workQueue,
-                new RestlightThreadFactory("Restlight-Biz"));
+        final ThreadPoolExecutor biz;
+        if (bizOptions.isAdaptive()) {
+            biz = new AdaptiveThreadPoolExecutor(bizOptions.getCore(),
+                    bizOptions.getMax(),
+                    bizOptions.getKeepAliveTimeSeconds(),
+                    TimeUnit.SECONDS,
+                    bizOptions.getBlockingQueueLength(),
+                    bizOptions.getTargetQueueWaitMillis(),
+                    new RestlightThreadFactory("Restlight-Biz"));
+        } else {
+            final BlockingQueue<Runnable> workQueue = bizOptions.getBlockingQueueLength() > 0
+                    ? new LinkedBlockingQueue<>(bizOptions.getBlockingQueueLength())
+                    : new SynchronousQueue<>();
+            biz = new ThreadPoolExecutor(bizOptions.getCore(),
+                    bizOptions.getMax(),
+                    bizOptions.getKeepAliveTimeSeconds(),
+                    TimeUnit.SECONDS,
+                    workQueue,
+                    new RestlightThreadFactory("Restlight-Biz"));
+        }
         this.addScheduler(Schedulers.fromExecutor(Schedulers.BIZ, biz));
+        if (Schedulers.isVirtualThreadSupported()) {
+            this.addScheduler(Schedulers.virtual());
+        } else {
+            if (Schedulers.VIRTUAL.equals(options.getScheduling().getDefaultScheduler())) {
+                LoggerUtils.logger().warn("Virtual thread is unsupported in current JDK({}), " +
+                                "default scheduler '{}' will fall back to '{}'",
+                        System.getProperty("java.version"), Schedulers.VIRTUAL, Schedulers.BIZ);
+            }
+            // degrade to biz scheduler so that the routes scheduled by VIRTUAL could still work
+            ctx().mutableSchedulers().putIfAbsent(Schedulers.VIRTUAL, ctx().schedulers().get(Schedulers.BIZ));
+        }
     }
 
     protected ServerDeployContext<O> newContext(O options) {
@@ -141,7 +166,7 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
                 route = Route.route(route)
                         .schedule(ctx().schedulers().get(Schedulers.BIZ));
             }
-        } else if (Schedulers.isBiz(route.scheduler())) {
+        } else if (Schedulers.isBiz(route.scheduler()) && !Schedulers.isBulkhead(route.scheduler())) {
             route = Route.route(route)
                     .schedule(ctx().schedulers().get(Schedulers.BIZ));
         }
@@ -220,9 +245,21 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
             }
         }
 
-        // config by timeout options
+        // config by shedding options and timeout options
+        QueueSheddingOptions sheddingOptions = ctx().options().getScheduling().getShedding().get(scheduler.name());
         TimeoutOptions timeoutOptions = ctx().options().getScheduling().getTimeout().get(scheduler.name());
-        return Schedulers.wrapped(scheduler, timeoutOptions);
+        // shed requests are handled and counted as the rejected ones
+        return Schedulers.wrapped(Schedulers.shedding(scheduler, sheddingOptions, this::handleShed),
+                timeoutOptions);
+    }
+
+    private void handleShed(RequestTask task, String reason) {
+        final Optional<DispatcherHandler> h = ctx().dispatcherHandler();
+        if (h.isPresent()) {
+            h.get().handleRejectedWork(task, reason);
+        } else {
+            Schedulers.rejectShed(task, reason);
+        }
     }
 
     public ServerDeployContext<O> deployContext() {
@@ -305,6 +342,9 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
     }
 
     private RouteRegistry getRouteRegistry() {
+        if (ctx.options().getRoute().isUseTrieRouting()) {
+            return new TrieRouteRegistry();
+        }
         if (ctx.options().getRoute().isUseCachedRouting() && routes.size() >= 10) {
             return new CachedRouteRegistry(
                     ctx.options().getRoute().getComputeRate());
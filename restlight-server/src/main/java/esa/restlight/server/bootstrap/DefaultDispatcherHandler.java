@@ -21,6 +21,9 @@ import esa.commons.logging.Logger;
 import esa.commons.logging.LoggerFactory;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.metrics.ExecutionTimings;
+import esa.restlight.server.metrics.RouteMetrics;
+import esa.restlight.server.metrics.RouteMetricsRegistry;
 import esa.restlight.server.route.CompletionHandler;
 import esa.restlight.server.route.ExceptionHandler;
 import esa.restlight.server.route.ReadOnlyRouteRegistry;
@@ -34,6 +37,7 @@ import esa.restlight.server.util.PromiseUtils;
 import io.netty.handler.codec.http.HttpResponseStatus;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.LongAdder;
 
@@ -47,15 +51,31 @@ public class DefaultDispatcherHandler implements DispatcherHandler {
             LoggerFactory.getLogger(DefaultDispatcherHandler.class);
     private final ReadOnlyRouteRegistry registry;
     private final List<DispatcherExceptionHandler> dispatcherExceptionHandlers;
+    private final RouteMetricsRegistry metrics;
 
     private final LongAdder rejectCount = new LongAdder();
 
     public DefaultDispatcherHandler(ReadOnlyRouteRegistry registry,
                                     List<DispatcherExceptionHandler> dispatcherExceptionHandlers) {
+        this(registry, dispatcherExceptionHandlers, null);
+    }
+
+    /**
+     * Creates a {@link DefaultDispatcherHandler} which records the metrics of each route into the given {@link
+     * RouteMetricsRegistry} if it is not {@code null}.
+     *
+     * @param registry                    route registry
+     * @param dispatcherExceptionHandlers exception handlers
+     * @param metrics                     metrics registry
+     */
+    public DefaultDispatcherHandler(ReadOnlyRouteRegistry registry,
+                                    List<DispatcherExceptionHandler> dispatcherExceptionHandlers,
+                                    RouteMetricsRegistry metrics) {
         Checks.checkNotNull(registry, "registry");
         Checks.checkNotEmptyState(dispatcherExceptionHandlers, "dispatcherExceptionHandlers");
         this.registry = registry;
         this.dispatcherExceptionHandlers = dispatcherExceptionHandlers;
+        this.metrics = metrics;
     }
 
     @Override
@@ -74,12 +94,22 @@ public class DefaultDispatcherHandler implements DispatcherHandler {
                         AsyncResponse response,
                         CompletableFuture<Void> promise,
                         Route route) {
+        service(request, response, promise, route, -1L);
+    }
+
+    @Override
+    public void service(AsyncRequest request,
+                        AsyncResponse response,
+                        CompletableFuture<Void> promise,
+                        Route route,
+                        long queuedNanos) {
+        final Timing timing = metrics == null ? null : new Timing(metrics.metrics(route), queuedNanos);
 
         final RouteExecution execution;
         try {
             execution = route.toExecution(request);
         } catch (Throwable t) {
-            cleanUp(request, response, promise, t, null);
+            cleanUp(request, response, promise, t, null, timing);
             return;
         }
 
@@ -94,19 +124,20 @@ public class DefaultDispatcherHandler implements DispatcherHandler {
                                 exHandler.handleException(request, response, ex)
                                         .whenComplete((voidRet, err) ->
                                                 cleanUp(request, response, promise,
-                                                        Futures.unwrapCompletionException(err), execution));
+                                                        Futures.unwrapCompletionException(err), execution,
+                                                        timing));
                             } catch (Throwable e) {
-                                cleanUp(request, response, promise, e, execution);
+                                cleanUp(request, response, promise, e, execution, timing);
                             }
                         } else {
-                            cleanUp(request, response, promise, ex, execution);
+                            cleanUp(request, response, promise, ex, execution, timing);
                         }
                     });
 
         } catch (Throwable throwable) {
             logger.error("Unexpected error occurred in asynchronous execution.", throwable);
             // error while invoking route or apply postHandle()
-            cleanUp(request, response, promise, throwable, execution);
+            cleanUp(request, response, promise, throwable, execution, timing);
         }
     }
 
@@ -114,7 +145,8 @@ public class DefaultDispatcherHandler implements DispatcherHandler {
                          AsyncResponse response,
                          CompletableFuture<Void> promise,
                          Throwable dispatchException,
-                         RouteExecution execution) {
+                         RouteExecution execution,
+                         Timing timing) {
         //clean up response.
         if (!response.isCommitted()) {
             if (dispatchException != null) {
@@ -144,6 +176,10 @@ public class DefaultDispatcherHandler implements DispatcherHandler {
                     request.path(), request.method(), dispatchException);
         }
 
+        if (timing != null) {
+            timing.record(dispatchException != null || response.status() >= 500, execution);
+        }
+
         if (execution == null) {
             completeRequest(request, response, promise);
             return;
@@ -220,4 +256,29 @@ public class DefaultDispatcherHandler implements DispatcherHandler {
     public long rejectCount() {
         return this.rejectCount.sum();
     }
+
+    @Override
+    public Optional<RouteMetricsRegistry> metrics() {
+        return Optional.ofNullable(metrics);
+    }
+
+    private static final class Timing {
+
+        private final RouteMetrics metrics;
+        private final long queuedNanos;
+        private final long start;
+
+        private Timing(RouteMetrics metrics, long queuedNanos) {
+            this.metrics = metrics;
+            this.queuedNanos = queuedNanos;
+            this.start = System.nanoTime() - Math.max(0L, queuedNanos);
+        }
+
+        private void record(boolean error, RouteExecution execution) {
+            metrics.record(System.nanoTime() - start,
+                    queuedNanos,
+                    error,
+                    execution instanceof ExecutionTimings ? (ExecutionTimings) execution : null);
+        }
+    }
 }
@@ -18,10 +18,13 @@ package esa.restlight.server.bootstrap;
 import esa.commons.annotation.Internal;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.ServerOptions;
+import esa.restlight.server.metrics.RouteMetricsRegistry;
 import esa.restlight.server.route.Route;
 import esa.restlight.server.schedule.RequestTask;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -64,6 +67,23 @@ public interface DispatcherHandler {
                  CompletableFuture<Void> promise,
                  Route route);
 
+    /**
+     * process for request which has been waiting for the given time since it was scheduled.
+     *
+     * @param request     request
+     * @param response    response
+     * @param promise     promise
+     * @param route       route
+     * @param queuedNanos time of waiting to be executed by the {@link Route#scheduler()}
+     */
+    default void service(AsyncRequest request,
+                         AsyncResponse response,
+                         CompletableFuture<Void> promise,
+                         Route route,
+                         long queuedNanos) {
+        service(request, response, promise, route);
+    }
+
     /**
      * Handle the biz task rejected.
      *
@@ -93,4 +113,14 @@ public interface DispatcherHandler {
      */
     long rejectCount();
 
+    /**
+     * Gets the metrics of the routes, which is present only if the {@link ServerOptions#isMetricsEnable()} is
+     * {@code true}.
+     *
+     * @return metrics registry
+     */
+    default Optional<RouteMetricsRegistry> metrics() {
+        return Optional.empty();
+    }
+
 }
@@ -17,12 +17,15 @@ package esa.restlight.server.bootstrap;
 
 import esa.commons.Checks;
 import esa.commons.NetworkUtils;
+import esa.commons.http.HttpVersion;
 import esa.httpserver.H2OptionsConfigure;
 import esa.httpserver.HttpServer;
 import esa.httpserver.ServerOptionsConfigure;
 import esa.httpserver.SslOptionsConfigure;
+import esa.httpserver.core.Request;
 import esa.httpserver.impl.AsyncRequestImpl;
 import esa.httpserver.impl.AsyncResponseImpl;
+import esa.httpserver.impl.StreamingBodyImpl;
 import esa.restlight.core.util.ResourceUtils;
 import esa.restlight.core.util.RestlightVer;
 import esa.restlight.server.config.ServerOptions;
@@ -32,13 +35,19 @@ import esa.restlight.server.schedule.ExecutorScheduler;
 import esa.restlight.server.schedule.Schedulers;
 import esa.restlight.server.util.LoggerUtils;
 import esa.restlight.server.util.PromiseUtils;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelOption;
+import io.netty.util.concurrent.FastThreadLocal;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -157,6 +166,8 @@ public class NettyRestlightServer implements RestlightServer {
                 .stream()
                 .filter(Schedulers::isBiz)
                 .findAny()
+                // the biz scheduler kept by the handler may be one of the bulkheads wrapping it
+                .map(Schedulers::unwrap)
                 .map(scheduler -> {
                     if (scheduler instanceof ExecutorScheduler) {
                         return ((ExecutorScheduler) scheduler).executor();
@@ -201,7 +212,8 @@ public class NettyRestlightServer implements RestlightServer {
                 .channelHandlers(channelHandlers)
                 .options(channelOptions)
                 .childOptions(childChannelOptions)
-                // TODO: export metrics
+                // metrics of the requests are recorded per route by the RouteMetricsRegistry instead of the connection
+                // level metrics of the http server
                 .metricsEnabled(false);
 
         //configuration for http or https
@@ -226,20 +238,101 @@ public class NettyRestlightServer implements RestlightServer {
             configure.ssl(ssl0.configured());
         }
 
-        return HttpServer.create(configure.configured())
+        final ChannelTracker tracker = options.isStreamingBodyEnable() ? new ChannelTracker() : null;
+        if (tracker != null) {
+            // the request does not expose its channel, so track the channel which is dispatching the request for
+            // pausing and resuming the reading of the streaming body.
+            final List<ChannelHandler> handlers = new ArrayList<>();
+            handlers.add(tracker);
+            if (channelHandlers != null) {
+                handlers.addAll(channelHandlers);
+            }
+            configure.channelHandlers(handlers);
+        }
+        final HttpServer server = HttpServer.create(configure.configured())
                 .onConnected(handler::onConnected)
-                .onClose(handler::shutdown)
-                .handle(req -> req.aggregate(true)
+                .onClose(handler::shutdown);
+
+        if (tracker != null) {
+            return server.handle(req -> {
+                // dispatch the request once the headers have been received, and the body will be pushed to the
+                // StreamingBody chunk by chunk.
+                final StreamingBodyImpl body = new StreamingBodyImpl(req.alloc(), channelOf(tracker, req));
+                final CompletableFuture<Void> processed = new CompletableFuture<>();
+                // the body is useless once the request has been processed, which should be released even if it has
+                // never been subscribed, such as the requests which are rejected by the filters or not found.
+                processed.whenComplete((r, t) -> body.release());
+                req.onData(body::onData)
+                        .onTrailer(body::onTrailer)
+                        .onError(body::onError)
                         .onEnd(promise -> {
-                            handler.process(new AsyncRequestImpl(req), new AsyncResponseImpl(req.response()))
-                                    .whenComplete((r, t) -> {
-                                        if (t == null) {
-                                            PromiseUtils.setSuccess(promise);
-                                        } else {
-                                            PromiseUtils.setFailure(promise, t);
-                                        }
-                                    });
+                            body.onEnd();
+                            processed.whenComplete((r, t) -> {
+                                if (t == null) {
+                                    PromiseUtils.setSuccess(promise);
+                                } else {
+                                    PromiseUtils.setFailure(promise, t);
+                                }
+                            });
                             return promise;
-                        }));
+                        });
+
+                handler.process(new AsyncRequestImpl(req, body), new AsyncResponseImpl(req.response()))
+                        .whenComplete((r, t) -> {
+                            if (t == null) {
+                                processed.complete(null);
+                            } else {
+                                processed.completeExceptionally(t);
+                            }
+                        });
+            });
+        }
+
+        return server.handle(req -> req.aggregate(true)
+                .onEnd(promise -> {
+                    handler.process(new AsyncRequestImpl(req), new AsyncResponseImpl(req.response()))
+                            .whenComplete((r, t) -> {
+                                if (t == null) {
+                                    PromiseUtils.setSuccess(promise);
+                                } else {
+                                    PromiseUtils.setFailure(promise, t);
+                                }
+                            });
+                    return promise;
+                }));
+    }
+
+    private static Channel channelOf(ChannelTracker tracker, Request req) {
+        // an HTTP/2 connection is shared by multiple requests which should not be paused by one of them
+        if (req.version() != HttpVersion.HTTP_1_1 && req.version() != HttpVersion.HTTP_1_0) {
+            return null;
+        }
+        return tracker.current();
+    }
+
+    /**
+     * Tracks the {@link Channel} which is reading in current io thread. Requests are dispatched synchronously while
+     * reading from the channel, so that the channel of a request could be got by {@link #current()} when it is being
+     * dispatched.
+     */
+    @ChannelHandler.Sharable
+    private static final class ChannelTracker extends ChannelInboundHandlerAdapter {
+
+        private final FastThreadLocal<Channel> current = new FastThreadLocal<>();
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            final Channel prev = current.get();
+            current.set(ctx.channel());
+            try {
+                ctx.fireChannelRead(msg);
+            } finally {
+                current.set(prev);
+            }
+        }
+
+        private Channel current() {
+            return current.get();
+        }
     }
 }
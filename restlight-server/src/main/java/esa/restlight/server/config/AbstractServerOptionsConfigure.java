@@ -33,6 +33,7 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
     private boolean compress;
     private boolean decompress;
     private int maxContentLength = 4 * 1024 * 1024;
+    private boolean streamingBodyEnable;
     private int maxInitialLineLength = 4096;
     private int maxHeaderSize = 8192;
     private int soBacklog = 128;
@@ -40,6 +41,7 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
     private int writeBufferLowWaterMark = -1;
     private int idleTimeSeconds = 60;
     private boolean keepAliveEnable = true;
+    private boolean metricsEnable;
     private LogLevel logging;
     private SslOptions ssl =
             SslOptionsConfigure.defaultOpts();
@@ -143,6 +145,11 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
         return self();
     }
 
+    public C streamingBodyEnable(boolean streamingBodyEnable) {
+        this.streamingBodyEnable = streamingBodyEnable;
+        return self();
+    }
+
     public C maxInitialLineLength(int maxInitialLineLength) {
         this.maxInitialLineLength = maxInitialLineLength;
         return self();
@@ -178,6 +185,11 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
         return self();
     }
 
+    public C metricsEnable(boolean metricsEnable) {
+        this.metricsEnable = metricsEnable;
+        return self();
+    }
+
     public C logging(LogLevel logging) {
         this.logging = logging;
         return self();
@@ -221,6 +233,7 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
         options.setCompress(compress);
         options.setDecompress(decompress);
         options.setMaxContentLength(maxContentLength);
+        options.setStreamingBodyEnable(streamingBodyEnable);
         options.setMaxInitialLineLength(maxInitialLineLength);
         options.setMaxHeaderSize(maxHeaderSize);
         options.setSoBacklog(soBacklog);
@@ -228,6 +241,7 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
         options.setWriteBufferLowWaterMark(writeBufferLowWaterMark);
         options.setIdleTimeSeconds(idleTimeSeconds);
         options.setKeepAliveEnable(keepAliveEnable);
+        options.setMetricsEnable(metricsEnable);
         options.setLogging(logging);
         options.setSsl(ssl);
         options.setScheduling(scheduling);
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.io.Serializable;
+
+/**
+ * Options of the request level admission control, which rejects the requests before they are scheduled while the
+ * server is overloaded.
+ * <p>
+ * The server is regarded as overloaded if any of the cpu load, the queue usage of the biz schedulers and the lag of
+ * the event loops exceeds its threshold, and then a growing part of the requests will be rejected, the requests of the
+ * routes with lower {@link esa.restlight.server.route.Mapping#priority()} will be rejected first.
+ * <p>
+ * Note that the requests are rejected before their bodies have been received only if {@link
+ * ServerOptions#isStreamingBodyEnable()} is {@code true}, in which case the bodies of the rejected requests will be
+ * discarded, otherwise the requests are dispatched and rejected after their bodies have been aggregated.
+ */
+public class AdmissionOptions implements Serializable {
+
+    private static final long serialVersionUID = 2446734628542196379L;
+
+    private boolean enable;
+
+    /**
+     * Threshold of the system cpu load in percent, a value which is less than or equal to 0 means that the cpu load
+     * will not be considered.
+     */
+    private double cpuLoadThreshold = 80.0D;
+
+    /**
+     * Threshold of the queue usage of the biz schedulers in percent, a value which is less than or equal to 0 means
+     * that the queue usage will not be considered.
+     */
+    private double queueThreshold = 50.0D;
+
+    /**
+     * Threshold of the lag of the event loops, a value which is less than or equal to 0 means that the lag will not be
+     * considered.
+     */
+    private long eventLoopLagMillis = 50L;
+
+    /**
+     * Interval of sampling the load and probing the event loops.
+     */
+    private long intervalMillis = 100L;
+
+    /**
+     * Maximum rejection rate in percent of the requests with the highest priority.
+     */
+    private double maxRejectRate = 95.0D;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public double getCpuLoadThreshold() {
+        return cpuLoadThreshold;
+    }
+
+    public void setCpuLoadThreshold(double cpuLoadThreshold) {
+        this.cpuLoadThreshold = cpuLoadThreshold;
+    }
+
+    public double getQueueThreshold() {
+        return queueThreshold;
+    }
+
+    public void setQueueThreshold(double queueThreshold) {
+        this.queueThreshold = queueThreshold;
+    }
+
+    public long getEventLoopLagMillis() {
+        return eventLoopLagMillis;
+    }
+
+    public void setEventLoopLagMillis(long eventLoopLagMillis) {
+        this.eventLoopLagMillis = eventLoopLagMillis;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    public double getMaxRejectRate() {
+        return maxRejectRate;
+    }
+
+    public void setMaxRejectRate(double maxRejectRate) {
+        this.maxRejectRate = maxRejectRate;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AdmissionOptions{");
+        sb.append("enable=").append(enable);
+        sb.append(", cpuLoadThreshold=").append(cpuLoadThreshold);
+        sb.append(", queueThreshold=").append(queueThreshold);
+        sb.append(", eventLoopLagMillis=").append(eventLoopLagMillis);
+        sb.append(", intervalMillis=").append(intervalMillis);
+        sb.append(", maxRejectRate=").append(maxRejectRate);
+        sb.append('}');
+        return sb.toString();
+    }
+}
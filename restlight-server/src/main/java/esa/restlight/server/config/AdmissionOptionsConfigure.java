@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+public final class AdmissionOptionsConfigure {
+
+    private boolean enable;
+    private double cpuLoadThreshold = 80.0D;
+    private double queueThreshold = 50.0D;
+    private long eventLoopLagMillis = 50L;
+    private long intervalMillis = 100L;
+    private double maxRejectRate = 95.0D;
+
+    private AdmissionOptionsConfigure() {
+    }
+
+    public static AdmissionOptionsConfigure newOpts() {
+        return new AdmissionOptionsConfigure();
+    }
+
+    public static AdmissionOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public AdmissionOptionsConfigure enable(boolean enable) {
+        this.enable = enable;
+        return this;
+    }
+
+    public AdmissionOptionsConfigure cpuLoadThreshold(double cpuLoadThreshold) {
+        this.cpuLoadThreshold = cpuLoadThreshold;
+        return this;
+    }
+
+    public AdmissionOptionsConfigure queueThreshold(double queueThreshold) {
+        this.queueThreshold = queueThreshold;
+        return this;
+    }
+
+    public AdmissionOptionsConfigure eventLoopLagMillis(long eventLoopLagMillis) {
+        this.eventLoopLagMillis = eventLoopLagMillis;
+        return this;
+    }
+
+    public AdmissionOptionsConfigure intervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        return this;
+    }
+
+    public AdmissionOptionsConfigure maxRejectRate(double maxRejectRate) {
+        this.maxRejectRate = maxRejectRate;
+        return this;
+    }
+
+    public AdmissionOptions configured() {
+        AdmissionOptions admissionOptions = new AdmissionOptions();
+        admissionOptions.setEnable(enable);
+        admissionOptions.setCpuLoadThreshold(cpuLoadThreshold);
+        admissionOptions.setQueueThreshold(queueThreshold);
+        admissionOptions.setEventLoopLagMillis(eventLoopLagMillis);
+        admissionOptions.setIntervalMillis(intervalMillis);
+        admissionOptions.setMaxRejectRate(maxRejectRate);
+        return admissionOptions;
+    }
+}
@@ -45,6 +45,17 @@ public class BizThreadsOptions implements Serializable {
      */
     private long keepAliveTimeSeconds = 180L;
 
+    /**
+     * use {@link esa.restlight.server.schedule.AdaptiveThreadPoolExecutor} which adapts the core thread count between
+     * core and max by the queue waiting time.
+     */
+    private boolean adaptive;
+
+    /**
+     * target queue waiting time of the adaptive biz thread pool
+     */
+    private long targetQueueWaitMillis = 20L;
+
     public int getCore() {
         return core;
     }
@@ -77,6 +88,22 @@ public class BizThreadsOptions implements Serializable {
         this.keepAliveTimeSeconds = keepAliveTimeSeconds;
     }
 
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    public long getTargetQueueWaitMillis() {
+        return targetQueueWaitMillis;
+    }
+
+    public void setTargetQueueWaitMillis(long targetQueueWaitMillis) {
+        this.targetQueueWaitMillis = targetQueueWaitMillis;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("BizThreadsOptions{");
@@ -84,6 +111,8 @@ public class BizThreadsOptions implements Serializable {
         sb.append(", max=").append(max);
         sb.append(", blockingQueueLength=").append(blockingQueueLength);
         sb.append(", keepAliveTimeSeconds=").append(keepAliveTimeSeconds);
+        sb.append(", adaptive=").append(adaptive);
+        sb.append(", targetQueueWaitMillis=").append(targetQueueWaitMillis);
         sb.append('}');
         return sb.toString();
     }
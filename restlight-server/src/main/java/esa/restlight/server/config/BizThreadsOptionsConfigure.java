@@ -29,6 +29,10 @@ public class BizThreadsOptionsConfigure {
 
     private long keepAliveTimeSeconds = 180L;
 
+    private boolean adaptive;
+
+    private long targetQueueWaitMillis = 20L;
+
     private BizThreadsOptionsConfigure() {
     }
 
@@ -60,12 +64,24 @@ public class BizThreadsOptionsConfigure {
         return this;
     }
 
+    public BizThreadsOptionsConfigure adaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+        return this;
+    }
+
+    public BizThreadsOptionsConfigure targetQueueWaitMillis(long targetQueueWaitMillis) {
+        this.targetQueueWaitMillis = targetQueueWaitMillis;
+        return this;
+    }
+
     public BizThreadsOptions configured() {
         BizThreadsOptions bizThreadsOptions = new BizThreadsOptions();
         bizThreadsOptions.setCore(core);
         bizThreadsOptions.setMax(max);
         bizThreadsOptions.setBlockingQueueLength(blockingQueueLength);
         bizThreadsOptions.setKeepAliveTimeSeconds(keepAliveTimeSeconds);
+        bizThreadsOptions.setAdaptive(adaptive);
+        bizThreadsOptions.setTargetQueueWaitMillis(targetQueueWaitMillis);
         return bizThreadsOptions;
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.io.Serializable;
+
+/**
+ * Options of the load shedding by the queueing time of the requests, which is a variant of CoDel (Controlled Delay).
+ * <p>
+ * If the minimum queueing time of the requests in last interval exceeds the {@link #getTargetMillis()}, which means
+ * that the queue has not been drained during the whole {@link #getIntervalMillis()} and the scheduler is overloaded,
+ * the requests will be rejected once they have been queued for longer than {@link #getTargetMillis()}. Requests are
+ * never rejected while the scheduler is not overloaded, no matter how long they have been queued.
+ */
+public class QueueSheddingOptions implements Serializable {
+
+    private static final long serialVersionUID = -3585372216541617416L;
+
+    private long targetMillis = 5L;
+    private long intervalMillis = 100L;
+
+    public long getTargetMillis() {
+        return targetMillis;
+    }
+
+    public void setTargetMillis(long targetMillis) {
+        this.targetMillis = targetMillis;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("QueueSheddingOptions{");
+        sb.append("targetMillis=").append(targetMillis);
+        sb.append(", intervalMillis=").append(intervalMillis);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+public final class QueueSheddingOptionsConfigure {
+
+    private long targetMillis = 5L;
+    private long intervalMillis = 100L;
+
+    private QueueSheddingOptionsConfigure() {
+    }
+
+    public static QueueSheddingOptionsConfigure newOpts() {
+        return new QueueSheddingOptionsConfigure();
+    }
+
+    public static QueueSheddingOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public QueueSheddingOptionsConfigure targetMillis(long targetMillis) {
+        this.targetMillis = targetMillis;
+        return this;
+    }
+
+    public QueueSheddingOptionsConfigure intervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        return this;
+    }
+
+    public QueueSheddingOptions configured() {
+        QueueSheddingOptions queueSheddingOptions = new QueueSheddingOptions();
+        queueSheddingOptions.setTargetMillis(targetMillis);
+        queueSheddingOptions.setIntervalMillis(intervalMillis);
+        return queueSheddingOptions;
+    }
+}
@@ -23,6 +23,12 @@ public class RouteOptions implements Serializable {
 
     private boolean useCachedRouting = true;
 
+    /**
+     * use {@link esa.restlight.server.route.impl.TrieRouteRegistry} which matches only the routes whose path patterns
+     * may match the request path instead of scanning all the routes
+     */
+    private boolean useTrieRouting;
+
     /**
      * cache ratio in {@link esa.restlight.server.route.impl.CachedRouteRegistry}
      * @deprecated unused
@@ -43,6 +49,14 @@ public class RouteOptions implements Serializable {
         this.useCachedRouting = useCachedRouting;
     }
 
+    public boolean isUseTrieRouting() {
+        return useTrieRouting;
+    }
+
+    public void setUseTrieRouting(boolean useTrieRouting) {
+        this.useTrieRouting = useTrieRouting;
+    }
+
     @Deprecated
     public int getCacheRatio() {
         return cacheRatio;
@@ -66,6 +80,7 @@ public class RouteOptions implements Serializable {
     public String toString() {
         final StringBuilder sb = new StringBuilder("RouteOptions{");
         sb.append("useCachedRouting=").append(useCachedRouting);
+        sb.append(", useTrieRouting=").append(useTrieRouting);
         sb.append(", cacheRatio=").append(cacheRatio);
         sb.append(", computeRate=").append(computeRate);
         sb.append('}');
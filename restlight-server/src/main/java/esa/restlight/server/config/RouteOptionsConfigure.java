@@ -17,6 +17,7 @@ package esa.restlight.server.config;
 
 public final class RouteOptionsConfigure {
     private boolean useCachedRouting = true;
+    private boolean useTrieRouting;
     private int cacheRatio = 10;
     private int computeRate = 1;
 
@@ -36,6 +37,11 @@ public final class RouteOptionsConfigure {
         return this;
     }
 
+    public RouteOptionsConfigure useTrieRouting(boolean useTrieRouting) {
+        this.useTrieRouting = useTrieRouting;
+        return this;
+    }
+
     @Deprecated
     public RouteOptionsConfigure cacheRatio(int cacheRatio) {
         this.cacheRatio = cacheRatio;
@@ -50,6 +56,7 @@ public final class RouteOptionsConfigure {
     public RouteOptions configured() {
         RouteOptions routeOptions = new RouteOptions();
         routeOptions.setUseCachedRouting(useCachedRouting);
+        routeOptions.setUseTrieRouting(useTrieRouting);
         routeOptions.setCacheRatio(cacheRatio);
         routeOptions.setComputeRate(computeRate);
         return routeOptions;
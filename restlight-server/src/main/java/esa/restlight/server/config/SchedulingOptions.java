@@ -25,11 +25,25 @@ public class SchedulingOptions implements Serializable {
 
     private static final long serialVersionUID = -8316322079315860308L;
 
+    /**
+     * Default scheduler if controller's @Scheduled is missing, {@link Schedulers#VIRTUAL} will fall back to {@link
+     * Schedulers#BIZ} if virtual thread is unsupported in current JDK.
+     */
     private String defaultScheduler
             = Schedulers.BIZ;
 
     private Map<String, TimeoutOptions> timeout = new LinkedHashMap<>(1);
 
+    /**
+     * Load shedding options by the queueing time of the requests, keyed by the name of scheduler.
+     */
+    private Map<String, QueueSheddingOptions> shedding = new LinkedHashMap<>(1);
+
+    /**
+     * Request level admission control options.
+     */
+    private AdmissionOptions admission = new AdmissionOptions();
+
     public String getDefaultScheduler() {
         return defaultScheduler;
     }
@@ -46,11 +60,29 @@ public class SchedulingOptions implements Serializable {
         this.timeout = timeout;
     }
 
+    public Map<String, QueueSheddingOptions> getShedding() {
+        return shedding;
+    }
+
+    public void setShedding(Map<String, QueueSheddingOptions> shedding) {
+        this.shedding = shedding;
+    }
+
+    public AdmissionOptions getAdmission() {
+        return admission;
+    }
+
+    public void setAdmission(AdmissionOptions admission) {
+        this.admission = admission;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("SchedulingOptions{");
         sb.append("defaultScheduler='").append(defaultScheduler).append('\'');
         sb.append(", timeout=").append(timeout);
+        sb.append(", shedding=").append(shedding);
+        sb.append(", admission=").append(admission);
         sb.append('}');
         return sb.toString();
     }
@@ -27,6 +27,10 @@ public final class SchedulingOptionsConfigure {
 
     private Map<String, TimeoutOptions> timeout = new LinkedHashMap<>(1);
 
+    private Map<String, QueueSheddingOptions> shedding = new LinkedHashMap<>(1);
+
+    private AdmissionOptions admission = new AdmissionOptions();
+
     private SchedulingOptionsConfigure() {
     }
 
@@ -48,10 +52,22 @@ public final class SchedulingOptionsConfigure {
         return this;
     }
 
+    public SchedulingOptionsConfigure shedding(Map<String, QueueSheddingOptions> shedding) {
+        this.shedding = shedding;
+        return this;
+    }
+
+    public SchedulingOptionsConfigure admission(AdmissionOptions admission) {
+        this.admission = admission;
+        return this;
+    }
+
     public SchedulingOptions configured() {
         SchedulingOptions schedulingOptions = new SchedulingOptions();
         schedulingOptions.setDefaultScheduler(defaultScheduler);
         schedulingOptions.setTimeout(timeout);
+        schedulingOptions.setShedding(shedding);
+        schedulingOptions.setAdmission(admission);
         return schedulingOptions;
     }
 }
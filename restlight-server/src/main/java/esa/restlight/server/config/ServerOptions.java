@@ -64,6 +64,16 @@ public class ServerOptions implements Serializable {
      */
     private int maxContentLength = 4 * 1024 * 1024;
 
+    /**
+     * Dispatch the request once the headers have been received instead of waiting for the whole body aggregated, and
+     * routes could consume the body as a stream. Note that filters are executed before routing, so the {@link
+     * esa.httpserver.core.AsyncRequest#byteBufBody()} will be empty in the filters of every route once this is enabled.
+     * The body of the routes which do not consume it as a stream will be aggregated after routing, so that it is
+     * available in the interceptors and handlers of those routes, but it will be empty in the interceptors of the
+     * routes which consume it as a stream.
+     */
+    private boolean streamingBodyEnable;
+
     /**
      * Max initial line length of http protocol.
      */
@@ -97,6 +107,11 @@ public class ServerOptions implements Serializable {
      */
     private boolean keepAliveEnable = true;
 
+    /**
+     * Whether to record the request rate, error rate and the latencies of each route.
+     */
+    private boolean metricsEnable;
+
     private LogLevel logging;
 
     /**
@@ -266,6 +281,14 @@ public class ServerOptions implements Serializable {
         this.maxContentLength = maxContentLength;
     }
 
+    public boolean isStreamingBodyEnable() {
+        return streamingBodyEnable;
+    }
+
+    public void setStreamingBodyEnable(boolean streamingBodyEnable) {
+        this.streamingBodyEnable = streamingBodyEnable;
+    }
+
     public int getMaxInitialLineLength() {
         return maxInitialLineLength;
     }
@@ -322,6 +345,14 @@ public class ServerOptions implements Serializable {
         this.keepAliveEnable = keepAliveEnable;
     }
 
+    public boolean isMetricsEnable() {
+        return metricsEnable;
+    }
+
+    public void setMetricsEnable(boolean metricsEnable) {
+        this.metricsEnable = metricsEnable;
+    }
+
     public LogLevel getLogging() {
         return logging;
     }
@@ -45,6 +45,9 @@ public interface Filter extends Ordered {
      * ignore it to protect the process of current request.
      * <p>
      * IMPORTANT: never block current thread please, cause that will effect the performance.
+     * <p>
+     * Note that the {@link AsyncRequest#byteBufBody()} is empty if the request is dispatched before its body has been
+     * received, see {@link AsyncRequest#bodyStream()}.
      *
      * @param request  request
      * @param response response
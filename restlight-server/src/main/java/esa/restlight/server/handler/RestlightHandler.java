@@ -19,6 +19,7 @@ import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
 import esa.restlight.server.schedule.ExecutorScheduler;
 import esa.restlight.server.schedule.Scheduler;
+import esa.restlight.server.schedule.Schedulers;
 import io.netty.channel.ChannelHandlerContext;
 
 import java.util.List;
@@ -72,7 +73,7 @@ public interface RestlightHandler {
             return null;
         }
         for (int i = executors.size() - 1; i >= 0; i--) {
-            Scheduler scheduler = executors.get(i);
+            Scheduler scheduler = Schedulers.unwrap(executors.get(i));
             if (scheduler instanceof ExecutorScheduler) {
                 return ((ExecutorScheduler) scheduler).executor();
             }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.restlight.server.route.RouteExecution;
+
+/**
+ * A {@link RouteExecution} could implement this interface to expose the time spent in each phase of handling a
+ * request, which will be recorded into the {@link RouteMetrics} of the route after the request completes.
+ * <p>
+ * A negative value means that the phase was not reached, eg. the arguments could not be resolved.
+ */
+public interface ExecutionTimings {
+
+    /**
+     * Gets the time spent in resolving the arguments of the handler.
+     *
+     * @return nanoseconds
+     */
+    long resolveNanos();
+
+    /**
+     * Gets the time spent in the handler, including the time of waiting for the completion of an asynchronous
+     * result.
+     *
+     * @return nanoseconds
+     */
+    long handleNanos();
+
+    /**
+     * Gets the time spent in resolving the return value of the handler, which is mostly serialization.
+     *
+     * @return nanoseconds
+     */
+    long serializeNanos();
+}
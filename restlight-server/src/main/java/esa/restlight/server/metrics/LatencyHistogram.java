@@ -0,0 +1,373 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.commons.Checks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets just like the HdrHistogram: every power of 2 range is divided into {@code
+ * 2^precision} linear sub buckets, so that a percentile is reported with a relative error of at most {@code
+ * 1/2^precision}, while the memory used by a window is fixed whatever the range of the values, which is {@code
+ * (42 - precision) * 2^precision * 8} bytes(about 2.5 KB for a precision of 3 and 18 KB for 6). Values greater than
+ * 2^41 nanoseconds(about 36 minutes) will be counted in the last bucket.
+ * <p>
+ * The {@link #count()} and {@link #totalTime(TimeUnit)} are always accumulated since the histogram was created. The
+ * {@link #percentile(double, TimeUnit)} and {@link #max(TimeUnit)} are computed from a ring of windows if the histogram
+ * is created by {@link #LatencyHistogram(long, TimeUnit, int, int)}, values are recorded into the current window and
+ * the oldest one is dropped and becomes the current one every step, so that they only reflect the values recorded in
+ * the last {@code windows} steps instead of all the values since startup, which is just like the distribution
+ * statistic expiry of Micrometer. Windows are allocated when the first value is recorded into them, so that an idle
+ * histogram costs almost nothing.
+ * <p>
+ * Use {@link #snapshot()} to compute several percentiles from the same values instead of calling {@link
+ * #percentile(double, TimeUnit)} repeatedly, each call of which copies all the buckets.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Default precision, which means a relative error of at most 1/16.
+     */
+    public static final int DEFAULT_PRECISION = 4;
+    private static final int MAX_PRECISION = 8;
+    private static final int MAX_EXPONENT = 40;
+
+    private final int precision;
+    private final int buckets;
+    private final AtomicReferenceArray<Window> windows;
+    private final long stepNanos;
+    private final LongSupplier clock;
+    private final AtomicLong nextRotation;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private volatile int current;
+
+    /**
+     * Creates a histogram which accumulates all the recorded values since it was created with the {@link
+     * #DEFAULT_PRECISION}.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates a histogram which accumulates all the recorded values since it was created.
+     *
+     * @param precision number of the bits of the sub buckets, between 1 and 8
+     */
+    public LatencyHistogram(int precision) {
+        this(0L, TimeUnit.NANOSECONDS, 1, precision, System::nanoTime);
+    }
+
+    /**
+     * Creates a histogram whose percentiles and maximum are computed from the values recorded in last {@code
+     * windows} steps.
+     *
+     * @param step      duration of each window
+     * @param unit      unit of the step
+     * @param windows   number of the windows
+     * @param precision number of the bits of the sub buckets, between 1 and 8
+     */
+    public LatencyHistogram(long step, TimeUnit unit, int windows, int precision) {
+        this(step, unit, windows, precision, System::nanoTime);
+    }
+
+    LatencyHistogram(long step, TimeUnit unit, int windows, int precision, LongSupplier clock) {
+        Checks.checkArg(step >= 0L, "step must not be negative");
+        Checks.checkArg(windows > 0, "windows must be positive");
+        Checks.checkArg(precision > 0 && precision <= MAX_PRECISION, "precision must be between 1 and 8");
+        Checks.checkNotNull(unit, "unit");
+        Checks.checkNotNull(clock, "clock");
+        this.precision = precision;
+        this.buckets = bucketsOf(precision);
+        this.stepNanos = unit.toNanos(step);
+        this.clock = clock;
+        this.windows = new AtomicReferenceArray<>(windows);
+        this.nextRotation = new AtomicLong(clock.getAsLong() + stepNanos);
+    }
+
+    /**
+     * Records a value, negative value will be ignored.
+     *
+     * @param nanos value in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0L) {
+            return;
+        }
+        rotateIfNecessary();
+        currentWindow().record(indexOf(nanos, precision), nanos);
+        count.increment();
+        total.add(nanos);
+    }
+
+    /**
+     * Adds the values recorded in the given histogram(in its windows if it is windowed) to the current window of this
+     * histogram.
+     *
+     * @param other histogram to merge, which must have the same precision as this one
+     */
+    public void merge(LatencyHistogram other) {
+        Checks.checkNotNull(other, "other");
+        Checks.checkArg(other.precision == precision, "could not merge histograms with different precisions");
+        rotateIfNecessary();
+        final Window w = currentWindow();
+        for (int i = 0; i < other.windows.length(); i++) {
+            final Window o = other.windows.get(i);
+            if (o == null) {
+                continue;
+            }
+            for (int j = 0; j < buckets; j++) {
+                final long c = o.buckets.get(j);
+                if (c != 0L) {
+                    w.buckets.addAndGet(j, c);
+                }
+            }
+            w.updateMax(o.max.get());
+        }
+        count.add(other.count.sum());
+        total.add(other.total.sum());
+    }
+
+    /**
+     * Gets the number of the recorded values.
+     *
+     * @return count
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of the recorded values.
+     *
+     * @param unit unit
+     * @return total time
+     */
+    public double totalTime(TimeUnit unit) {
+        return (double) total.sum() / unit.toNanos(1L);
+    }
+
+    /**
+     * Gets the maximum of the recorded values in the windows.
+     *
+     * @param unit unit
+     * @return max
+     */
+    public double max(TimeUnit unit) {
+        rotateIfNecessary();
+        return (double) maxNanos() / unit.toNanos(1L);
+    }
+
+    /**
+     * Gets the value at the given percentile of the recorded values in the windows.
+     *
+     * @param percentile percentile between 0.0 and 1.0, such as 0.99
+     * @param unit       unit
+     * @return the value at the given percentile or {@code 0} if there's no value recorded
+     * @see #snapshot()
+     */
+    public double percentile(double percentile, TimeUnit unit) {
+        return snapshot().percentile(percentile, unit);
+    }
+
+    /**
+     * Takes a snapshot of the values recorded in the windows, which could be used to compute any number of
+     * percentiles without copying the buckets again.
+     *
+     * @return snapshot
+     */
+    public Snapshot snapshot() {
+        rotateIfNecessary();
+        final long[] snapshot = new long[buckets];
+        long n = 0L;
+        for (int i = 0; i < windows.length(); i++) {
+            final Window w = windows.get(i);
+            if (w == null) {
+                continue;
+            }
+            for (int j = 0; j < buckets; j++) {
+                final long c = w.buckets.get(j);
+                snapshot[j] += c;
+                n += c;
+            }
+        }
+        return new Snapshot(snapshot, n, maxNanos(), precision);
+    }
+
+    private Window currentWindow() {
+        final int c = current;
+        final Window w = windows.get(c);
+        if (w != null) {
+            return w;
+        }
+        final Window created = new Window(buckets);
+        return windows.compareAndSet(c, null, created) ? created : windows.get(c);
+    }
+
+    private long maxNanos() {
+        long max = 0L;
+        for (int i = 0; i < windows.length(); i++) {
+            final Window w = windows.get(i);
+            if (w != null) {
+                max = Math.max(max, w.max.get());
+            }
+        }
+        return max;
+    }
+
+    private void rotateIfNecessary() {
+        if (stepNanos == 0L) {
+            return;
+        }
+        final long now = clock.getAsLong();
+        final long next = nextRotation.get();
+        if (now - next < 0L) {
+            return;
+        }
+        final long steps = (now - next) / stepNanos + 1L;
+        if (!nextRotation.compareAndSet(next, next + steps * stepNanos)) {
+            // rotated by others
+            return;
+        }
+        // values recorded into the window which is being dropped concurrently maybe lost, which is acceptable
+        int c = current;
+        final int n = windows.length();
+        for (long i = 0L, m = Math.min(steps, n); i < m; i++) {
+            c = (c + 1) % n;
+            windows.set(c, null);
+        }
+        current = c;
+    }
+
+    static int bucketsOf(int precision) {
+        return (MAX_EXPONENT - precision + 2) << precision;
+    }
+
+    static int indexOf(long value, int precision) {
+        final int subBuckets = 1 << precision;
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return bucketsOf(precision) - 1;
+        }
+        final int shift = exponent - precision;
+        return ((shift + 1) << precision) + (int) (value >>> shift) - subBuckets;
+    }
+
+    static long highestValueOf(int index, int precision) {
+        final int subBuckets = 1 << precision;
+        if (index < subBuckets) {
+            return index;
+        }
+        final int shift = (index >>> precision) - 1;
+        final long lowest = (long) (subBuckets + (index & (subBuckets - 1))) << shift;
+        return lowest + (1L << shift) - 1L;
+    }
+
+    /**
+     * An immutable copy of the values recorded in the windows of a {@link LatencyHistogram}.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long n;
+        private final long max;
+        private final int precision;
+
+        private Snapshot(long[] counts, long n, long max, int precision) {
+            this.counts = counts;
+            this.n = n;
+            this.max = max;
+            this.precision = precision;
+        }
+
+        /**
+         * Gets the number of the values in the windows when this snapshot was taken.
+         *
+         * @return count
+         */
+        public long count() {
+            return n;
+        }
+
+        /**
+         * Gets the maximum of the values in the windows when this snapshot was taken.
+         *
+         * @param unit unit
+         * @return max
+         */
+        public double max(TimeUnit unit) {
+            return (double) max / unit.toNanos(1L);
+        }
+
+        /**
+         * Gets the value at the given percentile.
+         *
+         * @param percentile percentile between 0.0 and 1.0, such as 0.99
+         * @param unit       unit
+         * @return the value at the given percentile or {@code 0} if there's no value
+         */
+        public double percentile(double percentile, TimeUnit unit) {
+            if (n == 0L) {
+                return 0D;
+            }
+            final long rank = Math.max(1L, (long) Math.ceil(Math.min(1D, Math.max(0D, percentile)) * n));
+            long seen = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return (double) Math.min(highestValueOf(i, precision), max) / unit.toNanos(1L);
+                }
+            }
+            return (double) max / unit.toNanos(1L);
+        }
+    }
+
+    private static final class Window {
+
+        private final AtomicLongArray buckets;
+        private final AtomicLong max = new AtomicLong();
+
+        private Window(int buckets) {
+            this.buckets = new AtomicLongArray(buckets);
+        }
+
+        private void record(int index, long nanos) {
+            buckets.incrementAndGet(index);
+            updateMax(nanos);
+        }
+
+        private void updateMax(long nanos) {
+            long m;
+            while (nanos > (m = max.get())) {
+                if (max.compareAndSet(m, nanos)) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the routes sharing the same http methods and path templates, such as {@code GET /foo/{id}}, which
+ * includes the number of requests and errors(RED) and the latencies of each phase.
+ * <p>
+ * Percentiles and maximum of the latencies only reflect the requests completed in last 2 minutes(3 windows of 40
+ * seconds, which is the same as the default distribution statistic expiry of Micrometer), while the number of the
+ * requests and the total time are accumulated since startup. Latencies are counted with a relative error of at most
+ * 1/8 to keep the footprint of an active route around 37 KB, and the windows of an idle route are released.
+ */
+public final class RouteMetrics {
+
+    private static final long STEP_SECONDS = 40L;
+    private static final int WINDOWS = 3;
+    private static final int PRECISION = 3;
+
+    private final String method;
+    private final String uri;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = newHistogram();
+    private final LatencyHistogram queueWait = newHistogram();
+    private final LatencyHistogram resolve = newHistogram();
+    private final LatencyHistogram handle = newHistogram();
+    private final LatencyHistogram serialize = newHistogram();
+
+    RouteMetrics(String method, String uri) {
+        this.method = method;
+        this.uri = uri;
+    }
+
+    private static LatencyHistogram newHistogram() {
+        return new LatencyHistogram(STEP_SECONDS, TimeUnit.SECONDS, WINDOWS, PRECISION);
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @param latencyNanos   time between the request was received and the response was completed
+     * @param queueWaitNanos time between the request was scheduled and started to run, negative if unknown
+     * @param error          whether the request ended with an error
+     * @param timings        timings of the execution, maybe {@code null}
+     */
+    public void record(long latencyNanos, long queueWaitNanos, boolean error, ExecutionTimings timings) {
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        latency.record(latencyNanos);
+        queueWait.record(queueWaitNanos);
+        if (timings != null) {
+            resolve.record(timings.resolveNanos());
+            handle.record(timings.handleNanos());
+            serialize.record(timings.serializeNanos());
+        }
+    }
+
+    /**
+     * Http methods of the route, such as {@code GET} or {@code GET,POST}, or {@code ALL} if the route matches any
+     * method.
+     *
+     * @return method
+     */
+    public String method() {
+        return method;
+    }
+
+    /**
+     * Path templates of the route, such as {@code /foo/{id}}.
+     *
+     * @return uri
+     */
+    public String uri() {
+        return uri;
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    public LatencyHistogram queueWait() {
+        return queueWait;
+    }
+
+    public LatencyHistogram resolve() {
+        return resolve;
+    }
+
+    public LatencyHistogram handle() {
+        return handle;
+    }
+
+    public LatencyHistogram serialize() {
+        return serialize;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteMetrics{method='" + method + "', uri='" + uri + "', requests=" + requests()
+                + ", errors=" + errors() + "}";
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.commons.Checks;
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Registry of the {@link RouteMetrics}, routes sharing the same http methods and path templates will share the same
+ * {@link RouteMetrics} so that the number of metrics would not grow with the raw paths or other predicates of the
+ * routes.
+ */
+public class RouteMetricsRegistry {
+
+    private static final String ALL = "ALL";
+
+    private final ConcurrentHashMap<Route, RouteMetrics> byRoute = new ConcurrentHashMap<>(64);
+    private final Map<String, RouteMetrics> byTemplate = new ConcurrentHashMap<>(64);
+    private final List<Consumer<RouteMetrics>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Gets the {@link RouteMetrics} of given route, which will be created if absent.
+     *
+     * @param route route
+     * @return metrics
+     */
+    public RouteMetrics metrics(Route route) {
+        final RouteMetrics metrics = byRoute.get(route);
+        if (metrics != null) {
+            return metrics;
+        }
+        return byRoute.computeIfAbsent(route, this::create);
+    }
+
+    /**
+     * Gets all of the {@link RouteMetrics} created.
+     *
+     * @return metrics
+     */
+    public Collection<RouteMetrics> metrics() {
+        return Collections.unmodifiableCollection(byTemplate.values());
+    }
+
+    /**
+     * Adds a listener which will be notified when a {@link RouteMetrics} is created, and the {@link RouteMetrics}
+     * already created will be passed to the listener immediately.
+     *
+     * @param listener listener
+     */
+    public synchronized void addListener(Consumer<RouteMetrics> listener) {
+        Checks.checkNotNull(listener, "listener");
+        listeners.add(listener);
+        new ArrayList<>(byTemplate.values()).forEach(listener);
+    }
+
+    private synchronized RouteMetrics create(Route route) {
+        final String method = methodOf(route.mapping());
+        final String uri = uriOf(route.mapping());
+        RouteMetrics metrics = byTemplate.get(method + ' ' + uri);
+        if (metrics == null) {
+            metrics = new RouteMetrics(method, uri);
+            byTemplate.put(method + ' ' + uri, metrics);
+            for (Consumer<RouteMetrics> listener : listeners) {
+                listener.accept(metrics);
+            }
+        }
+        return metrics;
+    }
+
+    private static String methodOf(Mapping mapping) {
+        final HttpMethod[] methods = mapping == null ? null : mapping.method();
+        if (methods == null || methods.length == 0) {
+            return ALL;
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (HttpMethod m : methods) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(m.name());
+        }
+        return sb.toString();
+    }
+
+    private static String uriOf(Mapping mapping) {
+        final String[] paths = mapping == null ? null : mapping.path();
+        if (paths == null || paths.length == 0) {
+            return "/";
+        }
+        return String.join(",", paths);
+    }
+}
@@ -26,6 +26,11 @@ import esa.restlight.server.util.MappingUtils;
  */
 public interface Mapping {
 
+    /**
+     * Default value of {@link #priority()}.
+     */
+    int DEFAULT_PRIORITY = 0;
+
     /**
      * Creates an instance of {@link MappingImpl} for building a new {@link Mapping}.
      *
@@ -316,6 +321,16 @@ public interface Mapping {
      */
     String[] produces();
 
+    /**
+     * Return the priority of current {@link Mapping}, which will be used to determine which requests should be
+     * rejected first while the server is overloaded, requests of the routes with lower priority will be rejected
+     * earlier.
+     *
+     * @return priority
+     */
+    default int priority() {
+        return DEFAULT_PRIORITY;
+    }
 
     /**
      * Combines current {@link Mapping} with another {@link Mapping}, and current {@link Mapping} is regarded as parent
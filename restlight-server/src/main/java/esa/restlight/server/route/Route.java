@@ -59,7 +59,8 @@ public interface Route extends Scheduling {
         return new RouteImpl(another.mapping(),
                 another::toExecution,
                 another.scheduler(),
-                another.handler().orElse(null));
+                another.handler().orElse(null),
+                another.isStreamingBody());
     }
 
     /**
@@ -87,4 +88,18 @@ public interface Route extends Scheduling {
         return Optional.empty();
     }
 
+    /**
+     * Whether the body of the request routed to this route should be consumed as a stream by {@link
+     * AsyncRequest#bodyStream()}. If not, the request will be handled by this route only after its body has been
+     * fully aggregated.
+     * <p>
+     * Note: this only takes effect when the streaming request body is enabled by {@code
+     * ServerOptions#isStreamingBodyEnable()}.
+     *
+     * @return {@code true} if the body should be streamed
+     */
+    default boolean isStreamingBody() {
+        return false;
+    }
+
 }
@@ -44,6 +44,7 @@ public class MappingImpl implements Mapping {
     private final String[] headers;
     private final String[] consumes;
     private final String[] produces;
+    private final int priority;
 
     private String str;
 
@@ -64,6 +65,17 @@ public class MappingImpl implements Mapping {
                        String[] headers,
                        String[] consumes,
                        String[] produces) {
+        this(name, path, method, params, headers, consumes, produces, DEFAULT_PRIORITY);
+    }
+
+    public MappingImpl(String name,
+                       String[] path,
+                       HttpMethod[] method,
+                       String[] params,
+                       String[] headers,
+                       String[] consumes,
+                       String[] produces,
+                       int priority) {
         Checks.checkNotNull(path, "path");
         Checks.checkNotNull(method, "method");
         Checks.checkNotNull(params, "params");
@@ -77,6 +89,7 @@ public class MappingImpl implements Mapping {
         this.headers = headers;
         this.consumes = consumes;
         this.produces = produces;
+        this.priority = priority;
     }
 
     /**
@@ -93,7 +106,8 @@ public class MappingImpl implements Mapping {
                 this.params,
                 this.headers,
                 this.consumes,
-                this.produces);
+                this.produces,
+                    this.priority);
     }
 
     /**
@@ -123,7 +137,8 @@ public class MappingImpl implements Mapping {
                     this.params,
                     this.headers,
                     this.consumes,
-                    this.produces);
+                    this.produces,
+                    this.priority);
         }
         return this;
     }
@@ -365,7 +380,8 @@ public class MappingImpl implements Mapping {
                     this.params,
                     this.headers,
                     this.consumes,
-                    this.produces);
+                    this.produces,
+                    this.priority);
         }
         return this;
     }
@@ -455,7 +471,8 @@ public class MappingImpl implements Mapping {
                     tmp.toArray(new String[0]),
                     this.headers,
                     this.consumes,
-                    this.produces);
+                    this.produces,
+                    this.priority);
         }
         return this;
     }
@@ -528,7 +545,8 @@ public class MappingImpl implements Mapping {
                     this.params,
                     tmp.toArray(new String[0]),
                     this.consumes,
-                    this.produces);
+                    this.produces,
+                    this.priority);
         }
         return this;
     }
@@ -571,7 +589,8 @@ public class MappingImpl implements Mapping {
                     this.params,
                     this.headers,
                     tmp.toArray(new String[0]),
-                    this.produces);
+                    this.produces,
+                    this.priority);
         }
         return this;
     }
@@ -614,11 +633,33 @@ public class MappingImpl implements Mapping {
                     this.params,
                     this.headers,
                     this.consumes,
-                    tmp.toArray(new String[0]));
+                    tmp.toArray(new String[0]),
+                    this.priority);
         }
         return this;
     }
 
+    /**
+     * Sets the {@link #priority} to given value.
+     *
+     * @param priority priority, the lower value means the lower priority
+     *
+     * @return builder
+     */
+    public MappingImpl priority(int priority) {
+        if (priority == this.priority) {
+            return this;
+        }
+        return new MappingImpl(this.name,
+                this.path,
+                this.method,
+                this.params,
+                this.headers,
+                this.consumes,
+                this.produces,
+                priority);
+    }
+
     @Override
     public String name() {
         return name;
@@ -654,6 +695,11 @@ public class MappingImpl implements Mapping {
         return produces;
     }
 
+    @Override
+    public int priority() {
+        return priority;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -669,7 +715,8 @@ public class MappingImpl implements Mapping {
                 Arrays.equals(params, mapping.params) &&
                 Arrays.equals(headers, mapping.headers) &&
                 Arrays.equals(consumes, mapping.consumes) &&
-                Arrays.equals(produces, mapping.produces);
+                Arrays.equals(produces, mapping.produces) &&
+                priority == mapping.priority;
     }
 
     @Override
@@ -681,6 +728,7 @@ public class MappingImpl implements Mapping {
         result = 31 * result + Arrays.hashCode(headers);
         result = 31 * result + Arrays.hashCode(consumes);
         result = 31 * result + Arrays.hashCode(produces);
+        result = 31 * result + priority;
         return result;
     }
 
@@ -714,6 +762,10 @@ public class MappingImpl implements Mapping {
             if (produces != null && produces.length > 0) {
                 fragments.add("produces=" + Arrays.asList(produces).toString());
             }
+
+            if (priority != DEFAULT_PRIORITY) {
+                fragments.add("priority=" + priority);
+            }
             str = String.join(",", fragments);
         }
         return str;
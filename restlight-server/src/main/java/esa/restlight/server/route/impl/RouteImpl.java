@@ -49,12 +49,21 @@ public class RouteImpl implements Route {
     private final Function<AsyncRequest, RouteExecution> executionFactory;
     private final Scheduler scheduler;
     private final Object handler;
+    private final boolean streamingBody;
     private String str;
 
     public RouteImpl(Mapping mapping,
                      Function<AsyncRequest, RouteExecution> executionFactory,
                      Scheduler scheduler,
                      Object handler) {
+        this(mapping, executionFactory, scheduler, handler, false);
+    }
+
+    public RouteImpl(Mapping mapping,
+                     Function<AsyncRequest, RouteExecution> executionFactory,
+                     Scheduler scheduler,
+                     Object handler,
+                     boolean streamingBody) {
         // default to empty mapping
         this.mapping = mapping == null ? Mapping.mapping() : mapping;
         // default to empty StatelessExecutionFactory
@@ -63,6 +72,7 @@ public class RouteImpl implements Route {
                 : executionFactory;
         this.scheduler = scheduler;
         this.handler = handler;
+        this.streamingBody = streamingBody;
     }
 
     /**
@@ -75,7 +85,8 @@ public class RouteImpl implements Route {
         return new RouteImpl(mapping,
                 this.executionFactory,
                 this.scheduler,
-                this.handler);
+                this.handler,
+                this.streamingBody);
     }
 
     /**
@@ -87,7 +98,8 @@ public class RouteImpl implements Route {
         return new RouteImpl(mapping,
                 this.executionFactory,
                 Schedulers.fromExecutor(name, executor),
-                this.handler);
+                this.handler,
+                this.streamingBody);
     }
 
     /**
@@ -99,7 +111,8 @@ public class RouteImpl implements Route {
         return new RouteImpl(mapping,
                 this.executionFactory,
                 scheduler,
-                this.handler);
+                this.handler,
+                this.streamingBody);
     }
 
     /**
@@ -114,7 +127,8 @@ public class RouteImpl implements Route {
         return new RouteImpl(mapping,
                 factory,
                 this.scheduler,
-                this.handler);
+                this.handler,
+                this.streamingBody);
     }
 
 
@@ -144,7 +158,8 @@ public class RouteImpl implements Route {
         return new RouteImpl(this.mapping,
                 factory,
                 this.scheduler,
-                this.handler);
+                this.handler,
+                this.streamingBody);
     }
 
     /**
@@ -238,7 +253,8 @@ public class RouteImpl implements Route {
         return new RouteImpl(this.mapping,
                 factory,
                 this.scheduler,
-                this.handler);
+                this.handler,
+                this.streamingBody);
     }
 
     /**
@@ -356,7 +372,8 @@ public class RouteImpl implements Route {
         return new RouteImpl(this.mapping,
                 factory,
                 this.scheduler,
-                this.handler);
+                this.handler,
+                this.streamingBody);
     }
 
     /**
@@ -459,7 +476,24 @@ public class RouteImpl implements Route {
         return new RouteImpl(this.mapping,
                 this.executionFactory,
                 this.scheduler,
-                handler);
+                handler,
+                this.streamingBody);
+    }
+
+    /**
+     * Sets {@link #streamingBody} to given value.
+     *
+     * @param streamingBody whether to consume the request body as a stream
+     *
+     * @return a new instance of {@link RouteImpl}
+     * @see Route#isStreamingBody()
+     */
+    public RouteImpl streamingBody(boolean streamingBody) {
+        return new RouteImpl(this.mapping,
+                this.executionFactory,
+                this.scheduler,
+                this.handler,
+                streamingBody);
     }
 
     @Override
@@ -487,6 +521,9 @@ public class RouteImpl implements Route {
                 sb.append(",scheduler(").append(scheduler.name()).append(')');
             }
             handler().ifPresent(h -> sb.append(",handler(").append(handler).append(")"));
+            if (streamingBody) {
+                sb.append(",streamingBody");
+            }
             sb.append(")");
             str = sb.toString();
         }
@@ -499,6 +536,11 @@ public class RouteImpl implements Route {
         return scheduler;
     }
 
+    @Override
+    public boolean isStreamingBody() {
+        return streamingBody;
+    }
+
     private static class StatelessExecutionFactory implements Function<AsyncRequest, RouteExecution> {
 
         final BiFunction<AsyncRequest, AsyncResponse, CompletableFuture<Void>> requestHandler;
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A segment based trie which is compiled from the path patterns of the given routes.
+ * <p>
+ * Each node of the trie represents a segment of the path patterns, literal segments are indexed by a hash table which
+ * could be looked up by a region of the request path without any allocation, and all the segments that contain
+ * {@code *}, {@code ?} or <code>{</code> share a single wildcard child. A {@code **} segment terminates the insertion
+ * and the route is attached to the node as a prefix route which is a candidate for every path under this node.
+ * <p>
+ * Routing walks the segments of the request path only once to collect the candidate routes, and then tests the
+ * candidates by {@link RouteWrap#test(AsyncRequest)} in the order of registration, which means that the first matched
+ * route will be returned as same as the linear scan does.
+ */
+final class RouteTrie<R extends RouteWrap> {
+
+    private static final int[] EMPTY = new int[0];
+    private static final char SEPARATOR = '/';
+    private static final String DOUBLE_WILDCARDS = "**";
+    private static final String SINGLE_WILDCARD = "*";
+
+    private static final FastThreadLocal<Candidates> CANDIDATES = new FastThreadLocal<Candidates>() {
+        @Override
+        protected Candidates initialValue() {
+            return new Candidates();
+        }
+    };
+
+    private final R[] routes;
+    private final Node root;
+    /**
+     * Routes without any path pattern which should be tested for every request.
+     */
+    private final int[] unconditional;
+
+    RouteTrie(R[] routes) {
+        this.routes = routes;
+        final NodeBuilder builder = new NodeBuilder();
+        final List<Integer> unconditional = new ArrayList<>();
+        for (int i = 0; i < routes.length; i++) {
+            final String[] paths = routes[i].mapping().path();
+            if (paths == null || paths.length == 0) {
+                unconditional.add(i);
+                continue;
+            }
+            for (String path : paths) {
+                builder.insert(segments(path), 0, i);
+            }
+        }
+        this.root = builder.build();
+        this.unconditional = toArray(unconditional);
+    }
+
+    /**
+     * Finds the first route which matches the given request.
+     *
+     * @param request request
+     * @return route, or {@code null} if not found
+     */
+    R match(AsyncRequest request) {
+        final Candidates candidates = CANDIDATES.get();
+        candidates.size = 0;
+        candidates.addAll(unconditional);
+        collect(root, request.path(), 0, candidates);
+        final int size = candidates.size;
+        if (size == 0) {
+            return null;
+        }
+        final int[] values = candidates.values;
+        if (size > 1) {
+            Arrays.sort(values, 0, size);
+        }
+        int last = -1;
+        for (int i = 0; i < size; i++) {
+            final int index = values[i];
+            if (index == last) {
+                continue;
+            }
+            last = index;
+            final R route = routes[index];
+            if (route.test(request)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static void collect(Node node, String path, int from, Candidates candidates) {
+        candidates.addAll(node.prefix);
+        final int len = path.length();
+        int start = from;
+        while (start < len && path.charAt(start) == SEPARATOR) {
+            start++;
+        }
+        if (start >= len) {
+            candidates.addAll(node.terminal);
+            if (len > 0 && path.charAt(len - 1) == SEPARATOR) {
+                // '/foo/*' also matches '/foo/'
+                candidates.addAll(node.slashTerminal);
+            }
+            return;
+        }
+        int end = path.indexOf(SEPARATOR, start);
+        if (end < 0) {
+            end = len;
+        }
+        final Node literal = node.literal(path, start, end);
+        if (literal != null) {
+            collect(literal, path, end, candidates);
+        }
+        if (node.wildcard != null) {
+            collect(node.wildcard, path, end, candidates);
+        }
+    }
+
+    private static List<String> segments(String path) {
+        final List<String> segments = new ArrayList<>();
+        final int len = path.length();
+        int start = 0;
+        while (start < len) {
+            int end = path.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = len;
+            }
+            if (end > start) {
+                segments.add(path.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    private static boolean isWildcard(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            final char c = segment.charAt(i);
+            if (c == '*' || c == '?' || c == '{') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int hash(String s, int start, int end) {
+        // same as String#hashCode()
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        if (list.isEmpty()) {
+            return EMPTY;
+        }
+        final int[] arr = new int[list.size()];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = list.get(i);
+        }
+        return arr;
+    }
+
+    private static final class Node {
+
+        private final String[] keys;
+        private final Node[] children;
+        private final int mask;
+        private final Node wildcard;
+        private final int[] terminal;
+        private final int[] prefix;
+        private final int[] slashTerminal;
+
+        private Node(Map<String, Node> literals,
+                     Node wildcard,
+                     int[] terminal,
+                     int[] prefix,
+                     int[] slashTerminal) {
+            if (literals.isEmpty()) {
+                this.keys = null;
+                this.children = null;
+                this.mask = 0;
+            } else {
+                int cap = 2;
+                while (cap < literals.size() * 2) {
+                    cap <<= 1;
+                }
+                final String[] ks = new String[cap];
+                final Node[] cs = new Node[cap];
+                final int m = cap - 1;
+                for (Map.Entry<String, Node> e : literals.entrySet()) {
+                    final String k = e.getKey();
+                    int i = hash(k, 0, k.length()) & m;
+                    while (ks[i] != null) {
+                        i = (i + 1) & m;
+                    }
+                    ks[i] = k;
+                    cs[i] = e.getValue();
+                }
+                this.keys = ks;
+                this.children = cs;
+                this.mask = m;
+            }
+            this.wildcard = wildcard;
+            this.terminal = terminal;
+            this.prefix = prefix;
+            this.slashTerminal = slashTerminal;
+        }
+
+        private Node literal(String path, int start, int end) {
+            if (keys == null) {
+                return null;
+            }
+            final int len = end - start;
+            int i = hash(path, start, end) & mask;
+            String key;
+            while ((key = keys[i]) != null) {
+                if (key.length() == len && path.regionMatches(start, key, 0, len)) {
+                    return children[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    private static final class NodeBuilder {
+
+        private final Map<String, NodeBuilder> literals = new LinkedHashMap<>();
+        private NodeBuilder wildcard;
+        private final List<Integer> terminal = new ArrayList<>();
+        private final List<Integer> prefix = new ArrayList<>();
+        private final List<Integer> slashTerminal = new ArrayList<>();
+
+        private void insert(List<String> segments, int pos, int route) {
+            if (pos == segments.size()) {
+                terminal.add(route);
+                return;
+            }
+            final String segment = segments.get(pos);
+            if (DOUBLE_WILDCARDS.equals(segment)) {
+                // all the rest of the path could be matched by '**', so stop here
+                prefix.add(route);
+                return;
+            }
+            if (pos == segments.size() - 1 && SINGLE_WILDCARD.equals(segment)) {
+                slashTerminal.add(route);
+            }
+            final NodeBuilder child;
+            if (isWildcard(segment)) {
+                if (wildcard == null) {
+                    wildcard = new NodeBuilder();
+                }
+                child = wildcard;
+            } else {
+                child = literals.computeIfAbsent(segment, k -> new NodeBuilder());
+            }
+            child.insert(segments, pos + 1, route);
+        }
+
+        private Node build() {
+            final Map<String, Node> children = new LinkedHashMap<>(literals.size());
+            literals.forEach((k, v) -> children.put(k, v.build()));
+            return new Node(children,
+                    wildcard == null ? null : wildcard.build(),
+                    toArray(terminal),
+                    toArray(prefix),
+                    toArray(slashTerminal));
+        }
+    }
+
+    private static final class Candidates {
+
+        private int[] values = new int[16];
+        private int size;
+
+        private void addAll(int[] indexes) {
+            final int len = indexes.length;
+            if (len == 0) {
+                return;
+            }
+            if (size + len > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length << 1, size + len));
+            }
+            System.arraycopy(indexes, 0, values, size, len);
+            size += len;
+        }
+    }
+}
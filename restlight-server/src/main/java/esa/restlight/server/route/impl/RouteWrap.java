@@ -61,6 +61,11 @@ class RouteWrap implements Route, RequestPredicate {
         return route.scheduler();
     }
 
+    @Override
+    public boolean isStreamingBody() {
+        return route.isStreamingBody();
+    }
+
     @Override
     public String toString() {
         return route.toString();
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+
+import java.util.List;
+
+/**
+ * Implementation of {@link esa.restlight.server.route.RouteRegistry} which compiles the path patterns of all the
+ * routes into a {@link RouteTrie} while converting to a {@link ReadOnlyRouteRegistry}, so that only the routes whose
+ * path patterns may match the path of current request will be tested instead of scanning all the routes.
+ */
+public class TrieRouteRegistry extends AbstractRouteRegistry {
+
+    @Override
+    ReadOnlyRouteRegistry toReadOnly(List<RouteWrap> mappingLookup) {
+        return new ReadOnly(mappingLookup);
+    }
+
+    static class ReadOnly extends SimpleRouteRegistry.ReadOnly {
+
+        private final RouteTrie<RouteWrap> trie;
+
+        ReadOnly(List<RouteWrap> mappingLookup) {
+            super(mappingLookup);
+            this.trie = new RouteTrie<>(routes.lookup());
+        }
+
+        @Override
+        RouteWrap matchAll(AsyncRequest request) {
+            return trie.match(request);
+        }
+    }
+}
@@ -18,7 +18,9 @@ package esa.restlight.server.route.predicate;
 import esa.commons.Checks;
 import esa.commons.UrlUtils;
 import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.RequestAttributes;
 import esa.restlight.server.util.PathMatcher;
+import esa.restlight.server.util.PathTemplate;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -34,10 +36,14 @@ import java.util.stream.Collectors;
  */
 public class PatternsPredicate implements RequestPredicate {
 
-    public static final String TEMPLATE_VARIABLES = "$tmp.vars";
+    public static final String TEMPLATE_VARIABLES = RequestAttributes.TEMPLATE_VARIABLES;
 
     private final PathMatcher[] patterns;
     private final boolean hasTemplateVar;
+    /**
+     * compiled template which extracts the template variables without allocating any map if there's only one pattern.
+     */
+    private final PathTemplate template;
 
     public PatternsPredicate(String[] patterns) {
         Checks.checkNotNull(patterns, "patterns");
@@ -47,6 +53,8 @@ public class PatternsPredicate implements RequestPredicate {
                         .map(PathMatcher::new)
                         .toArray(PathMatcher[]::new);
         this.hasTemplateVar = Arrays.stream(this.patterns).anyMatch(PathMatcher::isTemplateVarPattern);
+        this.template = hasTemplateVar && this.patterns.length == 1
+                ? PathTemplate.compile(this.patterns[0].pattern()) : null;
     }
 
     @Override
@@ -75,7 +83,9 @@ public class PatternsPredicate implements RequestPredicate {
     private Map<String, String> match(String lookupPath) {
         if (hasTemplateVar) {
             // only matching with uri template variables if there's template in patterns.
-            if (patterns.length == 1) {
+            if (template != null) {
+                return template.match(lookupPath);
+            } else if (patterns.length == 1) {
                 return patterns[0].matchAndExtractUriTemplateVariables(lookupPath);
             } else {
                 Map<String, String> variables = null;
@@ -16,6 +16,8 @@
 package esa.restlight.server.route.predicate;
 
 import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.RequestAttributes;
+import esa.restlight.core.util.BoundedCache;
 import esa.restlight.core.util.MediaType;
 import esa.restlight.server.util.MappingUtils;
 import io.netty.handler.codec.http.HttpHeaderNames;
@@ -25,21 +27,30 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
 public class ProducesPredicate implements RequestPredicate {
 
-    public static final String COMPATIBLE_MEDIA_TYPES = "$cpt.mts";
+    public static final String COMPATIBLE_MEDIA_TYPES = RequestAttributes.COMPATIBLE_MEDIA_TYPES;
 
     private static final FastThreadLocal<List<MediaType>> ACCEPTABLE_MEDIA_TYPES
             = new FastThreadLocal<>();
     private static final List<MediaType> ALL =
             Collections.singletonList(MediaType.ALL);
+    /**
+     * Max number of the recently used {@code Accept} values whose compatible media types are cached in each
+     * generation of the {@link BoundedCache} of a predicate.
+     */
+    private static final int MAX_COMPATIBLE_CACHE_SIZE = 64;
 
     private final Expression[] expressions;
     private final List<MediaType> producibleMediaTypes;
+    /**
+     * Compatible media types which are computed from the given {@code Accept} and {@link #producibleMediaTypes}
+     */
+    private final BoundedCache<String, List<MediaType>> compatibleMediaTypes =
+            new BoundedCache<>(MAX_COMPATIBLE_CACHE_SIZE);
 
     private ProducesPredicate(Set<Expression> expressions) {
         List<Expression> temp = new ArrayList<>(expressions);
@@ -66,7 +77,7 @@ public class ProducesPredicate implements RequestPredicate {
         try {
             for (Expression expression : expressions) {
                 if (expression.match(request)) {
-                    List<MediaType> compatibleMediaTypes = getCompatibleMediaType();
+                    List<MediaType> compatibleMediaTypes = getCompatibleMediaType(request);
                     if (!compatibleMediaTypes.isEmpty()) {
                         request.setAttribute(COMPATIBLE_MEDIA_TYPES, compatibleMediaTypes);
                     }
@@ -79,10 +90,23 @@ public class ProducesPredicate implements RequestPredicate {
         return false;
     }
 
-    private List<MediaType> getCompatibleMediaType() {
-        List<MediaType> compatibleMediaTypes = new LinkedList<>();
+    private List<MediaType> getCompatibleMediaType(AsyncRequest request) {
+        final String accept = request.getHeader(HttpHeaderNames.ACCEPT);
+        final String key = accept == null ? "" : accept;
+        List<MediaType> cached = this.compatibleMediaTypes.get(key);
+        if (cached == null) {
+            final List<MediaType> accepts = ACCEPTABLE_MEDIA_TYPES.getIfExists();
+            cached = Collections.unmodifiableList(getCompatibleMediaType(accepts == null
+                    ? getAcceptedMediaTypes(request)
+                    : accepts));
+            this.compatibleMediaTypes.put(key, cached);
+        }
+        return cached;
+    }
+
+    private List<MediaType> getCompatibleMediaType(List<MediaType> accepts) {
+        List<MediaType> compatibleMediaTypes = new ArrayList<>();
         MediaType mostSpecificMediaType;
-        final List<MediaType> accepts = ACCEPTABLE_MEDIA_TYPES.get();
         for (MediaType acceptable : accepts) {
             for (MediaType producible : this.producibleMediaTypes) {
                 if (acceptable.isCompatibleWith(producible)) {
@@ -99,7 +123,7 @@ public class ProducesPredicate implements RequestPredicate {
     }
 
     private static List<MediaType> getAcceptedMediaTypes(AsyncRequest request) {
-        List<MediaType> mediaTypes = MediaType.valuesOf(request.getHeader(HttpHeaderNames.ACCEPT));
+        List<MediaType> mediaTypes = MediaType.cachedValuesOf(request.getHeader(HttpHeaderNames.ACCEPT));
         return (mediaTypes.isEmpty())
                 ? ALL
                 : mediaTypes;
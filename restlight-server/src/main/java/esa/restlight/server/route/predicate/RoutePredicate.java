@@ -17,13 +17,14 @@ package esa.restlight.server.route.predicate;
 
 import esa.commons.Checks;
 import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.RequestAttributes;
 import esa.restlight.core.method.HttpMethod;
 import esa.restlight.server.route.Mapping;
 import io.netty.handler.codec.http.HttpResponseStatus;
 
 public class RoutePredicate implements RequestPredicate {
 
-    public static final String MATCH_STATUS = "$mth.sts";
+    public static final String MATCH_STATUS = RequestAttributes.MATCH_STATUS;
 
     private final PatternsPredicate patterns;
     private final MethodPredicate method;
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An implementation of {@link ThreadPoolExecutor} which adapts the core pool size to the observed queue waiting time.
+ * <p>
+ * Tasks are queued in a lock-free {@link LinkedTransferQueue} which hands a task to an idle worker directly if there
+ * is one, and the number of queued tasks is limited by the given capacity, a capacity which is less than or equal to
+ * 0 means that the tasks will never be queued just like a {@link java.util.concurrent.SynchronousQueue}. The core pool
+ * size starts from the given minimum value and it will be increased towards the maximum pool size while the average
+ * waiting time of the tasks exceeds the target, and decreased back to the minimum value while the waiting time is much
+ * lower than the target, excess threads will be terminated when they next become idle.
+ */
+public class AdaptiveThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private static final long ADJUST_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
+    private final int minCore;
+    private final long targetWaitNanos;
+    private final AtomicLong nextAdjustNanos = new AtomicLong(System.nanoTime());
+    /**
+     * exponentially weighted moving average of the queue waiting time
+     */
+    private volatile long avgWaitNanos;
+
+    public AdaptiveThreadPoolExecutor(int minCore,
+                                      int max,
+                                      long keepAliveTime,
+                                      TimeUnit unit,
+                                      int queueCapacity,
+                                      long targetQueueWaitMillis,
+                                      ThreadFactory threadFactory) {
+        super(minCore, max, keepAliveTime, unit, new TaskQueue(queueCapacity), threadFactory);
+        Checks.checkArg(targetQueueWaitMillis > 0L, "targetQueueWaitMillis must be positive");
+        this.minCore = minCore;
+        this.targetWaitNanos = TimeUnit.MILLISECONDS.toNanos(targetQueueWaitMillis);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Checks.checkNotNull(command, "command");
+        super.execute(command instanceof RequestTask
+                ? new QueuedRequestTask((RequestTask) command)
+                : new QueuedTask(command));
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        if (r instanceof QueuedTask) {
+            final long wait = System.nanoTime() - ((QueuedTask) r).enqueuedNanos;
+            // it is acceptable to lose some updates under race
+            final long avg = avgWaitNanos;
+            avgWaitNanos = avg + ((wait - avg) >> 3);
+            adjustIfNecessary();
+        }
+    }
+
+    /**
+     * Gets the average waiting time of the tasks in the queue.
+     *
+     * @param unit unit
+     * @return average waiting time
+     */
+    public long averageQueueWait(TimeUnit unit) {
+        return unit.convert(avgWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void adjustIfNecessary() {
+        final long now = System.nanoTime();
+        final long next = nextAdjustNanos.get();
+        if (now - next < 0L || !nextAdjustNanos.compareAndSet(next, now + ADJUST_INTERVAL_NANOS)) {
+            return;
+        }
+        final int core = getCorePoolSize();
+        final int max = getMaximumPoolSize();
+        final long avg = avgWaitNanos;
+        if (avg > targetWaitNanos) {
+            if (core < max) {
+                setCorePoolSize(Math.min(max, core + Math.max(1, core >> 2)));
+            }
+        } else if (avg < (targetWaitNanos >> 2) && core > minCore) {
+            setCorePoolSize(Math.max(minCore, core - Math.max(1, core >> 3)));
+        }
+    }
+
+    private static final class TaskQueue extends LinkedTransferQueue<Runnable> {
+
+        private static final long serialVersionUID = -2826313574155325738L;
+
+        private final int capacity;
+        private final AtomicInteger size = new AtomicInteger();
+
+        private TaskQueue(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public boolean offer(Runnable r) {
+            if (tryTransfer(r)) {
+                return true;
+            }
+            for (; ; ) {
+                final int s = size.get();
+                if (s >= capacity) {
+                    // let the ThreadPoolExecutor try to create a new thread or reject the task
+                    return false;
+                }
+                if (size.compareAndSet(s, s + 1)) {
+                    break;
+                }
+            }
+            if (r instanceof QueuedTask) {
+                ((QueuedTask) r).queued = true;
+            }
+            return super.offer(r);
+        }
+
+        @Override
+        public Runnable poll() {
+            return dequeued(super.poll());
+        }
+
+        @Override
+        public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+            return dequeued(super.poll(timeout, unit));
+        }
+
+        @Override
+        public Runnable take() throws InterruptedException {
+            return dequeued(super.take());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            // ThreadPoolExecutor#remove(Runnable) passes the original command instead of the wrapped one
+            for (Runnable r : this) {
+                if (r == o || (r instanceof QueuedTask && ((QueuedTask) r).delegate == o)) {
+                    if (super.remove(r)) {
+                        dequeued(r);
+                        return true;
+                    }
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int drainTo(Collection<? super Runnable> c) {
+            return drainTo(c, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public int drainTo(Collection<? super Runnable> c, int maxElements) {
+            Checks.checkNotNull(c, "c");
+            Checks.checkArg(c != this, "Could not drain to self");
+            int n = 0;
+            Runnable r;
+            while (n < maxElements && (r = poll()) != null) {
+                c.add(r);
+                n++;
+            }
+            return n;
+        }
+
+        @Override
+        public int size() {
+            return size.get();
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Math.max(0, capacity - size.get());
+        }
+
+        private Runnable dequeued(Runnable r) {
+            if (r instanceof QueuedTask && ((QueuedTask) r).queued) {
+                ((QueuedTask) r).queued = false;
+                size.decrementAndGet();
+            }
+            return r;
+        }
+    }
+
+    private static class QueuedTask implements Runnable {
+
+        final Runnable delegate;
+        final long enqueuedNanos = System.nanoTime();
+        volatile boolean queued;
+
+        private QueuedTask(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+    }
+
+    private static final class QueuedRequestTask extends QueuedTask implements RequestTask {
+
+        private QueuedRequestTask(RequestTask delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public AsyncRequest request() {
+            return ((RequestTask) delegate).request();
+        }
+
+        @Override
+        public AsyncResponse response() {
+            return ((RequestTask) delegate).response();
+        }
+
+        @Override
+        public CompletableFuture<Void> promise() {
+            return ((RequestTask) delegate).promise();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import esa.restlight.server.config.AdmissionOptions;
+import esa.restlight.server.util.LoggerUtils;
+import io.netty.channel.EventLoop;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Request level admission controller which rejects the requests before they are scheduled while the server is
+ * overloaded.
+ * <p>
+ * The load of the server is sampled periodically by a single timer thread, and it is measured by the maximum ratio of
+ * the following signals to their thresholds:
+ * <ul>
+ * <li>system cpu load</li>
+ * <li>queue usage of the {@link ThreadPoolExecutor}s behind the {@link ExecutorScheduler}s</li>
+ * <li>lag of the event loops, which is measured by a probe task scheduled on each of the event loops</li>
+ * </ul>
+ * The rejection ratio increases in every interval while the server is overloaded and decreases slowly after the load
+ * goes down. The distinct priorities of the routes are regarded as levels, and the rejection ratio is spread over them
+ * from the lowest priority to the highest, that is the requests of a level will not be rejected until all the
+ * requests of the lower levels have been rejected.
+ */
+final class AdmissionController {
+
+    private static final double INCREASE_STEP = 0.1D;
+    private static final double DECREASE_STEP = 0.02D;
+    /**
+     * the rejection ratio will be decreased only if the load is lower than this to avoid oscillating
+     */
+    private static final double RECOVER_PRESSURE = 0.9D;
+    private static final double PERCENT = 100.0D;
+    private static final com.sun.management.OperatingSystemMXBean OS_BEAN;
+
+    static {
+        final OperatingSystemMXBean mxBean = ManagementFactory.getOperatingSystemMXBean();
+        OS_BEAN = mxBean instanceof com.sun.management.OperatingSystemMXBean
+                ? (com.sun.management.OperatingSystemMXBean) mxBean
+                : null;
+    }
+
+    private final double cpuLoadThreshold;
+    private final double queueThreshold;
+    private final long lagThresholdNanos;
+    private final long intervalNanos;
+    /**
+     * distinct priorities of the routes in ascending order
+     */
+    private final int[] levels;
+    private final double maxRatio;
+    private final List<ThreadPoolExecutor> executors;
+    private final Map<EventLoop, LagProbe> probes = new ConcurrentHashMap<>();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private ScheduledThreadPoolExecutor timer;
+    private volatile boolean running = true;
+    /**
+     * rejection ratio in [0, maxRatio], which is only updated by the timer thread
+     */
+    private volatile double ratio;
+
+    AdmissionController(AdmissionOptions options, int[] priorities, List<Scheduler> schedulers) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkNotNull(priorities, "priorities");
+        Checks.checkArg(options.getIntervalMillis() > 0L, "intervalMillis must be positive");
+        Checks.checkArg(options.getMaxRejectRate() > 0D && options.getMaxRejectRate() <= PERCENT,
+                "maxRejectRate must be between 0 and 100");
+        this.cpuLoadThreshold = options.getCpuLoadThreshold();
+        this.queueThreshold = options.getQueueThreshold();
+        this.lagThresholdNanos = TimeUnit.MILLISECONDS.toNanos(options.getEventLoopLagMillis());
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(options.getIntervalMillis());
+        final int[] sorted = Arrays.stream(priorities).distinct().sorted().toArray();
+        this.levels = sorted.length == 0 ? new int[]{0} : sorted;
+        // the requests of the highest level will be rejected by the maxRejectRate at most
+        this.maxRatio = (levels.length - 1 + options.getMaxRejectRate() / PERCENT) / levels.length;
+        this.executors = schedulers == null ? Collections.emptyList() : schedulers.stream()
+                .map(BulkheadScheduler::underlying)
+                .filter(s -> s instanceof ExecutorScheduler)
+                .map(s -> ((ExecutorScheduler) s).executor())
+                .filter(e -> e instanceof ThreadPoolExecutor)
+                .map(e -> (ThreadPoolExecutor) e)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Starts sampling the load.
+     */
+    void start() {
+        timer = new ScheduledThreadPoolExecutor(1, new RestlightThreadFactory("Restlight-Admission", true));
+        timer.scheduleAtFixedRate(() -> {
+            try {
+                update(pressure());
+            } catch (Throwable t) {
+                LoggerUtils.logErrorPeriodically("Error while sampling the load for admission control", t);
+            }
+        }, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts probing the lag of given event loop if it has not been probed.
+     *
+     * @param loop event loop
+     */
+    void probe(EventLoop loop) {
+        if (lagThresholdNanos <= 0L || !running || probes.containsKey(loop)) {
+            return;
+        }
+        final LagProbe probe = new LagProbe(loop);
+        if (probes.putIfAbsent(loop, probe) == null) {
+            probe.schedule();
+        }
+    }
+
+    /**
+     * Determines whether a request of the route with given priority should be admitted.
+     *
+     * @param priority priority of the route
+     *
+     * @return {@code true} if the request is admitted, otherwise {@code false}
+     */
+    boolean tryAdmit(int priority) {
+        final double r = ratio;
+        if (r <= 0D) {
+            return true;
+        }
+        int level = Arrays.binarySearch(levels, priority);
+        if (level < 0) {
+            // priorities of the routes which are registered after starting are regarded as the next higher level
+            level = -level - 1;
+        }
+        final double rate = r * levels.length - level;
+        if (rate <= 0D) {
+            return true;
+        }
+        return rate < 1D && ThreadLocalRandom.current().nextDouble() >= rate;
+    }
+
+    /**
+     * Computes current load which is the maximum ratio of the signals to their thresholds, and a value which is
+     * greater than 1 means that the server is overloaded.
+     *
+     * @return load
+     */
+    double pressure() {
+        double pressure = 0D;
+        if (cpuLoadThreshold > 0D && OS_BEAN != null) {
+            final double load = OS_BEAN.getSystemCpuLoad() * PERCENT;
+            // negative value means that the cpu load is not available
+            if (load >= 0D) {
+                pressure = load / cpuLoadThreshold;
+            }
+        }
+        if (queueThreshold > 0D) {
+            for (ThreadPoolExecutor executor : executors) {
+                final BlockingQueue<Runnable> queue = executor.getQueue();
+                final long size = queue.size();
+                final long capacity = size + queue.remainingCapacity();
+                if (capacity > 0L) {
+                    pressure = Math.max(pressure, size * PERCENT / capacity / queueThreshold);
+                }
+            }
+        }
+        if (lagThresholdNanos > 0L) {
+            final long now = System.nanoTime();
+            long lag = maxLagNanos.getAndSet(0L);
+            // an event loop which is blocked could not run the probe at all
+            for (LagProbe probe : probes.values()) {
+                lag = Math.max(lag, now - probe.expected);
+            }
+            pressure = Math.max(pressure, (double) lag / lagThresholdNanos);
+        }
+        return pressure;
+    }
+
+    /**
+     * Updates the rejection ratio by given load.
+     *
+     * @param pressure load
+     */
+    void update(double pressure) {
+        final double r = ratio;
+        final double updated;
+        if (pressure > 1D) {
+            updated = Math.min(maxRatio, r + INCREASE_STEP);
+        } else if (pressure < RECOVER_PRESSURE) {
+            updated = Math.max(0D, r - DECREASE_STEP);
+        } else {
+            return;
+        }
+        if (updated != r) {
+            ratio = updated;
+            if (r <= 0D) {
+                LoggerUtils.logger().warn("Server is overloaded(load: {}), start rejecting requests", pressure);
+            } else if (updated <= 0D) {
+                LoggerUtils.logger().info("Server has been recovered from overload, stop rejecting requests");
+            }
+        }
+    }
+
+    double ratio() {
+        return ratio;
+    }
+
+    void shutdown() {
+        running = false;
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        probes.clear();
+    }
+
+    private final class LagProbe implements Runnable {
+
+        private final EventLoop loop;
+        /**
+         * time the probe is expected to run, which is always a real time so that {@code now - expected} would never
+         * overflow even if the probe is read before it's scheduled.
+         */
+        private volatile long expected;
+
+        private LagProbe(EventLoop loop) {
+            this.loop = loop;
+            this.expected = System.nanoTime() + intervalNanos;
+        }
+
+        private void schedule() {
+            expected = System.nanoTime() + intervalNanos;
+            try {
+                loop.schedule(this, intervalNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // event loop has been shutdown
+                probes.remove(loop, this);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!running) {
+                return;
+            }
+            final long lag = System.nanoTime() - expected;
+            long max;
+            while (lag > (max = maxLagNanos.get()) && !maxLagNanos.compareAndSet(max, lag)) {
+                // retry
+            }
+            if (loop.isShuttingDown()) {
+                probes.remove(loop, this);
+            } else {
+                schedule();
+            }
+        }
+    }
+}
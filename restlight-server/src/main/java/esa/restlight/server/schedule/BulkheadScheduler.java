@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Scheduler} which limits the number of concurrent requests that are scheduled by the underlying {@link
+ * Scheduler}, so that a group of routes could not use up all the resources of the shared {@link Scheduler}.
+ * <p>
+ * A {@link RequestTask} occupies a permit until its {@link RequestTask#promise()} completes, and a {@link
+ * RejectedExecutionException} will be thrown if there's no permit left.
+ */
+class BulkheadScheduler implements Scheduler {
+
+    private final Scheduler scheduler;
+    private final int maxConcurrent;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    BulkheadScheduler(Scheduler scheduler, int maxConcurrent) {
+        Checks.checkNotNull(scheduler, "scheduler");
+        Checks.checkArg(maxConcurrent > 0, "maxConcurrent must be positive");
+        this.scheduler = scheduler;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    @Override
+    public String name() {
+        return scheduler.name();
+    }
+
+    @Override
+    public void schedule(Runnable cmd) {
+        if (!tryAcquire()) {
+            throw new RejectedExecutionException("Rejected by bulkhead of scheduler(" + name()
+                    + "), max concurrent: " + maxConcurrent);
+        }
+        if (cmd instanceof RequestTask) {
+            try {
+                scheduler.schedule(cmd);
+            } catch (Throwable t) {
+                release();
+                throw t;
+            }
+            ((RequestTask) cmd).promise().whenComplete((r, t) -> release());
+        } else {
+            try {
+                scheduler.schedule(() -> {
+                    try {
+                        cmd.run();
+                    } finally {
+                        release();
+                    }
+                });
+            } catch (Throwable t) {
+                release();
+                throw t;
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    Scheduler unwrap() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the actual {@link Scheduler} behind the given {@code scheduler} if it is a bulkhead.
+     */
+    static Scheduler underlying(Scheduler scheduler) {
+        Scheduler s = scheduler;
+        while (s instanceof BulkheadScheduler) {
+            s = ((BulkheadScheduler) s).scheduler;
+        }
+        return s;
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+
+    private boolean tryAcquire() {
+        for (; ; ) {
+            final int n = inflight.get();
+            if (n >= maxConcurrent) {
+                return false;
+            }
+            if (inflight.compareAndSet(n, n + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        inflight.decrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return "BulkheadScheduler{name='" + name() + "', maxConcurrent=" + maxConcurrent + "}";
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.QueueSheddingOptions;
+import esa.restlight.server.util.ErrorDetail;
+import esa.restlight.server.util.LoggerUtils;
+import esa.restlight.server.util.PromiseUtils;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link Scheduler} which measures how long a {@link RequestTask} has been waiting before it is executed by the
+ * underlying {@link Scheduler}, and rejects the {@link RequestTask} before the handler runs if it has been waiting too
+ * long. Rejected {@link RequestTask}s are passed to the given rejected handler, which is the {@code
+ * DispatcherHandler#handleRejectedWork(RequestTask, String)} by default in Restlight.
+ * <p>
+ * This is a variant of CoDel (Controlled Delay): the scheduler is considered as overloaded if the minimum waiting
+ * time in last interval exceeds the target, which means that the queue has been standing all the time during the last
+ * interval, and then the waiting time of the {@link RequestTask}s is limited by the target until the queue has been
+ * drained again. This protects the tail latency by failing some of the requests fast instead of serving all of them
+ * late, while a burst which is drained within an interval is never shed.
+ *
+ * @see QueueSheddingOptions
+ */
+class QueueSheddingScheduler implements Scheduler {
+
+    private final Scheduler scheduler;
+    private final long targetNanos;
+    private final long intervalNanos;
+    private final AtomicLong intervalEnd;
+    private final AtomicLong minDelay = new AtomicLong(Long.MAX_VALUE);
+    private final BiConsumer<RequestTask, String> rejectedHandler;
+    private volatile boolean overloaded;
+
+    QueueSheddingScheduler(Scheduler scheduler, QueueSheddingOptions options) {
+        this(scheduler, options, null);
+    }
+
+    QueueSheddingScheduler(Scheduler scheduler,
+                           QueueSheddingOptions options,
+                           BiConsumer<RequestTask, String> rejectedHandler) {
+        Checks.checkNotNull(scheduler, "scheduler");
+        Checks.checkNotNull(options, "options");
+        Checks.checkArg(options.getTargetMillis() > 0L, "targetMillis must be positive");
+        Checks.checkArg(options.getIntervalMillis() >= options.getTargetMillis(),
+                "intervalMillis must be greater than or equal to targetMillis");
+        this.scheduler = scheduler;
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(options.getTargetMillis());
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(options.getIntervalMillis());
+        this.intervalEnd = new AtomicLong(System.nanoTime() + intervalNanos);
+        this.rejectedHandler = rejectedHandler == null ? QueueSheddingScheduler::reject : rejectedHandler;
+    }
+
+    @Override
+    public String name() {
+        return scheduler.name();
+    }
+
+    @Override
+    public void schedule(Runnable cmd) {
+        if (cmd instanceof RequestTask) {
+            scheduler.schedule(new SheddingRequestTask((RequestTask) cmd, this));
+        } else {
+            scheduler.schedule(cmd);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    boolean isOverloaded() {
+        return overloaded;
+    }
+
+    /**
+     * Records the waiting time of a task which is about to be executed and determines whether it should be rejected.
+     */
+    boolean shouldShed(long now, long delay) {
+        final long end = intervalEnd.get();
+        if (now - end >= 0L && intervalEnd.compareAndSet(end, now + intervalNanos)) {
+            // it is acceptable to lose some updates of the minimum value under race
+            final long min = minDelay.getAndSet(delay);
+            overloaded = min != Long.MAX_VALUE && min > targetNanos;
+        } else {
+            long min;
+            while (delay < (min = minDelay.get()) && !minDelay.compareAndSet(min, delay)) {
+                // retry
+            }
+        }
+        return overloaded && delay > targetNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "QueueSheddingScheduler{name='" + name() + "'}";
+    }
+
+    /**
+     * Default handler of the shed {@link RequestTask}s which is used if there's no {@code DispatcherHandler}.
+     */
+    static void reject(RequestTask task, String reason) {
+        if (!task.response().isCommitted()) {
+            ErrorDetail.sendErrorResult(task.request(), task.response(), reason,
+                    HttpResponseStatus.SERVICE_UNAVAILABLE);
+        }
+        PromiseUtils.setSuccess(task.promise());
+    }
+
+    /**
+     * An {@link ExecutorScheduler} version of {@link QueueSheddingScheduler} which keeps the underlying {@link
+     * Executor} visible to Restlight.
+     */
+    static final class OfExecutor extends ExecutorSchedulerImpl {
+
+        private final QueueSheddingScheduler scheduler;
+
+        OfExecutor(ExecutorScheduler executor,
+                   QueueSheddingOptions options,
+                   BiConsumer<RequestTask, String> rejectedHandler) {
+            super(executor.name(), executor.executor());
+            this.scheduler = new QueueSheddingScheduler(executor, options, rejectedHandler);
+        }
+
+        @Override
+        public void schedule(Runnable cmd) {
+            scheduler.schedule(cmd);
+        }
+
+        QueueSheddingScheduler unwrap() {
+            return scheduler;
+        }
+    }
+
+    private static final class SheddingRequestTask implements RequestTask {
+
+        private final RequestTask delegate;
+        private final QueueSheddingScheduler scheduler;
+        private final long enqueued = System.nanoTime();
+
+        private SheddingRequestTask(RequestTask delegate, QueueSheddingScheduler scheduler) {
+            this.delegate = delegate;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public AsyncRequest request() {
+            return delegate.request();
+        }
+
+        @Override
+        public AsyncResponse response() {
+            return delegate.response();
+        }
+
+        @Override
+        public CompletableFuture<Void> promise() {
+            return delegate.promise();
+        }
+
+        @Override
+        public void run() {
+            final long now = System.nanoTime();
+            final long delay = now - enqueued;
+            if (scheduler.shouldShed(now, delay)) {
+                shed(delay);
+            } else {
+                delegate.run();
+            }
+        }
+
+        private void shed(long delay) {
+            final String reason = "Overloaded scheduler(" + scheduler.name() + "), queued: "
+                    + TimeUnit.NANOSECONDS.toMillis(delay) + "ms";
+            // use debug level to avoid flooding the log while the scheduler is overloaded
+            if (LoggerUtils.logger().isDebugEnabled()) {
+                LoggerUtils.logger().debug("Request(url = {}, method={}) has been shed before execution: {}",
+                        delegate.request().path(),
+                        delegate.request().rawMethod(),
+                        reason);
+            }
+            scheduler.rejectedHandler.accept(delegate, reason);
+        }
+    }
+}
@@ -20,9 +20,11 @@ import esa.commons.StringUtils;
 import esa.commons.function.Consumer3;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.StreamingBody;
 import esa.restlight.core.util.MediaType;
 import esa.restlight.core.util.OrderedComparator;
 import esa.restlight.server.bootstrap.DispatcherHandler;
+import esa.restlight.server.config.AdmissionOptions;
 import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.handler.RestlightHandler;
 import esa.restlight.server.route.Route;
@@ -30,8 +32,11 @@ import esa.restlight.server.route.predicate.RoutePredicate;
 import esa.restlight.server.util.ErrorDetail;
 import esa.restlight.server.util.LoggerUtils;
 import esa.restlight.server.util.PromiseUtils;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.TooLongFrameException;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpResponseStatus;
 
 import java.util.HashSet;
@@ -39,9 +44,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -50,9 +57,38 @@ import static esa.restlight.server.schedule.RequestTaskImpl.newRequestTask;
 
 public class ScheduledRestlightHandler implements RestlightHandler {
 
+    /**
+     * subscriber which cancels the subscription immediately to discard the body
+     */
+    private static final StreamingBody.Subscriber DISCARDING = new StreamingBody.Subscriber() {
+        @Override
+        public void onSubscribe(StreamingBody.Subscription subscription) {
+            subscription.cancel();
+        }
+
+        @Override
+        public void onData(ByteBuf chunk) {
+        }
+
+        @Override
+        public void onEnd(HttpHeaders trailers) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+    };
+
     private final DispatcherHandler dispatcher;
     private final List<Scheduler> schedulers = new LinkedList<>();
     private final RequestTaskHook hook;
+    private final boolean streamingBodyEnable;
+    private final AdmissionOptions admissionOptions;
+    private AdmissionController admission;
+    /**
+     * whether to measure the time of waiting in the scheduler for the metrics
+     */
+    private final boolean timed;
     private Consumer3<AsyncRequest, AsyncResponse, CompletableFuture<Void>> processor;
     private volatile long terminationTimeoutSeconds;
 
@@ -67,23 +103,36 @@ public class ScheduledRestlightHandler implements RestlightHandler {
         Checks.checkNotNull(options, "RestlightOptions must not be null!");
         Checks.checkNotNull(dispatcher, "DispatcherHandler must not be null!");
         this.dispatcher = dispatcher;
+        this.timed = dispatcher.metrics().isPresent();
         this.hook = hooks == null || hooks.isEmpty() ? t -> t : toRequestTaskHook(hooks);
         this.terminationTimeoutSeconds = options.getBizTerminationTimeoutSeconds();
+        this.streamingBodyEnable = options.isStreamingBodyEnable();
+        this.admissionOptions = options.getScheduling() == null ? null : options.getScheduling().getAdmission();
     }
 
     @Override
     public synchronized void onStart() {
         final List<Route> routes = dispatcher.routes();
         final Set<Scheduler> tmp = new HashSet<>();
+        final Set<Scheduler> underlyings = new HashSet<>();
         for (Route route : routes) {
             Scheduler scheduler = route.scheduler();
             Checks.checkNotNull(scheduler);
-            if (tmp.add(scheduler)) {
+            // bulkheads share the underlying scheduler, keep only one of them so that the underlying one would not
+            // be shutdown twice
+            if (tmp.add(scheduler) && underlyings.add(BulkheadScheduler.underlying(scheduler))) {
                 this.schedulers.add(scheduler);
             }
         }
 
-        if (this.schedulers.size() == 1) {
+        if (admissionOptions != null && admissionOptions.isEnable()) {
+            this.admission = new AdmissionController(admissionOptions,
+                    routes.stream().mapToInt(route -> route.mapping().priority()).toArray(),
+                    this.schedulers);
+            this.admission.start();
+        }
+
+        if (tmp.size() == 1 && !streamingBodyEnable && admission == null) {
             this.processor = (req, res, promise) ->
                     processByFixedScheduler(req, res, promise, this.schedulers.get(0));
         } else {
@@ -91,6 +140,10 @@ public class ScheduledRestlightHandler implements RestlightHandler {
             // some of the route should be execute on route.scheduler()
 
             // request(io) -> find route(io) ---> run on route.scheduler()
+
+            // routes should also be found on io scheduler if the request body is streaming, because we have to
+            // determine whether to aggregate the body before running on route.scheduler(), and so do the
+            // admission control which rejects the requests by the priority of the routes
             this.processor = this::processBySpecifiedScheduler;
         }
     }
@@ -99,17 +152,18 @@ public class ScheduledRestlightHandler implements RestlightHandler {
                                          AsyncResponse res,
                                          CompletableFuture<Void> promise,
                                          Scheduler scheduler) {
+        final long scheduled = timed ? System.nanoTime() : 0L;
         final RequestTask task = hook.onRequest(newRequestTask(req,
                 res,
                 promise,
                 () -> {
                     final Route route = routeOrNotFound(req, res, promise);
                     if (route != null) {
-                        dispatcher.service(req, res, promise, route);
+                        service(req, res, promise, route, scheduled);
                     }
                 }));
         if (task != null) {
-            scheduler.schedule(task);
+            schedule(scheduler, task);
         }
     }
 
@@ -117,18 +171,79 @@ public class ScheduledRestlightHandler implements RestlightHandler {
                                              AsyncResponse res,
                                              CompletableFuture<Void> promise) {
         final Route route = routeOrNotFound(req, res, promise);
-        if (route != null) {
-            final RequestTask task = hook.onRequest(newRequestTask(req,
-                    res,
-                    promise,
-                    () -> dispatcher.service(req, res, promise, route)));
-
-            if (task != null) {
-                route.scheduler().schedule(task);
+        if (route != null && admitOrReject(req, res, promise, route)) {
+            final StreamingBody body = req.bodyStream();
+            if (body == null || route.isStreamingBody()) {
+                scheduleRoute(req, res, promise, route);
+            } else {
+                // the body should be aggregated before handling if the route does not consume it as a stream
+                body.aggregate().whenComplete((aggregated, t) -> {
+                    if (t == null) {
+                        scheduleRoute(req, res, promise, route);
+                    } else {
+                        aggregationFailed(req, res, promise, t);
+                    }
+                });
             }
         }
     }
 
+    /**
+     * Responds 413 if the body is too large, otherwise 500 if failed to aggregate the body.
+     */
+    static void aggregationFailed(AsyncRequest req,
+                                  AsyncResponse res,
+                                  CompletableFuture<Void> promise,
+                                  Throwable t) {
+        LoggerUtils.logger().warn("Error while aggregating body of request(url={}, method={})",
+                req.path(), req.method(), t);
+        if (!res.isCommitted()) {
+            final Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+            final HttpResponseStatus status = cause instanceof TooLongFrameException
+                    ? HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE
+                    : HttpResponseStatus.INTERNAL_SERVER_ERROR;
+            res.setHeader(HttpHeaderNames.CONTENT_TYPE, MediaType.TEXT_PLAIN.value());
+            res.sendResult(status.code(),
+                    ErrorDetail.buildErrorMsg(req.path(), StringUtils.empty(), status.reasonPhrase(), status.code()));
+        }
+        PromiseUtils.setSuccess(promise);
+    }
+
+    private void scheduleRoute(AsyncRequest req,
+                               AsyncResponse res,
+                               CompletableFuture<Void> promise,
+                               Route route) {
+        final long scheduled = timed ? System.nanoTime() : 0L;
+        final RequestTask task = hook.onRequest(newRequestTask(req,
+                res,
+                promise,
+                () -> service(req, res, promise, route, scheduled)));
+
+        if (task != null) {
+            schedule(route.scheduler(), task);
+        }
+    }
+
+    private void service(AsyncRequest req,
+                         AsyncResponse res,
+                         CompletableFuture<Void> promise,
+                         Route route,
+                         long scheduled) {
+        if (timed) {
+            dispatcher.service(req, res, promise, route, System.nanoTime() - scheduled);
+        } else {
+            dispatcher.service(req, res, promise, route);
+        }
+    }
+
+    private void schedule(Scheduler scheduler, RequestTask task) {
+        try {
+            scheduler.schedule(task);
+        } catch (RejectedExecutionException e) {
+            dispatcher.handleRejectedWork(task, e.getMessage());
+        }
+    }
+
     private Route routeOrNotFound(AsyncRequest req,
                                   AsyncResponse res,
                                   CompletableFuture<Void> promise) {
@@ -145,6 +260,31 @@ public class ScheduledRestlightHandler implements RestlightHandler {
         return route;
     }
 
+    private boolean admitOrReject(AsyncRequest req,
+                                  AsyncResponse res,
+                                  CompletableFuture<Void> promise,
+                                  Route route) {
+        if (admission == null || admission.tryAdmit(route.mapping().priority())) {
+            return true;
+        }
+        final StreamingBody body = req.bodyStream();
+        if (body != null) {
+            // the body will never be consumed, discard the received and upcoming chunks
+            body.subscribe(DISCARDING);
+        }
+        final HttpResponseStatus status = HttpResponseStatus.SERVICE_UNAVAILABLE;
+        res.setHeader(HttpHeaderNames.CONTENT_TYPE, MediaType.TEXT_PLAIN.value());
+        res.sendResult(status.code(),
+                ErrorDetail.buildErrorMsg(req.path(), "Server overloaded", status.reasonPhrase(), status.code()));
+        PromiseUtils.setSuccess(promise);
+        // use debug level to avoid flooding the log while the server is overloaded
+        if (LoggerUtils.logger().isDebugEnabled()) {
+            LoggerUtils.logger().debug("Request(url = {}, method={}) has been rejected by admission control, " +
+                    "priority: {}", req.path(), req.rawMethod(), route.mapping().priority());
+        }
+        return false;
+    }
+
     @Override
     public List<Scheduler> schedulers() {
         return this.schedulers;
@@ -163,11 +303,16 @@ public class ScheduledRestlightHandler implements RestlightHandler {
 
     @Override
     public void onConnected(ChannelHandlerContext ctx) {
-        // nothing to do
+        if (admission != null) {
+            admission.probe(ctx.channel().eventLoop());
+        }
     }
 
     @Override
     public synchronized void shutdown() {
+        if (admission != null) {
+            admission.shutdown();
+        }
         try {
             dispatcher.shutdown();
 
@@ -175,7 +320,8 @@ public class ScheduledRestlightHandler implements RestlightHandler {
                 return;
             }
 
-            schedulers.forEach(e -> {
+            schedulers.forEach(s -> {
+                final Scheduler e = BulkheadScheduler.underlying(s);
                 if (e instanceof ExecutorScheduler) {
                     Executor executor = ((ExecutorScheduler) e).executor();
                     if (executor instanceof ThreadPoolExecutor) {
@@ -211,7 +357,8 @@ public class ScheduledRestlightHandler implements RestlightHandler {
         }
     }
 
-    private void doShutdown(Scheduler scheduler) {
+    private void doShutdown(Scheduler s) {
+        final Scheduler scheduler = BulkheadScheduler.underlying(s);
         try {
             if (scheduler instanceof ExecutorScheduler) {
                 Executor executor = ((ExecutorScheduler) scheduler).executor();
@@ -256,6 +403,10 @@ public class ScheduledRestlightHandler implements RestlightHandler {
         }
     }
 
+    AdmissionController admission() {
+        return admission;
+    }
+
     public void setTerminationTimeoutSeconds(long terminationTimeoutSeconds) {
         this.terminationTimeoutSeconds = terminationTimeoutSeconds;
     }
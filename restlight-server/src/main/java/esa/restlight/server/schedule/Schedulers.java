@@ -15,10 +15,13 @@
  */
 package esa.restlight.server.schedule;
 
+import esa.commons.Checks;
 import esa.commons.concurrent.DirectExecutor;
+import esa.restlight.server.config.QueueSheddingOptions;
 import esa.restlight.server.config.TimeoutOptions;
 
 import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 
 public final class Schedulers {
 
@@ -30,6 +33,10 @@ public final class Schedulers {
      * Reserved word. Please do not use it as your own {@link Scheduler#name()}
      */
     public static final String BIZ = "BIZ";
+    /**
+     * Reserved word. Please do not use it as your own {@link Scheduler#name()}
+     */
+    public static final String VIRTUAL = "VIRTUAL";
 
     private static final Scheduler IO_SCHEDULER = fromExecutor(IO, DirectExecutor.INSTANCE);
     private static final Scheduler BIZ_SCHEDULER = fromExecutor(BIZ, r -> {
@@ -68,6 +75,27 @@ public final class Schedulers {
         return BIZ.equals(scheduler.name());
     }
 
+    /**
+     * Creates a new {@link Scheduler} named {@link #VIRTUAL} which runs each task in a new virtual thread, which is
+     * suitable for the blocking handlers because a blocked virtual thread does not occupy any platform thread.
+     *
+     * @return virtual thread scheduler
+     * @throws UnsupportedOperationException if virtual thread is unsupported in current JDK
+     * @see #isVirtualThreadSupported()
+     */
+    public static ExecutorScheduler virtual() {
+        return fromExecutor(VIRTUAL, VirtualThreads.newExecutor("Restlight-Virtual#"));
+    }
+
+    /**
+     * Whether the virtual thread is supported in current JDK.
+     *
+     * @return {@code true} if virtual thread is supported, otherwise {@code false}.
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VirtualThreads.isSupported();
+    }
+
     /**
      * Creates an instance of {@link Scheduler} by given {@code name} and {@code executor}.
      *
@@ -103,6 +131,87 @@ public final class Schedulers {
         }
     }
 
+    /**
+     * Wraps the given {@code scheduler} by {@code sheddingOptions}, which rejects the requests with a {@code 503}
+     * status before execution if they have been waiting too long in the given {@code scheduler}.
+     *
+     * @param scheduler       scheduler
+     * @param sheddingOptions shedding options
+     * @return scheduler
+     */
+    public static Scheduler shedding(Scheduler scheduler, QueueSheddingOptions sheddingOptions) {
+        return shedding(scheduler, sheddingOptions, null);
+    }
+
+    /**
+     * Wraps the given {@code scheduler} by {@code sheddingOptions}, and the requests that have been waiting too long
+     * in the given {@code scheduler} will be passed to the given {@code rejectedHandler} with the reason instead of
+     * being executed.
+     *
+     * @param scheduler       scheduler
+     * @param sheddingOptions shedding options
+     * @param rejectedHandler handler of the shed requests, a {@code 503} status will be sent if it is {@code null}.
+     * @return scheduler
+     */
+    public static Scheduler shedding(Scheduler scheduler,
+                                     QueueSheddingOptions sheddingOptions,
+                                     BiConsumer<RequestTask, String> rejectedHandler) {
+        if (sheddingOptions == null) {
+            return scheduler;
+        }
+        return scheduler instanceof ExecutorScheduler
+                ? new QueueSheddingScheduler.OfExecutor((ExecutorScheduler) scheduler, sheddingOptions,
+                rejectedHandler)
+                : new QueueSheddingScheduler(scheduler, sheddingOptions, rejectedHandler);
+    }
+
+    /**
+     * Rejects the given {@link RequestTask} which has been shed by a scheduler created by {@link #shedding(Scheduler,
+     * QueueSheddingOptions)} with a {@code 503} status, which is the default handler of the shed requests.
+     *
+     * @param task   shed task
+     * @param reason reason
+     */
+    public static void rejectShed(RequestTask task, String reason) {
+        QueueSheddingScheduler.reject(task, reason);
+    }
+
+    /**
+     * Wraps the given {@code scheduler} by a bulkhead which limits the number of concurrent requests scheduled by it,
+     * and the requests exceeding the limit will be rejected.
+     * <p>
+     * Note: the given {@code scheduler} should be the actual one instead of the marker instance {@link #biz()}.
+     *
+     * @param scheduler     scheduler
+     * @param maxConcurrent maximum number of concurrent requests
+     * @return scheduler
+     */
+    public static Scheduler bulkhead(Scheduler scheduler, int maxConcurrent) {
+        Checks.checkArg(scheduler != BIZ_SCHEDULER, "Marker biz scheduler could not be wrapped by a bulkhead");
+        return new BulkheadScheduler(scheduler, maxConcurrent);
+    }
+
+    /**
+     * Whether the given {@link Scheduler} is a bulkhead created by {@link #bulkhead(Scheduler, int)}.
+     *
+     * @param scheduler scheduler
+     * @return {@code true} if given scheduler is a bulkhead, otherwise {@code false}.
+     */
+    public static boolean isBulkhead(Scheduler scheduler) {
+        return scheduler instanceof BulkheadScheduler;
+    }
+
+    /**
+     * Gets the actual {@link Scheduler} behind the given {@code scheduler}, which is the scheduler wrapped by a
+     * bulkhead created by {@link #bulkhead(Scheduler, int)}, otherwise the given {@code scheduler} itself.
+     *
+     * @param scheduler scheduler
+     * @return actual scheduler
+     */
+    public static Scheduler unwrap(Scheduler scheduler) {
+        return BulkheadScheduler.underlying(scheduler);
+    }
+
     static boolean isIo(Scheduler scheduler) {
         return IO.equals(scheduler.name());
     }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.restlight.server.util.LoggerUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Utility to create an {@link ExecutorService} which starts a new virtual thread for each task.
+ * <p>
+ * Virtual threads are accessed by reflection so that Restlight could be still compiled and run with the JDKs before
+ * 21, and {@link #isSupported()} will always return {@code false} in those JDKs.
+ */
+final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        Method newExecutor = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            // virtual thread is a preview feature in JDK 19 and 20, which means it would fail here if the preview
+            // feature is not enabled.
+            factory.invoke(ofVirtual.invoke(null));
+        } catch (Throwable t) {
+            LoggerUtils.logger().debug("Virtual thread is unsupported in current JDK: {}",
+                    System.getProperty("java.version"));
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newExecutor;
+    }
+
+    static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a new {@link ExecutorService} which starts a new virtual thread for each task.
+     *
+     * @param prefix prefix of the thread name
+     * @return executor
+     * @throws UnsupportedOperationException if virtual thread is unsupported in current JDK
+     */
+    static ExecutorService newExecutor(String prefix) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual thread is unsupported in current JDK: "
+                    + System.getProperty("java.version"));
+        }
+        try {
+            final Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, FACTORY.invoke(builder));
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+
+    private VirtualThreads() {
+    }
+}
@@ -21,6 +21,7 @@ import esa.restlight.server.ServerDeployContext;
 import esa.restlight.server.bootstrap.DefaultDispatcherHandler;
 import esa.restlight.server.bootstrap.DispatcherHandler;
 import esa.restlight.server.config.ServerOptions;
+import esa.restlight.server.metrics.RouteMetricsRegistry;
 import esa.restlight.server.spi.DispatcherHandlerFactory;
 
 import java.util.Collections;
@@ -30,6 +31,7 @@ public class DefaultDispatcherHandlerFactory implements DispatcherHandlerFactory
     @Override
     public DispatcherHandler dispatcherHandler(ServerDeployContext<? extends ServerOptions> context) {
         return new DefaultDispatcherHandler(context.routeRegistry().orElse(null),
-                context.dispatcherExceptionHandlers().orElse(Collections.emptyList()));
+                context.dispatcherExceptionHandlers().orElse(Collections.emptyList()),
+                context.options().isMetricsEnable() ? new RouteMetricsRegistry() : null);
     }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import esa.commons.StringUtils;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Utils for generating and comparing the entity tags of the http responses.
+ * <p>
+ * The entity tags generated here are weak validators which are computed by the non-cryptographic xxHash64 over the
+ * response body, so that they are cheap enough to be computed for every response.
+ */
+public final class ETags {
+
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    private ETags() {
+    }
+
+    /**
+     * Generates a weak entity tag of the readable bytes of given {@link ByteBuf}.
+     *
+     * @param body body
+     * @return entity tag, such as {@code W/"1a2b3c"}
+     */
+    public static String weak(ByteBuf body) {
+        return weak(body, body.readerIndex(), body.readableBytes());
+    }
+
+    /**
+     * Generates a weak entity tag of the bytes of given {@link ByteBuf} in the given range. This method does not
+     * modify {@code readerIndex} or {@code writerIndex} of this buffer.
+     *
+     * @param body   body
+     * @param index  start index
+     * @param length length
+     * @return entity tag, such as {@code W/"1a2b3c"}
+     */
+    public static String weak(ByteBuf body, int index, int length) {
+        return "W/\"" + Long.toHexString(xxHash64(body, index, length, 0L)) + '"';
+    }
+
+    /**
+     * Whether the value of the {@code If-None-Match} header matches the given entity tag by using the weak comparison
+     * which is defined in RFC 7232.
+     *
+     * @param ifNoneMatch value of {@code If-None-Match}
+     * @param etag        entity tag of current response
+     * @return {@code true} if matched which means a {@code 304 Not Modified} could be sent.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (StringUtils.isEmpty(ifNoneMatch) || StringUtils.isEmpty(etag)) {
+            return false;
+        }
+        final String opaque = opaque(etag.trim());
+        int start = 0;
+        final int len = ifNoneMatch.length();
+        while (start < len) {
+            int end = ifNoneMatch.indexOf(',', start);
+            if (end < 0) {
+                end = len;
+            }
+            final String candidate = ifNoneMatch.substring(start, end).trim();
+            if (ANY.equals(candidate) || opaque.equals(opaque(candidate))) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    /**
+     * Computes the xxHash64 of the bytes of given {@link ByteBuf} in the given range. This method does not modify
+     * {@code readerIndex} or {@code writerIndex} of this buffer.
+     *
+     * @param buf    buffer
+     * @param index  start index
+     * @param length length
+     * @param seed   seed
+     * @return hash
+     */
+    public static long xxHash64(ByteBuf buf, int index, int length, long seed) {
+        final int end = index + length;
+        int i = index;
+        long h;
+        if (length >= 32) {
+            long v1 = seed + PRIME1 + PRIME2;
+            long v2 = seed + PRIME2;
+            long v3 = seed;
+            long v4 = seed - PRIME1;
+            final int limit = end - 32;
+            do {
+                v1 = round(v1, buf.getLongLE(i));
+                v2 = round(v2, buf.getLongLE(i + 8));
+                v3 = round(v3, buf.getLongLE(i + 16));
+                v4 = round(v4, buf.getLongLE(i + 24));
+                i += 32;
+            } while (i <= limit);
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = seed + PRIME5;
+        }
+        h += length;
+
+        while (i + 8 <= end) {
+            h ^= round(0L, buf.getLongLE(i));
+            h = Long.rotateLeft(h, 27) * PRIME1 + PRIME4;
+            i += 8;
+        }
+        if (i + 4 <= end) {
+            h ^= (buf.getIntLE(i) & 0xFFFFFFFFL) * PRIME1;
+            h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+            i += 4;
+        }
+        while (i < end) {
+            h ^= (buf.getByte(i) & 0xFFL) * PRIME5;
+            h = Long.rotateLeft(h, 11) * PRIME1;
+            i++;
+        }
+
+        h ^= h >>> 33;
+        h *= PRIME2;
+        h ^= h >>> 29;
+        h *= PRIME3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME1;
+    }
+
+    private static long mergeRound(long acc, long val) {
+        acc ^= round(0L, val);
+        return acc * PRIME1 + PRIME4;
+    }
+}
@@ -50,7 +50,8 @@ public class MappingUtils {
                 .name(StringUtils.nonEmptyOrElse(child.name(), parent.name()))
                 .path(combinePaths(parent.path(), child.path()))
                 .method(removeDuplicate(parent.method(), child.method(), new HttpMethod[0]))
-                .params(removeDuplicateString(parent.params(), child.params()));
+                .params(removeDuplicateString(parent.params(), child.params()))
+                .priority(child.priority() != Mapping.DEFAULT_PRIORITY ? child.priority() : parent.priority());
 
         String[] parentHeaders = parent.headers();
         if (parseConsumeExpressions(child.consumes(), child.headers()).isEmpty()) {
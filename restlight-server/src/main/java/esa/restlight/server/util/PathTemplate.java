@@ -0,0 +1,237 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compiled uri template such as {@code /foo/{bar}/baz{qux}.json}, which matches a path and extracts the template
+ * variables without allocating any intermediate objects.
+ * <p>
+ * Only the templates whose segments are either literal or contains a single plain template variable (without regex,
+ * {@code *}, {@code ?} or {@code **}) could be compiled, see {@link #compile(String)}. The matching result is as same
+ * as {@link PathMatcher#matchAndExtractUriTemplateVariables(String)} with a case-sensitive {@link PathMatcher}, but the
+ * variables are recorded as offsets of the path and exposed by {@link PathVariables} which could be accessed by the
+ * index of variable.
+ */
+public final class PathTemplate {
+
+    private static final char SEPARATOR = '/';
+    private static final int MAX_TL_ARRAY_LEN = 16;
+    private static final FastThreadLocal<int[]> TEMP_ARRAY = new FastThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[MAX_TL_ARRAY_LEN];
+        }
+    };
+
+    private final String pattern;
+    private final Segment[] segments;
+    private final String[] names;
+    private final boolean endsWithSeparator;
+
+    private PathTemplate(String pattern, Segment[] segments, String[] names) {
+        this.pattern = pattern;
+        this.segments = segments;
+        this.names = names;
+        this.endsWithSeparator = pattern.charAt(pattern.length() - 1) == SEPARATOR;
+    }
+
+    /**
+     * Compiles the given pattern.
+     *
+     * @param pattern pattern which must be started with '/'
+     * @return compiled template, or {@code null} if the given pattern does not contain any template variable or it
+     * could not be compiled.
+     */
+    public static PathTemplate compile(String pattern) {
+        if (pattern == null || pattern.isEmpty() || pattern.charAt(0) != SEPARATOR
+                || pattern.indexOf('*') != -1
+                || pattern.indexOf('?') != -1
+                || pattern.indexOf('\\') != -1) {
+            return null;
+        }
+        final List<Segment> segments = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        final int len = pattern.length();
+        int start = 0;
+        while (start < len) {
+            int end = pattern.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = len;
+            }
+            if (end > start) {
+                final Segment segment = toSegment(pattern.substring(start, end), names.size());
+                if (segment == null) {
+                    return null;
+                }
+                if (segment.name != null) {
+                    if (names.contains(segment.name)) {
+                        return null;
+                    }
+                    names.add(segment.name);
+                }
+                segments.add(segment);
+            }
+            start = end + 1;
+        }
+        if (names.isEmpty()) {
+            return null;
+        }
+        return new PathTemplate(pattern, segments.toArray(new Segment[0]), names.toArray(new String[0]));
+    }
+
+    private static Segment toSegment(String dir, int index) {
+        final int open = dir.indexOf('{');
+        final int close = dir.indexOf('}');
+        if (open == -1 && close == -1) {
+            return new Segment(dir, null, null, -1);
+        }
+        // only one variable without regex in a segment
+        if (open == -1 || close < open + 2
+                || dir.indexOf('{', open + 1) != -1
+                || dir.indexOf('}', close + 1) != -1) {
+            return null;
+        }
+        final int colon = dir.indexOf(':', open);
+        if (colon != -1 && colon < close) {
+            return null;
+        }
+        return new Segment(dir.substring(0, open),
+                dir.substring(close + 1),
+                dir.substring(open + 1, close),
+                index);
+    }
+
+    /**
+     * Matches the given path and extracts the template variables.
+     *
+     * @param path path
+     * @return variables if matched, otherwise {@code null}
+     */
+    public PathVariables match(String path) {
+        final int len = path.length();
+        if (len == 0 || path.charAt(0) != SEPARATOR
+                || endsWithSeparator != (path.charAt(len - 1) == SEPARATOR)) {
+            return null;
+        }
+        final int offsetsLen = names.length << 1;
+        final int[] offsets = offsetsLen <= MAX_TL_ARRAY_LEN ? TEMP_ARRAY.get() : new int[offsetsLen];
+        int i = 0;
+        int pos = 0;
+        for (; ; ) {
+            while (pos < len && path.charAt(pos) == SEPARATOR) {
+                pos++;
+            }
+            if (pos >= len) {
+                break;
+            }
+            int end = path.indexOf(SEPARATOR, pos);
+            if (end < 0) {
+                end = len;
+            }
+            if (i == segments.length || !segments[i].match(path, pos, end, offsets)) {
+                return null;
+            }
+            i++;
+            pos = end;
+        }
+        if (i != segments.length) {
+            return null;
+        }
+        return new PathVariables(this, path, Arrays.copyOf(offsets, offsetsLen));
+    }
+
+    /**
+     * Gets the index of the template variable with given name.
+     *
+     * @param name name of variable
+     * @return index, or {@code -1} if absent
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the name of the template variable at given index.
+     *
+     * @param index index
+     * @return name
+     */
+    public String nameAt(int index) {
+        return names[index];
+    }
+
+    /**
+     * Gets the number of template variables.
+     *
+     * @return number
+     */
+    public int variables() {
+        return names.length;
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    private static final class Segment {
+
+        private final String literal;
+        private final String suffix;
+        private final String name;
+        private final int index;
+
+        private Segment(String literal, String suffix, String name, int index) {
+            this.literal = literal;
+            this.suffix = suffix;
+            this.name = name;
+            this.index = index;
+        }
+
+        private boolean match(String path, int start, int end, int[] offsets) {
+            if (name == null) {
+                final int len = literal.length();
+                return end - start == len && path.regionMatches(start, literal, 0, len);
+            }
+            // literal is the prefix of the variable
+            final int prefixLen = literal.length();
+            final int suffixLen = suffix.length();
+            if (end - start < prefixLen + suffixLen
+                    || !path.regionMatches(start, literal, 0, prefixLen)
+                    || !path.regionMatches(end - suffixLen, suffix, 0, suffixLen)) {
+                return false;
+            }
+            offsets[index << 1] = start + prefixLen;
+            offsets[(index << 1) + 1] = end - suffixLen;
+            return true;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import esa.commons.StringUtils;
 import esa.commons.collection.LinkedMultiValueMap;
 import esa.commons.collection.MultiValueMap;
 import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.RequestAttributes;
 import esa.restlight.server.route.predicate.PatternsPredicate;
 
 import java.util.Collections;
@@ -28,8 +29,6 @@ import java.util.StringTokenizer;
 
 public final class PathVariableUtils {
 
-    private static final String MATRIX_VARIABLES_ATTRIBUTE = "$matrix.vars";
-
     public static String getPathVariable(AsyncRequest request, String name) {
         Map<String, String> variables = getPathVariables(request);
         if (variables == null || variables.isEmpty()) {
@@ -44,10 +43,10 @@ public final class PathVariableUtils {
 
     public static Map<String, MultiValueMap<String, String>> getMatrixVariables(AsyncRequest request) {
         Map<String, MultiValueMap<String, String>> matrixVars =
-                request.getUncheckedAttribute(MATRIX_VARIABLES_ATTRIBUTE);
+                request.getUncheckedAttribute(RequestAttributes.MATRIX_VARIABLES);
         if (matrixVars == null) {
             matrixVars = extractMatrixVariables(getPathVariables(request));
-            request.setAttribute(MATRIX_VARIABLES_ATTRIBUTE, matrixVars);
+            request.setAttribute(RequestAttributes.MATRIX_VARIABLES, matrixVars);
         }
 
         return matrixVars;
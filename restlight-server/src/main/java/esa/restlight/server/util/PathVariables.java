@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Template variables extracted by {@link PathTemplate#match(String)}, which records the offsets of the variables in
+ * the path and creates the values lazily.
+ * <p>
+ * Values could be accessed by the index of variable through {@link #get(int)} which is faster than {@link
+ * #get(Object)}, and the index of a variable could be obtained by {@link PathTemplate#indexOf(String)} of the {@link
+ * #template()}. The existing variables could be replaced by {@link #put(String, String)}, but new variables are not
+ * allowed.
+ */
+public final class PathVariables extends AbstractMap<String, String> {
+
+    private final PathTemplate template;
+    private final String path;
+    private final int[] offsets;
+    private String[] values;
+
+    PathVariables(PathTemplate template, String path, int[] offsets) {
+        this.template = template;
+        this.path = path;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Gets the {@link PathTemplate} which extracted current variables.
+     *
+     * @return template
+     */
+    public PathTemplate template() {
+        return template;
+    }
+
+    /**
+     * Gets the value of the variable at given index.
+     *
+     * @param index index of variable, see {@link PathTemplate#indexOf(String)}
+     * @return value
+     */
+    public String get(int index) {
+        String[] vs = values;
+        if (vs == null) {
+            values = vs = new String[template.variables()];
+        }
+        String v = vs[index];
+        if (v == null) {
+            vs[index] = v = path.substring(offsets[index << 1], offsets[(index << 1) + 1]);
+        }
+        return v;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final int index = template.indexOf((String) key);
+        return index < 0 ? null : get(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && template.indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public String put(String key, String value) {
+        final int index = template.indexOf(key);
+        if (index < 0) {
+            throw new UnsupportedOperationException("Unknown template variable: " + key);
+        }
+        final String old = get(index);
+        values[index] = value;
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return template.variables();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<Entry<String, String>>() {
+
+                    private int i;
+
+                    @Override
+                    public boolean hasNext() {
+                        return i < template.variables();
+                    }
+
+                    @Override
+                    public Map.Entry<String, String> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        final int index = i++;
+                        return new SimpleImmutableEntry<>(template.nameAt(index), get(index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return template.variables();
+            }
+        };
+    }
+}
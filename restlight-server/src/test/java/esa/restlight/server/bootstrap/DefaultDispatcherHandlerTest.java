@@ -18,6 +18,8 @@ package esa.restlight.server.bootstrap;
 import esa.commons.ExceptionUtils;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.metrics.RouteMetrics;
+import esa.restlight.server.metrics.RouteMetricsRegistry;
 import esa.restlight.server.route.Mapping;
 import esa.restlight.server.route.Route;
 import esa.restlight.server.route.RouteRegistry;
@@ -32,8 +34,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -284,6 +288,43 @@ class DefaultDispatcherHandlerTest {
         assertEquals(1, request.getAttribute("c"));
     }
 
+    @Test
+    void testServiceWithMetrics() {
+        final RouteRegistry registry = mock(RouteRegistry.class);
+        assertFalse(new DefaultDispatcherHandler(registry, exceptionHandlers()).metrics().isPresent());
+
+        final RouteMetricsRegistry metrics = new RouteMetricsRegistry();
+        final DefaultDispatcherHandler dispatcher = new DefaultDispatcherHandler(registry,
+                exceptionHandlers(), metrics);
+        assertSame(metrics, dispatcher.metrics().orElse(null));
+
+        final Route ok = Route.route(Mapping.get("/foo/{id}"))
+                .handle((req, res) -> res.sendResult(200));
+        final Route error = Route.route(Mapping.get("/foo/{id}"))
+                .handle((req, res) -> ExceptionUtils.throwException(new IllegalStateException("foo")));
+
+        final CompletableFuture<Void> cf0 = new CompletableFuture<>();
+        dispatcher.service(MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build(), cf0, ok, 1000L);
+        final CompletableFuture<Void> cf1 = new CompletableFuture<>();
+        dispatcher.service(MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build(), cf1, error);
+        cf0.join();
+        cf1.join();
+
+        // routes with the same method and path template share the same metrics
+        final RouteMetrics m = metrics.metrics(ok);
+        assertSame(m, metrics.metrics(error));
+        assertEquals(1, metrics.metrics().size());
+        assertEquals("GET", m.method());
+        assertEquals("/foo/{id}", m.uri());
+        assertEquals(2L, m.requests());
+        assertEquals(1L, m.errors());
+        assertEquals(2L, m.latency().count());
+        assertEquals(1L, m.queueWait().count());
+        assertTrue(m.latency().max(TimeUnit.NANOSECONDS) >= 1000D);
+    }
+
     private List<DispatcherExceptionHandler> exceptionHandlers() {
         return Collections.singletonList(new DefaultDispatcherExceptionHandler());
     }
@@ -16,12 +16,15 @@
 package esa.restlight.server.bootstrap;
 
 import esa.commons.NetworkUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
 import esa.restlight.core.util.RestlightVer;
 import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.config.ServerOptionsConfigure;
 import esa.restlight.server.config.SslOptionsConfigure;
 import esa.restlight.server.handler.RestlightHandler;
 import esa.restlight.server.schedule.ExecutorScheduler;
+import esa.restlight.server.schedule.Scheduler;
 import esa.restlight.server.schedule.Schedulers;
 import esa.restlight.server.util.Futures;
 import io.netty.buffer.UnpooledByteBufAllocator;
@@ -29,14 +32,25 @@ import io.netty.channel.ChannelOption;
 import io.netty.handler.codec.http.HttpServerCodec;
 import org.junit.jupiter.api.Test;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -107,4 +121,100 @@ class NettyRestlightServerTest {
         }
     }
 
+    @Test
+    void testBizExecutorOfBulkhead() {
+        final RestlightHandler handler = mock(RestlightHandler.class);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // the handler keeps one of the bulkheads of the biz scheduler which are routed to
+            final Scheduler bulkhead = Schedulers.bulkhead(Schedulers.fromExecutor(Schedulers.BIZ, executor), 8);
+            when(handler.schedulers()).thenReturn(Collections.singletonList(bulkhead));
+            final RestlightServer server = RestlightServerBootstrap.from(handler, ServerOptionsConfigure.defaultOpts())
+                    .daemon(true)
+                    .forServer();
+            assertSame(executor, server.bizExecutor());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testUnsubscribedStreamingBodyDoesNotBlockConnection() throws Exception {
+        final ServerOptions options = ServerOptionsConfigure.newOpts()
+                .ioThreads(1)
+                .streamingBodyEnable(true)
+                .configured();
+        final RestlightHandler handler = new RestlightHandler() {
+            @Override
+            public CompletableFuture<Void> process(AsyncRequest request, AsyncResponse response) {
+                // respond without subscribing the body, just like a route which is not found
+                response.sendResult(404);
+                return Futures.completedFuture();
+            }
+
+            @Override
+            public List<Scheduler> schedulers() {
+                return Collections.emptyList();
+            }
+        };
+        final int port = NetworkUtils.selectRandomPort();
+        final RestlightServer server = RestlightServerBootstrap.from(handler, options)
+                .daemon(true)
+                .withAddress("127.0.0.1", port)
+                .forServer();
+        server.start();
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setSoTimeout(5000);
+            final OutputStream out = socket.getOutputStream();
+            final InputStream in = socket.getInputStream();
+            // larger than the high water mark of the streaming body
+            final byte[] body = new byte[256 * 1024];
+            out.write(("POST /foo HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + body.length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.write(body);
+            out.flush();
+            assertEquals(404, readStatus(in));
+
+            out.write("GET /bar HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            assertEquals(404, readStatus(in));
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    /**
+     * Reads a whole response and returns the status code.
+     */
+    private static int readStatus(InputStream in) throws IOException {
+        final String status = readLine(in);
+        int contentLength = 0;
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            final int idx = line.indexOf(':');
+            if (line.substring(0, idx).trim().equalsIgnoreCase("content-length")) {
+                contentLength = Integer.parseInt(line.substring(idx + 1).trim());
+            }
+        }
+        for (int i = 0; i < contentLength; i++) {
+            if (in.read() < 0) {
+                throw new EOFException();
+            }
+        }
+        return Integer.parseInt(status.split(" ")[1]);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException();
+            }
+            if (b != '\r') {
+                sb.append((char) b);
+            }
+        }
+        return sb.toString();
+    }
 }
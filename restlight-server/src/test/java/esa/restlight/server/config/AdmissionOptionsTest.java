@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final AdmissionOptions options = AdmissionOptionsConfigure.newOpts()
+                .enable(true)
+                .cpuLoadThreshold(70.0D)
+                .queueThreshold(60.0D)
+                .eventLoopLagMillis(20L)
+                .intervalMillis(200L)
+                .maxRejectRate(90.0D)
+                .configured();
+
+        assertTrue(options.isEnable());
+        assertEquals(70.0D, options.getCpuLoadThreshold());
+        assertEquals(60.0D, options.getQueueThreshold());
+        assertEquals(20L, options.getEventLoopLagMillis());
+        assertEquals(200L, options.getIntervalMillis());
+        assertEquals(90.0D, options.getMaxRejectRate());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final AdmissionOptions options = AdmissionOptionsConfigure.defaultOpts();
+        final AdmissionOptions def = new AdmissionOptions();
+        assertEquals(def.isEnable(), options.isEnable());
+        assertEquals(def.getCpuLoadThreshold(), options.getCpuLoadThreshold());
+        assertEquals(def.getQueueThreshold(), options.getQueueThreshold());
+        assertEquals(def.getEventLoopLagMillis(), options.getEventLoopLagMillis());
+        assertEquals(def.getIntervalMillis(), options.getIntervalMillis());
+        assertEquals(def.getMaxRejectRate(), options.getMaxRejectRate());
+    }
+
+}
@@ -18,6 +18,7 @@ package esa.restlight.server.config;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class BizThreadsOptionsTest {
 
@@ -28,12 +29,16 @@ class BizThreadsOptionsTest {
                 .max(2)
                 .blockingQueueLength(3)
                 .keepAliveTimeSeconds(4L)
+                .adaptive(true)
+                .targetQueueWaitMillis(5L)
                 .configured();
 
         assertEquals(1, options.getCore());
         assertEquals(2, options.getMax());
         assertEquals(3, options.getBlockingQueueLength());
         assertEquals(4L, options.getKeepAliveTimeSeconds());
+        assertTrue(options.isAdaptive());
+        assertEquals(5L, options.getTargetQueueWaitMillis());
     }
 
     @Test
@@ -44,6 +49,8 @@ class BizThreadsOptionsTest {
         assertEquals(def.getMax(), options.getMax());
         assertEquals(def.getBlockingQueueLength(), options.getBlockingQueueLength());
         assertEquals(def.getKeepAliveTimeSeconds(), options.getKeepAliveTimeSeconds());
+        assertEquals(def.isAdaptive(), options.isAdaptive());
+        assertEquals(def.getTargetQueueWaitMillis(), options.getTargetQueueWaitMillis());
     }
 }
 
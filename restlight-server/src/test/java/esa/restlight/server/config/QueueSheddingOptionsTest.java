@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueueSheddingOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final QueueSheddingOptions options = QueueSheddingOptionsConfigure.newOpts()
+                .targetMillis(10L)
+                .intervalMillis(200L)
+                .configured();
+
+        assertEquals(10L, options.getTargetMillis());
+        assertEquals(200L, options.getIntervalMillis());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final QueueSheddingOptions options = QueueSheddingOptionsConfigure.defaultOpts();
+        final QueueSheddingOptions def = new QueueSheddingOptions();
+        assertEquals(def.getTargetMillis(), options.getTargetMillis());
+        assertEquals(def.getIntervalMillis(), options.getIntervalMillis());
+    }
+
+}
@@ -19,6 +19,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RouteOptionsTest {
 
@@ -28,11 +29,13 @@ class RouteOptionsTest {
                 .cacheRatio(100)
                 .computeRate(100)
                 .useCachedRouting(false)
+                .useTrieRouting(true)
                 .configured();
 
         assertEquals(100, options.getCacheRatio());
         assertEquals(100, options.getComputeRate());
         assertFalse(options.isUseCachedRouting());
+        assertTrue(options.isUseTrieRouting());
     }
 
     @Test
@@ -42,6 +45,7 @@ class RouteOptionsTest {
         assertEquals(def.getComputeRate(), options.getComputeRate());
         assertEquals(def.getCacheRatio(), options.getCacheRatio());
         assertEquals(def.isUseCachedRouting(), options.isUseCachedRouting());
+        assertEquals(def.isUseTrieRouting(), options.isUseTrieRouting());
     }
 
 }
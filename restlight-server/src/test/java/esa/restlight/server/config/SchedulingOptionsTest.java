@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class SchedulingOptionsTest {
@@ -29,14 +30,20 @@ class SchedulingOptionsTest {
     void testConfigure() {
         final Map<String, TimeoutOptions> timeoutOptions = new HashMap<>(1);
         timeoutOptions.put("A", TimeoutOptionsConfigure.defaultOpts());
+        final Map<String, QueueSheddingOptions> sheddingOptions = new HashMap<>(1);
+        sheddingOptions.put("A", QueueSheddingOptionsConfigure.defaultOpts());
 
         final SchedulingOptions options = SchedulingOptionsConfigure.newOpts()
                 .defaultScheduler("foo")
                 .timeout(timeoutOptions)
+                .shedding(sheddingOptions)
+                .admission(AdmissionOptionsConfigure.newOpts().enable(true).configured())
                 .configured();
 
         assertEquals("foo", options.getDefaultScheduler());
         assertEquals(1, options.getTimeout().size());
+        assertEquals(1, options.getShedding().size());
+        assertTrue(options.getAdmission().isEnable());
     }
 
     @Test
@@ -44,6 +51,8 @@ class SchedulingOptionsTest {
         assertEquals(new SchedulingOptions().getDefaultScheduler(),
                 SchedulingOptionsConfigure.defaultOpts().getDefaultScheduler());
         assertTrue(new SchedulingOptions().getTimeout().isEmpty());
+        assertTrue(new SchedulingOptions().getShedding().isEmpty());
+        assertFalse(SchedulingOptionsConfigure.defaultOpts().getAdmission().isEnable());
     }
 
 }
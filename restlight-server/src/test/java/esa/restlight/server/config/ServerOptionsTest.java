@@ -40,6 +40,7 @@ class ServerOptionsTest {
                 .compress(true)
                 .decompress(true)
                 .maxContentLength(9)
+                .streamingBodyEnable(true)
                 .maxInitialLineLength(10)
                 .maxHeaderSize(11)
                 .soBacklog(12)
@@ -47,6 +48,7 @@ class ServerOptionsTest {
                 .writeBufferLowWaterMark(14)
                 .idleTimeSeconds(15)
                 .keepAliveEnable(false)
+                .metricsEnable(true)
                 .logging(LogLevel.DEBUG)
                 .scheduling(null)
                 .route(null)
@@ -68,6 +70,7 @@ class ServerOptionsTest {
         assertTrue(options.isDecompress());
 
         assertEquals(9, options.getMaxContentLength());
+        assertTrue(options.isStreamingBodyEnable());
         assertEquals(10, options.getMaxInitialLineLength());
         assertEquals(11, options.getMaxHeaderSize());
         assertEquals(12, options.getSoBacklog());
@@ -75,6 +78,7 @@ class ServerOptionsTest {
         assertEquals(14, options.getWriteBufferLowWaterMark());
         assertEquals(15, options.getIdleTimeSeconds());
         assertFalse(options.isKeepAliveEnable());
+        assertTrue(options.isMetricsEnable());
         assertEquals(LogLevel.DEBUG, options.getLogging());
         assertNull(options.getScheduling());
         assertNull(options.getRoute());
@@ -103,6 +107,7 @@ class ServerOptionsTest {
         assertEquals(def.isCompress(), options.isCompress());
         assertEquals(def.isDecompress(), options.isDecompress());
         assertEquals(def.getMaxContentLength(), options.getMaxContentLength());
+        assertEquals(def.isStreamingBodyEnable(), options.isStreamingBodyEnable());
         assertEquals(def.getMaxInitialLineLength(), options.getMaxInitialLineLength());
         assertEquals(def.getMaxHeaderSize(), options.getMaxHeaderSize());
         assertEquals(def.getSoBacklog(), options.getSoBacklog());
@@ -110,6 +115,7 @@ class ServerOptionsTest {
         assertEquals(def.getWriteBufferLowWaterMark(), options.getWriteBufferLowWaterMark());
         assertEquals(def.getIdleTimeSeconds(), options.getIdleTimeSeconds());
         assertEquals(def.isKeepAliveEnable(), options.isKeepAliveEnable());
+        assertEquals(def.isMetricsEnable(), options.isMetricsEnable());
         assertEquals(def.getLogging(), options.getLogging());
         assertNotNull(def.getScheduling());
         assertNotNull(def.getRoute());
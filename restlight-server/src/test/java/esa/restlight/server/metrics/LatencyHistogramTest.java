@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBuckets() {
+        for (int precision = 1; precision <= 8; precision++) {
+            int prev = -1;
+            for (long v = 0L; v < 1 << 20; v++) {
+                final int index = LatencyHistogram.indexOf(v, precision);
+                assertTrue(index == prev || index == prev + 1);
+                assertTrue(v <= LatencyHistogram.highestValueOf(index, precision));
+                prev = index;
+            }
+            assertEquals(LatencyHistogram.bucketsOf(precision) - 1,
+                    LatencyHistogram.indexOf(1L << 41, precision));
+            assertEquals(LatencyHistogram.indexOf(1L << 41, precision),
+                    LatencyHistogram.indexOf(Long.MAX_VALUE, precision));
+        }
+    }
+
+    @Test
+    void testPrecision() {
+        final LatencyHistogram histogram = new LatencyHistogram(6);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        // relative error should be less than 1/64
+        assertEquals(500D, histogram.percentile(0.5D, TimeUnit.MICROSECONDS), 500D / 64);
+        assertEquals(990D, histogram.percentile(0.99D, TimeUnit.MICROSECONDS), 990D / 64);
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(9));
+        assertThrows(IllegalArgumentException.class, () -> histogram.merge(new LatencyHistogram()));
+    }
+
+    @Test
+    void testSnapshot() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        histogram.record(1000L);
+        assertEquals(100L, snapshot.count());
+        assertEquals(100D, snapshot.max(TimeUnit.NANOSECONDS));
+        assertEquals(50D, snapshot.percentile(0.5D, TimeUnit.NANOSECONDS), 50D / 16);
+        assertEquals(100D, snapshot.percentile(1D, TimeUnit.NANOSECONDS));
+        assertEquals(1000D, histogram.percentile(1D, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void testRecord() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0D, histogram.percentile(0.99D, TimeUnit.NANOSECONDS));
+
+        histogram.record(-1L);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        assertEquals(1000L, histogram.count());
+        assertEquals(500.5D, histogram.totalTime(TimeUnit.MILLISECONDS), 0.000001D);
+        assertEquals(1000D, histogram.max(TimeUnit.MICROSECONDS));
+        assertEquals(1000D, histogram.percentile(1D, TimeUnit.MICROSECONDS));
+        // relative error should be less than 1/16
+        assertEquals(500D, histogram.percentile(0.5D, TimeUnit.MICROSECONDS), 500D / 16);
+        assertEquals(990D, histogram.percentile(0.99D, TimeUnit.MICROSECONDS), 990D / 16);
+    }
+
+    @Test
+    void testConcurrentRecord() throws InterruptedException {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final int threads = 4;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    histogram.record(j);
+                }
+                latch.countDown();
+            }).start();
+        }
+        assertTrue(latch.await(10L, TimeUnit.SECONDS));
+        assertEquals(40000L, histogram.count());
+        assertEquals(9999D, histogram.max(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void testMerge() {
+        final LatencyHistogram h1 = new LatencyHistogram();
+        final LatencyHistogram h2 = new LatencyHistogram();
+        h1.record(100L);
+        h2.record(200L);
+        h2.record(300L);
+        h1.merge(h2);
+        assertEquals(3L, h1.count());
+        assertEquals(600D, h1.totalTime(TimeUnit.NANOSECONDS));
+        assertEquals(300D, h1.max(TimeUnit.NANOSECONDS));
+        assertEquals(200D, h1.percentile(0.5D, TimeUnit.NANOSECONDS), 200D / 16);
+        assertEquals(100D, h1.percentile(0D, TimeUnit.NANOSECONDS), 100D / 16);
+        // merged histogram is unchanged
+        assertEquals(2L, h2.count());
+    }
+
+    @Test
+    void testRotateWindows() {
+        final AtomicLong clock = new AtomicLong();
+        final LatencyHistogram histogram = new LatencyHistogram(10L, TimeUnit.SECONDS, 2,
+                LatencyHistogram.DEFAULT_PRECISION, clock::get);
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(100L));
+        assertEquals(100D, histogram.max(TimeUnit.MILLISECONDS));
+
+        // still in the ring
+        clock.set(TimeUnit.SECONDS.toNanos(10L));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(10L));
+        assertEquals(100D, histogram.max(TimeUnit.MILLISECONDS));
+        assertEquals(100D, histogram.percentile(1D, TimeUnit.MILLISECONDS), 100D / 16);
+
+        // the first window has been cleared
+        clock.set(TimeUnit.SECONDS.toNanos(20L));
+        assertEquals(10D, histogram.max(TimeUnit.MILLISECONDS));
+        assertEquals(10D, histogram.percentile(1D, TimeUnit.MILLISECONDS), 10D / 16);
+
+        // idle for a long time
+        clock.set(TimeUnit.MINUTES.toNanos(10L));
+        assertEquals(0D, histogram.max(TimeUnit.MILLISECONDS));
+        assertEquals(0D, histogram.percentile(0.99D, TimeUnit.MILLISECONDS));
+
+        // cumulative
+        assertEquals(2L, histogram.count());
+        assertEquals(110D, histogram.totalTime(TimeUnit.MILLISECONDS), 0.000001D);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RouteMetricsRegistryTest {
+
+    @Test
+    void testMetrics() {
+        final RouteMetricsRegistry registry = new RouteMetricsRegistry();
+        final RouteMetrics get = registry.metrics(Route.route(Mapping.get("/foo")));
+        assertEquals("GET", get.method());
+        assertEquals("/foo", get.uri());
+        assertSame(get, registry.metrics(Route.route(Mapping.get("/foo"))));
+
+        final RouteMetrics post = registry.metrics(Route.route(Mapping.post("/foo")));
+        assertNotSame(get, post);
+        assertEquals("POST", post.method());
+
+        final RouteMetrics all = registry.metrics(Route.route(Mapping.mapping("/bar")));
+        assertEquals("ALL", all.method());
+        assertEquals("/bar", all.uri());
+        assertEquals(3, registry.metrics().size());
+    }
+
+    @Test
+    void testListener() {
+        final RouteMetricsRegistry registry = new RouteMetricsRegistry();
+        final RouteMetrics foo = registry.metrics(Route.route(Mapping.get("/foo")));
+        final List<RouteMetrics> notified = new ArrayList<>();
+        registry.addListener(notified::add);
+        assertEquals(1, notified.size());
+        assertSame(foo, notified.get(0));
+
+        registry.metrics(Route.route(Mapping.get("/foo")));
+        assertEquals(1, notified.size());
+        final RouteMetrics bar = registry.metrics(Route.route(Mapping.get("/bar")));
+        assertEquals(2, notified.size());
+        assertSame(bar, notified.get(1));
+    }
+
+    @Test
+    void testRecord() {
+        final RouteMetrics metrics = new RouteMetricsRegistry().metrics(Route.route(Mapping.get("/foo")));
+        metrics.record(100L, -1L, false, null);
+        metrics.record(200L, 10L, true, new ExecutionTimings() {
+            @Override
+            public long resolveNanos() {
+                return 1L;
+            }
+
+            @Override
+            public long handleNanos() {
+                return 2L;
+            }
+
+            @Override
+            public long serializeNanos() {
+                return -1L;
+            }
+        });
+        assertEquals(2L, metrics.requests());
+        assertEquals(1L, metrics.errors());
+        assertEquals(2L, metrics.latency().count());
+        assertEquals(1L, metrics.queueWait().count());
+        assertEquals(1L, metrics.resolve().count());
+        assertEquals(1L, metrics.handle().count());
+        assertEquals(0L, metrics.serialize().count());
+    }
+}
@@ -34,6 +34,7 @@ class RouteTest {
         final Route route = Route.route();
         assertNotNull(route);
         assertFalse(route.handler().isPresent());
+        assertFalse(route.isStreamingBody());
     }
 
     @Test
@@ -49,11 +50,13 @@ class RouteTest {
         final Route route = Route.route(Mapping.get())
                 .handle(() -> exe.set(true))
                 .schedule(Schedulers.fromExecutor("foo", DirectExecutor.INSTANCE))
+                .streamingBody(true)
                 .handlerObject(new Object());
 
         final Route newRoute = Route.route(route);
 
         assertSame(route.mapping(), newRoute.mapping());
+        assertTrue(newRoute.isStreamingBody());
         assertSame(route.scheduler(), newRoute.scheduler());
         assertSame(route.handler().orElse(null), newRoute.handler().orElse(null));
 
@@ -324,6 +324,20 @@ class MappingImplTest {
         assertEquals(HttpMethod.HEAD, mapping8.method()[0]);
     }
 
+    @Test
+    void testPriority() {
+        final MappingImpl mapping = Mapping.get("/foo");
+        assertEquals(Mapping.DEFAULT_PRIORITY, mapping.priority());
+        assertSame(mapping, mapping.priority(Mapping.DEFAULT_PRIORITY));
+
+        final MappingImpl prioritized = mapping.priority(10);
+        assertEquals(10, prioritized.priority());
+        // priority should be kept while building
+        assertEquals(10, prioritized.hasParam("a").consumes(MediaType.TEXT_PLAIN).name("foo").priority());
+        assertNotEquals(mapping, prioritized);
+        assertTrue(prioritized.toString().contains("priority=10"));
+    }
+
     @Test
     void testToString() {
         assertEquals("", Mapping.mapping().toString());
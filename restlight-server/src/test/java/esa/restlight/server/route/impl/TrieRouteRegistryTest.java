@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.test.mock.MockAsyncRequest;
+import org.junit.jupiter.api.Test;
+
+import static esa.restlight.server.route.Mapping.get;
+import static esa.restlight.server.route.Mapping.post;
+import static esa.restlight.server.route.Route.route;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TrieRouteRegistryTest extends DefaultRouteRegistryTest {
+
+    @Override
+    public RouteRegistry buildMapperRegistry() {
+        return new TrieRouteRegistry();
+    }
+
+    @Test
+    void testFirstRegisteredWins() {
+        final RouteRegistry registry = buildMapperRegistry();
+        final Mapping all = get("/foo/**");
+        final Mapping var = get("/foo/{foo}");
+        final Mapping literal = get("/foo/bar");
+        registry.registerRoute(route(all));
+        registry.registerRoute(route(var));
+        registry.registerRoute(route(literal));
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+
+        assertSame(all, match(readOnly, "/foo/bar"));
+        assertSame(all, match(readOnly, "/foo/baz"));
+        assertSame(all, match(readOnly, "/foo"));
+    }
+
+    @Test
+    void testLiteralAndWildcardSegments() {
+        final RouteRegistry registry = buildMapperRegistry();
+        final Mapping literal = get("/foo/bar/baz");
+        final Mapping var = get("/foo/{foo}/baz");
+        final Mapping glob = get("/foo/b?r/qu*");
+        final Mapping single = get("/foo/*");
+        final Mapping postVar = post("/foo/{foo}/baz");
+        registry.registerRoute(route(postVar));
+        registry.registerRoute(route(literal));
+        registry.registerRoute(route(var));
+        registry.registerRoute(route(glob));
+        registry.registerRoute(route(single));
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+
+        assertSame(literal, match(readOnly, "/foo/bar/baz"));
+        assertSame(var, match(readOnly, "/foo/qux/baz"));
+        assertSame(glob, match(readOnly, "/foo/bar/qux"));
+        assertSame(single, match(readOnly, "/foo/qux"));
+        assertSame(single, match(readOnly, "/foo/"));
+        assertSame(postVar, match(readOnly, MockAsyncRequest.aMockRequest()
+                .withMethod("POST")
+                .withUri("/foo/qux/baz")
+                .build()));
+        assertNull(match(readOnly, "/foo/qux/qux"));
+        assertNull(match(readOnly, "/bar"));
+        assertNull(match(readOnly, "/"));
+    }
+
+    @Test
+    void testMiddleDoubleWildcardsAndEmptyPath() {
+        final RouteRegistry registry = buildMapperRegistry();
+        final Mapping middle = get("/foo/**/baz");
+        final Mapping any = Mapping.put();
+        registry.registerRoute(route(middle));
+        registry.registerRoute(route(any));
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+
+        assertSame(middle, match(readOnly, "/foo/baz"));
+        assertSame(middle, match(readOnly, "/foo/a/b/baz"));
+        assertNull(match(readOnly, "/foo/a/b/qux"));
+        assertSame(any, match(readOnly, MockAsyncRequest.aMockRequest()
+                .withMethod("PUT")
+                .withUri("/qux")
+                .build()));
+    }
+
+    private static Mapping match(ReadOnlyRouteRegistry registry, String uri) {
+        return match(registry, MockAsyncRequest.aMockRequest().withUri(uri).build());
+    }
+
+    private static Mapping match(ReadOnlyRouteRegistry registry, AsyncRequest request) {
+        final Route route = registry.route(request);
+        return route == null ? null : route.mapping();
+    }
+}
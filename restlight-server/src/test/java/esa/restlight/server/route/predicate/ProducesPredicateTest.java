@@ -27,6 +27,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ProducesPredicateTest {
@@ -150,6 +151,37 @@ class ProducesPredicateTest {
                 ((List<MediaType>) request.getAttribute(ProducesPredicate.COMPATIBLE_MEDIA_TYPES)).size());
     }
 
+    @Test
+    void testCachedCompatibleMediaTypes() {
+        final ProducesPredicate predicate = ProducesPredicate.parseFrom(new String[]{"application/json",
+                "text/plain"});
+        final AsyncRequest request0 = MockAsyncRequest
+                .aMockRequest()
+                .withHeader(HttpHeaderNames.ACCEPT.toString(), "text/plain;q=0.5,application/json")
+                .build();
+        final AsyncRequest request1 = MockAsyncRequest
+                .aMockRequest()
+                .withHeader(HttpHeaderNames.ACCEPT.toString(), "text/plain;q=0.5,application/json")
+                .build();
+        assertTrue(predicate.test(request0));
+        assertTrue(predicate.test(request1));
+        final List<MediaType> compatible0 =
+                (List<MediaType>) request0.getAttribute(ProducesPredicate.COMPATIBLE_MEDIA_TYPES);
+        assertEquals(2, compatible0.size());
+        assertEquals(MediaType.APPLICATION_JSON, compatible0.get(0));
+        assertSame(compatible0, request1.getAttribute(ProducesPredicate.COMPATIBLE_MEDIA_TYPES));
+
+        final AsyncRequest request2 = MockAsyncRequest
+                .aMockRequest()
+                .withHeader(HttpHeaderNames.ACCEPT.toString(), "text/plain")
+                .build();
+        assertTrue(predicate.test(request2));
+        final List<MediaType> compatible2 =
+                (List<MediaType>) request2.getAttribute(ProducesPredicate.COMPATIBLE_MEDIA_TYPES);
+        assertEquals(1, compatible2.size());
+        assertEquals(MediaType.TEXT_PLAIN, compatible2.get(0));
+    }
+
     @Test
     void testMayAmbiguous() {
         assertFalse(ProducesPredicate.parseFrom(new String[]{"text/plain"}).mayAmbiguousWith(null));
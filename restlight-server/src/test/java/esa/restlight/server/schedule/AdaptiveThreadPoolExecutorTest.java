@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveThreadPoolExecutorTest {
+
+    @Test
+    void testBoundedQueue() throws InterruptedException {
+        final AdaptiveThreadPoolExecutor executor = new AdaptiveThreadPoolExecutor(1,
+                1,
+                60L,
+                TimeUnit.SECONDS,
+                1,
+                10L,
+                new RestlightThreadFactory("adaptive-test"));
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(2);
+        try {
+            executor.execute(() -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+            executor.execute(done::countDown);
+            assertEquals(1, executor.getQueue().size());
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+            }));
+
+            latch.countDown();
+            assertTrue(done.await(5L, TimeUnit.SECONDS));
+            assertEquals(0, executor.getQueue().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRequestTaskIsKeptAfterShutdown() {
+        final AdaptiveThreadPoolExecutor executor = new AdaptiveThreadPoolExecutor(1,
+                1,
+                60L,
+                TimeUnit.SECONDS,
+                8,
+                10L,
+                new RestlightThreadFactory("adaptive-test"));
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final RequestTask task = RequestTaskImpl.newRequestTask(MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build(),
+                new CompletableFuture<>(),
+                () -> {
+                });
+        executor.execute(task);
+        final List<Runnable> unfinished = executor.shutdownNow();
+        latch.countDown();
+        assertEquals(1, unfinished.size());
+        assertTrue(unfinished.get(0) instanceof RequestTask);
+        assertEquals(task.request(), ((RequestTask) unfinished.get(0)).request());
+    }
+
+    @Test
+    void testRemoveAndDrain() {
+        final AdaptiveThreadPoolExecutor executor = new AdaptiveThreadPoolExecutor(1,
+                1,
+                60L,
+                TimeUnit.SECONDS,
+                2,
+                10L,
+                new RestlightThreadFactory("adaptive-test"));
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            final Runnable r1 = () -> {
+            };
+            final Runnable r2 = () -> {
+            };
+            executor.execute(r1);
+            executor.execute(r2);
+            assertEquals(2, executor.getQueue().size());
+            assertEquals(0, executor.getQueue().remainingCapacity());
+
+            assertTrue(executor.remove(r1));
+            assertFalse(executor.remove(r1));
+            assertEquals(1, executor.getQueue().size());
+
+            final List<Runnable> drained = new ArrayList<>();
+            assertEquals(1, executor.getQueue().drainTo(drained));
+            assertEquals(1, drained.size());
+            assertEquals(0, executor.getQueue().size());
+            assertEquals(2, executor.getQueue().remainingCapacity());
+        } finally {
+            latch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGrowCoreSizeWhenWaitingTooLong() throws InterruptedException {
+        final AdaptiveThreadPoolExecutor executor = new AdaptiveThreadPoolExecutor(1,
+                4,
+                60L,
+                TimeUnit.SECONDS,
+                1024,
+                1L,
+                new RestlightThreadFactory("adaptive-test"));
+        try {
+            final int tasks = 64;
+            final CountDownLatch done = new CountDownLatch(tasks);
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(() -> {
+                    try {
+                        Thread.sleep(10L);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10L, TimeUnit.SECONDS));
+            assertTrue(executor.getCorePoolSize() > 1);
+            assertTrue(executor.averageQueueWait(TimeUnit.NANOSECONDS) > 0L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
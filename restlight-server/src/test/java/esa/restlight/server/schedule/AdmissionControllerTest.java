@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.restlight.server.config.AdmissionOptionsConfigure;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControllerTest {
+
+    @Test
+    void testIllegalArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdmissionController(AdmissionOptionsConfigure.newOpts().intervalMillis(0L).configured(),
+                        new int[0], null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdmissionController(AdmissionOptionsConfigure.newOpts().maxRejectRate(0D).configured(),
+                        new int[0], null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdmissionController(AdmissionOptionsConfigure.newOpts().maxRejectRate(101D).configured(),
+                        new int[0], null));
+    }
+
+    @Test
+    void testRejectLowerPriorityFirst() {
+        final AdmissionController controller = new AdmissionController(noSignals().maxRejectRate(100D).configured(),
+                new int[]{0, 10, 0, 10},
+                null);
+        assertTrue(controller.tryAdmit(0));
+        assertTrue(controller.tryAdmit(10));
+
+        for (int i = 0; i < 5; i++) {
+            controller.update(2D);
+        }
+        // all of the requests with the lowest priority are rejected
+        assertEquals(0.5D, controller.ratio(), 1e-9);
+        for (int i = 0; i < 100; i++) {
+            assertFalse(controller.tryAdmit(0));
+            assertTrue(controller.tryAdmit(10));
+            // unknown priorities
+            assertFalse(controller.tryAdmit(-1));
+            assertTrue(controller.tryAdmit(20));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            controller.update(2D);
+        }
+        assertEquals(1D, controller.ratio(), 1e-9);
+        assertFalse(controller.tryAdmit(10));
+
+        // keep the ratio if the load is around the threshold
+        controller.update(0.95D);
+        assertEquals(1D, controller.ratio(), 1e-9);
+
+        for (int i = 0; i < 60; i++) {
+            controller.update(0.5D);
+        }
+        assertEquals(0D, controller.ratio());
+        assertTrue(controller.tryAdmit(0));
+    }
+
+    @Test
+    void testMaxRejectRate() {
+        final AdmissionController controller = new AdmissionController(noSignals().maxRejectRate(50D).configured(),
+                new int[0],
+                null);
+        for (int i = 0; i < 20; i++) {
+            controller.update(2D);
+        }
+        assertEquals(0.5D, controller.ratio(), 1e-9);
+        int admitted = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (controller.tryAdmit(0)) {
+                admitted++;
+            }
+        }
+        assertTrue(admitted > 4000 && admitted < 6000, String.valueOf(admitted));
+    }
+
+    @Test
+    void testQueueUsage() throws InterruptedException {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1,
+                1,
+                0L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(4));
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            final AdmissionController controller = new AdmissionController(noSignals().queueThreshold(50D)
+                    .configured(),
+                    new int[0],
+                    Collections.singletonList(Schedulers.fromExecutor("foo", executor)));
+            assertEquals(0D, controller.pressure());
+            executor.execute(() -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute(() -> {
+            });
+            executor.execute(() -> {
+            });
+            executor.execute(() -> {
+            });
+            // 3 of 4 are in use
+            assertEquals(1.5D, controller.pressure(), 1e-9);
+        } finally {
+            latch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testEventLoopLag() throws InterruptedException {
+        final EventLoop loop = new DefaultEventLoop();
+        final AdmissionController controller = new AdmissionController(noSignals().eventLoopLagMillis(10L)
+                .intervalMillis(5L)
+                .configured(),
+                new int[0],
+                null);
+        try {
+            controller.probe(loop);
+            controller.probe(loop);
+            final CountDownLatch blocked = new CountDownLatch(1);
+            loop.execute(() -> {
+                try {
+                    Thread.sleep(100L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                blocked.countDown();
+            });
+            Thread.sleep(50L);
+            // the probe is blocked now
+            assertTrue(controller.pressure() > 1D);
+            assertTrue(blocked.await(5L, TimeUnit.SECONDS));
+        } finally {
+            controller.shutdown();
+            loop.shutdownGracefully();
+        }
+    }
+
+    private static AdmissionOptionsConfigure noSignals() {
+        return AdmissionOptionsConfigure.newOpts()
+                .enable(true)
+                .cpuLoadThreshold(0D)
+                .queueThreshold(0D)
+                .eventLoopLagMillis(0L);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkheadSchedulerTest {
+
+    @Test
+    void testDelegate() {
+        final Scheduler delegate = mock(Scheduler.class);
+        when(delegate.name()).thenReturn("foo");
+        final Scheduler scheduler = Schedulers.bulkhead(delegate, 1);
+        assertTrue(Schedulers.isBulkhead(scheduler));
+        assertFalse(Schedulers.isBulkhead(delegate));
+        assertEquals("foo", scheduler.name());
+        assertSame(delegate, ((BulkheadScheduler) scheduler).unwrap());
+
+        scheduler.shutdown();
+        verify(delegate).shutdown();
+
+        assertThrows(IllegalArgumentException.class, () -> Schedulers.bulkhead(Schedulers.biz(), 1));
+        assertThrows(IllegalArgumentException.class, () -> Schedulers.bulkhead(delegate, 0));
+    }
+
+    @Test
+    void testLimitRequestTasks() {
+        final BulkheadScheduler scheduler = new BulkheadScheduler(Schedulers.io(), 2);
+        final AtomicInteger count = new AtomicInteger();
+        final CompletableFuture<Void> p0 = new CompletableFuture<>();
+        final CompletableFuture<Void> p1 = new CompletableFuture<>();
+        scheduler.schedule(newTask(p0, count));
+        scheduler.schedule(newTask(p1, count));
+        assertEquals(2, count.get());
+        assertEquals(2, scheduler.inflight());
+
+        assertThrows(RejectedExecutionException.class,
+                () -> scheduler.schedule(newTask(new CompletableFuture<>(), count)));
+        assertEquals(2, count.get());
+
+        p0.complete(null);
+        assertEquals(1, scheduler.inflight());
+        scheduler.schedule(newTask(new CompletableFuture<>(), count));
+        assertEquals(3, count.get());
+        assertEquals(2, scheduler.inflight());
+    }
+
+    @Test
+    void testLimitRunnable() {
+        final BulkheadScheduler scheduler = new BulkheadScheduler(Schedulers.io(), 1);
+        final AtomicInteger count = new AtomicInteger();
+        scheduler.schedule(count::incrementAndGet);
+        scheduler.schedule(count::incrementAndGet);
+        assertEquals(2, count.get());
+        assertEquals(0, scheduler.inflight());
+
+        final BulkheadScheduler rejected = new BulkheadScheduler(new Scheduler() {
+            @Override
+            public String name() {
+                return "foo";
+            }
+
+            @Override
+            public void schedule(Runnable cmd) {
+                throw new RejectedExecutionException();
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        }, 1);
+        assertThrows(RejectedExecutionException.class, () -> rejected.schedule(count::incrementAndGet));
+        assertEquals(0, rejected.inflight());
+    }
+
+    private static RequestTask newTask(CompletableFuture<Void> promise, AtomicInteger count) {
+        return RequestTaskImpl.newRequestTask(MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build(),
+                promise,
+                count::incrementAndGet);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.QueueSheddingOptionsConfigure;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueueSheddingSchedulerTest {
+
+    @Test
+    void testWrap() {
+        final Scheduler delegate = mock(Scheduler.class);
+        when(delegate.name()).thenReturn("foo");
+        assertSame(delegate, Schedulers.shedding(delegate, null));
+
+        final Scheduler scheduler = Schedulers.shedding(delegate, QueueSheddingOptionsConfigure.defaultOpts());
+        assertTrue(scheduler instanceof QueueSheddingScheduler);
+        assertEquals("foo", scheduler.name());
+        scheduler.shutdown();
+        verify(delegate).shutdown();
+
+        final Runnable runnable = () -> {
+        };
+        scheduler.schedule(runnable);
+        verify(delegate).schedule(runnable);
+
+        final ExecutorScheduler executor = Schedulers.fromExecutor("bar", Executors.newSingleThreadExecutor());
+        final Scheduler wrapped = Schedulers.shedding(executor, QueueSheddingOptionsConfigure.defaultOpts());
+        assertTrue(wrapped instanceof ExecutorScheduler);
+        assertSame(executor.executor(), ((ExecutorScheduler) wrapped).executor());
+        wrapped.shutdown();
+
+        assertThrows(IllegalArgumentException.class, () -> Schedulers.shedding(delegate,
+                QueueSheddingOptionsConfigure.newOpts().targetMillis(10L).intervalMillis(5L).configured()));
+    }
+
+    @Test
+    void testShouldShed() {
+        final QueueSheddingScheduler scheduler = new QueueSheddingScheduler(Schedulers.io(),
+                QueueSheddingOptionsConfigure.newOpts().targetMillis(5L).intervalMillis(100L).configured());
+        final long ms = TimeUnit.MILLISECONDS.toNanos(1L);
+        final long start = System.nanoTime();
+
+        // not overloaded: never shed
+        assertFalse(scheduler.shouldShed(start, 50L * ms));
+        assertFalse(scheduler.shouldShed(start, 101L * ms));
+        assertFalse(scheduler.isOverloaded());
+
+        // the minimum delay of last interval exceeds the target: limited by target
+        assertTrue(scheduler.shouldShed(start + 200L * ms, 10L * ms));
+        assertTrue(scheduler.isOverloaded());
+        assertFalse(scheduler.shouldShed(start + 210L * ms, 1L * ms));
+
+        // the queue has been drained in last interval
+        assertFalse(scheduler.shouldShed(start + 400L * ms, 10L * ms));
+        assertFalse(scheduler.isOverloaded());
+    }
+
+    @Test
+    void testShedRequestTask() throws InterruptedException {
+        final List<Runnable> queue = new ArrayList<>();
+        final QueueSheddingScheduler scheduler = new QueueSheddingScheduler(new Scheduler() {
+            @Override
+            public String name() {
+                return "foo";
+            }
+
+            @Override
+            public void schedule(Runnable cmd) {
+                queue.add(cmd);
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        }, QueueSheddingOptionsConfigure.newOpts().targetMillis(1L).intervalMillis(10L).configured());
+
+        final AtomicInteger count = new AtomicInteger();
+        final AsyncResponse response0 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> promise0 = new CompletableFuture<>();
+        scheduler.schedule(RequestTaskImpl.newRequestTask(MockAsyncRequest.aMockRequest().build(),
+                response0, promise0, count::incrementAndGet));
+        final AsyncResponse response1 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> promise1 = new CompletableFuture<>();
+        scheduler.schedule(RequestTaskImpl.newRequestTask(MockAsyncRequest.aMockRequest().build(),
+                response1, promise1, count::incrementAndGet));
+        assertEquals(2, queue.size());
+        assertTrue(queue.get(0) instanceof RequestTask);
+
+        // the first interval has not been overloaded
+        TimeUnit.MILLISECONDS.sleep(20L);
+        queue.get(0).run();
+        assertEquals(1, count.get());
+        assertFalse(promise0.isDone());
+
+        // the minimum queueing time of last interval exceeds the target
+        TimeUnit.MILLISECONDS.sleep(20L);
+        queue.get(1).run();
+        assertEquals(1, count.get());
+        assertEquals(503, response1.status());
+        assertTrue(promise1.isDone());
+    }
+
+    @Test
+    void testShedByDefaultRejectedHandler() {
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> promise = new CompletableFuture<>();
+        Schedulers.rejectShed(RequestTaskImpl.newRequestTask(MockAsyncRequest.aMockRequest().build(),
+                response, promise, () -> {
+                }), "foo");
+        assertEquals(503, response.status());
+        assertTrue(promise.isDone());
+    }
+
+    @Test
+    void testShedByRejectedHandler() throws InterruptedException {
+        final List<Runnable> queue = new ArrayList<>();
+        final Scheduler delegate = mock(Scheduler.class);
+        when(delegate.name()).thenReturn("foo");
+        doAnswer(invocation -> queue.add(invocation.getArgument(0))).when(delegate).schedule(any());
+        final AtomicReference<RequestTask> rejected = new AtomicReference<>();
+        final AtomicReference<String> reason = new AtomicReference<>();
+        final Scheduler scheduler = Schedulers.shedding(delegate,
+                QueueSheddingOptionsConfigure.newOpts().targetMillis(1L).intervalMillis(10L).configured(),
+                (task, r) -> {
+                    rejected.set(task);
+                    reason.set(r);
+                });
+
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        final AtomicInteger count = new AtomicInteger();
+        scheduler.schedule(RequestTaskImpl.newRequestTask(MockAsyncRequest.aMockRequest().build(),
+                MockAsyncResponse.aMockResponse().build(), new CompletableFuture<>(), count::incrementAndGet));
+        scheduler.schedule(RequestTaskImpl.newRequestTask(request,
+                MockAsyncResponse.aMockResponse().build(), new CompletableFuture<>(), count::incrementAndGet));
+        TimeUnit.MILLISECONDS.sleep(20L);
+        queue.get(0).run();
+        assertEquals(1, count.get());
+        assertNull(rejected.get());
+        TimeUnit.MILLISECONDS.sleep(20L);
+        queue.get(1).run();
+        assertEquals(1, count.get());
+        assertSame(request, rejected.get().request());
+        assertTrue(reason.get().startsWith("Overloaded scheduler(foo)"));
+    }
+}
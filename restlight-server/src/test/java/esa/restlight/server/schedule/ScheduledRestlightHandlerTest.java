@@ -17,7 +17,11 @@ package esa.restlight.server.schedule;
 
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.impl.StreamingBodyImpl;
 import esa.restlight.server.bootstrap.DispatcherHandler;
+import esa.restlight.server.config.AdmissionOptionsConfigure;
+import esa.restlight.server.config.SchedulingOptionsConfigure;
+import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.config.ServerOptionsConfigure;
 import esa.restlight.server.route.Mapping;
 import esa.restlight.server.route.Route;
@@ -25,25 +29,36 @@ import esa.restlight.server.util.LoggerUtils;
 import esa.restlight.server.util.PromiseUtils;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.handler.codec.TooLongFrameException;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static esa.restlight.server.route.Mapping.get;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
 
 class ScheduledRestlightHandlerTest {
 
@@ -81,6 +96,42 @@ class ScheduledRestlightHandlerTest {
         handler1.shutdown();
     }
 
+    @Test
+    void testBulkheadSchedulers() {
+        final AtomicInteger shutdown = new AtomicInteger();
+        final Scheduler underlying = new Scheduler() {
+            @Override
+            public String name() {
+                return "foo";
+            }
+
+            @Override
+            public void schedule(Runnable command) {
+                command.run();
+            }
+
+            @Override
+            public void shutdown() {
+                shutdown.incrementAndGet();
+            }
+        };
+        final Scheduler bulkhead1 = Schedulers.bulkhead(underlying, 1);
+        final Scheduler bulkhead2 = Schedulers.bulkhead(underlying, 2);
+        final ScheduledRestlightHandler handler =
+                new ScheduledRestlightHandler(ServerOptionsConfigure.defaultOpts(), new ForRouteAssertion() {
+                    @Override
+                    public List<Route> routes() {
+                        return Arrays.asList(Route.route(get("/foo")).schedule(bulkhead1),
+                                Route.route(get("/bar")).schedule(bulkhead2));
+                    }
+                });
+        handler.onStart();
+        assertEquals(1, handler.schedulers().size());
+        assertSame(bulkhead1, handler.schedulers().get(0));
+        handler.shutdown();
+        assertEquals(1, shutdown.get());
+    }
+
     @Test
     void testUnfinished() {
         final CompletableFuture<Void> hook = new CompletableFuture<>();
@@ -144,6 +195,65 @@ class ScheduledRestlightHandlerTest {
         assertEquals(HttpResponseStatus.NO_CONTENT.code(), res2.status());
     }
 
+    @Test
+    void testAdmission() {
+        final ServerOptions options = ServerOptionsConfigure.defaultOpts();
+        options.setScheduling(SchedulingOptionsConfigure.newOpts()
+                .admission(AdmissionOptionsConfigure.newOpts()
+                        .enable(true)
+                        .cpuLoadThreshold(0D)
+                        .queueThreshold(0D)
+                        .eventLoopLagMillis(0L)
+                        .maxRejectRate(100D)
+                        .intervalMillis(60_000L)
+                        .configured())
+                .configured());
+        final ScheduledRestlightHandler handler = new ScheduledRestlightHandler(options, new ForRouteAssertion());
+        handler.onStart();
+        assertNotNull(handler.admission());
+        final AsyncResponse res1 = MockAsyncResponse.aMockResponse().build();
+        assertTrue(handler.process(MockAsyncRequest.aMockRequest().build(), res1).isDone());
+        assertEquals(HttpResponseStatus.NO_CONTENT.code(), res1.status());
+
+        for (int i = 0; i < 10; i++) {
+            handler.admission().update(2D);
+        }
+        final AsyncResponse res2 = MockAsyncResponse.aMockResponse().build();
+        assertTrue(handler.process(MockAsyncRequest.aMockRequest().build(), res2).isDone());
+        assertEquals(HttpResponseStatus.SERVICE_UNAVAILABLE.code(), res2.status());
+
+        // the streaming body of the rejected request should be discarded
+        final StreamingBodyImpl body = new StreamingBodyImpl(UnpooledByteBufAllocator.DEFAULT);
+        final ByteBuf chunk = Unpooled.copiedBuffer("foo", StandardCharsets.UTF_8);
+        body.onData(chunk);
+        chunk.release();
+        final AsyncRequest req3 = spy(MockAsyncRequest.aMockRequest().build());
+        doReturn(body).when(req3).bodyStream();
+        final AsyncResponse res3 = MockAsyncResponse.aMockResponse().build();
+        assertTrue(handler.process(req3, res3).isDone());
+        assertEquals(HttpResponseStatus.SERVICE_UNAVAILABLE.code(), res3.status());
+        assertEquals(0, chunk.refCnt());
+        assertEquals(0L, body.buffered());
+        handler.shutdown();
+    }
+
+    @Test
+    void testAggregationFailed() {
+        final AsyncResponse res1 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> p1 = new CompletableFuture<>();
+        ScheduledRestlightHandler.aggregationFailed(MockAsyncRequest.aMockRequest().build(), res1, p1,
+                new CompletionException(new TooLongFrameException()));
+        assertTrue(p1.isDone());
+        assertEquals(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code(), res1.status());
+
+        final AsyncResponse res2 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> p2 = new CompletableFuture<>();
+        ScheduledRestlightHandler.aggregationFailed(MockAsyncRequest.aMockRequest().build(), res2, p2,
+                new IllegalStateException());
+        assertTrue(p2.isDone());
+        assertEquals(HttpResponseStatus.INTERNAL_SERVER_ERROR.code(), res2.status());
+    }
+
     @Test
     void testRequestTaskHookWithFixedScheduler() {
         final AsyncRequest req1 = MockAsyncRequest.aMockRequest().build();
@@ -19,8 +19,11 @@ import esa.restlight.server.config.TimeoutOptions;
 import esa.restlight.server.config.TimeoutOptionsConfigure;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -28,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class SchedulersTest {
@@ -163,4 +167,25 @@ class SchedulersTest {
         assertTrue(wrapped6 instanceof TimeoutScheduler);
     }
 
+    @Test
+    void testVirtual() throws InterruptedException {
+        if (!Schedulers.isVirtualThreadSupported()) {
+            assertThrows(UnsupportedOperationException.class, Schedulers::virtual);
+            return;
+        }
+        final ExecutorScheduler scheduler = Schedulers.virtual();
+        assertEquals(Schedulers.VIRTUAL, scheduler.name());
+        assertFalse(Schedulers.isBiz(scheduler));
+        final AtomicReference<String> thread = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        scheduler.schedule(() -> {
+            thread.set(Thread.currentThread().getName());
+            latch.countDown();
+        });
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        assertTrue(thread.get().startsWith("Restlight-Virtual#"));
+        scheduler.shutdown();
+        assertTrue(((ExecutorService) scheduler.executor()).isShutdown());
+    }
+
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagsTest {
+
+    @Test
+    void testXxHash64() {
+        assertEquals(0xEF46DB3751D8E999L, hash(""));
+        assertEquals(0xD24EC4F1A98C6E5BL, hash("a"));
+        assertEquals(0x44BC2CF5AD770999L, hash("abc"));
+        assertEquals(0xFBCEA83C8A378BF1L, hash("Nobody inspects the spammish repetition"));
+    }
+
+    @Test
+    void testWeak() {
+        final ByteBuf buf = Unpooled.copiedBuffer("xabc", StandardCharsets.US_ASCII);
+        buf.readByte();
+        assertEquals("W/\"44bc2cf5ad770999\"", ETags.weak(buf));
+        assertEquals(1, buf.readerIndex());
+        assertEquals("W/\"44bc2cf5ad770999\"", ETags.weak(buf, 1, 3));
+    }
+
+    @Test
+    void testMatches() {
+        assertTrue(ETags.matches("W/\"1\"", "W/\"1\""));
+        assertTrue(ETags.matches("\"1\"", "W/\"1\""));
+        assertTrue(ETags.matches("\"0\", W/\"1\"", "W/\"1\""));
+        assertTrue(ETags.matches("*", "W/\"1\""));
+        assertFalse(ETags.matches("\"0\", \"2\"", "W/\"1\""));
+        assertFalse(ETags.matches(null, "W/\"1\""));
+        assertFalse(ETags.matches("\"1\"", null));
+    }
+
+    private static long hash(String s) {
+        final byte[] bytes = s.getBytes(StandardCharsets.US_ASCII);
+        return ETags.xxHash64(Unpooled.wrappedBuffer(bytes), 0, bytes.length, 0L);
+    }
+}
@@ -64,6 +64,14 @@ class MappingUtilsTest {
         assertEquals("text/html", combined.produces()[0]);
     }
 
+    @Test
+    void testCombinePriority() {
+        assertEquals(1, MappingUtils.combine(Mapping.mapping().priority(1), Mapping.mapping()).priority());
+        assertEquals(2, MappingUtils.combine(Mapping.mapping().priority(1), Mapping.mapping().priority(2))
+                .priority());
+        assertEquals(Mapping.DEFAULT_PRIORITY, MappingUtils.combine(Mapping.mapping(), Mapping.mapping()).priority());
+    }
+
     @Test
     void testCombineMethod() {
         final Mapping parent = Mapping.mapping()
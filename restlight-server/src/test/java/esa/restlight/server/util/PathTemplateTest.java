@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathTemplateTest {
+
+    @Test
+    void testCompile() {
+        assertNull(PathTemplate.compile(null));
+        assertNull(PathTemplate.compile(""));
+        assertNull(PathTemplate.compile("foo/{bar}"));
+        assertNull(PathTemplate.compile("/foo/bar"));
+        assertNull(PathTemplate.compile("/foo/*/{bar}"));
+        assertNull(PathTemplate.compile("/foo/**/{bar}"));
+        assertNull(PathTemplate.compile("/foo/b?r/{bar}"));
+        assertNull(PathTemplate.compile("/foo/{bar:[a-z]+}"));
+        assertNull(PathTemplate.compile("/foo/{bar}{baz}"));
+        assertNull(PathTemplate.compile("/foo/{bar}/{bar}"));
+        assertNull(PathTemplate.compile("/foo/{}"));
+
+        final PathTemplate template = PathTemplate.compile("/foo/{bar}/a{baz}.json");
+        assertNotNull(template);
+        assertEquals(2, template.variables());
+        assertEquals(0, template.indexOf("bar"));
+        assertEquals(1, template.indexOf("baz"));
+        assertEquals(-1, template.indexOf("qux"));
+        assertEquals("bar", template.nameAt(0));
+        assertEquals("/foo/{bar}/a{baz}.json", template.pattern());
+    }
+
+    @Test
+    void testMatch() {
+        final PathTemplate template = PathTemplate.compile("/foo/{bar}/a{baz}.json");
+        assertNotNull(template);
+        final PathVariables vars = template.match("/foo/1/a2.json");
+        assertNotNull(vars);
+        assertSame(template, vars.template());
+        assertEquals("1", vars.get(0));
+        assertEquals("2", vars.get(1));
+        assertEquals("1", vars.get("bar"));
+        assertEquals("2", vars.get("baz"));
+        assertNull(vars.get("qux"));
+        assertTrue(vars.containsKey("bar"));
+        assertFalse(vars.containsKey("qux"));
+
+        final Map<String, String> expect = new LinkedHashMap<>();
+        expect.put("bar", "1");
+        expect.put("baz", "2");
+        assertEquals(expect, vars);
+
+        assertEquals("1", vars.put("bar", "3"));
+        assertEquals("3", vars.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> vars.put("qux", "4"));
+
+        assertNull(template.match("/foo/1/b2.json"));
+        assertNull(template.match("/foo/1/a2.xml"));
+        assertNull(template.match("/foo/1"));
+        assertNull(template.match("/foo/1/a2.json/"));
+        assertNull(template.match("/foo/1/a2.json/baz"));
+        assertNull(template.match("foo/1/a2.json"));
+        assertNotNull(template.match("//foo//1/a2.json"));
+    }
+
+    @Test
+    void testSameAsPathMatcher() {
+        final String[] patterns = {
+                "/{a}",
+                "/{a}/",
+                "/foo/{a}",
+                "/foo/{a}/bar/{b}",
+                "/foo/x{a}",
+                "/foo/{a}.json",
+                "/foo/x{a}.json",
+        };
+        final String[] paths = {
+                "/", "/foo", "/foo/", "/foo/1", "/foo/1/", "/foo/x1", "/foo/x", "/foo/1.json", "/foo/x1.json",
+                "/foo/x.json", "/foo/.json", "/foo/1/bar/2", "/foo/1/bar", "/foo/1/baz/2", "//foo/1", "foo/1",
+                "/Foo/1",
+        };
+        for (String pattern : patterns) {
+            final PathTemplate template = PathTemplate.compile(pattern);
+            assertNotNull(template);
+            final PathMatcher matcher = new PathMatcher(pattern);
+            for (String path : paths) {
+                assertEquals(matcher.matchAndExtractUriTemplateVariables(path),
+                        template.match(path),
+                        pattern + " -> " + path);
+            }
+        }
+    }
+}
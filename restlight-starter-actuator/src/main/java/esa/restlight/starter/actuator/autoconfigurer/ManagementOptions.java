@@ -63,9 +63,11 @@ public class ManagementOptions extends RestlightOptions {
         sb.append(", validationMessageFile='").append(getValidationMessageFile()).append('\'');
         sb.append(", contextPath='").append(getContextPath()).append('\'');
         sb.append(", serialize=").append(getSerialize());
+        sb.append(", etag=").append(isEtag());
         sb.append(", compress=").append(isCompress());
         sb.append(", decompress=").append(isDecompress());
         sb.append(", maxContentLength=").append(getMaxContentLength());
+        sb.append(", streamingBodyEnable=").append(isStreamingBodyEnable());
         sb.append(", maxInitialLineLength=").append(getMaxInitialLineLength());
         sb.append(", maxHeaderSize=").append(getMaxHeaderSize());
         sb.append(", soBacklog=").append(getSoBacklog());
@@ -73,6 +75,7 @@ public class ManagementOptions extends RestlightOptions {
         sb.append(", writeBufferLowWaterMark=").append(getWriteBufferLowWaterMark());
         sb.append(", idleTimeSeconds=").append(getIdleTimeSeconds());
         sb.append(", keepAliveEnable=").append(isKeepAliveEnable());
+        sb.append(", metricsEnable=").append(isMetricsEnable());
         sb.append(", scheduling=").append(getScheduling());
         sb.append(", route=").append(getRoute());
         sb.append(", ssl=").append(getSsl());
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.meter;
+
+import esa.commons.Checks;
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.bootstrap.DispatcherHandler;
+import esa.restlight.server.metrics.LatencyHistogram;
+import esa.restlight.server.metrics.RouteMetrics;
+import esa.restlight.server.metrics.RouteMetricsRegistry;
+import esa.restlight.spring.util.RestlightDeployContextAware;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Binds the {@link RouteMetrics} of each route to the {@link MeterRegistry}, which is available only if the {@code
+ * restlight.server.metrics-enable} is {@code true}.
+ * <p>
+ * Meters are tagged by the http methods and the path templates of the routes:
+ * <ul>
+ * <li>{@code restlight.route.requests}: number of the completed requests</li>
+ * <li>{@code restlight.route.errors}: number of the requests ended with an error or a 5xx status</li>
+ * <li>{@code restlight.route.duration}: time spent in each phase, tagged by {@code phase} which is one of {@code
+ * total}, {@code queue}, {@code resolve}, {@code handle} and {@code serialize}, with {@code
+ * restlight.route.duration.percentile} and {@code restlight.route.duration.max} computed from the histogram of the
+ * phase</li>
+ * </ul>
+ * The percentiles and maximum are decaying values which only reflect the requests completed in last 2 minutes, while
+ * the others are cumulative since startup. All of them of a phase are read from one snapshot of the histogram which is
+ * reused for a second, so that a scrape copies the buckets of each histogram only once.
+ */
+public class RestlightRouteMetricsBinder implements RestlightDeployContextAware {
+
+    private static final String REQUESTS = "restlight.route.requests";
+    private static final String ERRORS = "restlight.route.errors";
+    private static final String DURATION = "restlight.route.duration";
+    private static final String PERCENTILE = DURATION + ".percentile";
+    private static final String MAX = DURATION + ".max";
+    private static final double[] PERCENTILES = {0.5D, 0.9D, 0.99D};
+
+    private final MeterRegistry registry;
+
+    public RestlightRouteMetricsBinder(MeterRegistry registry) {
+        Checks.checkNotNull(registry);
+        this.registry = registry;
+    }
+
+    @Override
+    public void setDeployContext(DeployContext<? extends RestlightOptions> ctx) {
+        final Optional<DispatcherHandler> handler = ctx.dispatcherHandler();
+        if (!handler.isPresent()) {
+            return;
+        }
+        handler.get().metrics().ifPresent(metrics -> {
+            // create the metrics of the known routes ahead so that they could be seen before the first request
+            handler.get().routes().forEach(metrics::metrics);
+            metrics.addListener(this::bind);
+        });
+    }
+
+    void bind(RouteMetrics metrics) {
+        final Tags tags = Tags.of("method", metrics.method(), "uri", metrics.uri());
+        FunctionCounter.builder(REQUESTS, metrics, RouteMetrics::requests)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(ERRORS, metrics, RouteMetrics::errors)
+                .tags(tags)
+                .register(registry);
+        bindHistogram(metrics, tags.and("phase", "total"), RouteMetrics::latency);
+        bindHistogram(metrics, tags.and("phase", "queue"), RouteMetrics::queueWait);
+        bindHistogram(metrics, tags.and("phase", "resolve"), RouteMetrics::resolve);
+        bindHistogram(metrics, tags.and("phase", "handle"), RouteMetrics::handle);
+        bindHistogram(metrics, tags.and("phase", "serialize"), RouteMetrics::serialize);
+    }
+
+    private void bindHistogram(RouteMetrics metrics,
+                               Tags tags,
+                               Function<RouteMetrics, LatencyHistogram> histogram) {
+        final LatencyHistogram h = histogram.apply(metrics);
+        FunctionTimer.builder(DURATION, h, LatencyHistogram::count,
+                v -> v.totalTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .register(registry);
+        final SnapshotCache snapshot = new SnapshotCache(h);
+        TimeGauge.builder(MAX, snapshot, TimeUnit.NANOSECONDS, v -> v.get().max(TimeUnit.NANOSECONDS))
+                .strongReference(true)
+                .tags(tags)
+                .register(registry);
+        for (double p : PERCENTILES) {
+            TimeGauge.builder(PERCENTILE, snapshot, TimeUnit.NANOSECONDS,
+                    v -> v.get().percentile(p, TimeUnit.NANOSECONDS))
+                    .strongReference(true)
+                    .tags(tags.and("percentile", String.valueOf(p)))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Holds the latest snapshot of a histogram so that the gauges read in the same scrape share it.
+     */
+    private static final class SnapshotCache {
+
+        private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+        private final LatencyHistogram histogram;
+        private volatile LatencyHistogram.Snapshot snapshot;
+        private volatile long expireAt;
+
+        private SnapshotCache(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        private LatencyHistogram.Snapshot get() {
+            final long now = System.nanoTime();
+            LatencyHistogram.Snapshot s = snapshot;
+            if (s == null || now - expireAt >= 0L) {
+                // concurrent scrapes may take snapshots at the same time, which is harmless
+                s = histogram.snapshot();
+                snapshot = s;
+                expireAt = now + TTL_NANOS;
+            }
+            return s;
+        }
+    }
+}
@@ -35,7 +35,11 @@ import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.DefaultCookie;
 import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
+import io.netty.util.NetUtil;
 
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -105,6 +109,16 @@ public class MockAsyncRequest implements AsyncRequest {
         return this.remoteAddr;
     }
 
+    @Override
+    public SocketAddress remoteAddress() {
+        if (remoteAddr == null) {
+            return null;
+        }
+        // never resolve the host name
+        final InetAddress address = NetUtil.createInetAddressFromIpAddressString(remoteAddr);
+        return address == null ? null : new InetSocketAddress(address, Math.max(remotePort, 0));
+    }
+
     @Override
     public String tcpSourceAddr() {
         return this.tcpSourceIp;